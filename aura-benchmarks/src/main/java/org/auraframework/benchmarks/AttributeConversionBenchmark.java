@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.benchmarks;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.auraframework.impl.java.converter.ConverterServiceImpl;
+import org.auraframework.service.ConverterService;
+import org.auraframework.util.type.Converter;
+import org.auraframework.util.type.converter.BigDecimalToIntegerConverter;
+import org.auraframework.util.type.converter.BigDecimalToLongConverter;
+import org.auraframework.util.type.converter.BooleanToStringConverter;
+import org.auraframework.util.type.converter.IntegerToStringConverter;
+import org.auraframework.util.type.converter.StringToBigDecimalConverter;
+import org.auraframework.util.type.converter.StringToBooleanConverter;
+import org.auraframework.util.type.converter.StringToIntegerConverter;
+import org.auraframework.util.type.converter.StringToListConverter;
+import org.auraframework.util.type.converter.StringToLongConverter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Attribute value conversion, as done by JavaTypeDef.valueOf when attributes are set and action parameters read.
+ *
+ * The mix is markup attribute values (strings to the declared types), values that already have the right type,
+ * and lookups for pairs that have no converter at all.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AttributeConversionBenchmark {
+    private static final Object[] VALUES = { "42", "true", "1234.5", "9876543210", "[\"a\",\"b\"]", new BigDecimal(7),
+            Integer.valueOf(3), Boolean.FALSE, "already a string", new BigDecimal("12345678901") };
+    private static final Class<?>[] TYPES = { Integer.class, Boolean.class, BigDecimal.class, Long.class, List.class,
+            Integer.class, String.class, String.class, String.class, Long.class };
+
+    private ConverterService converterService;
+
+    @Setup
+    public void setup() {
+        Converter<?, ?>[] converters = { new StringToIntegerConverter(), new StringToBooleanConverter(),
+                new StringToBigDecimalConverter(), new StringToLongConverter(), new StringToListConverter(),
+                new BigDecimalToIntegerConverter(), new BigDecimalToLongConverter(), new IntegerToStringConverter(),
+                new BooleanToStringConverter() };
+        converterService = new ConverterServiceImpl(converters, null, null, null);
+    }
+
+    @Benchmark
+    public int convertAttributes() {
+        int hash = 0;
+        for (int i = 0; i < VALUES.length; i++) {
+            Object converted = converterService.convert(VALUES[i], TYPES[i], null, false);
+            hash += converted.hashCode();
+        }
+        return hash;
+    }
+
+    @Benchmark
+    public boolean missingConverters() {
+        return converterService.hasConverter(String.class, Runnable.class)
+                | converterService.hasConverter(Integer.class, List.class, "String")
+                | converterService.hasLocalizedConverter(String.class, Integer.class);
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.benchmarks;
+
+import java.lang.ref.WeakReference;
+import java.util.Collections;
+
+import org.auraframework.AuraConfiguration;
+import org.auraframework.AuraDeprecated;
+import org.auraframework.def.ApplicationDef;
+import org.auraframework.def.DefDescriptor;
+import org.auraframework.service.CachingService;
+import org.auraframework.service.ContextService;
+import org.auraframework.service.DefinitionService;
+import org.auraframework.service.ServerService;
+import org.auraframework.system.AuraContext;
+import org.auraframework.system.AuraContext.Authentication;
+import org.auraframework.system.AuraContext.Format;
+import org.auraframework.system.AuraContext.Mode;
+import org.auraframework.system.SourceListener;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import test.org.auraframework.impl.adapter.ConfigAdapterImpl;
+
+/**
+ * A running Aura, shared by all the threads of a benchmark.
+ *
+ * This boots the same spring configuration as the command line tools do, with the components from aura-components
+ * on the classpath. Contexts are thread local, so each benchmark starts its own, usually per iteration.
+ */
+@State(Scope.Benchmark)
+public class AuraState {
+    private AnnotationConfigApplicationContext applicationContext;
+
+    DefinitionService definitionService;
+    ContextService contextService;
+    ServerService serverService;
+    CachingService cachingService;
+
+    @Setup(Level.Trial)
+    public void boot() {
+        applicationContext = new AnnotationConfigApplicationContext(AuraConfiguration.class, ConfigAdapterImpl.class);
+        applicationContext.getBean(AuraDeprecated.class);
+        definitionService = applicationContext.getBean(DefinitionService.class);
+        contextService = applicationContext.getBean(ContextService.class);
+        serverService = applicationContext.getBean(ServerService.class);
+        cachingService = applicationContext.getBean(CachingService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void shutdown() {
+        if (contextService.isEstablished()) {
+            contextService.endContext();
+        }
+        applicationContext.close();
+    }
+
+    DefDescriptor<ApplicationDef> getApplicationDescriptor(String name) {
+        return definitionService.getDefDescriptor(name, ApplicationDef.class);
+    }
+
+    /**
+     * Start a context on the current thread, as a request for the given application would.
+     */
+    AuraContext startContext(Format format, DefDescriptor<ApplicationDef> appDesc) {
+        return contextService.startContext(Mode.PROD, format, Authentication.AUTHENTICATED, appDesc);
+    }
+
+    void endContext() {
+        contextService.endContext();
+    }
+
+    /**
+     * Drop every definition, dependency and output cache, as a source change would.
+     */
+    void invalidateCaches() {
+        cachingService.notifyDependentSourceChange(Collections.<WeakReference<SourceListener>> emptySet(), null,
+                SourceListener.SourceMonitorEvent.CHANGED, null);
+    }
+}
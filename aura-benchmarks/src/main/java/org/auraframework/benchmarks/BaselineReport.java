@@ -0,0 +1,189 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.auraframework.util.json.JsonReader;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.google.common.collect.Maps;
+import com.google.common.io.Files;
+
+/**
+ * Runs the benchmarks with allocation profiling, writes the results as JSON, and compares them to an earlier run.
+ *
+ * <pre>
+ * java -cp aura-benchmarks/target/benchmarks.jar org.auraframework.benchmarks.BaselineReport \
+ *         [-b baseline.json] result.json [regexp...]
+ * </pre>
+ *
+ * The result file is the usual JMH JSON report, so a result from one commit is the baseline for the next. Both runs
+ * have to be done on the same machine and JVM for the comparison to mean anything, the heap is fixed so that GC
+ * sizing does not move the numbers around.
+ *
+ * A change is only flagged when the scores are further apart than their combined error, and allocation is reported
+ * per operation (gc.alloc.rate.norm), which is stable enough to compare even on a noisy machine.
+ */
+public final class BaselineReport {
+    private static final String ALLOCATION = "\u00b7gc.alloc.rate.norm";
+
+    private BaselineReport() {
+    }
+
+    public static void main(String[] args) throws IOException, RunnerException {
+        File baselineFile = null;
+        int i = 0;
+        if (args.length > 1 && "-b".equals(args[0])) {
+            baselineFile = new File(args[1]);
+            i = 2;
+        }
+        if (args.length <= i) {
+            System.err.println("Usage: BaselineReport [-b baseline.json] result.json [regexp...]");
+            System.exit(1);
+        }
+        File resultFile = new File(args[i++]);
+
+        // read the baseline first, it may be the same file as the result.
+        Map<String, Score> baseline = baselineFile != null ? readBaseline(baselineFile) : null;
+
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .addProfiler(GCProfiler.class)
+                .jvmArgsAppend("-Xms2g", "-Xmx2g")
+                .shouldFailOnError(true)
+                .resultFormat(ResultFormatType.JSON)
+                .result(resultFile.getPath());
+        for (; i < args.length; i++) {
+            options.include(args[i]);
+        }
+        Collection<RunResult> results = new Runner(options.build()).run();
+
+        if (baseline != null) {
+            compare(baseline, results);
+        }
+    }
+
+    private static void compare(Map<String, Score> baseline, Collection<RunResult> results) {
+        System.out.println();
+        System.out.println(String.format("%-72s %14s %14s %8s %12s %12s", "Benchmark", "Baseline", "Score",
+                "Change", "B/op before", "B/op after"));
+        for (RunResult result : results) {
+            BenchmarkParams params = result.getParams();
+            Map<String, String> values = Maps.newTreeMap();
+            for (String key : params.getParamsKeys()) {
+                values.put(key, params.getParam(key));
+            }
+            String key = key(params.getBenchmark(), values);
+
+            Result<?> primary = result.getPrimaryResult();
+            Result<?> allocation = result.getSecondaryResults().get(ALLOCATION);
+            Score after = new Score(primary.getScore(), primary.getScoreError(),
+                    allocation != null ? allocation.getScore() : Double.NaN);
+            Score before = baseline.get(key);
+            if (before == null) {
+                System.out.println(String.format("%-72s %14s %14.3f %8s %12s %12.0f", key, "-", after.score, "new",
+                        "-", after.allocated));
+                continue;
+            }
+            double change = (after.score - before.score) / before.score * 100;
+            boolean significant = Math.abs(after.score - before.score) > errorOf(before) + errorOf(after);
+            boolean worse = params.getMode() == Mode.Throughput ? after.score < before.score
+                    : after.score > before.score;
+            String flag = !significant ? "" : worse ? "  SLOWER" : "  faster";
+            System.out.println(String.format("%-72s %14.3f %14.3f %+7.1f%% %12.0f %12.0f%s", key, before.score,
+                    after.score, change, before.allocated, after.allocated, flag));
+        }
+    }
+
+    private static double errorOf(Score score) {
+        return Double.isNaN(score.error) ? 0 : score.error;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Score> readBaseline(File file) throws IOException {
+        Map<String, Score> baseline = Maps.newHashMap();
+        List<Object> entries;
+        try (Reader reader = Files.newReader(file, StandardCharsets.UTF_8)) {
+            entries = (List<Object>) new JsonReader().read(reader);
+        }
+        for (Object o : entries) {
+            Map<String, Object> entry = (Map<String, Object>) o;
+            Map<String, String> values = new TreeMap<>();
+            Map<String, Object> params = (Map<String, Object>) entry.get("params");
+            if (params != null) {
+                for (Map.Entry<String, Object> param : params.entrySet()) {
+                    values.put(param.getKey(), String.valueOf(param.getValue()));
+                }
+            }
+            Map<String, Object> primary = (Map<String, Object>) entry.get("primaryMetric");
+            Map<String, Object> secondary = (Map<String, Object>) entry.get("secondaryMetrics");
+            Map<String, Object> allocation = secondary != null ? (Map<String, Object>) secondary.get(ALLOCATION)
+                    : null;
+            baseline.put(key((String) entry.get("benchmark"), values),
+                    new Score(number(primary.get("score")), number(primary.get("scoreError")),
+                            allocation != null ? number(allocation.get("score")) : Double.NaN));
+        }
+        return baseline;
+    }
+
+    /**
+     * JMH writes NaN and infinities as strings.
+     */
+    private static double number(Object value) {
+        if (value instanceof Number) {
+            return ((Number) value).doubleValue();
+        }
+        try {
+            return Double.parseDouble(String.valueOf(value));
+        } catch (NumberFormatException nfe) {
+            return Double.NaN;
+        }
+    }
+
+    private static String key(String benchmark, Map<String, String> params) {
+        String name = benchmark.startsWith(BaselineReport.class.getPackage().getName() + ".")
+                ? benchmark.substring(BaselineReport.class.getPackage().getName().length() + 1) : benchmark;
+        return params.isEmpty() ? name : name + params;
+    }
+
+    private static final class Score {
+        private final double score;
+        private final double error;
+        private final double allocated;
+
+        private Score(double score, double error, double allocated) {
+            this.score = score;
+            this.error = error;
+            this.allocated = allocated;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.benchmarks;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.auraframework.impl.util.BrowserInfo;
+import org.auraframework.system.Client;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.collect.Lists;
+
+/**
+ * User agent classification, as done for $Browser and the css client type on every request.
+ *
+ * The corpus is the user agents from the BrowserAgentTest fixture, each multiplied into version variants so that
+ * there are a couple of thousand distinct strings, replayed with a skew towards the most common ones.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BrowserInfoBenchmark {
+    private static final String CORPUS = "results/BrowserAgentTest/BrowserAgentTest.csv";
+    private static final int VARIANTS_PER_AGENT = 48;
+    private static final int REQUESTS = 16 * 1024;
+    private static final Pattern LAST_NUMBER = Pattern.compile("(\\d+)(?!.*\\d)");
+
+    private String[] requests;
+    private int next;
+
+    @Setup
+    public void setup() throws IOException {
+        List<String> agents = readUserAgents();
+        List<String> corpus = Lists.newArrayList();
+        for (String agent : agents) {
+            for (int i = 0; i < VARIANTS_PER_AGENT; i++) {
+                corpus.add(variant(agent, i));
+            }
+        }
+
+        // skew the requests, so that the few most popular agents dominate as they do in production.
+        Random random = new Random(42);
+        requests = new String[REQUESTS];
+        for (int i = 0; i < REQUESTS; i++) {
+            double skewed = Math.pow(random.nextDouble(), 3);
+            requests[i] = new String(corpus.get((int) (skewed * corpus.size())));
+        }
+    }
+
+    private String nextUserAgent() {
+        String ua = requests[next];
+        next = (next + 1) % REQUESTS;
+        return ua;
+    }
+
+    @Benchmark
+    public BrowserInfo parse() {
+        return new BrowserInfo(nextUserAgent());
+    }
+
+    @Benchmark
+    public BrowserInfo cached() {
+        return BrowserInfo.get(nextUserAgent());
+    }
+
+    @Benchmark
+    public Client.Type clientType() {
+        return new Client(nextUserAgent()).getType();
+    }
+
+    private static String variant(String agent, int i) {
+        if (i == 0) {
+            return agent;
+        }
+        Matcher matcher = LAST_NUMBER.matcher(agent);
+        if (!matcher.find()) {
+            return agent + " " + i;
+        }
+        return agent.substring(0, matcher.start()) + (Long.parseLong(matcher.group(1)) + i)
+                + agent.substring(matcher.end());
+    }
+
+    private static List<String> readUserAgents() throws IOException {
+        List<String> agents = Lists.newArrayList();
+        InputStream in = BrowserInfoBenchmark.class.getClassLoader().getResourceAsStream(CORPUS);
+        if (in == null) {
+            throw new IOException("Unable to find user agent corpus " + CORPUS);
+        }
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line = reader.readLine(); // header
+            while ((line = reader.readLine()) != null) {
+                int start = line.indexOf('"');
+                int end = line.lastIndexOf('"');
+                if (line.trim().startsWith("#") || start < 0 || end <= start) {
+                    continue;
+                }
+                agents.add(line.substring(start + 1, end));
+            }
+        }
+        return agents;
+    }
+}
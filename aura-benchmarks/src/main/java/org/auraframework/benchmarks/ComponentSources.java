@@ -0,0 +1,69 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import com.google.common.collect.Lists;
+import com.google.common.io.Files;
+
+/**
+ * The source files under aura-components, used as a corpus by the benchmarks that do not need a running Aura.
+ *
+ * Set the aura.benchmarks.components system property to point somewhere else.
+ */
+final class ComponentSources {
+    static final String COMPONENTS = System.getProperty("aura.benchmarks.components",
+            "aura-components/src/main/components");
+
+    private ComponentSources() {
+    }
+
+    /**
+     * Read the content of every file with one of the given extensions.
+     */
+    static List<String> read(String... extensions) throws IOException {
+        File root = new File(COMPONENTS);
+        if (!root.isDirectory()) {
+            throw new IOException("Unable to find components under " + root.getAbsolutePath());
+        }
+        List<String> corpus = Lists.newArrayList();
+        read(root, extensions, corpus);
+        return corpus;
+    }
+
+    private static void read(File dir, String[] extensions, List<String> corpus) throws IOException {
+        for (File file : dir.listFiles()) {
+            if (file.isDirectory()) {
+                read(file, extensions, corpus);
+            } else if (hasExtension(file.getName(), extensions)) {
+                corpus.add(Files.toString(file, StandardCharsets.UTF_8));
+            }
+        }
+    }
+
+    private static boolean hasExtension(String name, String[] extensions) {
+        for (String extension : extensions) {
+            if (name.endsWith(extension)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.auraframework.def.ApplicationDef;
+import org.auraframework.def.DefDescriptor;
+import org.auraframework.system.AuraContext.Format;
+import org.auraframework.throwable.quickfix.QuickFixException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Definition lookup through MasterDefRegistryImpl, each operation in a new context as a request would do it.
+ *
+ * <ul>
+ * <li>warm: getDef with all the global caches populated, i.e. the cost of a steady state request.
+ * <li>cold: getDef after a source change has dropped every cache, so the application and all its dependencies are
+ * parsed, validated and linked again.
+ * <li>compile: getUid with the definitions cached but not the dependencies, which is compileDE walking and hashing
+ * the whole dependency tree.
+ * </ul>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DefinitionBenchmark {
+    @Param({ "uiExamples:panelExamples", "uiExamples:gridExamples" })
+    public String app;
+
+    private AuraState aura;
+    private DefDescriptor<ApplicationDef> appDesc;
+
+    @Setup
+    public void setup(AuraState aura) throws QuickFixException {
+        this.aura = aura;
+        appDesc = aura.getApplicationDescriptor(app);
+        aura.startContext(Format.JSON, appDesc);
+        try {
+            aura.definitionService.getDefinition(appDesc);
+        } finally {
+            aura.endContext();
+        }
+    }
+
+    @Benchmark
+    public ApplicationDef warm() throws QuickFixException {
+        aura.startContext(Format.JSON, appDesc);
+        try {
+            return aura.definitionService.getDefinition(appDesc);
+        } finally {
+            aura.endContext();
+        }
+    }
+
+    @Benchmark
+    public ApplicationDef cold(NoCaches noCaches) throws QuickFixException {
+        return warm();
+    }
+
+    @Benchmark
+    public String compile(NoDependencies noDependencies) throws QuickFixException {
+        aura.startContext(Format.JSON, appDesc);
+        try {
+            return aura.definitionService.getUid(null, appDesc);
+        } finally {
+            aura.endContext();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class NoCaches {
+        @Setup(Level.Invocation)
+        public void invalidate(AuraState aura) {
+            aura.invalidateCaches();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class NoDependencies {
+        @Setup(Level.Invocation)
+        public void invalidate(AuraState aura) {
+            aura.cachingService.getDepsCache().invalidateAll();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.benchmarks;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.auraframework.expression.Expression;
+import org.auraframework.impl.expression.AuraExpressionBuilder;
+import org.auraframework.throwable.quickfix.AuraValidationException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Expression parsing through AuraExpressionBuilder, as done for every {!...} and {#...} in markup.
+ *
+ * The corpus is every expression found in the markup under aura-components, with duplicates, so that the mix matches
+ * what a cold compile sees. Each operation parses one expression, cycling through the corpus.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExpressionBenchmark {
+    private static final String[] EXTENSIONS = { ".cmp", ".app", ".lib" };
+    private static final Pattern EXPRESSION = Pattern.compile("\\{[!#]([^}]+?)\\}", Pattern.DOTALL);
+
+    private String[] expressions;
+    private int next;
+
+    @Setup
+    public void setup() throws IOException {
+        List<String> corpus = Lists.newArrayList();
+        for (String source : ComponentSources.read(EXTENSIONS)) {
+            Matcher matcher = EXPRESSION.matcher(source);
+            while (matcher.find()) {
+                String expression = matcher.group(1);
+                try {
+                    AuraExpressionBuilder.INSTANCE.buildExpression(expression, null);
+                    corpus.add(expression);
+                } catch (AuraValidationException ignored) {
+                    // e.g. examples of broken expressions in the docs.
+                }
+            }
+        }
+        expressions = corpus.toArray(new String[corpus.size()]);
+    }
+
+    @Benchmark
+    public Expression build() throws AuraValidationException {
+        String expression = expressions[next];
+        next = (next + 1) % expressions.length;
+        return AuraExpressionBuilder.INSTANCE.buildExpression(expression, null);
+    }
+}
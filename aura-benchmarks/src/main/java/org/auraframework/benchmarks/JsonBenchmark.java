@@ -0,0 +1,115 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.auraframework.def.ApplicationDef;
+import org.auraframework.def.DefDescriptor;
+import org.auraframework.system.AuraContext;
+import org.auraframework.system.AuraContext.Format;
+import org.auraframework.throwable.quickfix.QuickFixException;
+import org.auraframework.util.json.JsonEncoder;
+import org.auraframework.util.json.JsonStreamReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JSON writing and reading through JsonEncoder and JsonStreamReader.
+ *
+ * The document is the serialized definition of an application, which has the shape of the bulk of our responses.
+ * serializeDefinition goes through the definition serializers, encode and read work on the plain map/list tree that
+ * JsonStreamReader gives back for it, and roundTrip does both.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonBenchmark {
+    @Param({ "uiExamples:panelExamples", "uiExamples:gridExamples" })
+    public String app;
+
+    private AuraState aura;
+    private DefDescriptor<ApplicationDef> appDesc;
+    private AuraContext context;
+    private ApplicationDef def;
+    private String json;
+    private Object tree;
+
+    @Setup
+    public void setup(AuraState aura) throws QuickFixException, IOException {
+        this.aura = aura;
+        appDesc = aura.getApplicationDescriptor(app);
+        startContext();
+        try {
+            def = aura.definitionService.getDefinition(appDesc);
+            json = JsonEncoder.serialize(def, context.getJsonSerializationContext());
+            tree = read(json);
+        } finally {
+            endContext();
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void startContext() {
+        context = aura.startContext(Format.JSON, appDesc);
+    }
+
+    @TearDown(Level.Iteration)
+    public void endContext() {
+        aura.endContext();
+    }
+
+    @Benchmark
+    public String serializeDefinition() {
+        return JsonEncoder.serialize(def, context.getJsonSerializationContext());
+    }
+
+    @Benchmark
+    public String encode() {
+        return JsonEncoder.serialize(tree);
+    }
+
+    @Benchmark
+    public Object read() throws IOException {
+        return read(json);
+    }
+
+    @Benchmark
+    public String roundTrip() throws IOException {
+        return JsonEncoder.serialize(read(json));
+    }
+
+    private static Object read(String json) throws IOException {
+        JsonStreamReader reader = new JsonStreamReader(json);
+        reader.next();
+        return reader.getValue();
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.benchmarks;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.auraframework.def.ApplicationDef;
+import org.auraframework.def.DefDescriptor;
+import org.auraframework.system.AuraContext;
+import org.auraframework.system.AuraContext.Format;
+import org.auraframework.throwable.quickfix.QuickFixException;
+import org.auraframework.util.AuraTextUtil;
+import org.auraframework.util.json.JsonEncoder;
+import org.auraframework.util.json.JsonStreamReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.collect.Lists;
+
+/**
+ * JSON string escaping, building an escaped copy of each string against escaping straight into the output.
+ *
+ * The strings are every key and string value in the serialized definition of an application, in document order. Run
+ * through {@link BaselineReport} to see the difference in allocation as well as time.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonEscapeBenchmark {
+    @Param({ "uiExamples:panelExamples", "uiExamples:gridExamples" })
+    public String app;
+
+    private final List<String> strings = Lists.newArrayList();
+    private final StringBuilder out = new StringBuilder();
+
+    @Setup
+    public void setup(AuraState aura) throws QuickFixException, IOException {
+        DefDescriptor<ApplicationDef> appDesc = aura.getApplicationDescriptor(app);
+        AuraContext context = aura.startContext(Format.JSON, appDesc);
+        try {
+            ApplicationDef def = aura.definitionService.getDefinition(appDesc);
+            JsonStreamReader reader = new JsonStreamReader(
+                    JsonEncoder.serialize(def, context.getJsonSerializationContext()));
+            reader.next();
+            collect(reader.getValue());
+        } finally {
+            aura.endContext();
+        }
+    }
+
+    @Benchmark
+    public int escapeCopy() {
+        out.setLength(0);
+        for (String s : strings) {
+            out.append(AuraTextUtil.escapeForJSONString(s));
+        }
+        return out.length();
+    }
+
+    @Benchmark
+    public int escapeAppend() throws IOException {
+        out.setLength(0);
+        for (String s : strings) {
+            AuraTextUtil.escapeForJSONString(s, out);
+        }
+        return out.length();
+    }
+
+    private void collect(Object value) {
+        if (value instanceof String) {
+            strings.add((String) value);
+        } else if (value instanceof Map) {
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                strings.add(entry.getKey().toString());
+                collect(entry.getValue());
+            }
+        } else if (value instanceof List) {
+            for (Object o : (List<?>) value) {
+                collect(o);
+            }
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.benchmarks;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.auraframework.impl.root.parser.HTMLEntities;
+import org.auraframework.impl.root.parser.XMLParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Markup parsing, as done by XMLParser for every component, app, event, interface and library file on a cold
+ * compile, without the definition handlers.
+ *
+ * The corpus is the markup under aura-components, set the aura.benchmarks.components system property to point
+ * somewhere else. Each operation parses one file, cycling through the corpus.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MarkupParseBenchmark {
+    private static final String[] EXTENSIONS = { ".cmp", ".app", ".evt", ".intf", ".lib" };
+
+    private String[] sources;
+    private int next;
+
+    @Setup
+    public void setup() throws IOException {
+        List<String> corpus = ComponentSources.read(EXTENSIONS);
+        sources = corpus.toArray(new String[corpus.size()]);
+    }
+
+    private String nextSource() {
+        String source = sources[next];
+        next = (next + 1) % sources.length;
+        return source;
+    }
+
+    @Benchmark
+    public int parse() throws XMLStreamException {
+        XMLStreamReader reader = XMLParser.createXMLStreamReader(new StringReader(
+                HTMLEntities.replaceNamedEntities(nextSource())));
+        int events = 0;
+        try {
+            while (reader.hasNext()) {
+                events += reader.next();
+            }
+        } finally {
+            reader.close();
+        }
+        return events;
+    }
+
+    @Benchmark
+    public String replaceEntities() {
+        return HTMLEntities.replaceNamedEntities(nextSource());
+    }
+}
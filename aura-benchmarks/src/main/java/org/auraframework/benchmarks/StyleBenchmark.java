@@ -0,0 +1,100 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.auraframework.def.BaseComponentDef;
+import org.auraframework.def.ComponentDef;
+import org.auraframework.def.DefDescriptor;
+import org.auraframework.def.DefDescriptor.DefType;
+import org.auraframework.def.DescriptorFilter;
+import org.auraframework.def.StyleDef;
+import org.auraframework.system.AuraContext.Format;
+import org.auraframework.throwable.quickfix.QuickFixException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.collect.Lists;
+
+/**
+ * The runtime pass of CssPreprocessor, as done by StyleDef.getCode for every style in app.css.
+ *
+ * The corpus is the styles of the ui components, each operation processes one of them, cycling through the corpus.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StyleBenchmark {
+    private static final String APP = "uiExamples:panelExamples";
+    private static final String COMPONENTS = "markup://ui:*";
+
+    private AuraState aura;
+    private StyleDef[] styles;
+    private int next;
+
+    @Setup
+    public void setup(AuraState aura) throws QuickFixException {
+        this.aura = aura;
+        aura.startContext(Format.CSS, aura.getApplicationDescriptor(APP));
+        try {
+            List<StyleDef> corpus = Lists.newArrayList();
+            for (DefDescriptor<?> descriptor : aura.definitionService.find(new DescriptorFilter(COMPONENTS,
+                    DefType.COMPONENT))) {
+                @SuppressWarnings("unchecked")
+                BaseComponentDef def = aura.definitionService.getDefinition((DefDescriptor<ComponentDef>) descriptor);
+                StyleDef style = def.getStyleDef();
+                if (style != null) {
+                    corpus.add(style);
+                }
+            }
+            styles = corpus.toArray(new StyleDef[corpus.size()]);
+        } finally {
+            aura.endContext();
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void startContext() {
+        aura.startContext(Format.CSS, aura.getApplicationDescriptor(APP));
+    }
+
+    @TearDown(Level.Iteration)
+    public void endContext() {
+        aura.endContext();
+    }
+
+    @Benchmark
+    public String runtime() {
+        StyleDef style = styles[next];
+        next = (next + 1) % styles.length;
+        return style.getCode();
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.benchmarks;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.auraframework.def.ApplicationDef;
+import org.auraframework.def.DefDescriptor;
+import org.auraframework.system.AuraContext;
+import org.auraframework.system.AuraContext.Format;
+import org.auraframework.throwable.quickfix.QuickFixException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * app.js generation through ServerServiceImpl.writeDefinitions, for an application whose definitions are cached.
+ *
+ * cached is the steady state, where the app level chunk list is served from the cache, uncached drops the chunks and
+ * the per definition fragments first, so that every definition is serialized again.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WriteDefinitionsBenchmark {
+    @Param({ "uiExamples:panelExamples", "uiExamples:gridExamples" })
+    public String app;
+
+    private AuraState aura;
+    private Set<DefDescriptor<?>> dependencies;
+
+    @Setup(Level.Iteration)
+    public void startContext(AuraState aura) throws QuickFixException {
+        this.aura = aura;
+        DefDescriptor<ApplicationDef> appDesc = aura.getApplicationDescriptor(app);
+        AuraContext context = aura.startContext(Format.JS, appDesc);
+        String uid = aura.definitionService.getUid(null, appDesc);
+        context.addLoaded(appDesc, uid);
+        dependencies = aura.definitionService.getDependencies(uid);
+    }
+
+    @TearDown(Level.Iteration)
+    public void endContext() {
+        aura.endContext();
+    }
+
+    @Benchmark
+    public int cached() throws IOException, QuickFixException {
+        StringWriter out = new StringWriter();
+        aura.serverService.writeDefinitions(dependencies, out);
+        return out.getBuffer().length();
+    }
+
+    @Benchmark
+    public int uncached(NoOutputCaches noOutputCaches) throws IOException, QuickFixException {
+        return cached();
+    }
+
+    @State(Scope.Thread)
+    public static class NoOutputCaches {
+        @Setup(Level.Invocation)
+        public void invalidate(AuraState aura) {
+            aura.cachingService.getAppChunksCache().invalidateAll();
+            aura.cachingService.getDefinitionFragmentCache().invalidateAll();
+        }
+    }
+}
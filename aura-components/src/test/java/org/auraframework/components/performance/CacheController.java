@@ -49,18 +49,32 @@ public class CacheController implements Controller {
         cacheName = cacheName.toLowerCase();
         if (cacheName.equals("altstringscache")) {
             return cachingService.getAltStringsCache();
+        } else if (cacheName.equals("appchunkscache")) {
+            return cachingService.getAppChunksCache();
+        } else if (cacheName.equals("bootstrapcache")) {
+            return cachingService.getBootstrapCache();
         } else if (cacheName.equals("clientlibraryoutputcache")) {
             return cachingService.getClientLibraryOutputCache();
+        } else if (cacheName.equals("contextfragmentcache")) {
+            return cachingService.getContextFragmentCache();
         } else if (cacheName.equals("defdescriptorbynamecache")) {
             return cachingService.getDefDescriptorByNameCache();
+        } else if (cacheName.equals("definitionfragmentcache")) {
+            return cachingService.getDefinitionFragmentCache();
         } else if (cacheName.equals("defscache")) {
             return cachingService.getDefsCache();
         } else if (cacheName.equals("depscache")) {
             return cachingService.getDepsCache();
         } else if (cacheName.equals("descriptorfiltercache")) {
             return cachingService.getDescriptorFilterCache();
+        } else if (cacheName.equals("descriptorindexcache")) {
+            return cachingService.getDescriptorIndexCache();
         } else if (cacheName.equals("existscache")) {
             return cachingService.getExistsCache();
+        } else if (cacheName.equals("loadeddescriptorcache")) {
+            return cachingService.getLoadedDescriptorCache();
+        } else if (cacheName.equals("preloadeddefinitionscache")) {
+            return cachingService.getPreloadedDefinitionsCache();
         } else if (cacheName.equals("stringscache")) {
             return cachingService.getStringsCache();
         } 
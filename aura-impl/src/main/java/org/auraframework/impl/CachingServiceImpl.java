@@ -17,6 +17,7 @@ package org.auraframework.impl;
 
 import java.lang.ref.WeakReference;
 import java.util.Collection;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
@@ -38,7 +39,11 @@ import org.auraframework.impl.cache.CacheImpl;
 import org.auraframework.impl.system.DefDescriptorImpl;
 import org.auraframework.service.CachingService;
 import org.auraframework.system.DependencyEntry;
+import org.auraframework.system.DependencySet;
+import org.auraframework.system.DescriptorIndex;
+import org.auraframework.system.PreloadedDefinitions;
 import org.auraframework.system.SourceListener;
+import org.auraframework.util.json.JsonFragment;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Lazy;
@@ -61,6 +66,27 @@ public class CachingServiceImpl implements CachingService {
     private final static int STRING_CACHE_SIZE = 100;
     private final static int ALT_STRINGS_CACHE_SIZE = 100;
 
+    /** Default size of the definition fragment cache, in number of entries */
+    private final static int DEFINITION_FRAGMENT_CACHE_SIZE = 16 * 1024;
+
+    /** Default size of the app chunks cache, in number of entries */
+    private final static int APP_CHUNKS_CACHE_SIZE = 1024;
+
+    /** Default size of the bootstrap cache, in number of entries */
+    private final static int BOOTSTRAP_CACHE_SIZE = 256;
+
+    /** Default size of the descriptor index cache, in number of registries */
+    private final static int DESCRIPTOR_INDEX_CACHE_SIZE = 512;
+
+    /** Default size of the preloaded definitions cache, in number of entries */
+    private final static int PRELOADED_DEFINITIONS_CACHE_SIZE = 512;
+
+    /** Default size of the context fragment cache, in number of entries */
+    private final static int CONTEXT_FRAGMENT_CACHE_SIZE = 4096;
+
+    /** Default size of the loaded descriptor cache, in number of entries */
+    private final static int LOADED_DESCRIPTOR_CACHE_SIZE = 4096;
+
     /** Default size of client lib caches, in number of entries */
     private final static int CLIENT_LIB_CACHE_SIZE = 30;
 
@@ -80,6 +106,11 @@ public class CachingServiceImpl implements CachingService {
     private final ReentrantReadWriteLock rwLock = new ReentrantReadWriteLock();
     private final WriteLock wLock = rwLock.writeLock();
 
+    /**
+     * Set when a change could not be handled for want of the lock, so that the next one clears everything.
+     */
+    private volatile boolean missedChange;
+
     @Override
     public <K, T> CacheBuilder<K, T> getCacheBuilder() {
         return new CacheImpl.Builder<>();
@@ -89,10 +120,17 @@ public class CachingServiceImpl implements CachingService {
     private Cache<DefDescriptor<?>, Optional<? extends Definition>> defsCache;
     private Cache<String, String> stringsCache;
     private Cache<String, String> altStringsCache;
+    private Cache<String, String> definitionFragmentCache;
+    private Cache<String, List<String>> appChunksCache;
+    private Cache<String, byte[]> bootstrapCache;
     private Cache<String, Set<DefDescriptor<?>>> descriptorFilterCache;
+    private Cache<String, DescriptorIndex> descriptorIndexCache;
+    private Cache<String, PreloadedDefinitions> preloadedDefinitionsCache;
+    private Cache<String, JsonFragment> contextFragmentCache;
     private Cache<String, DependencyEntry> depsCache;
     private Cache<String, String> clientLibraryOutputCache;
     private Cache<DefDescriptor.DescriptorKey, DefDescriptor<? extends Definition>> defDescriptorByNameCache;
+    private Cache<String, DefDescriptor<?>> loadedDescriptorCache;
 
     private static final Logger logger = Logger.getLogger(CachingServiceImpl.class);
 
@@ -135,6 +173,33 @@ public class CachingServiceImpl implements CachingService {
                 .setName("altStringsCache")
                 .setSoftValues(true).build();
 
+        size = getCacheSize("aura.cache.definitionFragmentCacheSize", DEFINITION_FRAGMENT_CACHE_SIZE);
+        definitionFragmentCache = this.<String, String> getCacheBuilder()
+                .setInitialSize(size)
+                .setLoggingAdapter(loggingAdapter)
+                .setMaximumSize(size)
+                .setRecordStats(true)
+                .setName("definitionFragmentCache")
+                .setSoftValues(true).build();
+
+        size = getCacheSize("aura.cache.appChunksCacheSize", APP_CHUNKS_CACHE_SIZE);
+        appChunksCache = this.<String, List<String>> getCacheBuilder()
+                .setInitialSize(size)
+                .setLoggingAdapter(loggingAdapter)
+                .setMaximumSize(size)
+                .setRecordStats(true)
+                .setName("appChunksCache")
+                .setSoftValues(true).build();
+
+        size = getCacheSize("aura.cache.bootstrapCacheSize", BOOTSTRAP_CACHE_SIZE);
+        bootstrapCache = this.<String, byte[]> getCacheBuilder()
+                .setInitialSize(size)
+                .setLoggingAdapter(loggingAdapter)
+                .setMaximumSize(size)
+                .setRecordStats(true)
+                .setName("bootstrapCache")
+                .setSoftValues(true).build();
+
         size = getCacheSize("aura.cache.filterCacheSize", FILTER_CACHE_SIZE);
         descriptorFilterCache = this
                 .<String, Set<DefDescriptor<?>>> getCacheBuilder()
@@ -145,6 +210,33 @@ public class CachingServiceImpl implements CachingService {
                 .setName("descriptorFilterCache")
                 .setSoftValues(true).build();
 
+        size = getCacheSize("aura.cache.descriptorIndexCacheSize", DESCRIPTOR_INDEX_CACHE_SIZE);
+        descriptorIndexCache = this.<String, DescriptorIndex> getCacheBuilder()
+                .setInitialSize(size)
+                .setLoggingAdapter(loggingAdapter)
+                .setMaximumSize(size)
+                .setRecordStats(true)
+                .setName("descriptorIndexCache")
+                .setSoftValues(true).build();
+
+        size = getCacheSize("aura.cache.preloadedDefinitionsCacheSize", PRELOADED_DEFINITIONS_CACHE_SIZE);
+        preloadedDefinitionsCache = this.<String, PreloadedDefinitions> getCacheBuilder()
+                .setInitialSize(size)
+                .setLoggingAdapter(loggingAdapter)
+                .setMaximumSize(size)
+                .setRecordStats(true)
+                .setName("preloadedDefinitionsCache")
+                .setSoftValues(true).build();
+
+        size = getCacheSize("aura.cache.contextFragmentCacheSize", CONTEXT_FRAGMENT_CACHE_SIZE);
+        contextFragmentCache = this.<String, JsonFragment> getCacheBuilder()
+                .setInitialSize(size)
+                .setLoggingAdapter(loggingAdapter)
+                .setMaximumSize(size)
+                .setRecordStats(true)
+                .setName("contextFragmentCache")
+                .setSoftValues(true).build();
+
         size = getCacheSize("aura.cache.depsCacheSize", DEPENDENCY_CACHE_SIZE);
         depsCache = this.<String, DependencyEntry> getCacheBuilder()
                 .setInitialSize(size)
@@ -172,6 +264,16 @@ public class CachingServiceImpl implements CachingService {
                         .setConcurrencyLevel(20)
                         .setName("defDescByNameCache")
                         .build();
+
+        size = getCacheSize("aura.cache.loadedDescriptorCacheSize", LOADED_DESCRIPTOR_CACHE_SIZE);
+        loadedDescriptorCache = this.<String, DefDescriptor<?>> getCacheBuilder()
+                .setInitialSize(size)
+                .setLoggingAdapter(loggingAdapter)
+                .setMaximumSize(size)
+                .setConcurrencyLevel(20)
+                .setRecordStats(true)
+                .setName("loadedDescriptorCache")
+                .build();
     }
 
     @Override
@@ -194,11 +296,41 @@ public class CachingServiceImpl implements CachingService {
         return altStringsCache;
     }
 
+    @Override
+    public final Cache<String, String> getDefinitionFragmentCache() {
+        return definitionFragmentCache;
+    }
+
+    @Override
+    public final Cache<String, List<String>> getAppChunksCache() {
+        return appChunksCache;
+    }
+
+    @Override
+    public final Cache<String, byte[]> getBootstrapCache() {
+        return bootstrapCache;
+    }
+
     @Override
     public final Cache<String, Set<DefDescriptor<?>>> getDescriptorFilterCache() {
         return descriptorFilterCache;
     }
 
+    @Override
+    public final Cache<String, DescriptorIndex> getDescriptorIndexCache() {
+        return descriptorIndexCache;
+    }
+
+    @Override
+    public final Cache<String, PreloadedDefinitions> getPreloadedDefinitionsCache() {
+        return preloadedDefinitionsCache;
+    }
+
+    @Override
+    public final Cache<String, JsonFragment> getContextFragmentCache() {
+        return contextFragmentCache;
+    }
+
     @Override
     public final Cache<String, DependencyEntry> getDepsCache() {
         return depsCache;
@@ -214,6 +346,11 @@ public class CachingServiceImpl implements CachingService {
         return defDescriptorByNameCache;
     }
 
+    @Override
+    public final Cache<String, DefDescriptor<?>> getLoadedDescriptorCache() {
+        return loadedDescriptorCache;
+    }
+
     @Override
     public Lock getReadLock() {
         return rwLock.readLock();
@@ -227,7 +364,8 @@ public class CachingServiceImpl implements CachingService {
     /**
      * The driver for cache-consistency management in response to source changes. MDR drives the process, will notify
      * all registered listeners while write blocking, then invalidate it's own caches. If this routine can't acquire the
-     * lock , it will log it as an non-fatal error, as it only results in staleness.
+     * lock , it will log it as an non-fatal error, as it only results in staleness. The change is not lost entirely:
+     * the next change that gets the lock clears everything and tells the listeners to start over first.
      *
      * @param listeners - collections of listeners to notify of source changes
      * @param source - DefDescriptor that changed - for granular cache clear (currently not considered here, but other
@@ -249,21 +387,25 @@ public class CachingServiceImpl implements CachingService {
             // If this occurs, we have a new deadlock. But it only means
             // temporary cache staleness, so it is not fatal
             if (!haveLock) {
+                missedChange = true;
                 logger.error("Couldn't acquire cache clear lock in a reasonable time.  Cache may be stale until next clear.");
                 return;
             }
 
+            if (missedChange) {
+                missedChange = false;
+                // we don't know what was missed, so clear everything, and have the listeners do the same.
+                invalidateSourceRelatedCaches(null);
+                updateDescriptorIndexes(null, SourceListener.SourceMonitorEvent.CHANGED);
+                notifyListeners(listeners, null, SourceListener.SourceMonitorEvent.CHANGED, null);
+            }
+
             // successfully acquired the lock, start clearing caches
             invalidateSourceRelatedCaches(source);
+            updateDescriptorIndexes(source, event);
 
             // notify provided listeners, presumably to clear caches
-            for (WeakReference<SourceListener> i : listeners) {
-                SourceListener sl = i.get();
-
-                if (sl != null) {
-                    sl.onSourceChanged(source, event, filePath);
-                }
-            }
+            notifyListeners(listeners, source, event, filePath);
         } catch (InterruptedException e) {
         } finally {
             if (haveLock) {
@@ -272,13 +414,64 @@ public class CachingServiceImpl implements CachingService {
         }
     }
 
+    private void notifyListeners(Collection<WeakReference<SourceListener>> listeners, DefDescriptor<?> source,
+            SourceListener.SourceMonitorEvent event, String filePath) {
+        for (WeakReference<SourceListener> i : listeners) {
+            SourceListener sl = i.get();
+
+            if (sl != null) {
+                sl.onSourceChanged(source, event, filePath);
+            }
+        }
+    }
+
+    /**
+     * Bring the descriptor indexes up to date with a change.
+     *
+     * Changing a source does not change the set of descriptors, and a deleted one can simply be taken out. A new one
+     * may belong to any registry that serves its prefix and type, so those indexes are rebuilt on their next use.
+     */
+    private void updateDescriptorIndexes(DefDescriptor<?> descriptor, SourceListener.SourceMonitorEvent event) {
+        if (descriptor == null) {
+            descriptorIndexCache.invalidateAll();
+            return;
+        }
+        switch (event) {
+        case CHANGED:
+            break;
+        case DELETED:
+            for (String key : descriptorIndexCache.getKeySet()) {
+                DescriptorIndex index = descriptorIndexCache.getIfPresent(key);
+                if (index != null) {
+                    index.remove(descriptor);
+                }
+            }
+            break;
+        default:
+            for (String key : descriptorIndexCache.getKeySet()) {
+                DescriptorIndex index = descriptorIndexCache.getIfPresent(key);
+                if (index != null && index.covers(descriptor)) {
+                    descriptorIndexCache.invalidate(key);
+                }
+            }
+        }
+    }
+
     private void invalidateSourceRelatedCaches(DefDescriptor<?> descriptor) {
 
         depsCache.invalidateAll();
+        // the dependency sets that were in it held the descriptor ids, start over rather than keep them forever.
+        DependencySet.resetIds();
         descriptorFilterCache.invalidateAll();
         stringsCache.invalidateAll();
         altStringsCache.invalidateAll();
+        appChunksCache.invalidateAll();
+        bootstrapCache.invalidateAll();
         clientLibraryOutputCache.invalidateAll();
+        // the definition fragments carry bits of the definitions they depend on, which their keys do not cover.
+        definitionFragmentCache.invalidateAll();
+        contextFragmentCache.invalidateAll();
+        // preloadedDefinitionsCache is keyed by uid, stale entries are never hit, and just age out.
 
         if (descriptor == null) {
             defsCache.invalidateAll();
@@ -117,6 +117,18 @@ public class ContextAdapterImpl implements ContextAdapter {
         return currentContext.get();
     }
 
+    @Override
+    public AuraContext attach(AuraContext context) {
+        MutableInteger count = systemDepth.get();
+        if (count != null && count.value != 0) {
+            throw new AuraRuntimeException("cannot attach a context inside a system context");
+        }
+        AuraContext previous = currentContext.get();
+        currentContext.set(context);
+        systemContext.set(null);
+        return previous;
+    }
+
     @Override
     public boolean isEstablished() {
         return currentContext.get() != null;
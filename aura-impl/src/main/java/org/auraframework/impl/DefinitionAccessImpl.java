@@ -33,7 +33,7 @@ import java.util.List;
 
 public class DefinitionAccessImpl implements DefinitionAccess {
     private static final long serialVersionUID = 8409052764733035151L;
-    private static final String accessKey=Json.ApplicationKey.ACCESS.toString();
+    private static final Json.ApplicationKey accessKey=Json.ApplicationKey.ACCESS;
     private Authentication authentication = null;
     private Access access = null;
     private transient Method accessMethod = null;
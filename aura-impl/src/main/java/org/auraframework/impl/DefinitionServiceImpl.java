@@ -42,6 +42,7 @@ import org.auraframework.throwable.quickfix.DefinitionNotFoundException;
 import org.auraframework.throwable.quickfix.QuickFixException;
 import org.auraframework.util.AuraTextUtil;
 
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Sets;
 
 /**
@@ -246,65 +247,36 @@ public class DefinitionServiceImpl implements DefinitionService {
     @Override
     public void updateLoaded(DefDescriptor<?> loading) throws QuickFixException, ClientOutOfSyncException {
         AuraContext context;
-        Set<DefDescriptor<?>> loaded = Sets.newHashSet();
-        Set<DefDescriptor<?>> prev = Sets.newHashSet();
-        Set<DefDescriptor<?>> remove = null;
+        Set<DefDescriptor<?>> loaded;
 
         contextService.assertEstablished();
         context = contextService.getCurrentContext();
-        if (context.getPreloadedDefinitions() == null) {
-            //
-            // TODO (optimize): we could reverse this set randomly to try
-            // to sanitize the list in opposite directions. No need to be
-            // exact (hard to test though).
-            //
-            for (Map.Entry<DefDescriptor<?>, String> entry : context.getClientLoaded().entrySet()) {
-                DefDescriptor<?> descriptor = entry.getKey();
-                if (loaded.contains(descriptor)) {
-                    context.dropLoaded(descriptor);
-                } else {
-                    // validate the uid.
-                    String uid = entry.getValue();
-                    String tuid = null;
-                    QuickFixException qfe = null;
-
-                    if (uid == null) {
-                        // If we are given a null, bounce out.
-                        throw new ClientOutOfSyncException(descriptor + ": missing UID ");
-                    }
-                    try {
-                        tuid = getUid(uid, descriptor);
-                    } catch (QuickFixException broke) {
-                        //
-                        // See note above. This is how we enforce precedence of ClientOutOfSyncException
-                        //
-                        qfe = broke;
-                    }
-                    if (!uid.equals(tuid)) {
-                        throw new ClientOutOfSyncException(descriptor + ": mismatched UIDs " + uid + " != " + tuid);
-                    }
-                    if (qfe != null) {
-                        throw qfe;
-                    }
-                    Set<DefDescriptor<?>> deps = getDependencies(uid);
-                    loaded.addAll(deps);
-                    for (DefDescriptor<?> x : prev) {
-                        if (deps.contains(x)) {
-                            if (remove == null) {
-                                remove = Sets.newHashSet();
-                            }
-                            remove.add(x);
-                        }
+        loaded = context.getPreloadedDefinitions();
+        if (loaded == null) {
+            Map<DefDescriptor<?>, String> clientLoaded = context.getClientLoaded();
+            Cache<String, PreloadedDefinitions> cache = cachingService.getPreloadedDefinitionsCache();
+            String key = getPreloadedKey(clientLoaded);
+            PreloadedDefinitions preloaded = (key != null) ? cache.getIfPresent(key) : null;
+
+            if (preloaded == null) {
+                preloaded = computePreloaded(clientLoaded);
+                if (key != null) {
+                    cache.put(key, preloaded);
+                }
+            } else {
+                // The uids still have to be checked, they are what tells us that the client is out of date.
+                for (Map.Entry<DefDescriptor<?>, String> entry : clientLoaded.entrySet()) {
+                    if (!preloaded.covered.contains(entry.getKey())) {
+                        validateLoadedUid(entry.getKey(), entry.getValue());
                     }
-                    prev.add(descriptor);
                 }
             }
+            for (DefDescriptor<?> x : preloaded.covered) {
+                context.dropLoaded(x);
+            }
+            loaded = preloaded.definitions;
             context.setPreloadedDefinitions(loaded);
-        } else {
-            loaded = context.getPreloadedDefinitions();
-        }
-        if (remove != null) {
-            for (DefDescriptor<?> x : remove) {
+            for (DefDescriptor<?> x : preloaded.redundant) {
                 context.dropLoaded(x);
             }
         }
@@ -324,6 +296,98 @@ public class DefinitionServiceImpl implements DefinitionService {
         }
     }
 
+    /**
+     * Work out the definitions that a client has from the descriptors and uids that it has loaded.
+     *
+     * Loaded descriptors that are already included in another one are noted so that they can be dropped.
+     */
+    private PreloadedDefinitions computePreloaded(Map<DefDescriptor<?>, String> clientLoaded)
+            throws QuickFixException, ClientOutOfSyncException {
+        DependencySet.Builder loaded = DependencySet.builder();
+        Set<DefDescriptor<?>> prev = Sets.newHashSet();
+        Set<DefDescriptor<?>> covered = Sets.newHashSet();
+        Set<DefDescriptor<?>> remove = Sets.newHashSet();
+        Set<DefDescriptor<?>> only = null;
+
+        //
+        // TODO (optimize): we could reverse this set randomly to try
+        // to sanitize the list in opposite directions. No need to be
+        // exact (hard to test though).
+        //
+        for (Map.Entry<DefDescriptor<?>, String> entry : clientLoaded.entrySet()) {
+            DefDescriptor<?> descriptor = entry.getKey();
+            if (loaded.contains(descriptor)) {
+                covered.add(descriptor);
+            } else {
+                String uid = entry.getValue();
+                validateLoadedUid(descriptor, uid);
+                Set<DefDescriptor<?>> deps = getDependencies(uid);
+                only = prev.isEmpty() ? deps : null;
+                loaded.addAll(deps);
+                for (DefDescriptor<?> x : prev) {
+                    if (deps.contains(x)) {
+                        remove.add(x);
+                    }
+                }
+                prev.add(descriptor);
+            }
+        }
+        // The dependency set of a single loaded app is already shared and unmodifiable, no need to copy it.
+        return new PreloadedDefinitions(only != null ? only : loaded.build(),
+                ImmutableSet.copyOf(covered), ImmutableSet.copyOf(remove));
+    }
+
+    /**
+     * Check that a uid that the client has loaded is still the current one.
+     */
+    private void validateLoadedUid(DefDescriptor<?> descriptor, String uid)
+            throws QuickFixException, ClientOutOfSyncException {
+        String tuid = null;
+        QuickFixException qfe = null;
+
+        if (uid == null) {
+            // If we are given a null, bounce out.
+            throw new ClientOutOfSyncException(descriptor + ": missing UID ");
+        }
+        try {
+            tuid = getUid(uid, descriptor);
+        } catch (QuickFixException broke) {
+            //
+            // See the note on updateLoaded. This is how we enforce precedence of ClientOutOfSyncException
+            //
+            qfe = broke;
+        }
+        if (!uid.equals(tuid)) {
+            throw new ClientOutOfSyncException(descriptor + ": mismatched UIDs " + uid + " != " + tuid);
+        }
+        if (qfe != null) {
+            throw qfe;
+        }
+    }
+
+    /**
+     * Build the key for the preloaded definitions of a client, from the descriptors and uids that it has loaded.
+     *
+     * @return the key, or null if the client has a missing uid, in which case there is nothing to cache.
+     */
+    private String getPreloadedKey(Map<DefDescriptor<?>, String> clientLoaded) {
+        StringBuilder sb = new StringBuilder();
+
+        for (Map.Entry<DefDescriptor<?>, String> entry : clientLoaded.entrySet()) {
+            DefDescriptor<?> descriptor = entry.getKey();
+            if (entry.getValue() == null) {
+                return null;
+            }
+            sb.append(descriptor.getDefType());
+            sb.append(':');
+            sb.append(descriptor.getQualifiedName());
+            sb.append('@');
+            sb.append(entry.getValue());
+            sb.append(',');
+        }
+        return sb.toString();
+    }
+
     /**
      * Get an instance from name parts.
      *
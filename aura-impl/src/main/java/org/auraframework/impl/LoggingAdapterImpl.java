@@ -45,6 +45,13 @@ public class LoggingAdapterImpl implements LoggingAdapter {
         currentContext.set(null);
     }
 
+    @Override
+    public LoggingContext attach(LoggingContext context) {
+        LoggingContext previous = currentContext.get();
+        currentContext.set(context);
+        return previous;
+    }
+
     @Override
     public LoggingContext getLoggingContext() {
         return currentContext.get();
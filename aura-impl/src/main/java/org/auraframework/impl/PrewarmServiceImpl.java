@@ -0,0 +1,310 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.inject.Inject;
+
+import org.apache.log4j.Logger;
+import org.auraframework.annotations.Annotations.ServiceComponent;
+import org.auraframework.def.ApplicationDef;
+import org.auraframework.def.DefDescriptor;
+import org.auraframework.def.DefDescriptor.DefType;
+import org.auraframework.def.DescriptorFilter;
+import org.auraframework.service.ContextService;
+import org.auraframework.service.DefinitionService;
+import org.auraframework.service.PrewarmService;
+import org.auraframework.service.ServerService;
+import org.auraframework.system.AuraContext;
+import org.auraframework.system.AuraContext.Authentication;
+import org.auraframework.system.AuraContext.Format;
+import org.auraframework.system.AuraContext.Mode;
+import org.auraframework.system.Client;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Warms the configured apps in the background once the application context is started.
+ * <p>
+ * Each app is warmed for every configured mode and client type, by compiling it, which fills the depsCache, and
+ * writing out its definitions and css, which fills the app chunks and alt strings caches, the same way app.js and
+ * app.css do.
+ */
+@ServiceComponent
+public class PrewarmServiceImpl implements PrewarmService, ApplicationListener<ContextRefreshedEvent> {
+    private static final long serialVersionUID = -1516480785632391372L;
+
+    private static final Logger logger = Logger.getLogger(PrewarmServiceImpl.class);
+
+    private static final int DEFAULT_THREADS = 2;
+
+    /**
+     * A user agent for each client type we know how to warm, the css is cached per client type.
+     */
+    private static final Map<Client.Type, String> USER_AGENTS = ImmutableMap.<Client.Type, String> builder()
+            .put(Client.Type.WEBKIT, "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) "
+                    + "Chrome/52.0.2743.116 Safari/537.36")
+            .put(Client.Type.FIREFOX, "Mozilla/5.0 (Windows NT 10.0; WOW64; rv:48.0) Gecko/20100101 Firefox/48.0")
+            .put(Client.Type.IE9, "Mozilla/5.0 (compatible; MSIE 9.0; Windows NT 6.1; Trident/5.0)")
+            .put(Client.Type.IE10, "Mozilla/5.0 (compatible; MSIE 10.0; Windows NT 6.1; Trident/6.0)")
+            .put(Client.Type.IE11, "Mozilla/5.0 (Windows NT 10.0; WOW64; Trident/7.0; rv:11.0) like Gecko")
+            .put(Client.Type.IE12, "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) "
+                    + "Chrome/42.0.2311.135 Safari/537.36 Edge/12.10136")
+            .build();
+
+    private final AtomicBoolean started = new AtomicBoolean();
+
+    private volatile boolean warm = true;
+
+    private ContextService contextService;
+
+    private DefinitionService definitionService;
+
+    private ServerService serverService;
+
+    @Override
+    public void onApplicationEvent(ContextRefreshedEvent event) {
+        start();
+    }
+
+    @Override
+    public void start() {
+        final String apps = System.getProperty("aura.prewarm.apps");
+        if (apps == null || apps.trim().isEmpty() || !started.compareAndSet(false, true)) {
+            return;
+        }
+        warm = false;
+        // validate the configuration here, so that mistakes are logged before anything is warmed.
+        final List<Mode> modes = parseModes(System.getProperty("aura.prewarm.modes", "PROD"));
+        final List<Client> clients = parseClients(System.getProperty("aura.prewarm.clients", "WEBKIT,FIREFOX,IE11"));
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                prewarm(apps, modes, clients);
+            }
+        }, "aura-prewarm");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public boolean isWarm() {
+        return warm;
+    }
+
+    /**
+     * Warm the apps. Once that is over the node is ready, whether or not all of them were warmed, a broken app must
+     * not keep it out of service.
+     */
+    void prewarm(String apps, List<Mode> modes, List<Client> clients) {
+        try {
+            warmAll(apps, modes, clients);
+        } catch (Throwable t) {
+            logger.error("Unable to prewarm " + apps, t);
+        } finally {
+            warm = true;
+        }
+    }
+
+    /**
+     * Parse the configured modes, unknown modes are logged and skipped.
+     */
+    static List<Mode> parseModes(String list) {
+        List<Mode> modes = Lists.newArrayList();
+        for (String name : split(list)) {
+            try {
+                Mode mode = Mode.valueOf(name.toUpperCase());
+                if (!modes.contains(mode)) {
+                    modes.add(mode);
+                }
+            } catch (IllegalArgumentException e) {
+                logger.warn("Unable to prewarm unknown mode " + name);
+            }
+        }
+        return modes;
+    }
+
+    /**
+     * Parse the configured client types, unknown types and types without a user agent are logged and skipped.
+     */
+    static List<Client> parseClients(String list) {
+        Set<Client.Type> types = EnumSet.noneOf(Client.Type.class);
+        List<Client> clients = Lists.newArrayList();
+        for (String name : split(list)) {
+            Client.Type type;
+            try {
+                type = Client.Type.valueOf(name.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                logger.warn("Unable to prewarm unknown client type " + name);
+                continue;
+            }
+            if (!types.add(type)) {
+                continue;
+            }
+            if (type == Client.Type.OTHER) {
+                clients.add(Client.OTHER);
+            } else if (USER_AGENTS.containsKey(type)) {
+                clients.add(new Client(USER_AGENTS.get(type)));
+            } else {
+                logger.warn("Unable to prewarm client type " + type);
+            }
+        }
+        return clients;
+    }
+
+    /**
+     * Warm every app in every mode for all of the clients, and log the ones that failed.
+     */
+    void warmAll(String apps, List<Mode> modes, final List<Client> clients) {
+        long start = System.currentTimeMillis();
+        List<DefDescriptor<ApplicationDef>> descriptors = getApplications(apps);
+        if (descriptors.isEmpty() || modes.isEmpty() || clients.isEmpty()) {
+            logger.error(String.format("Nothing to prewarm, found %d apps in %d modes for %d clients",
+                    descriptors.size(), modes.size(), clients.size()));
+            return;
+        }
+        final Queue<String> failed = new ConcurrentLinkedQueue<>();
+
+        ExecutorService executor = Executors.newFixedThreadPool(getThreads(),
+                new ThreadFactoryBuilder().setNameFormat("aura-prewarm-%d").setDaemon(true).build());
+        for (final DefDescriptor<ApplicationDef> descriptor : descriptors) {
+            for (final Mode mode : modes) {
+                executor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (!warm(descriptor, mode, clients)) {
+                            failed.add(descriptor + " in " + mode);
+                        }
+                    }
+                });
+            }
+        }
+        executor.shutdown();
+        try {
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            executor.shutdownNow();
+            logger.warn("Interrupted while prewarming " + apps);
+            return;
+        }
+        logger.info(String.format("Prewarmed %d apps in %d modes for %d clients in %dms, %d failed",
+                descriptors.size(), modes.size(), clients.size(), System.currentTimeMillis() - start, failed.size()));
+        if (!failed.isEmpty()) {
+            logger.error("Unable to prewarm " + failed);
+        }
+    }
+
+    /**
+     * Warm one app in one mode for all of the clients.
+     *
+     * @return false if the app could not be warmed.
+     */
+    private boolean warm(DefDescriptor<ApplicationDef> descriptor, Mode mode, List<Client> clients) {
+        for (Client client : clients) {
+            AuraContext context = contextService.startContext(mode, Format.JS, Authentication.AUTHENTICATED,
+                    descriptor);
+            try {
+                context.setClient(client);
+                String uid = definitionService.getUid(null, descriptor);
+                if (uid == null) {
+                    logger.warn("Unable to prewarm " + descriptor + ", it does not exist");
+                    return false;
+                }
+                context.addLoaded(descriptor, uid);
+                Set<DefDescriptor<?>> dependencies = definitionService.getDependencies(uid);
+                serverService.writeDefinitions(dependencies, null);
+                serverService.writeAppCss(dependencies, null);
+            } catch (Throwable t) {
+                logger.warn("Unable to prewarm " + descriptor + " in " + mode, t);
+                return false;
+            } finally {
+                contextService.endContext();
+            }
+        }
+        return true;
+    }
+
+    private List<DefDescriptor<ApplicationDef>> getApplications(String apps) {
+        List<DefDescriptor<ApplicationDef>> descriptors = Lists.newArrayList();
+        if (apps.trim().equals("*")) {
+            contextService.startContext(Mode.PROD, Format.JS, Authentication.AUTHENTICATED);
+            try {
+                for (DefDescriptor<?> found : definitionService.find(new DescriptorFilter("markup://*:*",
+                        DefType.APPLICATION))) {
+                    descriptors.add(definitionService.getDefDescriptor(found, "markup", ApplicationDef.class));
+                }
+            } finally {
+                contextService.endContext();
+            }
+        } else {
+            for (String app : split(apps)) {
+                try {
+                    descriptors.add(definitionService.getDefDescriptor(app, ApplicationDef.class));
+                } catch (RuntimeException e) {
+                    logger.warn("Unable to prewarm invalid app " + app, e);
+                }
+            }
+        }
+        return descriptors;
+    }
+
+    @Inject
+    public void setContextService(ContextService contextService) {
+        this.contextService = contextService;
+    }
+
+    @Inject
+    public void setDefinitionService(DefinitionService definitionService) {
+        this.definitionService = definitionService;
+    }
+
+    @Inject
+    public void setServerService(ServerService serverService) {
+        this.serverService = serverService;
+    }
+
+    private static Iterable<String> split(String list) {
+        return Splitter.on(',').trimResults().omitEmptyStrings().split(list);
+    }
+
+    private static int getThreads() {
+        String prop = System.getProperty("aura.prewarm.threads");
+        if (prop != null && !prop.isEmpty()) {
+            try {
+                return Math.max(1, Integer.parseInt(prop));
+            } catch (NumberFormatException e) {
+                // ne'ermind, use the default
+            }
+        }
+        return DEFAULT_THREADS;
+    }
+}
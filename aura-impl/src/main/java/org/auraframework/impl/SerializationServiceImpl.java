@@ -31,6 +31,7 @@ import org.auraframework.throwable.quickfix.QuickFixException;
 
 import javax.inject.Inject;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.Reader;
 import java.util.Collection;
@@ -127,6 +128,12 @@ public class SerializationServiceImpl implements SerializationService {
         return innerGetFormatAdapter(format, type).read(in);
     }
 
+    @Override
+    public <T> T readBinary(InputStream in, Class<T> type, String format) throws IOException, QuickFixException {
+        contextService.assertEstablished();
+        return innerGetFormatAdapter(format, type).readBinary(in);
+    }
+
     @Override
     public <T> Collection<T> readCollection(Reader in, Class<T> type) throws IOException, QuickFixException {
         return readCollection(in, type, null);
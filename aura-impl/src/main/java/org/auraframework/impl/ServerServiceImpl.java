@@ -16,8 +16,10 @@
 package org.auraframework.impl;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Writer;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -69,12 +71,14 @@ import org.auraframework.system.Message;
 import org.auraframework.throwable.AuraExecutionException;
 import org.auraframework.throwable.quickfix.QuickFixException;
 import org.auraframework.util.javascript.Literal;
+import org.auraframework.util.json.BinaryJsonEncoder;
 import org.auraframework.util.json.JsonEncoder;
 import org.auraframework.util.json.JsonSerializationContext;
 
 import com.google.common.base.Joiner;
 import com.google.common.base.Optional;
 import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
@@ -125,10 +129,16 @@ public class ServerServiceImpl implements ServerService {
 
     private Cache<String, String> altStringsCache;
 
+    private Cache<String, String> definitionFragmentCache;
+
+    private Cache<String, List<String>> appChunksCache;
+
     @PostConstruct
     private void setCaches() {
         this.stringsCache = cachingService.getStringsCache();
         this.altStringsCache = cachingService.getAltStringsCache();
+        this.definitionFragmentCache = cachingService.getDefinitionFragmentCache();
+        this.appChunksCache = cachingService.getAppChunksCache();
     }
 
     @Override
@@ -138,9 +148,22 @@ public class ServerServiceImpl implements ServerService {
         if (message == null) {
             return;
         }
+        run(message, context, JsonEncoder.createJsonStream(out, context.getJsonSerializationContext()), extras);
+    }
+
+    @Override
+    public void runBinary(Message message, AuraContext context, OutputStream out, Map<?,?> extras) throws IOException {
+        loggingService.startTimer(LoggingService.TIMER_AURA_RUN);
+
+        if (message == null) {
+            return;
+        }
+        run(message, context, BinaryJsonEncoder.createBinaryStream(out, context.getJsonSerializationContext()), extras);
+    }
+
+    private void run(Message message, AuraContext context, JsonEncoder json, Map<?,?> extras) throws IOException {
         List<Action> actions = message.getActions();
-        JsonSerializationContext serializationContext = context.getJsonSerializationContext();
-        JsonEncoder json = JsonEncoder.createJsonStream(out, serializationContext);
+        JsonSerializationContext serializationContext = json.getSerializationContext();
         try {
             json.writeMapBegin();
             if (extras != null && extras.size() > 0) {
@@ -369,92 +392,167 @@ public class ServerServiceImpl implements ServerService {
         final String uid = context.getUid(appDesc);
         final String lockerServiceCacheBuster  = configAdapter.getLockerServiceCacheBuster();
         final String key = "JS:" + mKey + uid + ":" + lockerServiceCacheBuster;
-                
-        String cached = getAltCachedString(uid, appDesc, key,
-               new Callable<String>() {
+
+        List<String> chunks = getCachedString(appChunksCache, uid, appDesc, key,
+               new Callable<List<String>>() {
                    @Override
-                   public String call() throws Exception {
-                       String res = getDefinitionsString(dependencies, key);
+                   public List<String> call() throws Exception {
+                       List<String> res = getDefinitionChunks(dependencies);
                        //log the cache miss here
-                       cachingService.getAltStringsCache().logCacheStatus("cache miss for key: "+key+";");
+                       appChunksCache.logCacheStatus("cache miss for key: "+key+";");
                        return res;
                    }
                });
 
         if (out != null) {
-           out.append(cached);
+            for (String chunk : chunks) {
+                out.append(chunk);
+            }
         }
     }
 
-
-    private String getDefinitionsString (Set<DefDescriptor<?>> dependencies, String key)
+    /**
+     * Get the chunks that make up the definitions for an app.
+     *
+     * The definitions themselves come from the definition fragment cache, which is shared by all apps, so an app
+     * only holds on to the list of references, and apps with overlapping dependencies share the code.
+     */
+    private List<String> getDefinitionChunks(Set<DefDescriptor<?>> dependencies)
             throws QuickFixException, IOException {
 
         AuraContext context = contextService.getCurrentContext();
-        boolean minify = context.getMode().minify();
+        final boolean minify = context.getMode().minify();
         
         JsonSerializationContext serializationContext = context.getJsonSerializationContext();
         serializationContext.pushFormatRootItems();
         // no ref support needed for defs
         serializationContext.pushRefSupport(false);
         
-        StringBuilder sb = new StringBuilder();
+        ImmutableList.Builder<String> chunks = ImmutableList.builder();
         
         // Process Libraries with a lower granularity level, to prevent duplication of external includes.
         Collection<LibraryDef> libraryDefs = filterAndLoad(LibraryDef.class, dependencies, null);
         for (LibraryDef libraryDef : libraryDefs) {
             List<IncludeDefRef> includeDefs = libraryDef.getIncludes();
-            for (IncludeDefRef defRef : includeDefs) {
-            	sb.append("$A.componentService.addLibraryExporter(\"" + defRef.getClientDescriptor() + "\", function (){/*");
-                sb.append(defRef.getCode(minify));
-                sb.append("*/});");
-                	
+            for (final IncludeDefRef defRef : includeDefs) {
+                chunks.add(getDefinitionFragment(libraryDef, "INCLUDE:" + defRef.getClientDescriptor(),
+                        new Callable<String>() {
+                            @Override
+                            public String call() throws Exception {
+                                return "$A.componentService.addLibraryExporter(\"" + defRef.getClientDescriptor()
+                                        + "\", function (){/*" + defRef.getCode(minify) + "*/});";
+                            }
+                        }));
+
                 context.setClientClassLoaded(defRef.getDescriptor(), true);
             }
         }
         
         // Append component classes.
         Collection<BaseComponentDef> componentDefs = filterAndLoad(BaseComponentDef.class, dependencies, null);
-        for (BaseComponentDef def : componentDefs) {
-            sb.append("$A.componentService.addComponent(\"" + def.getDescriptor() + "\", function (){/*");
-            
-            	// Mark class as loaded in the client
-            	context.setClientClassLoaded(def.getDescriptor(), true);
-            	
-            	// Component Class
-            	sb.append(def.getCode(minify));
-            	
-            	// Component definition
-            	sb.append("return ");
-            	serializationService.write(def, null, BaseComponentDef.class, sb, "JSON");
-            	sb.append(";");
-
-            sb.append("*/});\n");
+        for (final BaseComponentDef def : componentDefs) {
+            // Mark class as loaded in the client
+            context.setClientClassLoaded(def.getDescriptor(), true);
+
+            chunks.add(getDefinitionFragment(def, "COMPONENT", new Callable<String>() {
+                @Override
+                public String call() throws Exception {
+                    StringBuilder fragment = new StringBuilder();
+                    fragment.append("$A.componentService.addComponent(\"" + def.getDescriptor() + "\", function (){/*");
+
+                    // Component Class
+                    fragment.append(def.getCode(minify));
+
+                    // Component definition
+                    fragment.append("return ");
+                    serializationService.write(def, null, BaseComponentDef.class, fragment, "JSON");
+                    fragment.append(";");
+
+                    fragment.append("*/});\n");
+                    return fragment.toString();
+                }
+            }));
         }
 
         // Append event definitions
-        sb.append("$A.componentService.initEventDefs(");
+        chunks.add("$A.componentService.initEventDefs(");
         Collection<EventDef> events = filterAndLoad(EventDef.class, dependencies, null);
-        serializationService.writeCollection(events, EventDef.class, sb, "JSON");
-        sb.append(");\n");
+        addDefinitionFragments(events, EventDef.class, chunks);
+        chunks.add(");\n");
 
         // Append library definitions
-        sb.append("$A.componentService.initLibraryDefs(");
-        serializationService.writeCollection(libraryDefs, LibraryDef.class, sb, "JSON");
-        sb.append(");\n");
+        chunks.add("$A.componentService.initLibraryDefs(");
+        addDefinitionFragments(libraryDefs, LibraryDef.class, chunks);
+        chunks.add(");\n");
 
         // Append controller definitions
         // Dunno how this got to be this way. The code in the Format adaptor was twisted and stupid,
         // as it walked the namespaces looking up the same descriptor, with a string.format that had
         // the namespace but did not use it. This ends up just getting a single controller.
-        sb.append("$A.componentService.initControllerDefs(");
+        chunks.add("$A.componentService.initControllerDefs(");
         Collection<ControllerDef> controllers = filterAndLoad(ControllerDef.class, dependencies, ACF);
-        serializationService.writeCollection(controllers, ControllerDef.class, sb, "JSON");
-        sb.append(");\n");
+        addDefinitionFragments(controllers, ControllerDef.class, chunks);
+        chunks.add(");\n");
 
         serializationContext.popRefSupport();
 
-        return sb.toString();
+        return chunks.build();
+    }
+
+    /**
+     * Add the chunks for a JSON array of definitions, as serializationService.writeCollection would write it.
+     *
+     * Each element is serialized on its own (as a single element array, so that the formatting matches), and
+     * cached.
+     */
+    private <D extends Definition> void addDefinitionFragments(Collection<D> defs, final Class<D> type,
+            ImmutableList.Builder<String> chunks) throws QuickFixException, IOException {
+        String separator = contextService.getCurrentContext().getJsonSerializationContext().formatRootItems()
+                ? ",\n" : ",";
+        boolean first = true;
+
+        chunks.add("[");
+        for (final D def : defs) {
+            if (!first) {
+                chunks.add(separator);
+            }
+            first = false;
+            chunks.add(getDefinitionFragment(def, type.getSimpleName(), new Callable<String>() {
+                @Override
+                public String call() throws Exception {
+                    StringBuilder element = new StringBuilder();
+                    serializationService.writeCollection(Collections.singletonList(def), type, element, "JSON");
+                    return element.substring(1, element.length() - 1);
+                }
+            }));
+        }
+        chunks.add("]");
+    }
+
+    /**
+     * Get the serialized form of a single definition from the fragment cache.
+     *
+     * The key includes the hash of the definition's own source, taken from the definition that is already loaded,
+     * so that apps sharing a definition share its fragment. A serialized definition also carries bits of what it
+     * depends on, so the cache is flushed whenever a source changes.
+     *
+     * @param def the definition.
+     * @param type the kind of fragment.
+     * @param loader the loader for the fragment.
+     */
+    private String getDefinitionFragment(Definition def, String type, Callable<String> loader)
+            throws QuickFixException, IOException {
+        AuraContext context = contextService.getCurrentContext();
+        DefDescriptor<?> descriptor = def.getDescriptor();
+        String hash = def.getOwnHash();
+        if (hash == null) {
+            // not cacheable, so just load it.
+            return getCachedString(null, null, null, loader);
+        }
+        String key = String.format("%s:%s:%s:%s:%s:%s@%s", type, context.getMode().minify() ? "MIN" : "DEV",
+                context.isPreloading(), context.isPreloaded(descriptor), configAdapter.getLockerServiceCacheBuster(),
+                hash, descriptor.getQualifiedName().toLowerCase());
+        return getCachedString(definitionFragmentCache, key, loader);
     }
 
     @Override
@@ -551,21 +649,13 @@ public class ServerServiceImpl implements ServerService {
         return getCachedString(altStringsCache, uid, descriptor, key, loader);
     }
 
-    private String getCachedString(Cache<String, String> cache, String uid, DefDescriptor<?> descriptor, String key, Callable<String> loader) throws QuickFixException, IOException {
+    private <T> T getCachedString(Cache<String, T> cache, String uid, DefDescriptor<?> descriptor, String key, Callable<T> loader) throws QuickFixException, IOException {
         if (uid != null) {
             AuraContext context = contextService.getCurrentContext();
             DependencyEntry de = context.getLocalDependencyEntry(uid);
 
             if (de != null) {
-                try {
-                    return cache.get(getKey(de, descriptor, key), loader);
-                } catch (ExecutionException e) {
-                    // Don't interfere if the callable caused these exceptions.
-                    Throwables.propagateIfInstanceOf(e.getCause(), IOException.class);
-                    Throwables.propagateIfInstanceOf(e.getCause(), QuickFixException.class);
-                    // Propagates as-is if RuntimeException, or wraps with a RuntimeException.
-                    Throwables.propagate(e);
-                }
+                return getCachedString(cache, getKey(de, descriptor, key), loader);
             }
         }
 
@@ -583,6 +673,20 @@ public class ServerServiceImpl implements ServerService {
         return null;
     }
 
+    private <T> T getCachedString(Cache<String, T> cache, String key, Callable<T> loader)
+            throws QuickFixException, IOException {
+        try {
+            return cache.get(key, loader);
+        } catch (ExecutionException e) {
+            // Don't interfere if the callable caused these exceptions.
+            Throwables.propagateIfInstanceOf(e.getCause(), IOException.class);
+            Throwables.propagateIfInstanceOf(e.getCause(), QuickFixException.class);
+            // Propagates as-is if RuntimeException, or wraps with a RuntimeException.
+            Throwables.propagate(e);
+        }
+        return null;
+    }
+
     private String getKey(DependencyEntry de, DefDescriptor<?> descriptor, String key) {
         return String.format("%s@%s@%s", de.uid, descriptor.getQualifiedName().toLowerCase(), key);
     }
@@ -22,8 +22,8 @@ import org.auraframework.def.TypeDef;
 import org.auraframework.expression.PropertyReference;
 import org.auraframework.impl.util.AuraUtil;
 import org.auraframework.impl.util.BrowserInfo;
-import org.auraframework.instance.GlobalValueProvider;
 import org.auraframework.instance.AuraValueProviderType;
+import org.auraframework.instance.CacheableGlobalValueProvider;
 import org.auraframework.instance.ValueProviderType;
 import org.auraframework.service.ContextService;
 import org.auraframework.system.AuraContext;
@@ -35,7 +35,7 @@ import com.google.common.collect.Maps;
 /**
  * $Browser global value provider, backed by data from BrowserInfo
  */
-public class BrowserValueProvider implements GlobalValueProvider {
+public class BrowserValueProvider implements CacheableGlobalValueProvider {
     public static final String IS_TABLET = "isTablet";
     public static final String IS_PHONE = "isPhone";
     public static final String IS_ANDROID = "isAndroid";
@@ -57,6 +57,7 @@ public class BrowserValueProvider implements GlobalValueProvider {
     public static final String IS_IE11 = "isIE11";
 
     private Map<String, Object> browserDetails;
+    private String cacheKey;
 
     private final ContextService contextService;
 
@@ -69,7 +70,7 @@ public class BrowserValueProvider implements GlobalValueProvider {
         AuraContext context = contextService.getCurrentContext();
         Map<String, Object> m = Maps.newHashMapWithExpectedSize(32);
         String ua = context != null ? context.getClient().getUserAgent() : null;
-        BrowserInfo b = new BrowserInfo(ua);
+        BrowserInfo b = BrowserInfo.get(ua);
         m.put(IS_TABLET, b.isTablet());
         m.put(IS_PHONE, b.isPhone());
         m.put(IS_ANDROID, b.isAndroid());
@@ -134,4 +135,19 @@ public class BrowserValueProvider implements GlobalValueProvider {
         return browserDetails;
     }
 
+    /**
+     * The data is a handful of flags, the same for every user agent of a kind, so the key is just the values.
+     */
+    @Override
+    public String getCacheKey() {
+        if (cacheKey == null) {
+            StringBuilder key = new StringBuilder();
+            for (Object value : getData().values()) {
+                key.append(value).append('|');
+            }
+            cacheKey = key.toString();
+        }
+        return cacheKey;
+    }
+
 }
@@ -27,6 +27,7 @@ import org.auraframework.impl.context.AuraContextJsonSerializer;
 import org.auraframework.impl.java.controller.JavaAction;
 import org.auraframework.instance.Action;
 import org.auraframework.instance.ActionWithKeyOverride;
+import org.auraframework.service.CachingService;
 import org.auraframework.service.ContextService;
 import org.auraframework.service.DefinitionService;
 import org.auraframework.system.AuraContext.Mode;
@@ -65,6 +66,9 @@ public class JsonSerializerAdapterImpl implements JsonSerializerAdapter {
     @Inject
     private DefinitionService definitionService;
 
+    @Inject
+    private CachingService cachingService;
+
     @Autowired(required=false)
     private TestContextAdapter testContextAdapter;
 
@@ -74,7 +78,8 @@ public class JsonSerializerAdapterImpl implements JsonSerializerAdapter {
             lookupSerializers = Maps.newLinkedHashMap();
             lookupSerializers.putAll(JsonSerializers.MAPPY_FASTY);
             lookupSerializers.put(AuraContextImpl.class.getName(),
-                    getAuraContextJsonSerializer(configAdapter, testContextAdapter, definitionService));
+                    getAuraContextJsonSerializer(configAdapter, testContextAdapter, definitionService,
+                            cachingService));
             lookupSerializers.put(JavaAction.class.getName(), Action.SERIALIZER);
             lookupSerializers.put(ActionWithKeyOverride.class.getName(), Action.SERIALIZER);
             lookupSerializers.put(BigDecimal.class.getName(), JsonSerializers.BIGDECIMAL);
@@ -138,9 +143,11 @@ public class JsonSerializerAdapterImpl implements JsonSerializerAdapter {
         }
     }
 
-    private AuraContextJsonSerializer getAuraContextJsonSerializer(ConfigAdapter configAdapter, TestContextAdapter testContextAdapter, DefinitionService definitionService) {
+    private AuraContextJsonSerializer getAuraContextJsonSerializer(ConfigAdapter configAdapter, TestContextAdapter testContextAdapter, DefinitionService definitionService,
+            CachingService cachingService) {
         if (auraContextJsonSerializer == null) {
-            auraContextJsonSerializer = new AuraContextJsonSerializer(configAdapter, testContextAdapter, definitionService);
+            auraContextJsonSerializer = new AuraContextJsonSerializer(configAdapter, testContextAdapter, definitionService,
+                    cachingService);
         }
         return auraContextJsonSerializer;
     }
@@ -27,7 +27,7 @@ import org.auraframework.def.DefDescriptor;
 import org.auraframework.def.TypeDef;
 import org.auraframework.expression.PropertyReference;
 import org.auraframework.instance.AuraValueProviderType;
-import org.auraframework.instance.GlobalValueProvider;
+import org.auraframework.instance.CacheableGlobalValueProvider;
 import org.auraframework.instance.ValueProviderType;
 import org.auraframework.service.DefinitionService;
 import org.auraframework.throwable.quickfix.InvalidExpressionException;
@@ -47,7 +47,7 @@ import java.util.Locale;
 import java.util.Map;
 
 
-public class LocaleValueProvider implements GlobalValueProvider {
+public class LocaleValueProvider implements CacheableGlobalValueProvider {
     public static String USER_LOCALE_LANGUAGE = "userLocaleLang";
     public static String USER_LOCALE_COUNTRY = "userLocaleCountry";
 
@@ -85,6 +85,7 @@ public class LocaleValueProvider implements GlobalValueProvider {
     public static String IS_EASTERN_NAME_STYLE = "isEasternNameStyle";
 
     private final Map<String, Object> data;
+    private final String cacheKey;
     private final DefinitionService definitionService;
 
     public LocaleValueProvider(ConfigAdapter configAdapter, LocalizationAdapter localizationAdapter, DefinitionService definitionService) {
@@ -166,6 +167,10 @@ public class LocaleValueProvider implements GlobalValueProvider {
         builder.put(CURRENCY, cdfs.getCurrencySymbol());
 
         data = builder.build();
+
+        // everything above comes from these, and the label for today, which may be customized.
+        cacheKey = String.format("%s|%s|%s|%s|%s|%s|%s|%s", userLocale, lang, dateLocale, al.getNumberLocale(),
+                al.getCurrencyLocale(), timezoneId, al.isEasternNameStyle(), data.get(TODAY_LABEL));
     }
 
     @Override
@@ -206,6 +211,11 @@ public class LocaleValueProvider implements GlobalValueProvider {
         return data;
     }
 
+    @Override
+    public String getCacheKey() {
+        return cacheKey;
+    }
+
     private List<LocalizedLabel> getNameOfMonths(AuraLocale locale) throws QuickFixException {
         DateFormatSymbols monthSymbols = DateFormatSymbols.getInstance(locale.getLanguageLocale());
         String[] months = monthSymbols.getMonths();
@@ -20,6 +20,7 @@ import org.auraframework.throwable.quickfix.QuickFixException;
 
 import javax.annotation.concurrent.ThreadSafe;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.Reader;
 import java.util.Collection;
@@ -34,6 +35,12 @@ public abstract class BaseFormatAdapter<T> implements FormatAdapter<T> {
                 getType().getName(), getFormatName()));
     }
 
+    @Override
+    public T readBinary(InputStream in) throws IOException, QuickFixException {
+        throw new UnsupportedOperationException(String.format("readBinary() not implemented for '%s' in '%s' Format",
+                getType().getName(), getFormatName()));
+    }
+
     @Override
     public Collection<T> readCollection(Reader in) throws IOException, QuickFixException {
         throw new UnsupportedOperationException(String.format(
@@ -0,0 +1,69 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.adapter.format;
+
+import java.util.List;
+import java.util.Map;
+
+import org.auraframework.def.ActionDef;
+import org.auraframework.def.ComponentDef;
+import org.auraframework.def.DefDescriptor;
+import org.auraframework.instance.Action;
+import org.auraframework.service.DefinitionService;
+import org.auraframework.service.InstanceService;
+import org.auraframework.system.Message;
+import org.auraframework.throwable.quickfix.QuickFixException;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Builds a {@link Message} from the parsed request, shared by the formats that can read one.
+ */
+public class MessageFormatUtil {
+    private MessageFormatUtil() {
+    }
+
+    @SuppressWarnings("unchecked")
+    public static Message readMessage(Map<?, ?> message, InstanceService instanceService,
+            DefinitionService definitionService) throws QuickFixException {
+        List<?> actions = (List<?>) message.get("actions");
+        List<Action> actionList = Lists.newArrayList();
+        if (actions != null) {
+            for (Object action : actions) {
+                Map<?, ?> map = (Map<?, ?>) action;
+
+                // FIXME: ints are getting translated into BigDecimals here.
+                Map<String, Object> params = (Map<String, Object>) map.get("params");
+
+                Action instance = (Action) instanceService.getInstance((String) map.get("descriptor"),
+                        ActionDef.class, params);
+                instance.setId((String) map.get("id"));
+                String cd = (String) map.get("callingDescriptor");
+                if (cd != null && !cd.equals("UNKNOWN")) {
+                    DefDescriptor<ComponentDef> callingDescriptor = definitionService.getDefDescriptor(cd, ComponentDef.class);
+                    instance.setCallingDescriptor(callingDescriptor);
+                }
+                String v = (String) map.get("version");
+                if (v != null) {
+                    instance.setCallerVersion(v);
+                }
+                actionList.add(instance);
+            }
+        }
+
+        return new Message(actionList);
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.adapter.format.binary;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.annotation.concurrent.ThreadSafe;
+import javax.inject.Inject;
+
+import org.auraframework.annotations.Annotations.ServiceComponent;
+import org.auraframework.impl.adapter.format.MessageFormatUtil;
+import org.auraframework.service.ContextService;
+import org.auraframework.service.DefinitionService;
+import org.auraframework.service.InstanceService;
+import org.auraframework.system.AuraContext;
+import org.auraframework.system.Message;
+import org.auraframework.throwable.quickfix.QuickFixException;
+import org.auraframework.util.UncloseableOutputStream;
+import org.auraframework.util.json.BinaryJsonEncoder;
+import org.auraframework.util.json.BinaryJsonReader;
+
+@ThreadSafe
+@ServiceComponent
+public class MessageBinaryFormatAdapter extends BinaryFormatAdapter<Message> {
+    @Inject
+    private ContextService contextService;
+
+    @Inject
+    private InstanceService instanceService;
+
+    @Inject
+    private DefinitionService definitionService;
+
+    @Override
+    public Class<Message> getType() {
+        return Message.class;
+    }
+
+    @Override
+    public Message readBinary(InputStream in) throws IOException, QuickFixException {
+        Map<?, ?> message = (Map<?, ?>) new BinaryJsonReader().read(in);
+        return MessageFormatUtil.readMessage(message, instanceService, definitionService);
+    }
+
+    @Override
+    public void writeBinary(Message value, Map<String, Object> attributes, OutputStream out) throws IOException {
+        AuraContext c = contextService.getCurrentContext();
+        Map<String, Object> m = new HashMap<>();
+        if (attributes != null) {
+            m.putAll(attributes);
+        }
+
+        m.put("actions", value.getActions());
+        m.put("context", c);
+        BinaryJsonEncoder json = BinaryJsonEncoder.createBinaryStream(new UncloseableOutputStream(out),
+                c.getJsonSerializationContext());
+        json.writeValue(m);
+        // flushes, but leaves the caller's stream open.
+        json.close();
+    }
+}
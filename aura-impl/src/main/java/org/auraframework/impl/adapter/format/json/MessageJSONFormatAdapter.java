@@ -15,12 +15,8 @@
  */
 package org.auraframework.impl.adapter.format.json;
 
-import com.google.common.collect.Lists;
 import org.auraframework.annotations.Annotations.ServiceComponent;
-import org.auraframework.def.ActionDef;
-import org.auraframework.def.ComponentDef;
-import org.auraframework.def.DefDescriptor;
-import org.auraframework.instance.Action;
+import org.auraframework.impl.adapter.format.MessageFormatUtil;
 import org.auraframework.service.ContextService;
 import org.auraframework.service.DefinitionService;
 import org.auraframework.service.InstanceService;
@@ -35,7 +31,6 @@ import javax.inject.Inject;
 import java.io.IOException;
 import java.io.Reader;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 @ThreadSafe
@@ -55,37 +50,10 @@ public class MessageJSONFormatAdapter extends JSONFormatAdapter<Message> {
         return Message.class;
     }
 
-    @SuppressWarnings("unchecked")
     @Override
     public Message read(Reader in) throws IOException, QuickFixException {
         Map<?, ?> message = (Map<?, ?>) new JsonReader().read(in);
-
-        List<?> actions = (List<?>) message.get("actions");
-        List<Action> actionList = Lists.newArrayList();
-        if (actions != null) {
-            for (Object action : actions) {
-                Map<?, ?> map = (Map<?, ?>) action;
-
-                // FIXME: ints are getting translated into BigDecimals here.
-                Map<String, Object> params = (Map<String, Object>) map.get("params");
-
-                Action instance = (Action) instanceService.getInstance((String) map.get("descriptor"),
-                        ActionDef.class, params);
-                instance.setId((String) map.get("id"));
-                String cd = (String) map.get("callingDescriptor");
-                if (cd != null && !cd.equals("UNKNOWN")) {
-                    DefDescriptor<ComponentDef> callingDescriptor = definitionService.getDefDescriptor(cd, ComponentDef.class);
-                    instance.setCallingDescriptor(callingDescriptor);
-                }
-                String v = (String) map.get("version");
-                if (v != null) {
-                    instance.setCallerVersion(v);
-                }
-                actionList.add(instance);
-            }
-        }
-
-        return new Message(actionList);
+        return MessageFormatUtil.readMessage(message, instanceService, definitionService);
     }
 
     @Override
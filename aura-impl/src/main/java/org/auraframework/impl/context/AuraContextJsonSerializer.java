@@ -25,12 +25,15 @@ import java.util.Map;
 import java.util.Set;
 
 import org.auraframework.adapter.ConfigAdapter;
+import org.auraframework.cache.Cache;
 import org.auraframework.def.BaseComponentDef;
 import org.auraframework.def.ComponentDef;
 import org.auraframework.def.DefDescriptor;
 import org.auraframework.def.DefDescriptor.DefType;
 import org.auraframework.def.Definition;
+import org.auraframework.instance.CacheableGlobalValueProvider;
 import org.auraframework.instance.GlobalValueProvider;
+import org.auraframework.service.CachingService;
 import org.auraframework.service.DefinitionService;
 import org.auraframework.system.AuraContext;
 import org.auraframework.test.TestContext;
@@ -38,6 +41,8 @@ import org.auraframework.test.TestContextAdapter;
 import org.auraframework.throwable.ClientOutOfSyncException;
 import org.auraframework.throwable.quickfix.QuickFixException;
 import org.auraframework.util.json.Json;
+import org.auraframework.util.json.JsonEncoder;
+import org.auraframework.util.json.JsonFragment;
 import org.auraframework.util.json.JsonSerializationContext;
 import org.auraframework.util.json.JsonSerializers.NoneSerializer;
 
@@ -45,6 +50,9 @@ import com.google.common.collect.Lists;
 
 /**
  * AuraContext JSON Serializer
+ *
+ * The data of {@link CacheableGlobalValueProvider}s, and the component and event definitions, are the same for many
+ * responses, so they are serialized once into {@link JsonFragment}s, and shared through the context fragment cache.
  */
 public class AuraContextJsonSerializer extends NoneSerializer<AuraContext> {
     public static final String DELETED = "deleted";
@@ -52,15 +60,17 @@ public class AuraContextJsonSerializer extends NoneSerializer<AuraContext> {
     private final TestContextAdapter testContextAdapter;
     private final ConfigAdapter configAdapter;
     private final DefinitionService definitionService;
+    private final CachingService cachingService;
 
     public AuraContextJsonSerializer(ConfigAdapter configAdapter, TestContextAdapter testContextAdapter,
-            DefinitionService definitionService) {
+            DefinitionService definitionService, CachingService cachingService) {
         this.configAdapter = configAdapter;
         this.testContextAdapter = testContextAdapter;
         this.definitionService = definitionService;
+        this.cachingService = cachingService;
     }
 
-    private void writeDefs(Json json, String name, List<Definition> writable) throws IOException {
+    private void writeDefs(Json json, String name, List<Object> writable) throws IOException {
         if (writable.size() > 0) {
             json.writeMapEntry(name, writable);
         }
@@ -123,9 +133,9 @@ public class AuraContextJsonSerializer extends NoneSerializer<AuraContext> {
         defMap = ctx.filterLocalDefs(ctx.getPreloadedDefinitions());
 
         if (defMap.size() > 0) {
-            List<Definition> componentDefs = Lists.newArrayList();
-            List<Definition> eventDefs = Lists.newArrayList();
-            List<Definition> libraryDefs = Lists.newArrayList();
+            List<Object> componentDefs = Lists.newArrayList();
+            List<Object> eventDefs = Lists.newArrayList();
+            List<Object> libraryDefs = Lists.newArrayList();
 
             for (Map.Entry<DefDescriptor<? extends Definition>, Definition> entry : defMap.entrySet()) {
                 DefDescriptor<? extends Definition> desc = entry.getKey();
@@ -142,10 +152,11 @@ public class AuraContextJsonSerializer extends NoneSerializer<AuraContext> {
                         // this should not throw a QFE
                     }
                     if (DefType.COMPONENT.equals(dt) || DefType.APPLICATION.equals(dt)) {
-                        componentDefs.add(d);
+                        componentDefs.add(getDefinitionFragment(ctx, d));
                     } else if (DefType.EVENT.equals(dt)) {
-                        eventDefs.add(d);
+                        eventDefs.add(getDefinitionFragment(ctx, d));
                     } else if (DefType.LIBRARY.equals(dt)) {
+                        // the includes are written out or not depending on what the client has, so never cached.
                         libraryDefs.add(d);
                     }
                 }
@@ -205,7 +216,7 @@ public class AuraContextJsonSerializer extends NoneSerializer<AuraContext> {
                 json.writeIndent();
                 json.writeMapBegin();
                 json.writeMapEntry("type", valueProvider.getValueProviderKey().getPrefix());
-                json.writeMapEntry("values", valueProvider.getData());
+                json.writeMapEntry("values", getProviderData(ctx, valueProvider));
                 json.writeMapEnd();
             }
         }
@@ -227,6 +238,55 @@ public class AuraContextJsonSerializer extends NoneSerializer<AuraContext> {
 
     }
 
+    /**
+     * Get the serialized data of a value provider, shared with any other request that has the same.
+     */
+    private Object getProviderData(AuraContext ctx, GlobalValueProvider valueProvider) {
+        String cacheKey = null;
+        if (cachingService != null && valueProvider instanceof CacheableGlobalValueProvider) {
+            cacheKey = ((CacheableGlobalValueProvider) valueProvider).getCacheKey();
+        }
+        if (cacheKey == null) {
+            return valueProvider.getData();
+        }
+        String key = String.format("GVP:%s:%s:%s:%s", valueProvider.getValueProviderKey().getPrefix(), ctx.getMode(),
+                configAdapter.getAuraFrameworkNonce(), cacheKey);
+        return getFragment(ctx, key, valueProvider.getData());
+    }
+
+    /**
+     * Get the serialized form of a definition.
+     *
+     * As with the definition fragments in app.js, the key includes the hash of the definition's own source, so that
+     * there is no lookup of the uid for each definition on each response, along with everything else that the
+     * serialized form depends on. What it carries of its dependencies is not covered, so the cache is flushed whenever
+     * a source changes.
+     */
+    private Object getDefinitionFragment(AuraContext ctx, Definition def) {
+        if (cachingService == null) {
+            return def;
+        }
+        String hash = def.getOwnHash();
+        if (hash == null) {
+            return def;
+        }
+        DefDescriptor<?> descriptor = def.getDescriptor();
+        String key = String.format("DEF:%s:%s:%s:%s:%s:%s:%s@%s", descriptor.getDefType(), ctx.getMode(),
+                ctx.isPreloading(), ctx.isPreloaded(descriptor), ctx.getClientClassLoaded(descriptor),
+                configAdapter.getLockerServiceCacheBuster(), hash, descriptor.getQualifiedName().toLowerCase());
+        return getFragment(ctx, key, def);
+    }
+
+    private JsonFragment getFragment(AuraContext ctx, String key, Object value) {
+        Cache<String, JsonFragment> cache = cachingService.getContextFragmentCache();
+        JsonFragment fragment = cache.getIfPresent(key);
+        if (fragment == null) {
+            fragment = new JsonFragment(JsonEncoder.serialize(value, ctx.getJsonSerializationContext()), value);
+            cache.put(key, fragment);
+        }
+        return fragment;
+    }
+
     private void addTrackedDefs(DefDescriptor<? extends BaseComponentDef> appDesc, 
             Map<DefDescriptor<? extends Definition>, Definition> defMap) throws QuickFixException {
 
@@ -16,6 +16,7 @@
 package org.auraframework.impl.context;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -28,12 +29,14 @@ import javax.inject.Inject;
 import org.auraframework.adapter.ConfigAdapter;
 import org.auraframework.adapter.ContextAdapter;
 import org.auraframework.adapter.GlobalValueProviderAdapter;
+import org.auraframework.adapter.LoggingAdapter;
 import org.auraframework.adapter.PrefixDefaultsAdapter;
 import org.auraframework.adapter.RegistryAdapter;
 import org.auraframework.annotations.Annotations.ServiceComponent;
 import org.auraframework.def.BaseComponentDef;
 import org.auraframework.def.DefDescriptor;
 import org.auraframework.impl.system.MasterDefRegistryImpl;
+import org.auraframework.impl.system.RegistryTrie;
 import org.auraframework.impl.util.AuraUtil;
 import org.auraframework.impl.util.json.AuraJsonContext;
 import org.auraframework.instance.GlobalValueProvider;
@@ -46,12 +49,16 @@ import org.auraframework.system.AuraContext.Authentication;
 import org.auraframework.system.AuraContext.Format;
 import org.auraframework.system.AuraContext.Mode;
 import org.auraframework.system.DefRegistry;
+import org.auraframework.system.LoggingContext;
 import org.auraframework.system.SourceLoader;
 import org.auraframework.throwable.NoContextException;
 import org.auraframework.util.json.JsonSerializerFactory;
 import org.springframework.context.annotation.Lazy;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 
 @Lazy
 @ServiceComponent
@@ -74,6 +81,9 @@ public class AuraContextServiceImpl implements ContextService {
     @Inject
     private ContextAdapter contextAdapter;
 
+    @Inject
+    private LoggingAdapter loggingAdapter;
+
     @Inject
     private Collection<RegistryAdapter> providers;
 
@@ -172,6 +182,28 @@ public class AuraContextServiceImpl implements ContextService {
         }
     }
 
+    @Override
+    public Runnable propagateContext(final Runnable work) {
+        assertEstablished();
+        // attach() refuses to run inside a system context, so this also checks that we are not in one.
+        final AuraContext context = contextAdapter.attach(null);
+        contextAdapter.attach(context);
+        final LoggingContext loggingContext = loggingAdapter.getLoggingContext();
+        return new Runnable() {
+            @Override
+            public void run() {
+                AuraContext previous = contextAdapter.attach(context);
+                LoggingContext previousLogging = loggingAdapter.attach(loggingContext);
+                try {
+                    work.run();
+                } finally {
+                    loggingAdapter.attach(previousLogging);
+                    contextAdapter.attach(previous);
+                }
+            }
+        };
+    }
+
     @Override
     public AuraContext pushSystemContext() {
         assertEstablished();
@@ -183,29 +215,80 @@ public class AuraContextServiceImpl implements ContextService {
         contextAdapter.popSystemContext();
     }
 
+    /** Number of mode, access and loader combinations whose registries are kept. */
+    private static final int REGISTRY_SNAPSHOTS_SIZE = 64;
+
+    /**
+     * The registries from all of the providers, and the trie built over them.
+     */
+    private static class RegistrySnapshot {
+        private final List<DefRegistry<?>[]> providerRegistries;
+        private final RegistryTrie trie;
+
+        private RegistrySnapshot(List<DefRegistry<?>[]> providerRegistries) {
+            List<DefRegistry<?>> all = new ArrayList<>();
+            for (DefRegistry<?>[] registries : providerRegistries) {
+                Collections.addAll(all, registries);
+            }
+            this.providerRegistries = providerRegistries;
+            this.trie = new RegistryTrie(all.toArray(new DefRegistry[all.size()]));
+        }
+
+        /**
+         * Providers hand out the same registries until something changes, so this is an identity check.
+         */
+        private boolean isBuiltFrom(List<DefRegistry<?>[]> current) {
+            if (current.size() != providerRegistries.size()) {
+                return false;
+            }
+            for (int i = 0; i < current.size(); i++) {
+                if (current.get(i) != providerRegistries.get(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private final Cache<List<Object>, RegistrySnapshot> registrySnapshots = CacheBuilder.newBuilder()
+            .maximumSize(REGISTRY_SNAPSHOTS_SIZE)
+            .build();
+
     private MasterDefRegistryImpl getDefRegistry(Mode mode, Authentication access, Set<SourceLoader> loaders) {
         return new MasterDefRegistryImpl(configAdapter, definitionService, loggingService, cachingService,
-                getRegistries(mode, access, loaders));
+                getRegistryTrie(mode, access, loaders));
     }
 
-    private DefRegistry<?>[] getRegistries(Mode mode, Authentication access, Set<SourceLoader> loaders) {
-        List<DefRegistry<?>> ret = new ArrayList<>();
-        ret.addAll(addRegistriesFromProviders(providers, mode, access, loaders));
-        return ret.toArray(new DefRegistry[ret.size()]);
+    /**
+     * Get the trie over the registries of all providers.
+     *
+     * Building the trie is not cheap, and it would otherwise be done for every context, so it is shared until one of
+     * the providers hands out different registries.
+     */
+    private RegistryTrie getRegistryTrie(Mode mode, Authentication access, Set<SourceLoader> loaders) {
+        List<DefRegistry<?>[]> registries = getRegistriesFromProviders(providers, mode, access, loaders);
+        List<Object> key = Arrays.<Object> asList(mode, access,
+                loaders == null ? ImmutableSet.<SourceLoader> of() : ImmutableSet.copyOf(loaders));
+        RegistrySnapshot snapshot = registrySnapshots.getIfPresent(key);
+        if (snapshot == null || !snapshot.isBuiltFrom(registries)) {
+            snapshot = new RegistrySnapshot(registries);
+            registrySnapshots.put(key, snapshot);
+        }
+        return snapshot.trie;
     }
 
-    private List<DefRegistry<?>> addRegistriesFromProviders(Collection<RegistryAdapter> providers, Mode mode,
-                                                            Authentication access, Set<SourceLoader> loaders) {
-        List<DefRegistry<?>> ret = new ArrayList<>();
+    private List<DefRegistry<?>[]> getRegistriesFromProviders(Collection<RegistryAdapter> providers, Mode mode,
+                                                              Authentication access, Set<SourceLoader> loaders) {
+        List<DefRegistry<?>[]> ret = new ArrayList<>();
         for (RegistryAdapter provider : providers) {
             DefRegistry<?>[] registries = provider.getRegistries(mode, access, loaders);
             if (registries != null) {
-                Collections.addAll(ret, registries);
+                ret.add(registries);
             }
         }
         return ret;
     }
-    
+
     private Map<String, GlobalValueProvider> getGlobalProviders() {
         // load any @Primary GlobalValueProviderAdapter first, to give it's
         // implementations precedence
@@ -68,6 +68,8 @@ import org.auraframework.system.SourceLoader;
 import org.auraframework.throwable.AuraRuntimeException;
 import org.auraframework.util.FileMonitor;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
 
@@ -292,6 +294,19 @@ public class AuraRegistryProviderImpl extends AbstractRegistryAdapterImpl implem
 
     private ConcurrentHashMap<ComponentLocationAdapter, SourceLocationInfo> locationMap = new ConcurrentHashMap<>();
 
+    /** Number of distinct sets of extra loaders whose registries are kept, normally there is only the empty set. */
+    private static final int REGISTRIES_CACHE_SIZE = 32;
+
+    /**
+     * The registries handed out, by the extra loaders they were built with.
+     *
+     * Mode and access do not change the registries we build. Entries are only added and dropped while holding the
+     * lock on this, so that a set of registries built before a source change is never kept after it.
+     */
+    private final Cache<Set<SourceLoader>, DefRegistry<?>[]> registriesCache = CacheBuilder.newBuilder()
+            .maximumSize(REGISTRIES_CACHE_SIZE)
+            .build();
+
     private SourceLocationInfo getSourceLocationInfo(ComponentLocationAdapter location) {
         SourceLocationInfo sli = locationMap.get(location);
         if (sli != null) {
@@ -302,8 +317,30 @@ public class AuraRegistryProviderImpl extends AbstractRegistryAdapterImpl implem
         return sli;
     }
 
+    /**
+     * Get the registries.
+     *
+     * The same array is returned until a source changes, callers can share it and anything built from it, but must
+     * not modify it.
+     */
     @Override
     public DefRegistry<?>[] getRegistries(Mode mode, Authentication access, Set<SourceLoader> extraLoaders) {
+        Set<SourceLoader> key = extraLoaders == null ? ImmutableSet.<SourceLoader> of() : ImmutableSet.copyOf(extraLoaders);
+        DefRegistry<?>[] ret = registriesCache.getIfPresent(key);
+        if (ret != null) {
+            return ret;
+        }
+        synchronized (this) {
+            ret = registriesCache.getIfPresent(key);
+            if (ret == null) {
+                ret = createRegistries(extraLoaders);
+                registriesCache.put(key, ret);
+            }
+        }
+        return ret;
+    }
+
+    private DefRegistry<?>[] createRegistries(Set<SourceLoader> extraLoaders) {
         DefRegistry<?>[] ret;
 
             Collection<ComponentLocationAdapter> markupLocations = getAllComponentLocationAdapters();
@@ -376,6 +413,8 @@ public class AuraRegistryProviderImpl extends AbstractRegistryAdapterImpl implem
     @Override
     public void onSourceChanged(DefDescriptor<?> source, SourceMonitorEvent event, String filePath) {
         synchronized (this) {
+            // namespaces, and with them the registries, can come and go with any change.
+            registriesCache.invalidateAll();
             if (filePath != null) {
                 File file = new File(filePath);
                 try {
@@ -68,14 +68,14 @@ public class JavaAction extends AbstractActionImpl<JavaActionDef> {
     }
 
     private Object[] getArgs(ExceptionAdapter exceptionAdapter) {
-        Class<?>[] javaParams = actionDef.getJavaParams();
-        Object[] args = new Object[javaParams.length];
-        int i = 0;
+        List<ValueDef> parameters = actionDef.getParameters();
+        Object[] args = new Object[actionDef.getJavaParams().length];
 
-        for (ValueDef valueDef : actionDef.getParameters()) {
+        for (int i = 0; i < parameters.size(); i++) {
+            ValueDef valueDef = parameters.get(i);
             Object param = paramValues.get(valueDef.getName());
             try {
-                param = valueDef.getType().valueOf(param);
+                param = actionDef.getParameterType(i).valueOf(param);
             } catch (QuickFixException qfe) {
                 //
                 // This means that we have a broken definition.
@@ -95,7 +95,7 @@ public class JavaAction extends AbstractActionImpl<JavaActionDef> {
                         false, exceptionAdapter);
                 return null;
             }
-            args[i++] = param;
+            args[i] = param;
         }
         return args;
     }
@@ -142,7 +142,7 @@ public class JavaAction extends AbstractActionImpl<JavaActionDef> {
         loggingService.startTimer("java");
         try {
             loggingService.incrementNum("JavaCallCount");
-            this.returnValue = this.actionDef.getMethod().invoke(instance, args);
+            this.returnValue = this.actionDef.getInvoker().invoke(instance, args);
             this.state = State.SUCCESS;
         } catch (InvocationTargetException e) {
             // something bad happened in the body of the action itself
@@ -21,11 +21,13 @@ import org.auraframework.def.TypeDef;
 import org.auraframework.def.ValueDef;
 import org.auraframework.impl.system.DefinitionImpl;
 import org.auraframework.impl.util.AuraUtil;
+import org.auraframework.throwable.quickfix.QuickFixException;
 import org.auraframework.util.json.Json;
 
 import java.io.IOException;
 import java.lang.reflect.Method;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * action in java, aka static method.
@@ -37,6 +39,8 @@ public class JavaActionDef extends DefinitionImpl<ActionDef> implements ActionDe
     private final List<String> loggableParams;
     private final Class<?>[] javaParams;
     private final Method method;
+    private final JavaActionInvoker invoker;
+    private final AtomicReferenceArray<TypeDef> parameterTypes;
     private final boolean background;
     private final boolean caboose;
 
@@ -47,6 +51,12 @@ public class JavaActionDef extends DefinitionImpl<ActionDef> implements ActionDe
         this.loggableParams = builder.loggableParams;
         this.javaParams = builder.javaParams;
         this.method = builder.method;
+        if (builder.invoker == null && builder.method != null) {
+            this.invoker = JavaActionInvoker.create(builder.method);
+        } else {
+            this.invoker = builder.invoker;
+        }
+        this.parameterTypes = new AtomicReferenceArray<>(this.params.size());
         this.background = builder.background;
         this.caboose = builder.caboose;
     }
@@ -79,6 +89,32 @@ public class JavaActionDef extends DefinitionImpl<ActionDef> implements ActionDe
         return this.method;
     }
 
+    /**
+     * Gets the invoker for the method.
+     */
+    public JavaActionInvoker getInvoker() {
+        return this.invoker;
+    }
+
+    /**
+     * Gets the type of a parameter, resolved on first use and kept for every later call.
+     *
+     * The slots are filled without locking, a race just resolves the same type twice. Each slot is published through
+     * the atomic array, so another thread never sees a partly built type.
+     *
+     * @param index the index of the parameter in {@link #getParameters()}.
+     * @return the type definition used to convert the parameter.
+     * @throws QuickFixException if the type cannot be found.
+     */
+    TypeDef getParameterType(int index) throws QuickFixException {
+        TypeDef type = parameterTypes.get(index);
+        if (type == null) {
+            type = params.get(index).getType();
+            parameterTypes.set(index, type);
+        }
+        return type;
+    }
+
     @Override
     public DefDescriptor<TypeDef> getReturnType() {
         return returnTypeDescriptor;
@@ -116,6 +152,7 @@ public class JavaActionDef extends DefinitionImpl<ActionDef> implements ActionDe
         private List<String> loggableParams;
         private Class<?>[] javaParams;
         private Method method;
+        private JavaActionInvoker invoker;
         private boolean background = false;
         private boolean caboose = false;
 
@@ -164,6 +201,10 @@ public class JavaActionDef extends DefinitionImpl<ActionDef> implements ActionDe
             this.method = method;
         }
 
+        public void setInvoker(JavaActionInvoker invoker) {
+            this.invoker = invoker;
+        }
+
         public void setBackground(boolean background) {
             this.background = background;
         }
@@ -0,0 +1,135 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.java.controller;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.List;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.primitives.Primitives;
+
+/**
+ * Calls the method behind a java action through a method handle.
+ *
+ * The handle is built once per action, when the controller definition is created, and spreads the argument array
+ * straight into the call, so running an action does no reflective access checks or argument copying.
+ *
+ * To keep the behaviour of {@link Method#invoke(Object, Object...)}, arguments are checked against the parameter
+ * types before the call, and anything thrown by the action itself comes back as an
+ * {@link InvocationTargetException}.
+ */
+public final class JavaActionInvoker {
+    private static final List<Class<?>> WIDENING_ORDER = ImmutableList.<Class<?>> of(byte.class, short.class,
+            int.class, long.class, float.class, double.class);
+    private static final MethodType INVOKER_TYPE = MethodType.methodType(Object.class, Object.class, Object[].class);
+
+    private final Method method;
+    private final Class<?>[] parameterTypes;
+    private final boolean isStatic;
+    private final MethodHandle handle;
+
+    private JavaActionInvoker(Method method, MethodHandle handle) {
+        this.method = method;
+        this.parameterTypes = method.getParameterTypes();
+        this.isStatic = Modifier.isStatic(method.getModifiers());
+        this.handle = handle;
+    }
+
+    /**
+     * Make an invoker for an action method.
+     */
+    public static JavaActionInvoker create(Method method) {
+        MethodHandle handle;
+        try {
+            handle = MethodHandles.publicLookup().unreflect(method);
+            if (Modifier.isStatic(method.getModifiers())) {
+                handle = MethodHandles.dropArguments(handle, 0, Object.class);
+            }
+            handle = handle.asSpreader(Object[].class, method.getParameterTypes().length).asType(INVOKER_TYPE);
+        } catch (IllegalAccessException iae) {
+            // e.g. a public method on a non-public class, leave it to reflection.
+            handle = null;
+        }
+        return new JavaActionInvoker(method, handle);
+    }
+
+    /**
+     * Run the action.
+     *
+     * @param target the controller instance, ignored for static methods.
+     * @param args the converted arguments, one per parameter.
+     * @return the return value of the action, null for void.
+     * @throws IllegalAccessException if the method is not accessible.
+     * @throws IllegalArgumentException if the target or arguments do not match the method.
+     * @throws InvocationTargetException if the action threw.
+     */
+    public Object invoke(Object target, Object[] args) throws IllegalAccessException, InvocationTargetException {
+        if (handle == null) {
+            return method.invoke(target, args);
+        }
+        if (!isStatic && !method.getDeclaringClass().isInstance(target)) {
+            throw new IllegalArgumentException("object is not an instance of declaring class");
+        }
+        checkArguments(args);
+        try {
+            return handle.invokeExact(target, args);
+        } catch (Throwable t) {
+            throw new InvocationTargetException(t);
+        }
+    }
+
+    public Method getMethod() {
+        return method;
+    }
+
+    private void checkArguments(Object[] args) {
+        int count = args == null ? 0 : args.length;
+        if (count != parameterTypes.length) {
+            throw new IllegalArgumentException("wrong number of arguments");
+        }
+        for (int i = 0; i < count; i++) {
+            Class<?> type = parameterTypes[i];
+            Object arg = args[i];
+            if (arg == null) {
+                if (type.isPrimitive()) {
+                    throw new IllegalArgumentException("null passed for primitive parameter " + i);
+                }
+            } else if (type.isPrimitive() ? !isWidenable(arg.getClass(), type) : !type.isInstance(arg)) {
+                throw new IllegalArgumentException("argument type mismatch");
+            }
+        }
+    }
+
+    /**
+     * Method.invoke allows widening primitive conversions after unboxing, e.g. an Integer for a long parameter.
+     */
+    private static boolean isWidenable(Class<?> wrapper, Class<?> to) {
+        Class<?> from = Primitives.unwrap(wrapper);
+        if (from == to) {
+            return true;
+        }
+        if (!from.isPrimitive() || from == boolean.class || to == boolean.class || to == char.class) {
+            return false;
+        }
+        int fromRank = from == char.class ? WIDENING_ORDER.indexOf(short.class) : WIDENING_ORDER.indexOf(from);
+        return fromRank < WIDENING_ORDER.indexOf(to);
+    }
+}
@@ -147,6 +147,7 @@ public class JavaControllerDefFactory extends BaseJavaDefFactory<ControllerDef>
 
         actionBuilder.setDescriptor(SubDefDescriptorImpl.getInstance(name, controllerDesc, ActionDef.class));
         actionBuilder.setMethod(method);
+        actionBuilder.setInvoker(JavaActionInvoker.create(method));
         actionBuilder.setReturnTypeDescriptor(definitionService.getDefDescriptor("java://"
                 + method.getReturnType().getName(), TypeDef.class));
         actionBuilder.setJavaParams(method.getParameterTypes());
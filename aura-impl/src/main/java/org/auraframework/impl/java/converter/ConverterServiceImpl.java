@@ -18,6 +18,8 @@ package org.auraframework.impl.java.converter;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.annotation.PostConstruct;
 import javax.inject.Inject;
@@ -66,10 +68,34 @@ public final class ConverterServiceImpl implements ConverterService {
     private final Map<String, Map<String, Map<String, Converter<?, ?>>>> parameterizedConverters = Maps.newHashMap();
     private final Map<String, Map<String, MultiConverter<?>>> multiConverterMap = Maps.newHashMap();
 
+    /**
+     * The converters found for each pair of classes, so that a conversion costs an identity lookup instead of
+     * walking the maps above by class name. Pairs with no converter are kept too. The maps above do not change
+     * after init, so nothing here ever needs to be invalidated.
+     */
+    private final ClassValue<ConcurrentMap<Class<?>, ResolvedTarget>> resolvedConverters =
+            new ClassValue<ConcurrentMap<Class<?>, ResolvedTarget>>() {
+        @Override
+        protected ConcurrentMap<Class<?>, ResolvedTarget> computeValue(Class<?> from) {
+            return new ConcurrentHashMap<>();
+        }
+    };
 
     public ConverterServiceImpl() {
     }
 
+    /**
+     * Create a service outside of the container, e.g. for benchmarks.
+     */
+    public ConverterServiceImpl(Converter<?, ?>[] converters, MultiConverter<?>[] multiConverters,
+            LoggingService loggingService, LocalizationAdapter localizationAdapter) {
+        this.converters = converters;
+        this.multiConverters = multiConverters;
+        this.loggingService = loggingService;
+        this.localizationAdapter = localizationAdapter;
+        init();
+    }
+
     @PostConstruct
     void init() {
         buildMapOfConverters();
@@ -97,16 +123,13 @@ public final class ConverterServiceImpl implements ConverterService {
             return (T) value;
         }
 
-        Converter<F, T> converter = getConverter(from, to, of);
+        Resolved resolved = resolve(from, to, of);
+        Converter<F, T> converter = resolved.getConverter();
         if (converter != null) {
             return converter.convert(value);
         }
 
-        MultiConverter<T> multiConverter = null;
-        if (of == null) {
-            multiConverter = getMultiConverter(from, to);
-        }
-
+        MultiConverter<T> multiConverter = resolved.getMultiConverter();
         if (multiConverter == null) {
             throw new ConversionException(String.format("No Converter or MultiConverter found for %s to %s<%s>", from, to, of));
         }
@@ -146,7 +169,7 @@ public final class ConverterServiceImpl implements ConverterService {
 
         // if no localized version exists, use the standard convert utility
         final Class<F> from = (Class<F>) value.getClass();
-        final LocalizedConverter<F, T> converter = getLocalizedConverter(from, to, of);
+        final LocalizedConverter<F, T> converter = resolve(from, to, of).getLocalizedConverter();
         if (converter == null) {
             return convert(value, to, of, trim);
         }
@@ -182,6 +205,38 @@ public final class ConverterServiceImpl implements ConverterService {
                 trim);
     }
 
+    /**
+     * Find the converters for a conversion, looking them up the first time the pair of classes is seen.
+     */
+    private Resolved resolve(Class<?> from, Class<?> to, String of) {
+        ConcurrentMap<Class<?>, ResolvedTarget> targets = resolvedConverters.get(from);
+        ResolvedTarget target = targets.get(to);
+        if (target == null) {
+            target = new ResolvedTarget();
+            ResolvedTarget existing = targets.putIfAbsent(to, target);
+            if (existing != null) {
+                target = existing;
+            }
+        }
+
+        if (of == null) {
+            Resolved resolved = target.plain;
+            if (resolved == null) {
+                resolved = Resolved.of(getConverter(from, to, null), getMultiConverter(from, to),
+                        getLocalizedConverter(from, to, null));
+                target.plain = resolved;
+            }
+            return resolved;
+        }
+
+        Resolved resolved = target.parameterized.get(of);
+        if (resolved == null) {
+            resolved = Resolved.of(getConverter(from, to, of), null, getLocalizedConverter(from, to, of));
+            target.parameterized.putIfAbsent(of, resolved);
+        }
+        return resolved;
+    }
+
     @SuppressWarnings("unchecked")
     private <F, T> LocalizedConverter<F, T> getLocalizedConverter(Class<F> from, Class<T> to, String of) {
         if (of == null) {
@@ -391,17 +446,67 @@ public final class ConverterServiceImpl implements ConverterService {
 
     @Override
     public boolean hasConverter(Class<?> from, Class<?> to) {
-        return getConverter(from, to, null) != null;
+        return resolve(from, to, null).getConverter() != null;
     }
 
     @Override
     public boolean hasLocalizedConverter(Class<?> from, Class<?> to) {
-        return getLocalizedConverter(from, to, null) != null;
+        return resolve(from, to, null).getLocalizedConverter() != null;
     }
 
     @Override
     public boolean hasConverter(Class<?> from, Class<?> to, String of) {
-        return getConverter(from, to, of) != null || (of == null && getMultiConverter(from, to) != null);
+        Resolved resolved = resolve(from, to, of);
+        return resolved.getConverter() != null || resolved.getMultiConverter() != null;
+    }
+
+    /**
+     * The converters for one source class and target class.
+     */
+    private static final class ResolvedTarget {
+        private volatile Resolved plain;
+        private final ConcurrentMap<String, Resolved> parameterized = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * The converters for one conversion, any of which may be null.
+     */
+    private static final class Resolved {
+        private static final Resolved NONE = new Resolved(null, null, null);
+
+        private final Converter<?, ?> converter;
+        private final MultiConverter<?> multiConverter;
+        private final LocalizedConverter<?, ?> localizedConverter;
+
+        private Resolved(Converter<?, ?> converter, MultiConverter<?> multiConverter,
+                LocalizedConverter<?, ?> localizedConverter) {
+            this.converter = converter;
+            this.multiConverter = multiConverter;
+            this.localizedConverter = localizedConverter;
+        }
+
+        private static Resolved of(Converter<?, ?> converter, MultiConverter<?> multiConverter,
+                LocalizedConverter<?, ?> localizedConverter) {
+            if (converter == null && multiConverter == null && localizedConverter == null) {
+                return NONE;
+            }
+            return new Resolved(converter, multiConverter, localizedConverter);
+        }
+
+        @SuppressWarnings("unchecked")
+        private <F, T> Converter<F, T> getConverter() {
+            return (Converter<F, T>) converter;
+        }
+
+        @SuppressWarnings("unchecked")
+        private <T> MultiConverter<T> getMultiConverter() {
+            return (MultiConverter<T>) multiConverter;
+        }
+
+        @SuppressWarnings("unchecked")
+        private <F, T> LocalizedConverter<F, T> getLocalizedConverter() {
+            return (LocalizedConverter<F, T>) localizedConverter;
+        }
     }
 
 }
@@ -17,7 +17,6 @@ package org.auraframework.impl.java.model;
 
 import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.util.List;
 import java.util.Map;
 
@@ -36,7 +35,6 @@ import org.auraframework.service.LoggingService;
 import org.auraframework.throwable.AuraExecutionException;
 import org.auraframework.throwable.AuraRuntimeException;
 import org.auraframework.throwable.quickfix.QuickFixException;
-import org.auraframework.util.AuraTextUtil;
 import org.auraframework.util.json.Json;
 
 /**
@@ -44,6 +42,13 @@ import org.auraframework.util.json.Json;
  *
  * The model is directly instantiated from the class (unlike controllers
  * which are static).
+ *
+ * A getter for a large list can return an {@link java.util.Iterator},
+ * {@link java.util.stream.Stream} or {@link java.util.Spliterator} instead
+ * of a collection. The elements are then written to the response one at a
+ * time as they are pulled, so only the current one needs to be in memory.
+ * Since these can only be walked once, the getter must hand out a new one
+ * on every call, and expressions cannot index into them on the server.
  */
 public class JavaModel implements Model {
     private final Object bean;
@@ -160,18 +165,12 @@ public class JavaModel implements Model {
                 }
             }
             else {
-                Method meth = null;
-                try {
-                    meth = root.getClass().getMethod("get" + AuraTextUtil.initCap(part));
-                } catch (NoSuchMethodException e) {
-                    try {
-                        meth = root.getClass().getMethod("is" + AuraTextUtil.initCap(part));
-                    } catch (NoSuchMethodException nme) {
-                        throw makeException("no such property: " + part, e, def);
-                    }
+                JavaPropertyAccessor accessor = JavaPropertyAccessor.get(root.getClass(), part);
+                if (accessor == null) {
+                    throw makeException("no such property: " + part, null, def);
                 }
                 try {
-                    ret = meth.invoke(root);
+                    ret = accessor.invoke(root);
                 } catch (IllegalAccessException iae) {
                     throw makeException("no such property: " + part, iae, def);
                 } catch (InvocationTargetException ite) {
@@ -0,0 +1,159 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.java.model;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+
+import org.auraframework.impl.java.type.JavaValueProvider;
+import org.auraframework.util.AuraTextUtil;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+
+/**
+ * A getter on a java bean, called through a method handle.
+ *
+ * The getters of a class are looked up once, the first time a property of the class is read, and kept in a table
+ * per class, with the same resolution as {@code getMethod("get" + initCap(name))}, falling back to "is". Properties
+ * that do not exist are simply not in the table, so a miss costs a map lookup.
+ *
+ * This is used for bean access from {@link JavaModel}, {@link JavaValueProvider} and the members of a java model.
+ *
+ * The table holds the getters and their handles strongly, and so the class and its class loader: a class read here
+ * stays loaded for as long as this class is. That is fine for models and beans on the application class path, but
+ * this should not be used for classes from loaders that are meant to be thrown away.
+ */
+public final class JavaPropertyAccessor {
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private static final ClassValue<Map<String, JavaPropertyAccessor>> ACCESSORS =
+            new ClassValue<Map<String, JavaPropertyAccessor>>() {
+        @Override
+        protected Map<String, JavaPropertyAccessor> computeValue(Class<?> type) {
+            return buildAccessors(type);
+        }
+    };
+
+    private final Class<?> type;
+    private final Method method;
+    private final MethodHandle handle;
+
+    private JavaPropertyAccessor(Class<?> type, Method method, MethodHandle handle) {
+        this.type = type;
+        this.method = method;
+        this.handle = handle;
+    }
+
+    /**
+     * Get the accessor for a property.
+     *
+     * @param type the class of the bean.
+     * @param name the name of the property.
+     * @return the accessor, or null if there is no public getter for the property.
+     */
+    public static JavaPropertyAccessor get(Class<?> type, String name) {
+        return ACCESSORS.get(type).get(AuraTextUtil.initCap(name));
+    }
+
+    /**
+     * Make an accessor for a known getter.
+     */
+    public static JavaPropertyAccessor forMethod(Method getter) {
+        return create(getter.getDeclaringClass(), getter);
+    }
+
+    /**
+     * Read the property.
+     *
+     * This throws the same exceptions as {@link Method#invoke(Object, Object...)} would, so that callers see no
+     * difference.
+     *
+     * @param bean the bean to read from.
+     * @throws IllegalAccessException if the getter is not accessible (e.g. declared by a private class).
+     * @throws InvocationTargetException if the getter threw.
+     */
+    public Object invoke(Object bean) throws IllegalAccessException, InvocationTargetException {
+        if (handle == null) {
+            return method.invoke(bean);
+        }
+        if (!Modifier.isStatic(method.getModifiers()) && !type.isInstance(bean)) {
+            throw new IllegalArgumentException("object is not an instance of declaring class");
+        }
+        try {
+            return handle.invokeExact(bean);
+        } catch (Throwable t) {
+            throw new InvocationTargetException(t);
+        }
+    }
+
+    public Method getMethod() {
+        return method;
+    }
+
+    private static Map<String, JavaPropertyAccessor> buildAccessors(Class<?> type) {
+        Map<String, Method> getters = Maps.newHashMap();
+        Map<String, Method> iss = Maps.newHashMap();
+        for (Method method : type.getMethods()) {
+            if (method.getParameterTypes().length != 0) {
+                continue;
+            }
+            String name = method.getName();
+            if (name.startsWith("get")) {
+                putMostSpecific(getters, name.substring(3), method);
+            } else if (name.startsWith("is")) {
+                putMostSpecific(iss, name.substring(2), method);
+            }
+        }
+        iss.putAll(getters);
+
+        ImmutableMap.Builder<String, JavaPropertyAccessor> accessors = ImmutableMap.builder();
+        for (Map.Entry<String, Method> entry : iss.entrySet()) {
+            accessors.put(entry.getKey(), create(type, entry.getValue()));
+        }
+        return accessors.build();
+    }
+
+    /**
+     * Covariant overrides show up as several methods of the same name, keep the one getMethod() would return.
+     */
+    private static void putMostSpecific(Map<String, Method> methods, String name, Method method) {
+        Method existing = methods.get(name);
+        if (existing == null || existing.getReturnType().isAssignableFrom(method.getReturnType())) {
+            methods.put(name, method);
+        }
+    }
+
+    private static JavaPropertyAccessor create(Class<?> type, Method method) {
+        MethodHandle handle;
+        try {
+            handle = MethodHandles.publicLookup().unreflect(method);
+            if (Modifier.isStatic(method.getModifiers())) {
+                handle = MethodHandles.dropArguments(handle, 0, Object.class);
+            }
+            handle = handle.asType(GETTER_TYPE);
+        } catch (IllegalAccessException iae) {
+            // e.g. a public method on a private class, leave it to reflection, which will fail in the usual way.
+            handle = null;
+        }
+        return new JavaPropertyAccessor(type, method, handle);
+    }
+}
@@ -42,7 +42,7 @@ public class JavaValueDef extends DefinitionImpl<ValueDef> implements ValueDef {
 
     private final String name;
     private final DefDescriptor<TypeDef> typeDescriptor;
-    private final Method getter;
+    private final JavaPropertyAccessor getter;
 
     public JavaValueDef(String name, DefDescriptor<TypeDef> typeDescriptor, Location location) {
         super(null, location, new DefinitionAccessImpl(Access.INTERNAL));
@@ -54,7 +54,7 @@ public class JavaValueDef extends DefinitionImpl<ValueDef> implements ValueDef {
     public JavaValueDef(String name, Method getter, DefDescriptor<TypeDef> typeDescriptor, Location location) {
         super(null, location, null);
         this.name = name;
-        this.getter = getter;
+        this.getter = JavaPropertyAccessor.forMethod(getter);
         this.typeDescriptor = typeDescriptor;
     }
 
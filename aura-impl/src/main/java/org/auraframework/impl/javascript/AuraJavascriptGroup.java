@@ -36,7 +36,7 @@ public class AuraJavascriptGroup extends DirectiveBasedJavascriptGroup implement
     // file name of properties file that contains compiled version info
     public static final String FILE_NAME = "aurafwuid.properties";
     public static final File ROOT_DIR = AuraImplFiles.AuraJavascriptSourceDirectory.asFile();
-    private boolean isStale = true;
+    private volatile boolean isStale = true;
 
     public AuraJavascriptGroup(FileMonitor fileMonitor) throws IOException {
         this(fileMonitor, false);
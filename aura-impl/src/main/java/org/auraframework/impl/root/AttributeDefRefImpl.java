@@ -107,7 +107,7 @@ public class AttributeDefRefImpl extends DefinitionImpl<AttributeDef> implements
     @Override
     public void serialize(Json json) throws IOException {
         json.writeMapBegin();
-        json.writeMapEntry("descriptor", getDescriptor());
+        json.writeMapEntry(Json.ApplicationKey.DESCRIPTOR, getDescriptor());
         json.writeMapEntry("value", getValue());
         json.writeMapEnd();
     }
@@ -962,34 +962,34 @@ public abstract class BaseComponentDefImpl<T extends BaseComponentDef> extends
             boolean preloaded = context.isPreloaded(getDescriptor());
             if (preloaded || serializationContext.isSerializing()) {
                 json.writeMapBegin();
-                json.writeMapEntry("descriptor", descriptor);
+                json.writeMapEntry(Json.ApplicationKey.DESCRIPTOR, descriptor);
                 json.writeMapEnd();
             } else {
                 serializationContext.setSerializing(true);
                 json.writeMapBegin();
                 json.writeValue(getAccess());
-                json.writeMapEntry("descriptor", descriptor);
+                json.writeMapEntry(Json.ApplicationKey.DESCRIPTOR, descriptor);
 
-                json.writeMapEntry("styleDef", getStyleDef());
+                json.writeMapEntry(Json.ApplicationKey.STYLEDEF, getStyleDef());
                 if (flavoredStyleDescriptor != null) {
                     json.writeMapEntry("flavoredStyleDef", getFlavoredStyleDef());
                 }
 
                 ControllerDef controllerDef = getControllerDef();
                 if (controllerDef != null && hasServerAction(controllerDef)) {
-                    json.writeMapEntry("controllerDef", controllerDef);
+                    json.writeMapEntry(Json.ApplicationKey.CONTROLLERDEF, controllerDef);
                 }
 
-                json.writeMapEntry("modelDef", getModelDef());
-                json.writeMapEntry("superDef", getSuperDef());
+                json.writeMapEntry(Json.ApplicationKey.MODELDEF, getModelDef());
+                json.writeMapEntry(Json.ApplicationKey.SUPERDEF, getSuperDef());
                 boolean preloading = context.isPreloading();
                 if (preloading) {
-                    json.writeMapEntry("isCSSPreloaded", preloading);
+                    json.writeMapEntry(Json.ApplicationKey.CSSPRELOADED, preloading);
                 }
 
                 Collection<AttributeDef> attributeDefs = getAttributeDefs().values();
                 if (!attributeDefs.isEmpty()) {
-                    json.writeMapEntry("attributeDefs", attributeDefs);
+                    json.writeMapEntry(Json.ApplicationKey.ATTRIBUTEDEFS, attributeDefs);
                 }
 
                 Collection<MethodDef> methodDefs = getMethodDefs().values();
@@ -999,17 +999,17 @@ public abstract class BaseComponentDefImpl<T extends BaseComponentDef> extends
 
                 Collection<RequiredVersionDef> requiredVersionDefs = getRequiredVersionDefs().values();
                 if (requiredVersionDefs != null && !requiredVersionDefs.isEmpty()) {
-                    json.writeMapEntry("requiredVersionDefs", requiredVersionDefs);
+                    json.writeMapEntry(Json.ApplicationKey.REQUIREDVERSIONDEFS, requiredVersionDefs);
                 }
 
                 Set<DefDescriptor<InterfaceDef>> allInterfaces = getAllInterfaces();
                 if (allInterfaces != null && !allInterfaces.isEmpty()) {
-                    json.writeMapEntry("interfaces", allInterfaces);
+                    json.writeMapEntry(Json.ApplicationKey.INTERFACES, allInterfaces);
                 }
 
                 Collection<RegisterEventDef> regevents = getRegisterEventDefs().values();
                 if (!regevents.isEmpty()) {
-                    json.writeMapEntry("registerEventDefs", regevents);
+                    json.writeMapEntry(Json.ApplicationKey.REGISTEREVENTDEFS, regevents);
                 }
 
                 Collection<EventHandlerDef> handlers = getHandlerDefs();
@@ -1028,7 +1028,7 @@ public abstract class BaseComponentDefImpl<T extends BaseComponentDef> extends
                 }
 
                 if (!facets.isEmpty()) {
-                    json.writeMapEntry("facets", facets);
+                    json.writeMapEntry(Json.ApplicationKey.FACETS, facets);
                 }
 
                 boolean local = hasLocalDependencies();
@@ -1039,15 +1039,15 @@ public abstract class BaseComponentDefImpl<T extends BaseComponentDef> extends
                 }
 
                 if (local) {
-                    json.writeMapEntry("hasServerDeps", true);
+                    json.writeMapEntry(Json.ApplicationKey.HASSERVERDEPENDENCIES, true);
                 }
 
                 if (isAbstract) {
-                    json.writeMapEntry("isAbstract", isAbstract);
+                    json.writeMapEntry(Json.ApplicationKey.ABSTRACT, isAbstract);
                 }
 
                 if (subDefs != null) {
-                    json.writeMapEntry("subDefs", subDefs.values());
+                    json.writeMapEntry(Json.ApplicationKey.SUBDEFS, subDefs.values());
                 }
 
                 if (flavorOverrides != null) {
@@ -205,8 +205,8 @@ public class ComponentDefRefImpl extends DefinitionImpl<ComponentDef> implements
             ComponentDef def = descriptor.getDef();
 
             json.writeMapBegin();
-            json.writeMapEntry("componentDef", def);
-            json.writeMapEntry("localId", localId);
+            json.writeMapEntry(Json.ApplicationKey.COMPONENTDEF, def);
+            json.writeMapEntry(Json.ApplicationKey.LOCALID, localId);
 
             if (load != Load.DEFAULT) {
                 json.writeMapEntry("load", load);
@@ -221,10 +221,10 @@ public class ComponentDefRefImpl extends DefinitionImpl<ComponentDef> implements
             }
 
             if (!attributeValues.isEmpty()) {
-                json.writeMapKey("attributes");
+                json.writeMapKey(Json.ApplicationKey.ATTRIBUTES);
 
                 json.writeMapBegin();
-                json.writeMapKey("values");
+                json.writeMapKey(Json.ApplicationKey.VALUES);
 
                 json.writeMapBegin();
                 for (Map.Entry<DefDescriptor<AttributeDef>, AttributeDefRef> entry : attributeValues.entrySet()) {
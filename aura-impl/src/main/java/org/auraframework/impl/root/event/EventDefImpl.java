@@ -91,26 +91,26 @@ public class EventDefImpl extends RootDefinitionImpl<EventDef> implements EventD
             if (serializationContext.isSerializing()) {
 
                 json.writeMapBegin();
-                json.writeMapEntry("descriptor", descriptor);
+                json.writeMapEntry(Json.ApplicationKey.DESCRIPTOR, descriptor);
                 json.writeMapEnd();
 
             } else {
 
                 serializationContext.setSerializing(true);
                 json.writeMapBegin();
-                json.writeMapEntry("descriptor", getDescriptor());
-                json.writeMapEntry("type", eventType);
+                json.writeMapEntry(Json.ApplicationKey.DESCRIPTOR, getDescriptor());
+                json.writeMapEntry(Json.ApplicationKey.TYPE, eventType);
                 json.writeValue(getAccess());
                 if (extendsDescriptor != null) {
-                    json.writeMapEntry("superDef", Aura.getDefinitionService().getDefinition(extendsDescriptor));
+                    json.writeMapEntry(Json.ApplicationKey.SUPERDEF, Aura.getDefinitionService().getDefinition(extendsDescriptor));
                 }
                 Map<DefDescriptor<AttributeDef>, AttributeDef> attrDefs = getAttributeDefs();
                 if (attrDefs.size() > 0) {
-                	json.writeMapEntry("attributes", getAttributeDefs());
+                	json.writeMapEntry(Json.ApplicationKey.ATTRIBUTES, getAttributeDefs());
                 }
                 
                 if (requiredVersionDefs != null && requiredVersionDefs.size() > 0) {
-                    json.writeMapEntry("requiredVersionDefs", requiredVersionDefs);
+                    json.writeMapEntry(Json.ApplicationKey.REQUIREDVERSIONDEFS, requiredVersionDefs);
                 }
                 json.writeMapEnd();
                 serializationContext.setSerializing(false);
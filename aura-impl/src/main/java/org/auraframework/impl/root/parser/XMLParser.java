@@ -70,7 +70,8 @@ public abstract class XMLParser<D extends RootDefinition> implements Parser<D> {
             // we would need to enforce namespace definitions ie xmlns in all cmp and app files.
             xmlInputFactory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, false);
             xmlInputFactory.setProperty(XMLInputFactory.IS_COALESCING, true);
-            xmlInputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, true);
+            // HTML entities are resolved by HTMLEntities, so there is no DTD to process.
+            xmlInputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
             xmlInputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
             xmlInputFactory.setProperty(XMLInputFactory.IS_REPLACING_ENTITY_REFERENCES, true);
 
@@ -102,7 +103,9 @@ public abstract class XMLParser<D extends RootDefinition> implements Parser<D> {
         try {
             if (source.exists()) {
                 String contents = source.getContents();
-                reader = new HTMLReader(new StringReader(contents));
+                // getLocation() takes a line off for the entity DTD that used to be prepended here, keep an
+                // empty line in its place so that line numbers still come out right.
+                reader = new StringReader("\n" + HTMLEntities.replaceNamedEntities(contents));
 
                 xmlReader = xmlInputFactory.createXMLStreamReader(reader);
             }
@@ -38,7 +38,7 @@ public class AuraResourcesHashingGroup extends HashingGroup implements SourceLis
     public static final String GROUP_NAME = "aura-resources";
     public static final String FILE_NAME = "resourcesuid.properties";
     public static final File ROOT_DIR = AuraImplFiles.AuraResourcesSourceDirectory.asFile();
-    private boolean isStale = true;
+    private volatile boolean isStale = true;
 
     public static final FileFilter FILE_FILTER = new FileFilter() {
         @Override
@@ -183,9 +183,13 @@ public final class FileMonitorImpl implements FileMonitor, Runnable {
                 WatchEvent.Kind<?> kind = event.kind();
 
                 if (kind == OVERFLOW) {
-                    // TODO - perhaps notify a special event to clear all caches,
-                    // if file changes overflow the monitor
-                    LOG.info("WatchService for aura file changes has overflowed.  Changes may have been missed.");
+                    // changes were missed, we can't tell which, so have everything start over.
+                    LOG.info("WatchService for aura file changes has overflowed.  Clearing all caches.");
+                    try {
+                        onSourceChanged(null, SourceListener.SourceMonitorEvent.CHANGED, null);
+                    } catch (Exception ex) {
+                        LOG.info("Unable to signal source change due to exception: " + ex.getMessage());
+                    }
                     continue;
                 }
 
@@ -222,6 +226,13 @@ public final class FileMonitorImpl implements FileMonitor, Runnable {
                     } catch (IOException x) {
                         // if we can't monitor it for some reason, it is not an error
                     }
+                    // The files in it may well have been written before it was registered, so no events will come
+                    // for them. Signal the directory once, rather than each file, so caches are cleared only once.
+                    try {
+                        listener.fileCreated(new FileChangeEvent(child));
+                    } catch (Exception ex) {
+                        LOG.info("Unable to signal source change due to exception: " + ex.getMessage());
+                    }
                 }
             }
 
@@ -0,0 +1,239 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.source.file;
+
+import java.io.File;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import org.auraframework.impl.source.DescriptorFileMapper;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+/**
+ * An in-memory list of the files under a {@link FileSourceLoader} base directory.
+ *
+ * The tree is walked once, and kept current from the file monitor after that, so that looking up a source, or
+ * finding all of the sources in a namespace or bundle, does not touch the file system. Files are keyed by their
+ * path relative to the base, and also by the lower cased path for case insensitive lookups.
+ *
+ * Reads are not locked, updates are made by the file monitor thread one file at a time.
+ */
+final class FileSourceIndex {
+    private static final String SEPARATOR = DescriptorFileMapper.FILE_SEPARATOR;
+
+    private final File base;
+    private final NavigableMap<String, Entry> files = new ConcurrentSkipListMap<>();
+    private final NavigableMap<String, Entry> lowerCaseFiles = new ConcurrentSkipListMap<>();
+
+    /**
+     * The other paths for a lower cased path, when several files only differ by case, so that one of them can take
+     * over when the one in lowerCaseFiles is deleted. Only touched while updating.
+     */
+    private final Map<String, List<String>> caseVariants = Maps.newHashMap();
+
+    /**
+     * A file in the index, with its canonical path once someone has asked for it.
+     */
+    static final class Entry {
+        private final File file;
+        private volatile String canonicalPath;
+
+        private Entry(File file) {
+            this.file = file;
+        }
+
+        File getFile() {
+            return file;
+        }
+
+        String getCanonicalPath() {
+            String path = canonicalPath;
+            if (path == null) {
+                path = FileSource.getFilePath(file);
+                canonicalPath = path;
+            }
+            return path;
+        }
+    }
+
+    FileSourceIndex(File base) {
+        this.base = base;
+        addTree(base, "");
+    }
+
+    /**
+     * Get a file by its path relative to the base.
+     *
+     * @param path the relative path.
+     * @return the entry, or null if there is no such file.
+     */
+    Entry get(String path) {
+        return files.get(path);
+    }
+
+    /**
+     * Get a file by its path relative to the base, ignoring case.
+     *
+     * If several files only differ by case, the first one seen wins, until it is deleted.
+     */
+    Entry getIgnoreCase(String path) {
+        return lowerCaseFiles.get(path.toLowerCase());
+    }
+
+    /**
+     * Get all of the files in a directory, recursively.
+     *
+     * If the directory does not exist, it is looked up ignoring case.
+     *
+     * @param dir the directory, relative to the base.
+     */
+    Collection<Entry> list(String dir) {
+        Collection<Entry> entries = under(files, dir);
+        if (entries.isEmpty()) {
+            entries = under(lowerCaseFiles, dir.toLowerCase());
+        }
+        return entries;
+    }
+
+    /**
+     * Get the names of all top level directories that have at least one file in them.
+     */
+    Set<String> getTopLevelDirectories() {
+        Set<String> dirs = Sets.newHashSet();
+        for (String path : files.keySet()) {
+            int index = path.indexOf(SEPARATOR);
+            if (index > 0) {
+                dirs.add(path.substring(0, index));
+            }
+        }
+        return dirs;
+    }
+
+    /**
+     * Update the index for a file that was created.
+     *
+     * @param path the path relative to the base.
+     */
+    synchronized void created(String path) {
+        File file = new File(base, path);
+        if (file.isDirectory()) {
+            addTree(file, path + SEPARATOR);
+        } else if (file.exists()) {
+            add(path, file);
+        }
+    }
+
+    /**
+     * Update the index for a file or directory that was deleted.
+     *
+     * @param path the path relative to the base.
+     */
+    synchronized void deleted(String path) {
+        List<String> removed = Lists.newArrayList();
+        if (files.containsKey(path)) {
+            removed.add(path);
+        }
+        String prefix = path + SEPARATOR;
+        for (String child : files.tailMap(prefix, true).keySet()) {
+            if (!child.startsWith(prefix)) {
+                break;
+            }
+            removed.add(child);
+        }
+        for (String child : removed) {
+            Entry entry = files.remove(child);
+            String lowerCase = child.toLowerCase();
+            List<String> variants = caseVariants.get(lowerCase);
+            if (variants != null) {
+                variants.remove(child);
+            }
+            if (lowerCaseFiles.remove(lowerCase, entry) && variants != null) {
+                // hand the case insensitive lookup to a file that only differed by case.
+                while (!variants.isEmpty()) {
+                    Entry variant = files.get(variants.remove(0));
+                    if (variant != null) {
+                        lowerCaseFiles.put(lowerCase, variant);
+                        break;
+                    }
+                }
+            }
+            if (variants != null && variants.isEmpty()) {
+                caseVariants.remove(lowerCase);
+            }
+        }
+    }
+
+    private void addTree(File dir, String prefix) {
+        File[] children = dir.listFiles();
+        if (children == null) {
+            return;
+        }
+        for (File child : children) {
+            String path = prefix + child.getName();
+            if (child.isDirectory()) {
+                addTree(child, path + SEPARATOR);
+            } else {
+                add(path, child);
+            }
+        }
+    }
+
+    private void add(String path, File file) {
+        if (files.containsKey(path)) {
+            return;
+        }
+        Entry entry = new Entry(file);
+        files.put(path, entry);
+        String lowerCase = path.toLowerCase();
+        if (lowerCaseFiles.putIfAbsent(lowerCase, entry) != null) {
+            List<String> variants = caseVariants.get(lowerCase);
+            if (variants == null) {
+                variants = Lists.newArrayList();
+                caseVariants.put(lowerCase, variants);
+            }
+            variants.add(path);
+        }
+    }
+
+    private static Collection<Entry> under(NavigableMap<String, Entry> map, String dir) {
+        String prefix = dir + SEPARATOR;
+        List<Entry> entries = Lists.newArrayList();
+        for (Map.Entry<String, Entry> entry : map.tailMap(prefix, true).entrySet()) {
+            if (!entry.getKey().startsWith(prefix)) {
+                break;
+            }
+            entries.add(entry.getValue());
+        }
+        return entries;
+    }
+
+    /**
+     * Get the path of a file relative to the base, or null if it is not under the base.
+     */
+    static String relativize(String base, String path) {
+        if (path.length() > base.length() && path.startsWith(base) && path.startsWith(SEPARATOR, base.length())) {
+            return path.substring(base.length() + SEPARATOR.length());
+        }
+        return null;
+    }
+}
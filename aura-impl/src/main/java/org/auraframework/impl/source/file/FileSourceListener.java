@@ -23,6 +23,7 @@ import org.auraframework.system.SourceListener.SourceMonitorEvent;
 import org.auraframework.util.FileChangeEvent;
 import org.auraframework.util.FileListener;
 
+import java.nio.file.Files;
 import java.nio.file.Path;
 
 /**
@@ -65,7 +66,8 @@ public class FileSourceListener extends DescriptorFileMapper implements FileList
         String filePath = path.toString();
         LOG.info("File " + filePath + " changed due to: " + smEvent);
 
-        DefDescriptor<?> defDescriptor = getDescriptor(filePath);
+        // a directory holds any number of descriptors, so it is not one of them.
+        DefDescriptor<?> defDescriptor = Files.isDirectory(path) ? null : getDescriptor(filePath);
         onSourceChanged(defDescriptor, smEvent, filePath);
     }
 }
@@ -39,7 +39,10 @@ public class FileSourceLoader extends BaseSourceLoader implements InternalNamesp
 
     protected final File base;
     protected final int baseLen;
+    private final String monitoredPath;
+    private final boolean monitored;
     private Set<String> namespaces;
+    private volatile FileSourceIndex index;
 
     private static final FileFilter directoryFilter = new FileFilter() {
         @Override
@@ -61,6 +64,8 @@ public class FileSourceLoader extends BaseSourceLoader implements InternalNamesp
                     base.getAbsolutePath()), ioe);
         }
         this.baseLen = base.getPath().length();
+        this.monitoredPath = base.getPath();
+        this.monitored = fileMonitor != null;
 
         // add the namespace root to the file monitor
         if (fileMonitor != null) {
@@ -84,24 +89,62 @@ public class FileSourceLoader extends BaseSourceLoader implements InternalNamesp
         return false;
     }
 
+    /**
+     * Get the index of the files under base, walking the tree the first time.
+     *
+     * The index is only kept current by the file monitor, so it must not be used without one. Changes are applied
+     * while holding the same lock as the walk, so that none made during the walk are lost. When the monitor loses
+     * track of changes it tells us to start over, and the tree is walked again.
+     */
+    private FileSourceIndex getIndex() {
+        FileSourceIndex current = index;
+        if (current == null) {
+            synchronized (this) {
+                current = index;
+                if (current == null) {
+                    current = new FileSourceIndex(base);
+                    index = current;
+                }
+            }
+        }
+        return current;
+    }
+
     @Override
     public <D extends Definition> FileSource<D> getSource(DefDescriptor<D> descriptor) {
 
         String filename = getPath(descriptor);
 
-        File file = new File(base, filename);
+        if (!monitored) {
+            // nothing would tell us about files that come and go, so look on disk every time.
+            File file = new File(base, filename);
+            if (!isFilePresent(file)) {
+                file = caseInsensitiveLookup(file);
+                if (file.exists()) {
+                    descriptor = updateDescriptorName(descriptor, file.getParentFile().getParentFile().getName(),
+                            file.getName());
+                }
+            }
+            String id = (file.exists()) ? FileSource.getFilePath(file) : filename;
+            return new FileSource<>(descriptor, id, file, getFormat(descriptor));
+        }
 
-        if (!isFilePresent(file)) {
-            file = caseInsensitiveLookup(file);
-            if (file.exists()) {
+        FileSourceIndex.Entry entry = getIndex().get(filename);
+
+        if (entry == null) {
+            // The index has the real names, so this also covers file systems that ignore case.
+            entry = getIndex().getIgnoreCase(filename);
+            if (entry != null) {
+                File file = entry.getFile();
                 descriptor = updateDescriptorName(descriptor, file.getParentFile().getParentFile().getName(),
                         file.getName());
             }
         }
 
-        String id = (file.exists()) ? FileSource.getFilePath(file) : filename;
-
-        return new FileSource<>(descriptor, id, file, getFormat(descriptor));
+        if (entry == null) {
+            return new FileSource<>(descriptor, filename, new File(base, filename), getFormat(descriptor));
+        }
+        return new FileSource<>(descriptor, entry.getCanonicalPath(), entry.getFile(), getFormat(descriptor));
     }
 
     /**
@@ -114,11 +157,15 @@ public class FileSourceLoader extends BaseSourceLoader implements InternalNamesp
     public Set<String> getNamespaces() {
         synchronized(this) {
             if (namespaces == null) {
-                namespaces = new HashSet<>();
-                for (File dir : base.listFiles(directoryFilter)) {
-                    File[] files = IOUtil.listFiles(dir, true, true);
-                    if (files != null && files.length > 0) {
-                        namespaces.add(dir.getName());
+                if (monitored) {
+                    namespaces = getIndex().getTopLevelDirectories();
+                } else {
+                    namespaces = new HashSet<>();
+                    for (File dir : base.listFiles(directoryFilter)) {
+                        File[] files = IOUtil.listFiles(dir, true, true);
+                        if (files != null && files.length > 0) {
+                            namespaces.add(dir.getName());
+                        }
                     }
                 }
             }
@@ -134,12 +181,12 @@ public class FileSourceLoader extends BaseSourceLoader implements InternalNamesp
             String ns = matcher.getNamespaceMatch().toString();
             String name = matcher.getNameMatch().toString();
             af.setNamespace(ns);
-            findFiles(new File(new File(base, ns), name), null, af);
+            findIndexed(ns + FILE_SEPARATOR + name, af);
         } else {
             for (String ns : getNamespaces()) {
                 if (matcher.matchNamespace(ns)) {
                     af.setNamespace(ns);
-                    findFiles(new File(base, ns), null, af);
+                    findIndexed(ns, af);
                 }
             }
         }
@@ -151,10 +198,27 @@ public class FileSourceLoader extends BaseSourceLoader implements InternalNamesp
         Set<DefDescriptor<T>> ret = new HashSet<>();
         DefType defType = DefType.getDefType(primaryInterface);
         OneTypeFilter<T> otf = new OneTypeFilter<>(ret, defType);
-        findFiles(new File(base, namespace), null, otf);
+        findIndexed(namespace, otf);
         return ret;
     }
 
+    /**
+     * Run all of the files in a directory through a filter, using the index when there is a file monitor to keep it
+     * current, and walking the directory when there is not.
+     *
+     * @param dir the directory relative to base.
+     * @param filter the filter that collects the descriptors.
+     */
+    private <F extends FileFilter & DescriptorCollector> void findIndexed(String dir, F filter) {
+        if (!monitored) {
+            findFiles(new File(base, dir), null, filter);
+            return;
+        }
+        for (FileSourceIndex.Entry entry : getIndex().list(dir)) {
+            filter.collect(entry.getFile());
+        }
+    }
+
     /**
      * Find the set of files that match the filter.
      *
@@ -207,7 +271,7 @@ public class FileSourceLoader extends BaseSourceLoader implements InternalNamesp
      * We need to do this because we don't know a-priory what the types are, and rather than redo all of that work, we
      * can simply do what we need to here.
      */
-    protected static class OneTypeFilter<T extends Definition> implements FileFilter {
+    protected static class OneTypeFilter<T extends Definition> implements FileFilter, DescriptorCollector {
         private final Set<DefDescriptor<T>> dset;
         private final DefType dt;
 
@@ -227,9 +291,18 @@ public class FileSourceLoader extends BaseSourceLoader implements InternalNamesp
             if (file.isDirectory()) {
                 return true;
             }
+            collect(file);
+            // We don't need to accept this, as we've already either included or
+            // excluded the
+            // descriptor above.
+            return false;
+        }
+
+        @Override
+        public void collect(File file) {
             List<DefDescriptor<?>> dds = getAllDescriptors(file.getPath());
             if (dds == null) {
-                return false;
+                return;
             }
             for (DefDescriptor<?> dd : dds) {
                 if (dd.getDefType() == dt) {
@@ -238,10 +311,6 @@ public class FileSourceLoader extends BaseSourceLoader implements InternalNamesp
                     dset.add(ddt);
                 }
             }
-            // We don't need to accept this, as we've already either included or
-            // excluded the
-            // descriptor above.
-            return false;
         }
     }
 
@@ -252,7 +321,7 @@ public class FileSourceLoader extends BaseSourceLoader implements InternalNamesp
      * We need to do this because we don't know a-priory what the types are, and rather than redo all of that work, we
      * can simply do what we need to here.
      */
-    protected static class AnyTypeFilter implements FileFilter {
+    protected static class AnyTypeFilter implements FileFilter, DescriptorCollector {
         private final DescriptorFilter dm;
         protected final Set<DefDescriptor<?>> dset;
         protected String namespace;
@@ -285,22 +354,34 @@ public class FileSourceLoader extends BaseSourceLoader implements InternalNamesp
             if (file.isDirectory()) {
                 return true;
             }
+            collect(file);
+            // We don't need to accept this, as we've already either included or
+            // excluded the
+            // descriptor above.
+            return false;
+        }
+
+        @Override
+        public void collect(File file) {
             List<DefDescriptor<?>> dds = getAllDescriptors(file.getPath());
             if (dds == null) {
-                return false;
+                return;
             }
             for (DefDescriptor<?> dd : dds) {
                 if (dm.matchDescriptor(dd)) {
                     this.dset.add(dd);
                 }
             }
-            // We don't need to accept this, as we've already either included or
-            // excluded the
-            // descriptor above.
-            return false;
         }
     }
 
+    /**
+     * Collects the descriptors for a file that is known to exist, as the filters above do from accept().
+     */
+    protected interface DescriptorCollector {
+        void collect(File file);
+    }
+
     private static final class CaseInsensitiveFileFilter implements FilenameFilter {
         private final String fileName;
 
@@ -328,11 +409,40 @@ public class FileSourceLoader extends BaseSourceLoader implements InternalNamesp
 
     @Override
     public void onSourceChanged(DefDescriptor<?> source, SourceMonitorEvent event, String filePath) {
+        if (filePath == null) {
+            if (source == null && event == SourceMonitorEvent.CHANGED) {
+                // anything may have changed, e.g. the file monitor missed events, so walk the tree again.
+                synchronized (this) {
+                    index = null;
+                    namespaces = null;
+                }
+            }
+            return;
+        }
+        // The monitor reports paths under the directory as it was given, which may not be canonical.
+        String path = FileSourceIndex.relativize(base.getPath(), filePath);
+        if (path == null) {
+            path = FileSourceIndex.relativize(monitoredPath, filePath);
+        }
+        if (path == null) {
+            return;
+        }
+        synchronized (this) {
+            // read it under the lock, a change made while the tree is walked must wait for the walk to finish.
+            FileSourceIndex current = index;
+            if (current != null) {
+                if (event == SourceMonitorEvent.DELETED) {
+                    current.deleted(path);
+                } else {
+                    current.created(path);
+                }
+            }
+        }
         // rip out namespace cache if need be.
         // Note that this is a little more aggressive than it has to be, but, well, it does only do it
         // for creation/deletion. There is a race condition whereby this will cause odd failures if files
         // are added/removed while something is running. caveat emptor
-        if (filePath != null && filePath.startsWith(base.getPath()) && event != SourceMonitorEvent.CHANGED) {
+        if (event != SourceMonitorEvent.CHANGED) {
             synchronized (this) {
                 namespaces = null;
             }
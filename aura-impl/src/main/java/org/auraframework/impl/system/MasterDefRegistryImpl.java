@@ -19,6 +19,10 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 
 import javax.annotation.CheckForNull;
@@ -45,6 +49,8 @@ import org.auraframework.service.LoggingService;
 import org.auraframework.system.AuraContext;
 import org.auraframework.system.DefRegistry;
 import org.auraframework.system.DependencyEntry;
+import org.auraframework.system.DependencySet;
+import org.auraframework.system.DescriptorIndex;
 import org.auraframework.system.Location;
 import org.auraframework.system.MasterDefRegistry;
 import org.auraframework.system.Source;
@@ -59,6 +65,7 @@ import com.google.common.base.Optional;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.Uninterruptibles;
 
 /**
  * Overall Master definition registry implementation, there be dragons here.
@@ -71,6 +78,25 @@ import com.google.common.collect.Sets;
 public class MasterDefRegistryImpl implements MasterDefRegistry {
     private static final Logger logger = Logger.getLogger(MasterDefRegistryImpl.class);
 
+    /**
+     * The compiles that are running right now, across all registries, keyed like the non-uid {@link #depsCache} entry
+     * they will produce. See {@link #compileOnceDE(DefDescriptor)}.
+     */
+    private static final ConcurrentMap<String, InFlightCompile> compilesInFlight = new ConcurrentHashMap<>();
+
+    /**
+     * How long to wait for a compile on another thread before doing it ourselves.
+     */
+    private static final long COMPILE_WAIT_SECONDS = 5;
+
+    private static final DescriptorFilter ALL_DESCRIPTORS = new DescriptorFilter("*://*:*");
+
+    /**
+     * Marks a registry that cannot be indexed, so that we don't try again on every find.
+     */
+    private static final DescriptorIndex NOT_INDEXED = new DescriptorIndex(Collections.<DefDescriptor<?>> emptySet(),
+            Collections.<String> emptySet(), Collections.<DefType> emptySet());
+
     private final Lock rLock;
 
     private final ConfigAdapter configAdapter;
@@ -80,6 +106,7 @@ public class MasterDefRegistryImpl implements MasterDefRegistry {
     private final Cache<DefDescriptor<?>, Optional<? extends Definition>> defsCache;
     private final Cache<String, DependencyEntry> depsCache;
     private final Cache<String, Set<DefDescriptor<?>>> descriptorFilterCache;
+    private final Cache<String, DescriptorIndex> descriptorIndexCache;
 
     private final RegistryTrie delegateRegistries;
 
@@ -97,15 +124,29 @@ public class MasterDefRegistryImpl implements MasterDefRegistry {
     public MasterDefRegistryImpl(ConfigAdapter configAdapter, DefinitionService definitionService,
                                  LoggingService loggingService, CachingService cachingService,
                                  @Nonnull DefRegistry<?>... registries) {
+        this(configAdapter, definitionService, loggingService, cachingService, new RegistryTrie(registries));
+    }
+
+    /**
+     * Build a master def registry on a set of registries that has already been sorted out.
+     *
+     * The trie is immutable, so one can be shared by every registry built from the same set of registries.
+     *
+     * @param registries the registries to use in the mdr.
+     */
+    public MasterDefRegistryImpl(ConfigAdapter configAdapter, DefinitionService definitionService,
+                                 LoggingService loggingService, CachingService cachingService,
+                                 @Nonnull RegistryTrie registries) {
         this.configAdapter = configAdapter;
         this.definitionService = definitionService;
         this.loggingService = loggingService;
-        this.delegateRegistries = new RegistryTrie(registries);
+        this.delegateRegistries = registries;
         this.rLock = cachingService.getReadLock();
         this.existsCache = cachingService.getExistsCache();
         this.defsCache = cachingService.getDefsCache();
         this.depsCache = cachingService.getDepsCache();
         this.descriptorFilterCache = cachingService.getDescriptorFilterCache();
+        this.descriptorIndexCache = cachingService.getDescriptorIndexCache();
         this.currentCC = null;
     }
 
@@ -151,7 +192,10 @@ public class MasterDefRegistryImpl implements MasterDefRegistry {
                 //
                 boolean cacheable = configAdapter.isCacheable(matcher) && namespaceMatcher.isConstant();
                 for (DefRegistry<?> reg : delegateRegistries.getRegistries(matcher)) {
-                    if (reg.hasFind()) {
+                    DescriptorIndex index = getDescriptorIndex(reg);
+                    if (index != null) {
+                        index.find(matcher, matched);
+                    } else if (reg.hasFind()) {
                         //
                         // Now we walk then entire set of registries, and check to see if our namespace
                         // matches them. In the case of a constant namespace, this is easy, otherwise
@@ -209,6 +253,34 @@ public class MasterDefRegistryImpl implements MasterDefRegistry {
         return matched;
     }
 
+    /**
+     * Get the index of all of the descriptors in a registry.
+     *
+     * Only registries that are cacheable, and hold nothing but cacheable descriptors are indexed, as the index is
+     * only kept up to date by source change notifications. The first find on a registry builds its index.
+     *
+     * @return the index, or null if the registry should be searched directly.
+     */
+    private DescriptorIndex getDescriptorIndex(DefRegistry<?> reg) {
+        if (!reg.hasFind() || !reg.isCacheable()) {
+            return null;
+        }
+        String key = reg.toString();
+        DescriptorIndex index = descriptorIndexCache.getIfPresent(key);
+        if (index == null) {
+            Set<DefDescriptor<?>> all = reg.find(ALL_DESCRIPTORS);
+            for (DefDescriptor<?> descriptor : all) {
+                if (!configAdapter.isCacheable(reg, descriptor)) {
+                    all = null;
+                    break;
+                }
+            }
+            index = (all != null) ? new DescriptorIndex(all, reg.getPrefixes(), reg.getDefTypes()) : NOT_INDEXED;
+            descriptorIndexCache.put(key, index);
+        }
+        return (index != NOT_INDEXED) ? index : null;
+    }
+
     /**
      * A compiling definition.
      *
@@ -735,7 +807,7 @@ public class MasterDefRegistryImpl implements MasterDefRegistry {
                 return de;
             }
 
-            Set<DefDescriptor<? extends Definition>> deps = Sets.newLinkedHashSet();
+            DependencySet.Builder deps = DependencySet.builder();
 
             // level sorting is important for css and aura:library dependency ordering
             Collections.sort(compiled);
@@ -745,7 +817,7 @@ public class MasterDefRegistryImpl implements MasterDefRegistry {
 
             CompilingDef<T> cd = cc.getCompiling(descriptor);
 
-            de = new DependencyEntry(uid, Collections.unmodifiableSet(deps), clientLibs);
+            de = new DependencyEntry(uid, deps.build(), clientLibs);
             if (cd.cacheable) {
                 // put UID-qualified descriptor key for dependency
                 depsCache.put(makeGlobalKey(de.uid, descriptor), de);
@@ -765,6 +837,58 @@ public class MasterDefRegistryImpl implements MasterDefRegistry {
         }
     }
 
+    private static class InFlightCompile {
+        private final Thread owner = Thread.currentThread();
+        private final CountDownLatch done = new CountDownLatch(1);
+    }
+
+    /**
+     * Compile a descriptor, unless another thread is already compiling it.
+     *
+     * When a node starts or the caches are flushed, many requests for the same app arrive at once. Rather than each of
+     * them doing the same full compile, the first one compiles and the others wait for it, then pick up its entry from
+     * the {@link #depsCache}. If that compile failed or was not cacheable, there is nothing to share and each waiter
+     * compiles on its own, as before.
+     *
+     * The wait is bounded, as two threads can each be compiling what the other is waiting for, while holding the
+     * read lock that keeps source changes out. If the other compile takes too long, we compile on our own.
+     *
+     * Note that an entry from another thread has not been built into this context, callers that need the definitions
+     * must check for the local def, and {@link #buildDE(DependencyEntry, DefDescriptor)} if it is not there.
+     *
+     * @param descriptor the incoming descriptor to compile
+     * @return the dependency entry, or null if not found.
+     * @throws QuickFixException if the definition failed to compile.
+     */
+    @CheckForNull
+    private <T extends Definition> DependencyEntry compileOnceDE(@Nonnull DefDescriptor<T> descriptor)
+            throws QuickFixException {
+        String key = makeNonUidGlobalKey(descriptor);
+        InFlightCompile compile = new InFlightCompile();
+        InFlightCompile running = compilesInFlight.putIfAbsent(key, compile);
+
+        if (running == null) {
+            try {
+                return compileDE(descriptor);
+            } finally {
+                compilesInFlight.remove(key, compile);
+                compile.done.countDown();
+            }
+        }
+        // Never wait on ourselves, a nested context can come back here for the same descriptor.
+        if (running.owner != Thread.currentThread()) {
+            if (Uninterruptibles.awaitUninterruptibly(running.done, COMPILE_WAIT_SECONDS, TimeUnit.SECONDS)) {
+                DependencyEntry de = getDE(null, descriptor);
+                if (de != null) {
+                    return de;
+                }
+            } else {
+                logger.info("Gave up waiting for " + running.owner.getName() + " to compile " + descriptor);
+            }
+        }
+        return compileDE(descriptor);
+    }
+
     /**
      * Get a dependency entry for a given uid.
      *
@@ -932,9 +1056,11 @@ public class MasterDefRegistryImpl implements MasterDefRegistry {
                 de = context.findLocalDependencyEntry(descriptor);
 
                 if (de == null) {
-                    compileDE(descriptor);
+                    de = compileOnceDE(descriptor);
 
-                    return context.getLocalDef(descriptor);
+                    if (de == null || context.hasLocalDef(descriptor)) {
+                        return context.getLocalDef(descriptor);
+                    }
                 }
             }
 
@@ -1247,7 +1373,7 @@ public class MasterDefRegistryImpl implements MasterDefRegistry {
             de = getDE(uid, descriptor);
             if (de == null) {
                 try {
-                    de = compileDE(descriptor);
+                    de = compileOnceDE(descriptor);
                     //
                     // If we can't find our descriptor, we just give back a null.
                     if (de == null) {
@@ -15,6 +15,7 @@
  */
 package org.auraframework.impl.system;
 
+import java.util.Collections;
 import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -36,6 +37,7 @@ import com.google.common.collect.Sets;
  * A specialized trie-ish structure for storing which registry gurgles which
  * defs
  * 
+ * This is not modified after it is built, so it can be shared between threads.
  * 
  * @since 0.0.162
  */
@@ -131,7 +133,7 @@ public class RegistryTrie {
     }
 
     public Set<String> getAllNamespaces() {
-        return this.allNamespaces;
+        return Collections.unmodifiableSet(this.allNamespaces);
     }
 
     public DefRegistry<?>[] getAllRegistries() {
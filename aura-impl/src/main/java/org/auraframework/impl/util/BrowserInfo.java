@@ -50,9 +50,27 @@ import static org.auraframework.impl.util.UserAgent.VERSIONED_CUTOFF;
 import org.apache.commons.lang3.StringUtils;
 import org.auraframework.impl.util.UserAgent.UA;
 
-// user-agent parser to provide browser information
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * user-agent parser to provide browser information.
+ *
+ * Instances are immutable once constructed, so the parsed result for a given user agent header can be shared. Use
+ * {@link #get(String)} to look one up in the shared cache rather than parsing the header again on every request.
+ */
 public class BrowserInfo {
 
+    /** Number of distinct user agent strings kept parsed. Fleets only see a few thousand of them. */
+    private static final int USER_AGENT_CACHE_SIZE = 4096;
+
+    /** User agents longer than this are parsed but never cached, so junk headers can't bloat the cache. */
+    private static final int MAX_CACHED_USER_AGENT_LENGTH = 1024;
+
+    private static final Cache<String, BrowserInfo> userAgentCache = CacheBuilder.newBuilder()
+            .maximumSize(USER_AGENT_CACHE_SIZE)
+            .build();
+
     /**
      * Form factors for browser client devices.
      * 
@@ -115,33 +133,81 @@ public class BrowserInfo {
     }
 
     private final String userAgentString;
-    private boolean isTablet;
-    private boolean isPhone;
-    private boolean isAndroid;
-    private String formFactor;
-    private int browserType;
-    private int platformType;
-    private boolean isIPad;
-    private boolean isIPhone;
-    private boolean isWebkit;
-    private boolean isFirefox;
-    private boolean isIE6;
-    private boolean isIE7;
-    private boolean isIE8;
-    private boolean isIE9;
-    private boolean isIE10;
-    private boolean isIE11;
-    private boolean isWindowsPhone;
-    private boolean isWindowsTablet;
-    private boolean isBlackBerry;
-    private ViewportFormFactor viewportFormFactor;
+    private final boolean isTablet;
+    private final boolean isPhone;
+    private final boolean isAndroid;
+    private final String formFactor;
+    private final int browserType;
+    private final int platformType;
+    private final boolean isIPad;
+    private final boolean isIPhone;
+    private final boolean isWebkit;
+    private final boolean isFirefox;
+    private final boolean isIE6;
+    private final boolean isIE7;
+    private final boolean isIE8;
+    private final boolean isIE9;
+    private final boolean isIE10;
+    private final boolean isIE11;
+    private final boolean isWindowsPhone;
+    private final boolean isWindowsTablet;
+    private final boolean isBlackBerry;
+    private final ViewportFormFactor viewportFormFactor;
 
     public BrowserInfo(String userAgentString) {
         if (userAgentString == null) {
             userAgentString = "";
         }
         this.userAgentString = BrowserUserAgent.sanitizeString(userAgentString).trim();
-        parseUserAgent();
+
+        // The checks below read the fields assigned before them, so the order matters.
+        boolean blank = StringUtils.isBlank(this.userAgentString);
+        platformType = blank ? 0 : BrowserUserAgent.parsePlatform(this.userAgentString);
+        browserType = blank ? 0 : BrowserUserAgent.parseBrowser(this.userAgentString);
+
+        isAndroid = !blank && isPlatformAndroid();
+        isIPad = !blank && isPlatformIPad();
+        isIPhone = !blank && isPlatformIPhone();
+        isWebkit = !blank && isBrowserWebkit();
+        isFirefox = !blank && isBrowserFirefox();
+        isIE6 = !blank && isBrowserIE6();
+        isIE7 = !blank && isBrowserIE7();
+        isIE8 = !blank && isBrowserIE8();
+        isIE9 = !blank && isBrowserIE9();
+        isIE10 = !blank && isBrowserIE10();
+        isIE11 = !blank && isBrowserIE11();
+
+        // Calculate viewportFormFactor 1st.  It may directly override what getHardwareFormFactor() returns
+        viewportFormFactor = blank ? ViewportFormFactor.LARGE : ViewportFormFactor.fromUserAgent(this.userAgentString);
+        formFactor = blank ? FormFactor.DESKTOP.toString() : getHardwareFormFactor().toString();
+
+        isTablet = !blank && isTabletClient();
+        isPhone = !blank && isSmartPhoneClient();
+        isWindowsPhone = !blank && isPlatformWindowsPhone();
+        isWindowsTablet = !blank && isPlatformWindowsTablet();
+        isBlackBerry = !blank && isPlatformBlackBerry();
+    }
+
+    /**
+     * Get the browser information for a raw user agent header, parsing it only the first time it is seen.
+     *
+     * @param userAgentString the user agent header, as sent by the client, may be null
+     * @return the shared, immutable browser information for the user agent
+     */
+    public static BrowserInfo get(String userAgentString) {
+        if (userAgentString == null) {
+            userAgentString = "";
+        }
+        if (userAgentString.length() > MAX_CACHED_USER_AGENT_LENGTH) {
+            return new BrowserInfo(userAgentString);
+        }
+        BrowserInfo browserInfo = userAgentCache.getIfPresent(userAgentString);
+        if (browserInfo == null) {
+            // parsing is idempotent, so a concurrent miss just parses twice and the last one wins.
+            browserInfo = new BrowserInfo(userAgentString);
+            userAgentCache.put(userAgentString, browserInfo);
+        }
+        return browserInfo;
     }
 
     public boolean isTablet() {
@@ -215,52 +281,6 @@ public class BrowserInfo {
         return isIE11;
     }
 
-    private void parseUserAgent() {
-        // set initial values
-        isTablet = false;
-        isPhone = false;
-        isAndroid = false;
-        isIPad = false;
-        isIPhone = false;
-        isWebkit = false;
-        isFirefox = false;
-        isWindowsPhone = false;
-        isWindowsTablet = false;
-        formFactor = FormFactor.DESKTOP.toString();
-        viewportFormFactor = ViewportFormFactor.LARGE;
-        platformType = 0;
-        browserType = 0;
-
-        if (StringUtils.isBlank(userAgentString)) {
-            return;
-        }
-
-        platformType = BrowserUserAgent.parsePlatform(userAgentString);
-        browserType = BrowserUserAgent.parseBrowser(userAgentString);
-
-        isAndroid = isPlatformAndroid();
-        isIPad = isPlatformIPad();
-        isIPhone = isPlatformIPhone();
-        isWebkit = isBrowserWebkit();
-        isFirefox = isBrowserFirefox();
-        isIE6 = isBrowserIE6();
-        isIE7 = isBrowserIE7();
-        isIE8 = isBrowserIE8();
-        isIE9 = isBrowserIE9();
-        isIE10 = isBrowserIE10();
-        isIE11 = isBrowserIE11();
-
-        // Calculate viewportFormFactor 1st.  It may directly override what getHardwareFormFactor() returns
-        viewportFormFactor = ViewportFormFactor.fromUserAgent(userAgentString);
-        formFactor = getHardwareFormFactor().toString();
-
-        isTablet = isTabletClient();
-        isPhone = isSmartPhoneClient();
-        isWindowsPhone = isPlatformWindowsPhone();
-        isWindowsTablet = isPlatformWindowsTablet();
-        isBlackBerry = isPlatformBlackBerry();
-    }
-
     private boolean isBrowserIE11() {
         return isBrowser(UserAgent.IE, 11);
     }
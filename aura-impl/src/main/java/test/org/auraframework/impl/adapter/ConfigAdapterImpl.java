@@ -155,6 +155,11 @@ public class ConfigAdapterImpl implements ConfigAdapter {
     private String jsUid = "";
     private String resourcesUid = "";
     private String fwUid = "";
+    /**
+     * The framework nonce, computed once at startup in production. The framework javascript and resources never change
+     * there, so only the other modes recompute it after the {@link FileMonitor} marks the groups stale.
+     */
+    private volatile String productionFwUid;
     private ResourceLoader resourceLoader;
     private Long buildTimestamp;
     private String auraVersionString;
@@ -271,6 +276,8 @@ public class ConfigAdapterImpl implements ConfigAdapter {
         
         if (!isProduction()) {
             fileMonitor.start();
+        } else {
+            productionFwUid = getAuraFrameworkNonce();
         }
         contextService.registerGlobal("isVoiceOver", true, false);
         contextService.registerGlobal("dynamicTypeSize", true, "");
@@ -336,12 +343,24 @@ public class ConfigAdapterImpl implements ConfigAdapter {
     }
 
     @Override
-    public synchronized void regenerateAuraJS() {
+    public void regenerateAuraJS() {
         /*
          * If we're missing source, jsGroup will be an AuraResourceGroup and isStale() is always false. If we're in
-         * production, we're using the resources too. But if we have source, regenerate from it if it's changed:
+         * production, we're using the resources too. Neither case needs the lock.
          */
-        if (!isProduction() && jsGroup != null && (jsGroup.isStale() || lastGenerationHadCompilationErrors)) {
+        if (isProduction() || jsGroup == null) {
+            return;
+        }
+        synchronized (this) {
+            regenerateStaleAuraJS();
+        }
+    }
+
+    /**
+     * If we have source, regenerate from it if it's changed. The group only goes stale on {@link FileMonitor} events.
+     */
+    private void regenerateStaleAuraJS() {
+        if (jsGroup.isStale() || lastGenerationHadCompilationErrors) {
             try {
                 Logger logger = Logger.getLogger(ConfigAdapterImpl.class);
                 logger.info("Regenerating framework javascript");
@@ -659,6 +678,10 @@ public class ConfigAdapterImpl implements ConfigAdapter {
 
     @Override
     public final String getAuraFrameworkNonce() {
+        String productionUid = this.productionFwUid;
+        if (productionUid != null) {
+            return productionUid;
+        }
         regenerateAuraJS();
         try {
             // framework nonce now consists of Aura JS and resources files (CSS and JS) and if locker service is enabled
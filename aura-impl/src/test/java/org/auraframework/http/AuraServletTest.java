@@ -15,6 +15,8 @@
  */
 package org.auraframework.http;
 
+import java.nio.charset.StandardCharsets;
+import java.nio.charset.UnsupportedCharsetException;
 import java.util.List;
 
 import javax.inject.Inject;
@@ -27,6 +29,7 @@ import org.auraframework.service.ContextService;
 import org.auraframework.system.AuraContext.Authentication;
 import org.auraframework.system.AuraContext.Format;
 import org.auraframework.system.AuraContext.Mode;
+import org.auraframework.util.json.BinaryJsonEncoder;
 import org.auraframework.util.test.util.UnitTestCase;
 import org.junit.Ignore;
 import org.junit.Test;
@@ -355,4 +358,44 @@ public class AuraServletTest extends UnitTestCase {
         assertSingleHeader(response, HttpHeaders.LOCATION, "/");
         Mockito.verify(servletUtilAdapter).setNoCache(response);
     }
+
+    @Test
+    public void testGetJsonCharset() {
+        assertEquals(StandardCharsets.UTF_8, AuraServlet.getJsonCharset("application/json"));
+        assertEquals(StandardCharsets.UTF_8, AuraServlet.getJsonCharset("Application/JSON"));
+        assertEquals(StandardCharsets.ISO_8859_1, AuraServlet.getJsonCharset("Application/JSON; Charset=ISO-8859-1"));
+        assertEquals(StandardCharsets.UTF_16, AuraServlet.getJsonCharset("application/json;charset=\"utf-16\""));
+        assertNull(AuraServlet.getJsonCharset(null));
+        assertNull(AuraServlet.getJsonCharset("application/jsonp"));
+        assertNull(AuraServlet.getJsonCharset("application/x-www-form-urlencoded; charset=UTF-8"));
+        assertNull(AuraServlet.getJsonCharset("not a media type"));
+        try {
+            AuraServlet.getJsonCharset("application/json; charset=no-such-charset");
+            fail("Expected the charset to be rejected");
+        } catch (UnsupportedCharsetException expected) {
+        }
+    }
+
+    @Test
+    public void testIsBinary() {
+        assertTrue(AuraServlet.isBinary(BinaryJsonEncoder.MIME_TYPE));
+        assertTrue(AuraServlet.isBinary("Application/X-Aura-Binary; charset=UTF-8"));
+        assertFalse(AuraServlet.isBinary(null));
+        assertFalse(AuraServlet.isBinary("application/json"));
+        assertFalse(AuraServlet.isBinary("application/x-foo+x-aura-binary"));
+        assertFalse(AuraServlet.isBinary("text/plain; note=\"application/x-aura-binary\""));
+        assertFalse(AuraServlet.isBinary("not a media type"));
+    }
+
+    @Test
+    public void testAcceptsBinary() {
+        assertTrue(AuraServlet.acceptsBinary(BinaryJsonEncoder.MIME_TYPE));
+        assertTrue(AuraServlet.acceptsBinary("application/json, application/x-aura-binary;q=0.9"));
+        assertFalse(AuraServlet.acceptsBinary(null));
+        assertFalse(AuraServlet.acceptsBinary("*/*"));
+        assertFalse(AuraServlet.acceptsBinary("application/*"));
+        assertFalse(AuraServlet.acceptsBinary("application/json, application/x-aura-binary;q=0"));
+        assertFalse(AuraServlet.acceptsBinary("application/x-aura-binary;q=nope"));
+        assertFalse(AuraServlet.acceptsBinary("application/x-foo+x-aura-binary"));
+    }
 }
@@ -40,6 +40,7 @@ import org.auraframework.system.DependencyEntry;
 import org.auraframework.system.SourceListener;
 import org.auraframework.system.SourceListener.SourceMonitorEvent;
 import org.junit.Test;
+import org.mockito.InOrder;
 import org.mockito.Mockito;
 
 import javax.inject.Inject;
@@ -145,6 +146,40 @@ public class CachingServiceImplTest extends AuraImplTestCase {
 		}
 	}
 
+	/**
+	 * A change that could not get the lock is not known, so the next one has the listeners start over first.
+	 */
+	@Test
+	public void testNotifyDependentSourceChange_ResetsListenersAfterMissedChange() {
+		DefDescriptor<?> source = definitionService.getDefDescriptor(
+				getAuraTestingUtil().getNonce("some:descriptor"),
+				ComponentDef.class);
+		SourceListener listener = Mockito.mock(SourceListener.class);
+		Collection<WeakReference<SourceListener>> listeners = Sets.newHashSet();
+		listeners.add(new WeakReference<>(listener));
+
+		CachingServiceImpl cachingService = new CachingServiceImpl();
+		cachingService.setLoggingAdapter(loggingAdapter);
+		cachingService.initializeCaches();
+		Lock lock = cachingService.getReadLock();
+		lock.lock();
+		try {
+			cachingService.notifyDependentSourceChange(listeners, source, SourceMonitorEvent.DELETED, "missed");
+		} finally {
+			lock.unlock();
+		}
+		Mockito.verifyZeroInteractions(listener);
+
+		cachingService.notifyDependentSourceChange(listeners, source, SourceMonitorEvent.CHANGED, "someFilePath");
+		InOrder inOrder = Mockito.inOrder(listener);
+		inOrder.verify(listener).onSourceChanged(null, SourceMonitorEvent.CHANGED, null);
+		inOrder.verify(listener).onSourceChanged(source, SourceMonitorEvent.CHANGED, "someFilePath");
+
+		// and only once.
+		cachingService.notifyDependentSourceChange(listeners, source, SourceMonitorEvent.CHANGED, "someFilePath");
+		Mockito.verify(listener, Mockito.times(1)).onSourceChanged(null, SourceMonitorEvent.CHANGED, null);
+	}
+
 	@Test
 	public void testNotifyDependentSourceChange_NotifiesNoListeners() {
 		DefDescriptor<?> source = definitionService.getDefDescriptor(
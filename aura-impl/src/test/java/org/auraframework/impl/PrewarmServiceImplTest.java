@@ -0,0 +1,207 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl;
+
+import java.io.Writer;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.log4j.Logger;
+import org.apache.log4j.spi.LoggingEvent;
+import org.auraframework.def.ApplicationDef;
+import org.auraframework.def.DefDescriptor;
+import org.auraframework.impl.test.util.LoggingTestAppender;
+import org.auraframework.service.ContextService;
+import org.auraframework.service.DefinitionService;
+import org.auraframework.service.ServerService;
+import org.auraframework.system.AuraContext;
+import org.auraframework.system.AuraContext.Authentication;
+import org.auraframework.system.AuraContext.Format;
+import org.auraframework.system.AuraContext.Mode;
+import org.auraframework.system.Client;
+import org.auraframework.throwable.AuraRuntimeException;
+import org.auraframework.util.test.util.UnitTestCase;
+import org.junit.Test;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+
+import com.google.common.collect.Lists;
+
+public class PrewarmServiceImplTest extends UnitTestCase {
+    private final Logger logger = Logger.getLogger(PrewarmServiceImpl.class);
+
+    private LoggingTestAppender appender;
+
+    private ContextService contextService;
+
+    private DefinitionService definitionService;
+
+    private ServerService serverService;
+
+    private DefDescriptor<ApplicationDef> descriptor;
+
+    private PrewarmServiceImpl prewarmService;
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        appender = new LoggingTestAppender();
+        logger.addAppender(appender);
+
+        contextService = Mockito.mock(ContextService.class);
+        definitionService = Mockito.mock(DefinitionService.class);
+        serverService = Mockito.mock(ServerService.class);
+        descriptor = Mockito.mock(DefDescriptor.class);
+        Mockito.when(contextService.startContext(Matchers.any(Mode.class), Matchers.eq(Format.JS),
+                Matchers.eq(Authentication.AUTHENTICATED), Matchers.eq(descriptor)))
+                .thenReturn(Mockito.mock(AuraContext.class));
+        Mockito.when(definitionService.getDefDescriptor("test:app", ApplicationDef.class)).thenReturn(descriptor);
+
+        prewarmService = new PrewarmServiceImpl();
+        prewarmService.setContextService(contextService);
+        prewarmService.setDefinitionService(definitionService);
+        prewarmService.setServerService(serverService);
+    }
+
+    @Override
+    public void tearDown() throws Exception {
+        logger.removeAppender(appender);
+        super.tearDown();
+    }
+
+    @Test
+    public void testParseModesSkipsUnknownModes() {
+        List<Mode> modes = PrewarmServiceImpl.parseModes("prod, bogus,,DEV");
+
+        assertEquals(Lists.newArrayList(Mode.PROD, Mode.DEV), modes);
+        assertLogged("Unable to prewarm unknown mode bogus");
+    }
+
+    @Test
+    public void testParseClientsSkipsUnknownTypes() {
+        List<Client> clients = PrewarmServiceImpl.parseClients("webkit, bogus, IE6, other");
+
+        assertEquals(2, clients.size());
+        assertEquals(Client.Type.WEBKIT, clients.get(0).getType());
+        assertSame(Client.OTHER, clients.get(1));
+        assertLogged("Unable to prewarm unknown client type bogus");
+        assertLogged("Unable to prewarm client type IE6");
+    }
+
+    @Test
+    public void testWarmWhenNothingIsConfigured() {
+        assertTrue("nothing to warm", prewarmService.isWarm());
+    }
+
+    @Test
+    public void testWarmWhenAllAppsWarmed() throws Exception {
+        Mockito.when(definitionService.getUid(null, descriptor)).thenReturn("uid");
+
+        prewarmService.prewarm("test:app", Lists.newArrayList(Mode.PROD, Mode.DEV),
+                Collections.singletonList(Client.OTHER));
+
+        assertTrue(prewarmService.isWarm());
+        Mockito.verify(serverService, Mockito.times(2)).writeDefinitions(Matchers.anySet(),
+                Matchers.any(Writer.class));
+        Mockito.verify(contextService, Mockito.times(2)).endContext();
+    }
+
+    @Test
+    public void testWarmWhenAppFailsToWarm() throws Exception {
+        Mockito.when(definitionService.getUid(null, descriptor)).thenThrow(new AuraRuntimeException("broken"));
+
+        prewarmService.prewarm("test:app", Collections.singletonList(Mode.PROD),
+                Collections.singletonList(Client.OTHER));
+
+        assertTrue("a broken app must not keep the node out", prewarmService.isWarm());
+        assertLogged("Unable to prewarm " + descriptor + " in PROD");
+        assertLogged("Unable to prewarm [" + descriptor + " in PROD]");
+        Mockito.verify(contextService).endContext();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testWarmWhenOneOfTheAppsFails() throws Exception {
+        DefDescriptor<ApplicationDef> broken = Mockito.mock(DefDescriptor.class);
+        Mockito.when(definitionService.getDefDescriptor("test:broken", ApplicationDef.class)).thenReturn(broken);
+        Mockito.when(contextService.startContext(Matchers.any(Mode.class), Matchers.eq(Format.JS),
+                Matchers.eq(Authentication.AUTHENTICATED), Matchers.eq(broken)))
+                .thenReturn(Mockito.mock(AuraContext.class));
+        Mockito.when(definitionService.getUid(null, descriptor)).thenReturn("uid");
+        Mockito.when(definitionService.getUid(null, broken)).thenThrow(new AuraRuntimeException("broken"));
+
+        prewarmService.prewarm("test:broken,test:app", Collections.singletonList(Mode.PROD),
+                Collections.singletonList(Client.OTHER));
+
+        assertTrue(prewarmService.isWarm());
+        assertLogged("Unable to prewarm [" + broken + " in PROD]");
+        Mockito.verify(serverService).writeDefinitions(Matchers.anySet(), Matchers.any(Writer.class));
+    }
+
+    @Test
+    public void testWarmWhenAppDoesNotExist() throws Exception {
+        prewarmService.prewarm("test:app", Collections.singletonList(Mode.PROD),
+                Collections.singletonList(Client.OTHER));
+
+        assertTrue(prewarmService.isWarm());
+        assertLogged("Unable to prewarm " + descriptor + ", it does not exist");
+    }
+
+    @Test
+    public void testInvalidAppsAreSkipped() throws Exception {
+        Mockito.when(definitionService.getUid(null, descriptor)).thenReturn("uid");
+        Mockito.when(definitionService.getDefDescriptor("not an app", ApplicationDef.class))
+                .thenThrow(new AuraRuntimeException("invalid"));
+
+        prewarmService.prewarm("not an app,test:app", Collections.singletonList(Mode.PROD),
+                Collections.singletonList(Client.OTHER));
+
+        assertTrue(prewarmService.isWarm());
+        assertLogged("Unable to prewarm invalid app not an app");
+    }
+
+    @Test
+    public void testWarmWhenNothingIsLeftToWarm() throws Exception {
+        prewarmService.prewarm("test:app", PrewarmServiceImpl.parseModes("bogus"),
+                Collections.singletonList(Client.OTHER));
+
+        assertTrue(prewarmService.isWarm());
+        assertLogged("Nothing to prewarm, found 1 apps in 0 modes for 1 clients");
+        Mockito.verifyZeroInteractions(serverService);
+    }
+
+    @Test
+    public void testWarmWhenWarmingThrows() throws Exception {
+        Mockito.when(definitionService.getDefDescriptor("test:app", ApplicationDef.class))
+                .thenThrow(new Error("boom"));
+
+        prewarmService.prewarm("test:app", Collections.singletonList(Mode.PROD),
+                Collections.singletonList(Client.OTHER));
+
+        assertTrue(prewarmService.isWarm());
+        assertLogged("Unable to prewarm test:app");
+    }
+
+    private void assertLogged(String message) {
+        for (LoggingEvent event : appender.getLog()) {
+            if (message.equals(event.getRenderedMessage())) {
+                return;
+            }
+        }
+        fail("Expected log message '" + message + "' in " + appender.getLog().size() + " events");
+    }
+}
@@ -18,7 +18,10 @@ package org.auraframework.impl.context;
 import com.google.common.collect.ImmutableList;
 import org.auraframework.adapter.ConfigAdapter;
 import org.auraframework.adapter.LocalizationAdapter;
+import org.auraframework.def.ApplicationDef;
+import org.auraframework.def.DefDescriptor;
 import org.auraframework.http.AuraContextFilter;
+import org.auraframework.service.CachingService;
 import org.auraframework.service.ContextService;
 import org.auraframework.service.DefinitionService;
 import org.auraframework.service.LoggingService;
@@ -26,6 +29,7 @@ import org.auraframework.system.AuraContext;
 import org.auraframework.test.util.AuraTestCase;
 import org.auraframework.util.test.util.AuraPrivateAccessor;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.springframework.web.context.support.SpringBeanAutowiringSupport;
 
@@ -50,6 +54,9 @@ public class AuraContextFilterTest extends AuraTestCase {
     @Inject
     private LocalizationAdapter localizationAdapter;
 
+    @Inject
+    private CachingService cachingService;
+
     private void assertContextPath(AuraContextFilter filter, HttpServletRequest mock, String input, String expected)
             throws Exception {
         Mockito.when(mock.getContextPath()).thenReturn(input);
@@ -58,16 +65,22 @@ public class AuraContextFilterTest extends AuraTestCase {
         AuraPrivateAccessor.invoke(filter, "endContext");
     }
 
-    @Test
-    public void testStartContextContextPath() throws Exception {
-    	System.out.println(definitionService.hashCode());
+    private AuraContextFilter createFilter() {
         AuraContextFilter filter = new AuraContextFilter();
         filter.setContextService(contextService);
         filter.setLoggingService(loggingService);
         filter.setDefinitionService(definitionService);
         filter.setConfigAdapter(configAdapter);
         filter.setLocalizationAdapter(localizationAdapter);
+        filter.setCachingService(cachingService);
         SpringBeanAutowiringSupport.processInjectionBasedOnCurrentContext(filter);
+        return filter;
+    }
+
+    @Test
+    public void testStartContextContextPath() throws Exception {
+    	System.out.println(definitionService.hashCode());
+        AuraContextFilter filter = createFilter();
         HttpServletRequest mock = Mockito.mock(HttpServletRequest.class);
         Mockito.when(mock.getLocales()).thenReturn(new Vector<>(ImmutableList.of(Locale.ENGLISH)).elements());
 
@@ -75,4 +88,42 @@ public class AuraContextFilterTest extends AuraTestCase {
         assertContextPath(filter, mock, "/", "");
         assertContextPath(filter, mock, "", "");
     }
+
+    /**
+     * The context config should be parsed once per request, and the loaded keys resolved through the cache.
+     */
+    @Test
+    public void testStartContextParsesConfigOnce() throws Exception {
+        String key = "APPLICATION@markup://aura:application";
+        String config = "{\"mode\":\"DEV\",\"loaded\":{\"" + key + "\":\"someUid\"}}";
+        DefDescriptor<ApplicationDef> expected = definitionService.getDefDescriptor("markup://aura:application",
+                ApplicationDef.class);
+        AuraContextFilter filter = createFilter();
+
+        HttpServletRequest first = Mockito.mock(HttpServletRequest.class);
+        Mockito.when(first.getLocales()).thenReturn(new Vector<>(ImmutableList.of(Locale.ENGLISH)).elements());
+        Mockito.when(first.getParameter("aura.context")).thenReturn(config);
+        AuraContext context = AuraPrivateAccessor.invoke(filter, "startContext", first, null, null);
+        try {
+            assertEquals("someUid", context.getClientLoaded().get(expected));
+        } finally {
+            AuraPrivateAccessor.invoke(filter, "endContext");
+        }
+        assertSame(expected, cachingService.getLoadedDescriptorCache().getIfPresent(key));
+        ArgumentCaptor<Object> parsed = ArgumentCaptor.forClass(Object.class);
+        Mockito.verify(first).setAttribute(Mockito.anyString(), parsed.capture());
+
+        // the same request, coming back through the filter on a forward.
+        HttpServletRequest second = Mockito.mock(HttpServletRequest.class);
+        Mockito.when(second.getLocales()).thenReturn(new Vector<>(ImmutableList.of(Locale.ENGLISH)).elements());
+        Mockito.when(second.getParameter("aura.context")).thenReturn(config);
+        Mockito.when(second.getAttribute(Mockito.anyString())).thenReturn(parsed.getValue());
+        context = AuraPrivateAccessor.invoke(filter, "startContext", second, null, null);
+        try {
+            assertEquals("someUid", context.getClientLoaded().get(expected));
+        } finally {
+            AuraPrivateAccessor.invoke(filter, "endContext");
+        }
+        Mockito.verify(second, Mockito.never()).setAttribute(Mockito.anyString(), Mockito.any());
+    }
 }
@@ -17,6 +17,7 @@ package org.auraframework.impl.context;
 
 import org.auraframework.adapter.ContextAdapter;
 import org.auraframework.impl.AuraImplTestCase;
+import org.auraframework.system.AuraContext;
 import org.auraframework.system.AuraContext.Authentication;
 import org.auraframework.system.AuraContext.Format;
 import org.auraframework.system.AuraContext.GlobalValue;
@@ -27,6 +28,7 @@ import org.junit.Test;
 
 import javax.inject.Inject;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class AuraContextServiceImplTest extends AuraImplTestCase {
     @Inject
@@ -53,6 +55,58 @@ public class AuraContextServiceImplTest extends AuraImplTestCase {
         assertFalse(contextAdapter.isEstablished());
     }
 
+    @Test
+    public void testPropagateContext() throws Exception {
+        final AuraContext context = contextService.startContext(Mode.DEV, Format.JSON, Authentication.AUTHENTICATED);
+        final AtomicReference<AuraContext> seen = new AtomicReference<>();
+        final AtomicReference<Boolean> establishedAfter = new AtomicReference<>();
+        try {
+            final Runnable work = contextService.propagateContext(new Runnable() {
+                @Override
+                public void run() {
+                    seen.set(contextService.getCurrentContext());
+                }
+            });
+            Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    work.run();
+                    establishedAfter.set(contextService.isEstablished());
+                }
+            });
+            thread.start();
+            thread.join();
+            assertSame(context, contextService.getCurrentContext());
+        } finally {
+            contextService.endContext();
+        }
+        assertSame("the work should have run with the context", context, seen.get());
+        assertEquals("the other thread should be left without a context", Boolean.FALSE, establishedAfter.get());
+    }
+
+    @Test
+    public void testPropagateContextInSystemContext() {
+        contextService.startContext(Mode.DEV, Format.JSON, Authentication.AUTHENTICATED);
+        try {
+            contextService.pushSystemContext();
+            try {
+                contextService.propagateContext(new Runnable() {
+                    @Override
+                    public void run() {
+                    }
+                });
+                fail("shouldn't be able to propagate a system context");
+            } catch (Throwable t) {
+                assertExceptionMessageStartsWith(t, AuraRuntimeException.class,
+                        "cannot attach a context inside a system context");
+            } finally {
+                contextService.popSystemContext();
+            }
+        } finally {
+            contextService.endContext();
+        }
+    }
+
     private void unregisterGlobal(String name) {
         try {
             Map<String, GlobalValue> values = AuraPrivateAccessor.get(AuraContextImpl.class, "allowedGlobalValues");
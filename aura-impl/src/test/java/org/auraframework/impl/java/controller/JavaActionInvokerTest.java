@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.java.controller;
+
+import java.lang.reflect.InvocationTargetException;
+
+import org.auraframework.util.test.util.UnitTestCase;
+import org.junit.Test;
+
+public class JavaActionInvokerTest extends UnitTestCase {
+
+    public static class Actions {
+        private final String prefix;
+
+        public Actions(String prefix) {
+            this.prefix = prefix;
+        }
+
+        public String concat(String value, int count) {
+            return prefix + value + count;
+        }
+
+        public static long twice(long value) {
+            return value * 2;
+        }
+
+        public void fail(String message) {
+            throw new IllegalStateException(message);
+        }
+    }
+
+    private static JavaActionInvoker invoker(String name, Class<?>... parameterTypes) throws Exception {
+        return JavaActionInvoker.create(Actions.class.getMethod(name, parameterTypes));
+    }
+
+    @Test
+    public void testInstanceMethod() throws Exception {
+        assertEquals("a-b3", invoker("concat", String.class, int.class).invoke(new Actions("a-"),
+                new Object[] { "b", 3 }));
+    }
+
+    @Test
+    public void testStaticMethod() throws Exception {
+        JavaActionInvoker invoker = invoker("twice", long.class);
+        assertEquals(4L, invoker.invoke(null, new Object[] { 2L }));
+        // widening, as Method.invoke allows
+        assertEquals(6L, invoker.invoke(null, new Object[] { 3 }));
+    }
+
+    @Test
+    public void testVoidMethodThrows() throws Exception {
+        try {
+            invoker("fail", String.class).invoke(new Actions(""), new Object[] { "bad" });
+            fail("Expected the action to throw");
+        } catch (InvocationTargetException expected) {
+            assertEquals("bad", expected.getCause().getMessage());
+        }
+    }
+
+    @Test
+    public void testArgumentMismatch() throws Exception {
+        JavaActionInvoker invoker = invoker("concat", String.class, int.class);
+        assertInvalid(invoker, new Actions(""), new Object[] { "b", "3" });
+        assertInvalid(invoker, new Actions(""), new Object[] { "b", null });
+        assertInvalid(invoker, new Actions(""), new Object[] { "b" });
+        assertInvalid(invoker, "not actions", new Object[] { "b", 3 });
+        assertInvalid(invoker("twice", long.class), null, new Object[] { 3.0 });
+    }
+
+    private void assertInvalid(JavaActionInvoker invoker, Object target, Object[] args) throws Exception {
+        try {
+            invoker.invoke(target, args);
+            fail("Expected an invalid argument");
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+}
@@ -19,6 +19,7 @@ import org.auraframework.impl.util.AuraLocaleImpl;
 import org.auraframework.service.ConverterService;
 import org.auraframework.util.test.util.UnitTestCase;
 import org.auraframework.util.type.ConversionException;
+import org.auraframework.util.type.Converter;
 import org.auraframework.util.type.CustomAbstractType;
 import org.auraframework.util.type.CustomChildType;
 import org.auraframework.util.type.CustomConcreteType1;
@@ -26,6 +27,8 @@ import org.auraframework.util.type.CustomConcreteType2;
 import org.auraframework.util.type.CustomDupType;
 import org.auraframework.util.type.CustomPairType;
 import org.auraframework.util.type.CustomParentType;
+import org.auraframework.util.type.converter.StringToIntegerConverter;
+import org.auraframework.util.type.converter.StringToListConverter;
 import org.junit.Test;
 
 import javax.inject.Inject;
@@ -634,4 +637,29 @@ public class ConverterServiceImplTest extends UnitTestCase {
         runPassPairs(Long.class, new Object[] { new BigDecimal(12345678901234L), new Long(12345678901234L),
                 new BigDecimal(-12345678901234L), new Long(-12345678901234L), }, true);
     }
+
+    /**
+     * Lookups are cached per pair of classes, including the ones that found nothing.
+     */
+    @Test
+    public void testResolvedConvertersAreStable() {
+        ConverterService service = new ConverterServiceImpl(new Converter<?, ?>[] { new StringToIntegerConverter(),
+                new StringToListConverter() }, null, null, null);
+
+        for (int i = 0; i < 2; i++) {
+            assertEquals(Integer.valueOf(12), service.convert(" 12 ", Integer.class));
+            assertEquals("12", service.convert("12", String.class));
+            assertEquals(Arrays.asList("a", "b"), service.convert("[\"a\",\"b\"]", List.class));
+            assertTrue(service.hasConverter(String.class, Integer.class));
+            assertFalse(service.hasConverter(String.class, Long.class));
+            assertTrue(service.hasConverter(String.class, List.class, null));
+            assertFalse(service.hasConverter(String.class, List.class, "String"));
+            assertFalse(service.hasLocalizedConverter(String.class, Integer.class));
+            try {
+                service.convert("12", Long.class);
+                fail("Expected no converter from String to Long");
+            } catch (ConversionException expected) {
+            }
+        }
+    }
 }
@@ -0,0 +1,124 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.java.model;
+
+import java.lang.reflect.InvocationTargetException;
+
+import org.auraframework.util.test.util.UnitTestCase;
+import org.junit.Test;
+
+public class JavaPropertyAccessorTest extends UnitTestCase {
+
+    public static class Bean {
+        public String getName() {
+            return "name";
+        }
+
+        public boolean isActive() {
+            return true;
+        }
+
+        public boolean isBoth() {
+            return false;
+        }
+
+        public String getBoth() {
+            return "both";
+        }
+
+        public String getWithArg(String arg) {
+            return arg;
+        }
+
+        public static String getStatic() {
+            return "static";
+        }
+
+        public String getBroken() {
+            throw new IllegalStateException("broken");
+        }
+
+        String getHidden() {
+            return "hidden";
+        }
+
+        public Number getNumber() {
+            return 1;
+        }
+    }
+
+    public static class SubBean extends Bean {
+        @Override
+        public Integer getNumber() {
+            return 2;
+        }
+    }
+
+    private Object read(Object bean, String name) throws Exception {
+        JavaPropertyAccessor accessor = JavaPropertyAccessor.get(bean.getClass(), name);
+        assertNotNull("No accessor for " + name, accessor);
+        return accessor.invoke(bean);
+    }
+
+    @Test
+    public void testGetters() throws Exception {
+        Bean bean = new Bean();
+        assertEquals("name", read(bean, "name"));
+        assertEquals(Boolean.TRUE, read(bean, "active"));
+        assertEquals("both", read(bean, "both"));
+        assertEquals("static", read(bean, "static"));
+        assertEquals(Bean.class, read(bean, "class"));
+    }
+
+    @Test
+    public void testMissingProperties() {
+        assertNull(JavaPropertyAccessor.get(Bean.class, "doesNotExist"));
+        assertNull(JavaPropertyAccessor.get(Bean.class, "withArg"));
+        assertNull(JavaPropertyAccessor.get(Bean.class, "hidden"));
+    }
+
+    @Test
+    public void testCovariantOverride() throws Exception {
+        JavaPropertyAccessor accessor = JavaPropertyAccessor.get(SubBean.class, "number");
+        assertEquals(Integer.class, accessor.getMethod().getReturnType());
+        assertEquals(2, accessor.invoke(new SubBean()));
+    }
+
+    @Test
+    public void testGetterThrows() throws Exception {
+        try {
+            read(new Bean(), "broken");
+            fail("Expected the getter to throw");
+        } catch (InvocationTargetException expected) {
+            assertEquals("broken", expected.getCause().getMessage());
+        }
+    }
+
+    @Test
+    public void testWrongReceiver() throws Exception {
+        try {
+            JavaPropertyAccessor.get(Bean.class, "name").invoke("not a bean");
+            fail("Expected a receiver mismatch");
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    @Test
+    public void testForMethod() throws Exception {
+        JavaPropertyAccessor accessor = JavaPropertyAccessor.forMethod(Bean.class.getMethod("getName"));
+        assertEquals("name", accessor.invoke(new SubBean()));
+    }
+}
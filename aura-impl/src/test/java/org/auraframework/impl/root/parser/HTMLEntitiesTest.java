@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.root.parser;
+
+import java.io.StringReader;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamReader;
+
+import org.auraframework.util.test.util.UnitTestCase;
+import org.junit.Test;
+
+public class HTMLEntitiesTest extends UnitTestCase {
+
+    @Test
+    public void testNoEntities() {
+        String markup = "<aura:component><div>text</div></aura:component>";
+        assertSame(markup, HTMLEntities.replaceNamedEntities(markup));
+    }
+
+    @Test
+    public void testNamedEntities() {
+        assertEquals("<a b='&#160;'>&#169; &#08230;&#8364;</a>",
+                HTMLEntities.replaceNamedEntities("<a b='&nbsp;'>&copy; &hellip;&euro;</a>"));
+    }
+
+    @Test
+    public void testColumnsPreserved() {
+        String markup = "<a>&nbsp;&hellip;&thetasym;</a>";
+        assertEquals(markup.length(), HTMLEntities.replaceNamedEntities(markup).length());
+    }
+
+    @Test
+    public void testXmlAndUnknownEntitiesUntouched() {
+        String markup = "<a>&amp;&lt;&gt;&quot;&apos;&#160;&#xA0;&unknown; & &;</a>";
+        assertSame(markup, HTMLEntities.replaceNamedEntities(markup));
+    }
+
+    @Test
+    public void testUnparsedSectionsUntouched() {
+        String markup = "<a><!-- &nbsp; --><![CDATA[&nbsp;]]><?pi &nbsp;?>&nbsp;</a>";
+        assertEquals("<a><!-- &nbsp; --><![CDATA[&nbsp;]]><?pi &nbsp;?>&#160;</a>",
+                HTMLEntities.replaceNamedEntities(markup));
+    }
+
+    /**
+     * Looking for the ';' stops after the longest entity name, so a long run of '&' stays linear.
+     */
+    @Test
+    public void testAmpersandsWithoutSemicolon() {
+        StringBuilder markup = new StringBuilder("<a>");
+        for (int i = 0; i < 100000; i++) {
+            markup.append('&');
+        }
+        String prefix = markup.toString();
+        assertSame(prefix, HTMLEntities.replaceNamedEntities(prefix));
+        assertEquals(prefix + "&#160;</a>", HTMLEntities.replaceNamedEntities(prefix + "&nbsp;</a>"));
+        assertEquals("<a>&nbspnbspnbsp;</a>", HTMLEntities.replaceNamedEntities("<a>&nbspnbspnbsp;</a>"));
+    }
+
+    /**
+     * The rewritten markup has to give the parser the same text the DTD did.
+     */
+    @Test
+    public void testParsedText() throws Exception {
+        XMLStreamReader reader = XMLParser.createXMLStreamReader(new StringReader(
+                HTMLEntities.replaceNamedEntities("<a title='x&nbsp;y'>&lt;&raquo;&amp;</a>")));
+        assertEquals(XMLStreamConstants.START_ELEMENT, reader.next());
+        assertEquals("x\u00A0y", reader.getAttributeValue(null, "title"));
+        assertEquals(XMLStreamConstants.CHARACTERS, reader.next());
+        assertEquals("<\u00BB&", reader.getText());
+    }
+}
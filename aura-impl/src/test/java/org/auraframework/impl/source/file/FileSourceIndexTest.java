@@ -0,0 +1,152 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.source.file;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Collection;
+import java.util.Set;
+
+import org.auraframework.util.IOUtil;
+import org.auraframework.util.test.util.UnitTestCase;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
+
+/**
+ * Unit tests for {@link FileSourceIndex}
+ */
+public class FileSourceIndexTest extends UnitTestCase {
+    private static final String SEP = File.separator;
+
+    private File base;
+
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        base = Files.createTempDirectory("fileSourceIndex").toFile().getCanonicalFile();
+        touch("ns" + SEP + "cmp" + SEP + "cmp.cmp");
+        touch("ns" + SEP + "cmp" + SEP + "cmpController.js");
+        touch("ns" + SEP + "Other" + SEP + "Other.cmp");
+        touch("other" + SEP + "app" + SEP + "app.app");
+        new File(base, "empty").mkdir();
+    }
+
+    @Override
+    public void tearDown() throws Exception {
+        IOUtil.delete(base);
+        super.tearDown();
+    }
+
+    private File touch(String path) throws IOException {
+        File file = new File(base, path);
+        file.getParentFile().mkdirs();
+        file.createNewFile();
+        return file;
+    }
+
+    private static Set<String> names(Collection<FileSourceIndex.Entry> entries) {
+        Set<String> names = Sets.newHashSet();
+        for (FileSourceIndex.Entry entry : entries) {
+            names.add(entry.getFile().getName());
+        }
+        return names;
+    }
+
+    @Test
+    public void testLookups() throws Exception {
+        FileSourceIndex index = new FileSourceIndex(base);
+        String path = "ns" + SEP + "cmp" + SEP + "cmp.cmp";
+
+        assertEquals(new File(base, path), index.get(path).getFile());
+        assertEquals(new File(base, path).getCanonicalPath(), index.get(path).getCanonicalPath());
+        assertNull(index.get("ns" + SEP + "cmp" + SEP + "cmpRenderer.js"));
+        assertNull(index.get("ns" + SEP + "other" + SEP + "other.cmp"));
+        assertEquals("Other.cmp", index.getIgnoreCase("ns" + SEP + "other" + SEP + "other.cmp").getFile().getName());
+        assertEquals(ImmutableSet.of("ns", "other"), index.getTopLevelDirectories());
+    }
+
+    @Test
+    public void testList() throws Exception {
+        FileSourceIndex index = new FileSourceIndex(base);
+
+        assertEquals(ImmutableSet.of("cmp.cmp", "cmpController.js", "Other.cmp"), names(index.list("ns")));
+        assertEquals(ImmutableSet.of("cmp.cmp", "cmpController.js"), names(index.list("ns" + SEP + "cmp")));
+        assertEquals(ImmutableSet.of("Other.cmp"), names(index.list("NS" + SEP + "other")));
+        assertTrue(index.list("n").isEmpty());
+        assertTrue(index.list("empty").isEmpty());
+    }
+
+    @Test
+    public void testUpdates() throws Exception {
+        FileSourceIndex index = new FileSourceIndex(base);
+
+        touch("ns" + SEP + "cmp" + SEP + "cmpHelper.js");
+        index.created("ns" + SEP + "cmp" + SEP + "cmpHelper.js");
+        assertNotNull(index.get("ns" + SEP + "cmp" + SEP + "cmpHelper.js"));
+
+        touch("empty" + SEP + "new" + SEP + "new.cmp");
+        index.created("empty" + SEP + "new");
+        assertNotNull(index.get("empty" + SEP + "new" + SEP + "new.cmp"));
+        assertTrue(index.getTopLevelDirectories().contains("empty"));
+
+        index.deleted("ns" + SEP + "cmp" + SEP + "cmp.cmp");
+        assertNull(index.get("ns" + SEP + "cmp" + SEP + "cmp.cmp"));
+        assertNull(index.getIgnoreCase("ns" + SEP + "cmp" + SEP + "cmp.cmp"));
+
+        index.deleted("ns");
+        assertTrue(index.list("ns").isEmpty());
+        assertNull(index.getIgnoreCase("ns" + SEP + "other" + SEP + "other.cmp"));
+        assertEquals(ImmutableSet.of("other", "empty"), index.getTopLevelDirectories());
+    }
+
+    @Test
+    public void testDeletedCaseVariant() throws Exception {
+        touch("ns" + SEP + "case" + SEP + "Case.cmp");
+        touch("ns" + SEP + "case" + SEP + "case.cmp");
+        touch("ns" + SEP + "case" + SEP + "CASE.cmp");
+        FileSourceIndex index = new FileSourceIndex(base);
+        if (index.list("ns" + SEP + "case").size() < 3) {
+            // the file system ignores case, there is nothing to test.
+            return;
+        }
+        String lookup = "ns" + SEP + "case" + SEP + "cASE.cmp";
+
+        String first = "ns" + SEP + "case" + SEP + index.getIgnoreCase(lookup).getFile().getName();
+        index.deleted(first);
+        assertNull(index.get(first));
+        FileSourceIndex.Entry second = index.getIgnoreCase(lookup);
+        assertNotNull("Expected another file that only differs by case to take over", second);
+        assertFalse(first.endsWith(second.getFile().getName()));
+
+        index.deleted("ns" + SEP + "case" + SEP + second.getFile().getName());
+        assertNotNull(index.getIgnoreCase(lookup));
+
+        index.deleted("ns" + SEP + "case");
+        assertNull(index.getIgnoreCase(lookup));
+    }
+
+    @Test
+    public void testRelativize() {
+        String root = SEP + "a" + SEP + "b";
+        assertEquals("c" + SEP + "d", FileSourceIndex.relativize(root, root + SEP + "c" + SEP + "d"));
+        assertNull(FileSourceIndex.relativize(root, root));
+        assertNull(FileSourceIndex.relativize(root, root + "c" + SEP + "d"));
+        assertNull(FileSourceIndex.relativize(root, SEP + "x"));
+    }
+}
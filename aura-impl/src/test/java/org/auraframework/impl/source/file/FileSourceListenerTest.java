@@ -18,6 +18,7 @@ package org.auraframework.impl.source.file;
 import org.auraframework.def.DefDescriptor;
 import org.auraframework.system.SourceListener;
 import org.auraframework.util.FileChangeEvent;
+import org.auraframework.util.IOUtil;
 import org.auraframework.util.test.util.UnitTestCase;
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
@@ -26,6 +27,8 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
 import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
@@ -111,6 +114,27 @@ public class FileSourceListenerTest extends UnitTestCase {
         assertNull(defDescriptorCaptor.getValue());
     }
 
+    /**
+     * A directory that was created is signalled once for everything in it, so it must not be taken for a descriptor,
+     * even if its name looks like one.
+     */
+    @Test
+    public void testDirectoryEvent() throws Exception {
+        Path dir = Files.createTempDirectory("fileSourceListener");
+        try {
+            Path bundle = Files.createDirectories(dir.resolve("ui").resolve("inputSearch").resolve("inputSearch.cmp"));
+            when(fileChangeEvent.getPath()).thenReturn(bundle);
+
+            listener.fileCreated(fileChangeEvent);
+            verify(listener, times(1)).onSourceChanged(defDescriptorCaptor.capture(),
+                    eq(SourceListener.SourceMonitorEvent.CREATED), eq(bundle.toString()));
+
+            assertNull(defDescriptorCaptor.getValue());
+        } finally {
+            IOUtil.delete(dir.toFile());
+        }
+    }
+
     @Test
     public void testSourceChangedApplication() throws Exception {
         assertSourceChangedCalled("markup", "appCache", "withpreload", DefDescriptor.DefType.APPLICATION,
@@ -0,0 +1,145 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.system;
+
+import java.util.List;
+import java.util.Set;
+
+import org.auraframework.def.ComponentDef;
+import org.auraframework.def.DefDescriptor;
+import org.auraframework.def.LibraryDef;
+import org.auraframework.system.DependencySet;
+import org.auraframework.util.test.util.UnitTestCase;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
+public class DependencySetTest extends UnitTestCase {
+    private final DefDescriptor<?> a = new DefDescriptorImpl<>("markup", "dependencySetTest", "a", ComponentDef.class);
+    private final DefDescriptor<?> b = new DefDescriptorImpl<>("markup", "dependencySetTest", "b", ComponentDef.class);
+    private final DefDescriptor<?> c = new DefDescriptorImpl<>("markup", "dependencySetTest", "c", ComponentDef.class);
+    private final DefDescriptor<?> lib = new DefDescriptorImpl<>("markup", "dependencySetTest", "c", LibraryDef.class);
+
+    @Test
+    public void testKeepsOrder() {
+        List<DefDescriptor<?>> order = ImmutableList.<DefDescriptor<?>> of(c, a, lib, b);
+        Set<DefDescriptor<?>> set = DependencySet.copyOf(order);
+
+        assertEquals(order, Lists.newArrayList(set));
+        assertEquals(4, set.size());
+    }
+
+    @Test
+    public void testDropsDuplicates() {
+        Set<DefDescriptor<?>> set = DependencySet.builder().add(b).add(a).add(b)
+                .add(new DefDescriptorImpl<>("markup", "dependencySetTest", "A", ComponentDef.class)).build();
+
+        assertEquals(ImmutableList.of(b, a), Lists.newArrayList(set));
+    }
+
+    @Test
+    public void testContains() {
+        Set<DefDescriptor<?>> set = DependencySet.copyOf(ImmutableList.<DefDescriptor<?>> of(a, lib));
+
+        assertTrue(set.contains(a));
+        assertTrue(set.contains(new DefDescriptorImpl<>("markup", "dependencySetTest", "a", ComponentDef.class)));
+        assertTrue(set.contains(lib));
+        assertFalse(set.contains(c));
+        assertFalse(set.contains(new DefDescriptorImpl<>("markup", "dependencySetTest", "unseen", ComponentDef.class)));
+        assertFalse(set.contains("markup://dependencySetTest:a"));
+        assertFalse(DependencySet.of().contains(a));
+    }
+
+    @Test
+    public void testUnion() {
+        DependencySet first = DependencySet.copyOf(ImmutableList.<DefDescriptor<?>> of(a, b));
+        DependencySet second = DependencySet.copyOf(ImmutableList.<DefDescriptor<?>> of(c, b, lib));
+
+        DependencySet.Builder builder = DependencySet.builder().addAll(first).addAll(second);
+        assertTrue(builder.contains(lib));
+        assertEquals(ImmutableList.of(a, b, c, lib), Lists.newArrayList(builder.build()));
+    }
+
+    @Test
+    public void testContainsAll() {
+        DependencySet all = DependencySet.copyOf(ImmutableList.<DefDescriptor<?>> of(a, b, c));
+
+        assertTrue(all.containsAll(DependencySet.copyOf(ImmutableList.<DefDescriptor<?>> of(c, a))));
+        assertFalse(all.containsAll(DependencySet.copyOf(ImmutableList.<DefDescriptor<?>> of(a, lib))));
+        assertTrue(all.containsAll(Sets.newHashSet(b)));
+    }
+
+    @Test
+    public void testSparseIds() {
+        DependencySet.Builder many = DependencySet.builder();
+        for (int i = 0; i < 1000; i++) {
+            many.add(new DefDescriptorImpl<>("markup", "dependencySetTest", "sparse" + i, ComponentDef.class));
+        }
+        many.build();
+        DefDescriptor<?> last = new DefDescriptorImpl<>("markup", "dependencySetTest", "sparseLast",
+                ComponentDef.class);
+
+        DependencySet set = DependencySet.copyOf(ImmutableList.<DefDescriptor<?>> of(last, a));
+
+        assertTrue(set.contains(last));
+        assertTrue(set.contains(a));
+        assertFalse(set.contains(b));
+        assertTrue(DependencySet.copyOf(ImmutableList.<DefDescriptor<?>> of(a, last, b)).containsAll(set));
+    }
+
+    @Test
+    public void testResetIds() {
+        DependencySet before = DependencySet.copyOf(ImmutableList.<DefDescriptor<?>> of(a, b));
+
+        DependencySet.resetIds();
+        DependencySet after = DependencySet.copyOf(ImmutableList.<DefDescriptor<?>> of(c, b));
+
+        assertTrue(before.contains(a));
+        assertFalse(before.contains(c));
+        assertTrue(after.contains(c));
+        assertFalse(after.contains(a));
+        assertTrue(before.containsAll(DependencySet.copyOf(ImmutableList.<DefDescriptor<?>> of(b))));
+        assertFalse(after.containsAll(before));
+        assertEquals(ImmutableList.of(c, b, a),
+                Lists.newArrayList(DependencySet.builder().addAll(after).addAll(before).build()));
+    }
+
+    @Test
+    public void testEqualsOtherSets() {
+        Set<DefDescriptor<?>> set = DependencySet.copyOf(ImmutableList.<DefDescriptor<?>> of(a, b));
+
+        assertEquals(Sets.newHashSet(b, a), set);
+        assertEquals(set, Sets.newHashSet(b, a));
+        assertEquals(Sets.newHashSet(b, a).hashCode(), set.hashCode());
+    }
+
+    @Test
+    public void testUnmodifiable() {
+        Set<DefDescriptor<?>> set = DependencySet.copyOf(ImmutableList.<DefDescriptor<?>> of(a));
+        try {
+            set.add(b);
+            fail("Expected the set to be unmodifiable");
+        } catch (UnsupportedOperationException expected) {
+        }
+        try {
+            set.iterator().remove();
+            fail("Expected the set to be unmodifiable");
+        } catch (UnsupportedOperationException expected) {
+        }
+    }
+}
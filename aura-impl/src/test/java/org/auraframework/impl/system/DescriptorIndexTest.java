@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.system;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+import org.auraframework.def.ComponentDef;
+import org.auraframework.def.ControllerDef;
+import org.auraframework.def.DefDescriptor;
+import org.auraframework.def.DefDescriptor.DefType;
+import org.auraframework.def.DescriptorFilter;
+import org.auraframework.def.EventDef;
+import org.auraframework.def.InterfaceDef;
+import org.auraframework.system.DescriptorIndex;
+import org.auraframework.util.test.util.UnitTestCase;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
+
+public class DescriptorIndexTest extends UnitTestCase {
+    private final DefDescriptor<?> cmpA = new DefDescriptorImpl<>("markup", "ns1", "cmpA", ComponentDef.class);
+    private final DefDescriptor<?> cmpB = new DefDescriptorImpl<>("markup", "ns1", "cmpB", ComponentDef.class);
+    private final DefDescriptor<?> evtA = new DefDescriptorImpl<>("markup", "ns1", "cmpA", EventDef.class);
+    private final DefDescriptor<?> other = new DefDescriptorImpl<>("markup", "otherNs", "thing", ComponentDef.class);
+    private final DefDescriptor<?> controller = new DefDescriptorImpl<>("js", "ns1", "cmpA", ControllerDef.class);
+
+    private DescriptorIndex createIndex() {
+        return new DescriptorIndex(ImmutableList.of(cmpA, cmpB, evtA, other, controller),
+                ImmutableSet.of("markup", "js"), EnumSet.of(DefType.COMPONENT, DefType.EVENT, DefType.CONTROLLER));
+    }
+
+    private Set<DefDescriptor<?>> find(DescriptorIndex index, DescriptorFilter filter) {
+        Set<DefDescriptor<?>> matched = Sets.newHashSet();
+        index.find(filter, matched);
+        return matched;
+    }
+
+    @Test
+    public void testFindAll() {
+        assertEquals(ImmutableSet.of(cmpA, cmpB, evtA, other, controller),
+                find(createIndex(), new DescriptorFilter("*://*:*")));
+    }
+
+    @Test
+    public void testFindByType() {
+        assertEquals(ImmutableSet.of(cmpA, cmpB, other),
+                find(createIndex(), new DescriptorFilter("markup://*:*", DefType.COMPONENT)));
+        assertEquals(ImmutableSet.of(cmpA, evtA),
+                find(createIndex(), new DescriptorFilter("markup://ns1:cmpA", "COMPONENT,EVENT")));
+    }
+
+    @Test
+    public void testFindIgnoresCase() {
+        assertEquals(ImmutableSet.of(cmpA, cmpB),
+                find(createIndex(), new DescriptorFilter("MARKUP://NS1:*", DefType.COMPONENT)));
+        assertEquals(ImmutableSet.of(other), find(createIndex(), new DescriptorFilter("markup://other*:T*")));
+    }
+
+    @Test
+    public void testFindGlobs() {
+        assertEquals(ImmutableSet.of(cmpA, evtA, controller), find(createIndex(), new DescriptorFilter("*://ns1:*A")));
+        assertEquals(ImmutableSet.of(), find(createIndex(), new DescriptorFilter("markup://missing:*")));
+    }
+
+    @Test
+    public void testRemove() {
+        DescriptorIndex index = createIndex();
+        index.remove(new DefDescriptorImpl<>("markup", "NS1", "CMPA", ComponentDef.class));
+        index.remove(new DefDescriptorImpl<>("markup", "unknown", "cmpA", ComponentDef.class));
+
+        assertEquals(ImmutableSet.of(cmpB, evtA), find(index, new DescriptorFilter("markup://ns1:*", "*")));
+    }
+
+    @Test
+    public void testCovers() {
+        DescriptorIndex index = createIndex();
+
+        assertTrue(index.covers(new DefDescriptorImpl<>("markup", "brandNew", "cmp", ComponentDef.class)));
+        assertTrue(index.covers(new DefDescriptorImpl<>("JS", "ns1", "cmpB", ControllerDef.class)));
+        assertFalse(index.covers(new DefDescriptorImpl<>("java", "ns1", "cmpB", ControllerDef.class)));
+        assertFalse(index.covers(new DefDescriptorImpl<>("markup", "ns1", "intf", InterfaceDef.class)));
+    }
+}
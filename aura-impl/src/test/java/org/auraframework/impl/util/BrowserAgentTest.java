@@ -95,6 +95,19 @@ public class BrowserAgentTest extends UnitTestCase {
         assertThat("Form factor", computed.getFormFactor(), is(expected.formFactor));
     }
 
+    @Test
+    public void testCached() throws Exception {
+        BrowserInfo cached = BrowserInfo.get(expected.userAgent);
+
+        assertThat("Cached instance is not shared", BrowserInfo.get(expected.userAgent) == cached, is(true));
+        assertThat("Is a Tablet", cached.isTablet(), is(expected.tablet));
+        assertThat("Is a Phone", cached.isPhone(), is(expected.phone));
+        assertThat("Is iOS", cached.isIOS(), is(expected.iOS));
+        assertThat("Is Android", cached.isAndroid(), is(expected.android));
+        assertThat("Is WebKit", cached.isWebkit(), is(expected.webkit));
+        assertThat("Form factor", cached.getFormFactor(), is(expected.formFactor));
+    }
+
     private static BrowserTestInfo readExpectedBrowserInfo(String line) {
         StringTokenizer tokenizer = new StringTokenizer(line, "|", false);
         BrowserTestInfo info = new BrowserTestInfo();
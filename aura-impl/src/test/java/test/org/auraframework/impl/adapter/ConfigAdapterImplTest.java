@@ -247,6 +247,52 @@ public class ConfigAdapterImplTest extends UnitTestCase {
         assertEquals("Framework uid is not correct", uid, "BJTaoiCDxoAF4Wbh0iC9lA");
     }
 
+    /**
+     * In production the framework nonce is computed once at startup, and neither the groups nor the js regeneration
+     * are consulted afterwards.
+     */
+    @Test
+    public void testFrameworkUidFixedInProduction() throws Exception {
+        final AuraJavascriptGroup jsGroup = mock(AuraJavascriptGroup.class);
+        Hash jsHash = mock(Hash.class);
+        when(jsHash.toString()).thenReturn("jsGroup");
+        when(jsGroup.getGroupHash()).thenReturn(jsHash);
+
+        final AuraResourcesHashingGroup resourcesGroup = mock(AuraResourcesHashingGroup.class);
+        Hash resourcesHash = mock(Hash.class);
+        when(resourcesHash.toString()).thenReturn("resourcesGroup");
+        when(resourcesGroup.getGroupHash()).thenReturn(resourcesHash);
+
+        ConfigAdapterImpl configAdapter = new ConfigAdapterImpl(IOUtil.newTempDir(getName()), localizationAdapter, instanceService, contextService, fileMonitor) {
+            @Override
+            protected AuraJavascriptGroup newAuraJavascriptGroup() throws IOException {
+                return jsGroup;
+            }
+
+            @Override
+            protected FileGroup newAuraResourcesHashingGroup() throws IOException {
+                return resourcesGroup;
+            }
+
+            @Override
+            public boolean isProduction() {
+                return true;
+            }
+        };
+
+        ContextService contextService = mock(AuraContextServiceImpl.class);
+        configAdapter.setContextService(contextService);
+        configAdapter.initialize();
+        assertEquals("Framework uid is not correct", "9YifBh-oLwXkDGW3d3qyDQ", configAdapter.getAuraFrameworkNonce());
+
+        // changes to the groups are never picked up in production
+        when(jsHash.toString()).thenReturn("MocKitYMuCK");
+        reset(jsGroup, resourcesGroup);
+        configAdapter.regenerateAuraJS();
+        assertEquals("Framework uid is not correct", "9YifBh-oLwXkDGW3d3qyDQ", configAdapter.getAuraFrameworkNonce());
+        Mockito.verifyZeroInteractions(jsGroup, resourcesGroup);
+    }
+
     @Test
     public void testIsInternalNamespaceWithBadArguments() {
         ConfigAdapterImpl impl = new ConfigAdapterImpl(IOUtil.newTempDir(getName()), localizationAdapter, instanceService, contextService, fileMonitor);
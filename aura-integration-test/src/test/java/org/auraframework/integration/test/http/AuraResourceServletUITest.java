@@ -94,10 +94,9 @@ public class AuraResourceServletUITest extends WebDriverTestCase {
 
     @Test
     @ThreadHostileTest
-    public void testAltStringsCacheContainsAppJs() throws Exception {
-        openCachesAppWithRefresh("altStringsCache", "markup://performance:caches@JS");
-        //assertEquals("There should be 1 entry in the alt strings cache for JS", "1", getCount());
-        checkCount("There should be 1 entry in the alt strings cache for JS", "1");
+    public void testAppChunksCacheContainsAppJs() throws Exception {
+        openCachesAppWithRefresh("appChunksCache", "markup://performance:caches@JS");
+        checkCount("There should be 1 entry in the app chunks cache for JS", "1");
     }
 
     @Test
@@ -29,6 +29,7 @@ import org.auraframework.throwable.AuraExecutionException;
 import org.auraframework.throwable.NoAccessException;
 import org.auraframework.throwable.quickfix.DefinitionNotFoundException;
 import org.auraframework.throwable.quickfix.InvalidDefinitionException;
+import org.auraframework.util.json.JsonEncoder;
 import org.auraframework.util.test.annotation.UnAdaptableTest;
 import org.junit.Test;
 
@@ -181,4 +182,16 @@ public class JavaModelIntegrationTest extends AuraImplTestCase {
                     javaModelDefDesc.getName());
         }
     }
+
+    /**
+     * Verify that a member returned as a stream is written as an array.
+     */
+    @Test
+    public void testSerializeStreamMember() throws Exception {
+        Model model = getJavaModelByQualifiedName("java://org.auraframework.impl.java.model.TestModelWithStream");
+
+        String json = JsonEncoder.serialize(model, getJsonSerializationContext());
+
+        assertEquals("{\"things\":[\"one\",\"two\",\"three\"]}", json.replaceAll("\\s", ""));
+    }
 }
@@ -612,6 +612,39 @@ public class DefinitionServiceImplTest extends AuraImplTestCase {
         assertTrue("Preloads missing dependency from client", preloads.contains(depDesc));
     }
 
+    /**
+     * A second client with the same loaded set gets the same preloads, and is pruned in the same way.
+     */
+    @Test
+    public void testUpdateLoadedSharesPreloadsBetweenContexts() throws Exception {
+        AuraContext context = contextService.startContext(Mode.PROD, Format.JSON,
+                Authentication.AUTHENTICATED,
+                laxSecurityApp);
+        DefDescriptor<?> depDesc = addSourceAutoCleanup(ComponentDef.class, String.format(baseComponentTag, "", ""));
+        DefDescriptor<?> clientDesc = addSourceAutoCleanup(ComponentDef.class,
+                String.format(baseComponentTag, "", String.format("<%s/>", depDesc.getDescriptorName())));
+        String depUid = definitionService.getUid(null, depDesc);
+        String clientUid = definitionService.getUid(null, clientDesc);
+        Map<DefDescriptor<?>, String> clientLoaded = Maps.newLinkedHashMap();
+        clientLoaded.put(depDesc, depUid);
+        clientLoaded.put(clientDesc, clientUid);
+
+        context.setClientLoaded(clientLoaded);
+        definitionService.updateLoaded(null);
+        Set<DefDescriptor<?>> preloads = context.getPreloadedDefinitions();
+        contextService.endContext();
+
+        context = contextService.startContext(Mode.PROD, Format.JSON, Authentication.AUTHENTICATED,
+                laxSecurityApp);
+        context.setClientLoaded(clientLoaded);
+        definitionService.updateLoaded(null);
+
+        assertSame("Preloads should be shared", preloads, context.getPreloadedDefinitions());
+        Map<DefDescriptor<?>, String> loaded = context.getLoaded();
+        assertEquals("Parent missing from loaded set", clientUid, loaded.get(clientDesc));
+        assertEquals("Dependency still in loaded set", null, loaded.get(depDesc));
+    }
+
     /**
      * Check circular dependencies, keeping component.
      */
@@ -41,10 +41,15 @@ import org.auraframework.adapter.ConfigAdapter;
 import org.auraframework.adapter.ExceptionAdapter;
 import org.auraframework.def.ActionDef;
 import org.auraframework.def.ApplicationDef;
+import org.auraframework.def.BaseComponentDef;
 import org.auraframework.def.ComponentDef;
+import org.auraframework.def.ControllerDef;
 import org.auraframework.def.DefDescriptor;
 import org.auraframework.def.Definition;
 import org.auraframework.def.DefinitionAccess;
+import org.auraframework.def.EventDef;
+import org.auraframework.def.IncludeDefRef;
+import org.auraframework.def.LibraryDef;
 import org.auraframework.def.TypeDef;
 import org.auraframework.def.ValueDef;
 import org.auraframework.impl.AuraImplTestCase;
@@ -54,6 +59,7 @@ import org.auraframework.instance.Action;
 import org.auraframework.instance.ActionDelegate;
 import org.auraframework.instance.Component;
 import org.auraframework.instance.InstanceStack;
+import org.auraframework.service.CachingService;
 import org.auraframework.service.ContextService;
 import org.auraframework.service.DefinitionService;
 import org.auraframework.service.InstanceService;
@@ -70,6 +76,7 @@ import org.auraframework.throwable.AuraExecutionException;
 import org.auraframework.throwable.quickfix.QuickFixException;
 import org.auraframework.util.json.Json;
 import org.auraframework.util.json.JsonReader;
+import org.auraframework.util.json.JsonSerializationContext;
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
@@ -87,6 +94,12 @@ public class ServerServiceImplTest extends AuraImplTestCase {
     @Inject
     private ServerService serverService;
 
+    @Inject
+    private CachingService cachingService;
+
+    @Inject
+    private SerializationService serializationService;
+
     public ServerServiceImplTest() {
         super();
         setShouldSetupContext(false);
@@ -626,6 +639,135 @@ public class ServerServiceImplTest extends AuraImplTestCase {
         }
     }
 
+    /**
+     * Rebuilding app.js from the per definition fragments has to give the same output.
+     */
+    @Test
+    public void testWriteDefinitionsFromFragments() throws Exception {
+        DefDescriptor<ApplicationDef> appDesc = definitionService
+                .getDefDescriptor("appCache:withpreload", ApplicationDef.class);
+        AuraContext context = contextService
+                .startContext(Mode.DEV, AuraContext.Format.JS, AuraContext.Authentication.AUTHENTICATED, appDesc);
+        final String uid = definitionService.getUid(null, appDesc);
+        context.addLoaded(appDesc, uid);
+        Set<DefDescriptor<?>> dependencies = definitionService.getDependencies(uid);
+
+        StringWriter output = new StringWriter();
+        serverService.writeDefinitions(dependencies, output);
+        assertFalse("Fragments should have been cached",
+                cachingService.getDefinitionFragmentCache().getKeySet().isEmpty());
+
+        // the app only references the cached fragments.
+        Set<String> fragments = Sets.newIdentityHashSet();
+        for (String fragmentKey : cachingService.getDefinitionFragmentCache().getKeySet()) {
+            fragments.add(cachingService.getDefinitionFragmentCache().getIfPresent(fragmentKey));
+        }
+        String appKey = null;
+        for (String key : cachingService.getAppChunksCache().getKeySet()) {
+            if (key.contains("@markup://appcache:withpreload@")) {
+                appKey = key;
+            }
+        }
+        assertNotNull("App chunks should have been cached", appKey);
+        for (String chunk : cachingService.getAppChunksCache().getIfPresent(appKey)) {
+            if (chunk.startsWith("$A.componentService.addComponent(")) {
+                assertTrue("Chunk was not shared: " + chunk, fragments.contains(chunk));
+            }
+        }
+
+        // drop the app level chunk list, so that it is assembled again.
+        cachingService.getAppChunksCache().invalidateAll();
+        StringWriter rebuilt = new StringWriter();
+        serverService.writeDefinitions(dependencies, rebuilt);
+        assertEquals(output.toString(), rebuilt.toString());
+    }
+
+    /**
+     * app.js assembled from the fragments has to be what serializing each definition directly gives.
+     */
+    @Test
+    public void testWriteDefinitionsMatchesDirectSerialization() throws Exception {
+        DefDescriptor<ApplicationDef> appDesc = definitionService
+                .getDefDescriptor("appCache:withpreload", ApplicationDef.class);
+        AuraContext context = contextService
+                .startContext(Mode.DEV, AuraContext.Format.JS, AuraContext.Authentication.AUTHENTICATED, appDesc);
+        final String uid = definitionService.getUid(null, appDesc);
+        context.addLoaded(appDesc, uid);
+        Set<DefDescriptor<?>> dependencies = definitionService.getDependencies(uid);
+
+        StringWriter output = new StringWriter();
+        serverService.writeDefinitions(dependencies, output);
+        String expected = serializeDefinitions(context, dependencies);
+        assertEquals(expected, output.toString());
+
+        // and again from cached fragments only.
+        cachingService.getAppChunksCache().invalidateAll();
+        StringWriter rebuilt = new StringWriter();
+        serverService.writeDefinitions(dependencies, rebuilt);
+        assertEquals(expected, rebuilt.toString());
+    }
+
+    /**
+     * Serialize the definitions for app.js one after the other, the way it was done before they were cached.
+     */
+    private String serializeDefinitions(AuraContext context, Set<DefDescriptor<?>> dependencies) throws Exception {
+        boolean minify = context.getMode().minify();
+        JsonSerializationContext serializationContext = context.getJsonSerializationContext();
+        serializationContext.pushFormatRootItems();
+        serializationContext.pushRefSupport(false);
+
+        StringBuilder sb = new StringBuilder();
+        List<LibraryDef> libraryDefs = load(LibraryDef.class, dependencies);
+        for (LibraryDef libraryDef : libraryDefs) {
+            for (IncludeDefRef defRef : libraryDef.getIncludes()) {
+                sb.append("$A.componentService.addLibraryExporter(\"" + defRef.getClientDescriptor()
+                        + "\", function (){/*");
+                sb.append(defRef.getCode(minify));
+                sb.append("*/});");
+            }
+        }
+        for (BaseComponentDef def : load(BaseComponentDef.class, dependencies)) {
+            sb.append("$A.componentService.addComponent(\"" + def.getDescriptor() + "\", function (){/*");
+            sb.append(def.getCode(minify));
+            sb.append("return ");
+            serializationService.write(def, null, BaseComponentDef.class, sb, "JSON");
+            sb.append(";");
+            sb.append("*/});\n");
+        }
+        sb.append("$A.componentService.initEventDefs(");
+        serializationService.writeCollection(load(EventDef.class, dependencies), EventDef.class, sb, "JSON");
+        sb.append(");\n");
+        sb.append("$A.componentService.initLibraryDefs(");
+        serializationService.writeCollection(libraryDefs, LibraryDef.class, sb, "JSON");
+        sb.append(");\n");
+        sb.append("$A.componentService.initControllerDefs(");
+        List<ControllerDef> controllers = Lists.newArrayList();
+        for (ControllerDef controller : load(ControllerDef.class, dependencies)) {
+            if (controller.getDescriptor().getPrefix().equalsIgnoreCase("aura")) {
+                controllers.add(controller);
+            }
+        }
+        serializationService.writeCollection(controllers, ControllerDef.class, sb, "JSON");
+        sb.append(");\n");
+
+        serializationContext.popRefSupport();
+        serializationContext.popFormatRootItems();
+        return sb.toString();
+    }
+
+    private <D extends Definition> List<D> load(Class<D> defType, Set<DefDescriptor<?>> dependencies)
+            throws QuickFixException {
+        List<D> defs = Lists.newArrayList();
+        for (DefDescriptor<?> descriptor : dependencies) {
+            if (defType.isAssignableFrom(descriptor.getDefType().getPrimaryInterface())) {
+                @SuppressWarnings("unchecked")
+                DefDescriptor<D> dd = (DefDescriptor<D>) descriptor;
+                defs.add(definitionService.getDefinition(dd));
+            }
+        }
+        return defs;
+    }
+
     @Test
     public void testPreloadJSDependencies() throws Exception {
         ServerService ss = serverService;
@@ -26,13 +26,17 @@ import org.auraframework.impl.source.file.FileSourceLoader;
 import org.auraframework.service.DefinitionService;
 import org.auraframework.system.Parser.Format;
 import org.auraframework.system.Source;
+import org.auraframework.system.SourceListener.SourceMonitorEvent;
 import org.auraframework.throwable.AuraRuntimeException;
 import org.auraframework.util.FileMonitor;
+import org.auraframework.util.IOUtil;
 import org.junit.Test;
+import org.mockito.Mockito;
 
 import javax.inject.Inject;
 import java.io.File;
 import java.io.Reader;
+import java.nio.file.Files;
 import java.util.Set;
 
 public class FileSourceLoaderTest extends AuraImplTestCase {
@@ -179,6 +183,61 @@ public class FileSourceLoaderTest extends AuraImplTestCase {
         assertEquals("Should not have found any components", 0, found.size());
     }
     
+    /**
+     * Without a file monitor nothing tells the loader about files that come and go, so it has to look on disk.
+     */
+    @Test
+    public void testWithoutFileMonitorSeesAddedAndDeletedFiles() throws Exception {
+        File base = Files.createTempDirectory("fileSourceLoader").toFile();
+        try {
+            File cmp = new File(base, "test" + File.separator + "added" + File.separator + "added.cmp");
+            cmp.getParentFile().mkdirs();
+            FileSourceLoader loader = new FileSourceLoader(base, null);
+            DefDescriptor<ComponentDef> descriptor = definitionService.getDefDescriptor("test:added",
+                    ComponentDef.class);
+
+            assertFalse(loader.getSource(descriptor).exists());
+            assertTrue(loader.find(new DescriptorFilter("markup://test:added")).isEmpty());
+
+            cmp.createNewFile();
+            assertTrue(loader.getSource(descriptor).exists());
+            assertEquals(1, loader.find(new DescriptorFilter("markup://test:added")).size());
+
+            cmp.delete();
+            assertFalse(loader.getSource(descriptor).exists());
+            assertTrue(loader.find(ComponentDef.class, "markup", "test").isEmpty());
+        } finally {
+            IOUtil.delete(base);
+        }
+    }
+
+    /**
+     * When the file monitor loses track of changes, it tells everyone to start over, and the index is rebuilt.
+     */
+    @Test
+    public void testResetRebuildsIndex() throws Exception {
+        File base = Files.createTempDirectory("fileSourceLoader").toFile();
+        try {
+            File cmp = new File(base, "test" + File.separator + "added" + File.separator + "added.cmp");
+            cmp.getParentFile().mkdirs();
+            FileSourceLoader loader = new FileSourceLoader(base, Mockito.mock(FileMonitor.class));
+            DefDescriptor<ComponentDef> descriptor = definitionService.getDefDescriptor("test:added",
+                    ComponentDef.class);
+            assertFalse(loader.getSource(descriptor).exists());
+
+            // no event for this one.
+            cmp.createNewFile();
+            assertTrue(loader.find(new DescriptorFilter("markup://test:added")).isEmpty());
+
+            loader.onSourceChanged(null, SourceMonitorEvent.CHANGED, null);
+            assertTrue(loader.getSource(descriptor).exists());
+            assertEquals(1, loader.find(new DescriptorFilter("markup://test:added")).size());
+            assertTrue(loader.getNamespaces().contains("test"));
+        } finally {
+            IOUtil.delete(base);
+        }
+    }
+
     /**
      * All namespaces loaded by FileSourceLoader are internal, verify that FileSourceLoader says so.
      */
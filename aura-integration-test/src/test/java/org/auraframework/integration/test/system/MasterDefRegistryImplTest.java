@@ -30,6 +30,12 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.locks.Lock;
 
 import javax.annotation.Nonnull;
@@ -668,6 +674,76 @@ public class MasterDefRegistryImplTest extends AuraImplTestCase {
         Mockito.verify(registry, Mockito.times(0)).compileDE(Mockito.eq(cmpDesc));
     }
 
+    /**
+     * A registry that asks for a def that another registry is compiling should wait for it, and share the result.
+     */
+    @Test
+    public void testConcurrentGetUidCompilesOnce() throws Exception {
+        String cmpContent = "<aura:component/>";
+        final DefDescriptor<ComponentDef> cmpDesc = addSourceAutoCleanup(ComponentDef.class, cmpContent);
+        final MasterDefRegistryImplOverride leader = getDefRegistry(true);
+        final MasterDefRegistryImplOverride follower = getDefRegistry(true);
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        final List<Future<String>> followerUid = Lists.newArrayList();
+
+        try {
+            Mockito.doAnswer(new Answer<DependencyEntry>() {
+                @Override
+                public DependencyEntry answer(InvocationOnMock invocation) throws Throwable {
+                    followerUid.add(executor.submit(() -> follower.getUid(null, cmpDesc)));
+                    try {
+                        followerUid.get(0).get(500, TimeUnit.MILLISECONDS);
+                        fail("The follower should wait for the compile in progress");
+                    } catch (TimeoutException expected) {
+                    }
+                    return (DependencyEntry) invocation.callRealMethod();
+                }
+            }).when(leader).compileDE(Mockito.eq(cmpDesc));
+
+            String uid = leader.getUid(null, cmpDesc);
+            assertEquals(uid, followerUid.get(0).get(10, TimeUnit.SECONDS));
+            Mockito.verify(leader, Mockito.times(1)).compileDE(Mockito.eq(cmpDesc));
+            Mockito.verify(follower, Mockito.times(0)).compileDE(Mockito.eq(cmpDesc));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * A compile that does not finish, e.g. because it is waiting on the follower, must not hold the follower forever.
+     */
+    @Test
+    public void testConcurrentGetUidStopsWaiting() throws Exception {
+        String cmpContent = "<aura:component/>";
+        final DefDescriptor<ComponentDef> cmpDesc = addSourceAutoCleanup(ComponentDef.class, cmpContent);
+        final MasterDefRegistryImplOverride leader = getDefRegistry(true);
+        final MasterDefRegistryImplOverride follower = getDefRegistry(true);
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        final List<String> followerUid = Lists.newArrayList();
+
+        try {
+            Mockito.doAnswer(new Answer<DependencyEntry>() {
+                @Override
+                public DependencyEntry answer(InvocationOnMock invocation) throws Throwable {
+                    // the leader can't go on until the follower is done.
+                    followerUid.add(executor.submit(new Callable<String>() {
+                        @Override
+                        public String call() throws Exception {
+                            return follower.getUid(null, cmpDesc);
+                        }
+                    }).get(30, TimeUnit.SECONDS));
+                    return (DependencyEntry) invocation.callRealMethod();
+                }
+            }).when(leader).compileDE(Mockito.eq(cmpDesc));
+
+            String uid = leader.getUid(null, cmpDesc);
+            assertEquals(uid, followerUid.get(0));
+            Mockito.verify(follower, Mockito.times(1)).compileDE(Mockito.eq(cmpDesc));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     @Test
     public void testGetDefDescriptorNull() throws Exception {
         MasterDefRegistryImplOverride registry = getDefRegistry(false);
@@ -19,6 +19,7 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.util.Collection;
 import java.util.Date;
+import java.util.Iterator;
 import java.util.Map;
 
 import org.auraframework.util.json.Serialization.ReferenceScope;
@@ -126,10 +127,15 @@ public interface Json {
 
         private String name;
         private String shortName;
+        private String quotedName;
+        private String quotedShortName;
 
         ApplicationKey(String name, String shortName){
             this.name=name;
             this.shortName=shortName;
+            // plain identifiers, nothing to escape
+            this.quotedName="\""+name+"\"";
+            this.quotedShortName="\""+shortName+"\"";
         }
 
         @Override
@@ -137,6 +143,13 @@ public interface Json {
             return useShortName?this.shortName:this.name;
         }
 
+        /**
+         * The key as a quoted JSON string, ready to be written out.
+         */
+        public String toQuotedString(){
+            return useShortName?this.quotedShortName:this.quotedName;
+        }
+
         private static Boolean useShortName=false;
         public static void useShortKey(Boolean useShortKey){
             useShortName=useShortKey;
@@ -178,4 +191,27 @@ public interface Json {
     void writeMapSeparator() throws IOException;
     void writeString(Object value) throws IOException;
     void writeValue(Object value) throws IOException;
+
+    /**
+     * Write an array, pulling one element at a time from the iterator.
+     *
+     * Each element is written out before the next one is asked for, so the source never has to hold more than the
+     * current element.
+     */
+    default void writeArray(Iterator<?> array) throws IOException {
+        writeArrayBegin();
+        while (array.hasNext()) {
+            writeArrayEntry(array.next());
+        }
+        writeArrayEnd();
+    }
+
+    /**
+     * Write a value that has already been serialized.
+     *
+     * By default the JSON is written as is. Encoders that don't write JSON text should write the value instead.
+     */
+    default void writeFragment(JsonFragment fragment) throws IOException {
+        writeLiteral(fragment.getJson());
+    }
 }
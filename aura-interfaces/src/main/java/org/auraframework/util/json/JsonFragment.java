@@ -0,0 +1,61 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.util.json;
+
+import java.io.IOException;
+
+/**
+ * A value along with its already serialized JSON.
+ *
+ * Text encoders write the JSON out as is, so a fragment can be serialized once and shared between responses. Encoders
+ * that can't take JSON text, such as the binary one, serialize the value instead. The JSON must be what the value
+ * serializes to, and must not contain references, since it can end up in any response.
+ *
+ * @see Json#writeFragment(JsonFragment)
+ */
+public final class JsonFragment implements JsonSerializable {
+    private final String json;
+    private final Object value;
+
+    public JsonFragment(String json, Object value) {
+        this.json = json;
+        this.value = value;
+    }
+
+    /**
+     * @return the serialized value.
+     */
+    public String getJson() {
+        return json;
+    }
+
+    /**
+     * @return the value that was serialized.
+     */
+    public Object getValue() {
+        return value;
+    }
+
+    @Override
+    public void serialize(Json out) throws IOException {
+        out.writeFragment(this);
+    }
+
+    @Override
+    public String toString() {
+        return json;
+    }
+}
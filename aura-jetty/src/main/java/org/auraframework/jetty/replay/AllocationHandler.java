@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.jetty.replay;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.Map;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.eclipse.jetty.server.Request;
+import org.eclipse.jetty.server.handler.HandlerWrapper;
+
+import com.sun.management.ThreadMXBean;
+
+/**
+ * Measures the allocation and cpu time of each replayed request, on the thread that handles it.
+ *
+ * This wraps the whole web application, so that rewrites and forwards are included. The request type comes from the
+ * {@link #TYPE_HEADER} header set by the replay, requests without it are not measured. Work handed off to other
+ * threads is not seen.
+ */
+class AllocationHandler extends HandlerWrapper {
+    static final String TYPE_HEADER = "X-Aura-Replay";
+
+    private final ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private volatile Map<String, RequestStats> stats = Collections.emptyMap();
+
+    AllocationHandler() {
+        if (threads.isThreadAllocatedMemorySupported()) {
+            threads.setThreadAllocatedMemoryEnabled(true);
+        }
+        if (threads.isCurrentThreadCpuTimeSupported()) {
+            threads.setThreadCpuTimeEnabled(true);
+        }
+    }
+
+    /**
+     * Start recording into a new set of stats, e.g. once the warm up is over.
+     */
+    void setStats(Map<String, RequestStats> stats) {
+        this.stats = stats;
+    }
+
+    @Override
+    public void handle(String target, Request baseRequest, HttpServletRequest request, HttpServletResponse response)
+            throws IOException, ServletException {
+        String type = request.getHeader(TYPE_HEADER);
+        RequestStats typeStats = type != null ? stats.get(type) : null;
+        if (typeStats == null) {
+            super.handle(target, baseRequest, request, response);
+            return;
+        }
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long cpuBefore = threads.getCurrentThreadCpuTime();
+        try {
+            super.handle(target, baseRequest, request, response);
+        } finally {
+            typeStats.recordServer(threads.getThreadAllocatedBytes(threadId) - allocatedBefore,
+                    threads.getCurrentThreadCpuTime() - cpuBefore);
+        }
+    }
+}
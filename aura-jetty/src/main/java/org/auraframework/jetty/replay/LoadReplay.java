@@ -0,0 +1,303 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.jetty.replay;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.auraframework.util.json.JsonEncoder;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.io.Files;
+
+/**
+ * Replays a workload against Aura at a fixed concurrency, and reports throughput, latency percentiles, allocation
+ * and GC per request type.
+ *
+ * By default Aura is started in process, on a free local port, so that allocation and cpu time can be measured per
+ * request on the server. With --url the replay goes to an existing server instead, and only the client side numbers
+ * are reported.
+ *
+ * <pre>
+ * mvn -pl aura-jetty exec:java -Dexec.mainClass=org.auraframework.jetty.replay.LoadReplay \
+ *         -Dexec.args="--concurrency 16 --duration 120"
+ * </pre>
+ *
+ * Options:
+ * <ul>
+ * <li>--workload file: the workload to replay (see {@link Workload}), the default is the sample generated from the
+ * aura-components test applications by {@link WorkloadGenerator}.
+ * <li>--url url: replay against a running server.
+ * <li>--port port: the port of the in process server.
+ * <li>--mode mode: the aura mode of the pages, PROD by default.
+ * <li>--concurrency n: the number of clients, each sending one request at a time, 8 by default.
+ * <li>--warmup seconds: how long to replay before measuring, 30 by default.
+ * <li>--duration seconds: how long to measure, 60 by default.
+ * <li>--report file: also write the results as JSON, to compare runs.
+ * </ul>
+ *
+ * GC is process wide, so with an in process server it includes the replay itself, which allocates very little
+ * compared to the server.
+ */
+public final class LoadReplay {
+    static final String SAMPLE_WORKLOAD = "/org/auraframework/jetty/replay/sample-workload.json";
+
+    private static final double[] PERCENTILES = { 50, 90, 99, 99.9 };
+    private static final String SUCCESS = "\"state\":\"SUCCESS\"";
+
+    private final PrintStream out;
+    private final Workload.Mix mix;
+    private final ReplayClient client;
+    private final AllocationHandler allocationHandler;
+
+    private LoadReplay(PrintStream out, Workload.Mix mix, ReplayClient client, AllocationHandler allocationHandler) {
+        this.out = out;
+        this.mix = mix;
+        this.client = client;
+        this.allocationHandler = allocationHandler;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        PrintStream out = System.out;
+
+        Workload workload;
+        try (Reader reader = openWorkload(options.get("workload"))) {
+            workload = Workload.read(reader);
+        }
+        int concurrency = Integer.parseInt(getOption(options, "concurrency", "8"));
+        int warmup = Integer.parseInt(getOption(options, "warmup", "30"));
+        int duration = Integer.parseInt(getOption(options, "duration", "60"));
+
+        ReplayServer server = null;
+        String url = options.get("url");
+        if (url == null) {
+            int port = options.containsKey("port") ? Integer.parseInt(options.get("port")) : findFreePort();
+            server = new ReplayServer(port);
+            server.start();
+            url = "http://localhost:" + port;
+            out.println("Started Aura on " + url);
+        }
+        try {
+            ReplayClient client = new ReplayClient(url);
+            out.println("Loading the applications in the workload");
+            Workload.Mix mix = workload.resolve(client, getOption(options, "mode", "PROD"), out);
+            LoadReplay replay = new LoadReplay(out, mix, client,
+                    server != null ? server.getAllocationHandler() : null);
+
+            out.println(String.format("Warming up for %ds with %d clients", warmup, concurrency));
+            replay.run(concurrency, warmup);
+
+            out.println(String.format("Measuring for %ds with %d clients", duration, concurrency));
+            Map<String, Long[]> gcBefore = getGarbageCollection();
+            long start = System.nanoTime();
+            Map<String, RequestStats> stats = replay.run(concurrency, duration);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            Map<String, Long[]> gcAfter = getGarbageCollection();
+
+            replay.report(stats, seconds, gcBefore, gcAfter);
+            if (options.containsKey("report")) {
+                writeReport(new File(options.get("report")), stats, seconds, concurrency, gcBefore, gcAfter);
+            }
+        } finally {
+            if (server != null) {
+                server.stop();
+            }
+        }
+        System.exit(0);
+    }
+
+    /**
+     * Replay the mix with the given number of clients, until the time is up.
+     */
+    private Map<String, RequestStats> run(int concurrency, int seconds) throws Exception {
+        // types repeat across applications, keep the first of each.
+        Map<String, RequestStats> stats = Maps.newLinkedHashMap();
+        for (ReplayRequest request : mix.getRequests()) {
+            if (!stats.containsKey(request.getType())) {
+                stats.put(request.getType(), new RequestStats(request.getType()));
+            }
+        }
+        stats = ImmutableMap.copyOf(stats);
+        if (allocationHandler != null) {
+            allocationHandler.setStats(stats);
+        }
+
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        final Map<String, RequestStats> runStats = stats;
+        ExecutorService clients = Executors.newFixedThreadPool(concurrency);
+        try {
+            List<Future<?>> running = Lists.newArrayList();
+            for (int i = 0; i < concurrency; i++) {
+                final Random random = new Random(i);
+                running.add(clients.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        ReplayRequest request = mix.next(random);
+                        send(request, runStats.get(request.getType()));
+                    }
+                }));
+            }
+            for (Future<?> client : running) {
+                client.get();
+            }
+        } finally {
+            clients.shutdownNow();
+        }
+        return stats;
+    }
+
+    private void send(ReplayRequest request, RequestStats stats) {
+        long start = System.nanoTime();
+        ReplayClient.Response response;
+        try {
+            response = client.send(request);
+        } catch (IOException ioe) {
+            stats.recordResponse((System.nanoTime() - start) / 1000, 0, true);
+            return;
+        }
+        long micros = (System.nanoTime() - start) / 1000;
+        boolean error = !response.isOk() || (request.isAction() && !response.getText().contains(SUCCESS));
+        stats.recordResponse(micros, response.body.length, error);
+    }
+
+    private void report(Map<String, RequestStats> stats, double seconds, Map<String, Long[]> gcBefore,
+            Map<String, Long[]> gcAfter) {
+        out.println();
+        out.println(String.format("%-28s %9s %7s %9s %9s %9s %9s %9s %9s %10s %11s %9s", "Type", "Requests",
+                "Errors", "Req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "Max ms", "Resp KB", "Alloc KB",
+                "CPU ms"));
+        long total = 0;
+        for (RequestStats s : stats.values()) {
+            total += s.getCount();
+            StringBuilder line = new StringBuilder(String.format("%-28s %9d %7d %9.1f", s.getType(), s.getCount(),
+                    s.getErrors(), s.getCount() / seconds));
+            for (double percentile : PERCENTILES) {
+                line.append(String.format(" %9.2f", s.getPercentileMicros(percentile) / 1000.0));
+            }
+            line.append(String.format(" %9.2f %10.1f", s.getMaxMicros() / 1000.0,
+                    s.getAverageResponseBytes() / 1024.0));
+            line.append(s.getAverageAllocatedBytes() < 0 ? String.format(" %11s %9s", "-", "-")
+                    : String.format(" %11.1f %9.2f", s.getAverageAllocatedBytes() / 1024.0,
+                            s.getAverageCpuMicros() / 1000.0));
+            out.println(line);
+        }
+        out.println();
+        out.println(String.format("Total: %d requests in %.1fs, %.1f req/s", total, seconds, total / seconds));
+        for (Map.Entry<String, Long[]> gc : gcAfter.entrySet()) {
+            Long[] before = gcBefore.get(gc.getKey());
+            out.println(String.format("GC %s: %d collections, %d ms", gc.getKey(), gc.getValue()[0] - before[0],
+                    gc.getValue()[1] - before[1]));
+        }
+    }
+
+    private static void writeReport(File file, Map<String, RequestStats> stats, double seconds, int concurrency,
+            Map<String, Long[]> gcBefore, Map<String, Long[]> gcAfter) throws IOException {
+        List<Map<String, Object>> types = Lists.newArrayList();
+        for (RequestStats s : stats.values()) {
+            Map<String, Object> type = Maps.newLinkedHashMap();
+            type.put("type", s.getType());
+            type.put("requests", s.getCount());
+            type.put("errors", s.getErrors());
+            type.put("throughput", s.getCount() / seconds);
+            Map<String, Object> latencies = Maps.newLinkedHashMap();
+            for (double percentile : PERCENTILES) {
+                latencies.put("p" + percentile, s.getPercentileMicros(percentile));
+            }
+            latencies.put("max", s.getMaxMicros());
+            type.put("latencyMicros", latencies);
+            type.put("responseBytes", s.getAverageResponseBytes());
+            type.put("allocatedBytes", s.getAverageAllocatedBytes());
+            type.put("cpuMicros", s.getAverageCpuMicros());
+            types.add(type);
+        }
+        Map<String, Object> gcs = Maps.newLinkedHashMap();
+        for (Map.Entry<String, Long[]> gc : gcAfter.entrySet()) {
+            Long[] before = gcBefore.get(gc.getKey());
+            gcs.put(gc.getKey(), ImmutableMap.of("collections", gc.getValue()[0] - before[0], "timeMillis",
+                    gc.getValue()[1] - before[1]));
+        }
+        Map<String, Object> report = Maps.newLinkedHashMap();
+        report.put("concurrency", concurrency);
+        report.put("seconds", seconds);
+        report.put("types", types);
+        report.put("gc", gcs);
+        try (Writer writer = Files.newWriter(file, StandardCharsets.UTF_8)) {
+            JsonEncoder.serialize(report, writer, true, false);
+        }
+    }
+
+    /**
+     * @return the collection count and time of each collector.
+     */
+    private static Map<String, Long[]> getGarbageCollection() {
+        Map<String, Long[]> gc = Maps.newLinkedHashMap();
+        for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            gc.put(bean.getName(), new Long[] { bean.getCollectionCount(), bean.getCollectionTime() });
+        }
+        return gc;
+    }
+
+    private static Reader openWorkload(String path) throws IOException {
+        if (path != null) {
+            return Files.newReader(new File(path), StandardCharsets.UTF_8);
+        }
+        InputStream in = LoadReplay.class.getResourceAsStream(SAMPLE_WORKLOAD);
+        if (in == null) {
+            throw new IOException("Unable to find the sample workload " + SAMPLE_WORKLOAD);
+        }
+        return new InputStreamReader(in, StandardCharsets.UTF_8);
+    }
+
+    private static int findFreePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static String getOption(Map<String, String> options, String name, String defaultValue) {
+        String value = options.get(name);
+        return value != null ? value : defaultValue;
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = Maps.newHashMap();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--") || i + 1 == args.length) {
+                throw new IllegalArgumentException("Expected --option value, found " + args[i]);
+            }
+            options.put(args[i].substring(2), args[++i]);
+        }
+        return options;
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.jetty.replay;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A minimal HTTP client over HttpURLConnection, which keeps connections alive per thread.
+ */
+final class ReplayClient {
+    private static final String FORM = "application/x-www-form-urlencoded; charset=UTF-8";
+
+    private final String baseUrl;
+
+    ReplayClient(String baseUrl) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+    }
+
+    static final class Response {
+        final int status;
+        final byte[] body;
+
+        private Response(int status, byte[] body) {
+            this.status = status;
+            this.body = body;
+        }
+
+        boolean isOk() {
+            return status >= 200 && status < 300;
+        }
+
+        String getText() {
+            return new String(body, StandardCharsets.UTF_8);
+        }
+    }
+
+    Response get(String path) throws IOException {
+        return send(path, null, null);
+    }
+
+    Response send(ReplayRequest request) throws IOException {
+        return send(request.getPath(), request.getType(), request.getBody());
+    }
+
+    private Response send(String path, String type, byte[] form) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(baseUrl + path).openConnection();
+        connection.setInstanceFollowRedirects(false);
+        connection.setUseCaches(false);
+        if (type != null) {
+            connection.setRequestProperty(AllocationHandler.TYPE_HEADER, type);
+        }
+        if (form != null) {
+            connection.setRequestMethod("POST");
+            connection.setDoOutput(true);
+            connection.setRequestProperty("Content-Type", FORM);
+            connection.setFixedLengthStreamingMode(form.length);
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(form);
+            }
+        }
+        int status = connection.getResponseCode();
+        InputStream in = status >= 400 ? connection.getErrorStream() : connection.getInputStream();
+        // always read the whole body, so that the connection goes back to the keep-alive pool.
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        if (in != null) {
+            try {
+                byte[] buffer = new byte[8192];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    body.write(buffer, 0, read);
+                }
+            } finally {
+                in.close();
+            }
+        }
+        return new Response(status, body.toByteArray());
+    }
+}
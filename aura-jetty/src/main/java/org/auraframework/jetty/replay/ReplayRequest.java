@@ -0,0 +1,53 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.jetty.replay;
+
+/**
+ * A concrete request, ready to be sent as many times as needed.
+ */
+final class ReplayRequest {
+    private final String type;
+    private final String path;
+    private final byte[] body;
+
+    ReplayRequest(String type, String path, byte[] body) {
+        this.type = type;
+        this.path = path;
+        this.body = body;
+    }
+
+    /**
+     * The type the stats are recorded under, e.g. app.js or action:getComponent.
+     */
+    String getType() {
+        return type;
+    }
+
+    String getPath() {
+        return path;
+    }
+
+    /**
+     * @return the url encoded form for a POST, or null for a GET.
+     */
+    byte[] getBody() {
+        return body;
+    }
+
+    boolean isAction() {
+        return body != null;
+    }
+}
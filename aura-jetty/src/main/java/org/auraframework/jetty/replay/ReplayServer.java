@@ -0,0 +1,57 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.jetty.replay;
+
+import java.io.File;
+
+import org.auraframework.Aura;
+import org.auraframework.util.IOUtil;
+import org.eclipse.jetty.server.Connector;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.nio.SelectChannelConnector;
+import org.eclipse.jetty.webapp.WebAppContext;
+
+/**
+ * The Aura web application, in process on a local port, with an {@link AllocationHandler} in front of it.
+ *
+ * This is set up the same way as the integration test server, from the descriptors in the aura jar.
+ */
+class ReplayServer extends Server {
+    private final AllocationHandler allocationHandler = new AllocationHandler();
+
+    ReplayServer(int port) {
+        Connector connector = new SelectChannelConnector();
+        connector.setHost("localhost");
+        connector.setPort(port);
+        setConnectors(new Connector[] { connector });
+
+        WebAppContext context = new WebAppContext();
+        context.setDefaultsDescriptor(Aura.class.getResource("/aura/webapp/WEB-INF/webdefault.xml").toString());
+        context.setDescriptor(Aura.class.getResource("/aura/webapp/WEB-INF/web.xml").toString());
+        context.setContextPath("/");
+        context.setParentLoaderPriority(true);
+        context.setTempDirectory(new File(IOUtil.newTempDir("webcache")));
+        context.setResourceBase(System.getProperty("jetty.resources",
+                Aura.class.getResource("/aura/webapp").toString()));
+
+        allocationHandler.setHandler(context);
+        setHandler(allocationHandler);
+    }
+
+    AllocationHandler getAllocationHandler() {
+        return allocationHandler;
+    }
+}
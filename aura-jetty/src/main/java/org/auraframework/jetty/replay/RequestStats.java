@@ -0,0 +1,95 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.jetty.replay;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * What was seen for one type of request, from both sides of the connection.
+ *
+ * The client side records latency and response size, the server side (see {@link AllocationHandler}) the bytes
+ * allocated and the cpu time spent by the thread that handled the request.
+ */
+final class RequestStats {
+    private final String type;
+    private final LatencyHistogram latencies = new LatencyHistogram();
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicLong responseBytes = new AtomicLong();
+    private final AtomicLong serverRequests = new AtomicLong();
+    private final AtomicLong allocatedBytes = new AtomicLong();
+    private final AtomicLong cpuNanos = new AtomicLong();
+
+    RequestStats(String type) {
+        this.type = type;
+    }
+
+    void recordResponse(long micros, long bytes, boolean error) {
+        latencies.record(micros);
+        count.incrementAndGet();
+        responseBytes.addAndGet(bytes);
+        if (error) {
+            errors.incrementAndGet();
+        }
+    }
+
+    void recordServer(long allocated, long cpu) {
+        serverRequests.incrementAndGet();
+        allocatedBytes.addAndGet(allocated);
+        cpuNanos.addAndGet(cpu);
+    }
+
+    String getType() {
+        return type;
+    }
+
+    long getCount() {
+        return count.get();
+    }
+
+    long getErrors() {
+        return errors.get();
+    }
+
+    long getPercentileMicros(double percentile) {
+        return latencies.getPercentile(percentile);
+    }
+
+    long getMaxMicros() {
+        return latencies.getMax();
+    }
+
+    long getAverageResponseBytes() {
+        long n = count.get();
+        return n == 0 ? 0 : responseBytes.get() / n;
+    }
+
+    /**
+     * @return the average allocation per request on the server, or -1 if the server was not in process.
+     */
+    long getAverageAllocatedBytes() {
+        long n = serverRequests.get();
+        return n == 0 ? -1 : allocatedBytes.get() / n;
+    }
+
+    /**
+     * @return the average cpu time per request on the server, or -1 if the server was not in process.
+     */
+    long getAverageCpuMicros() {
+        long n = serverRequests.get();
+        return n == 0 ? -1 : cpuNanos.get() / n / 1000;
+    }
+}
@@ -0,0 +1,235 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.jetty.replay;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.auraframework.util.json.JsonEncoder;
+import org.auraframework.util.json.JsonReader;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+/**
+ * A weighted mix of requests to replay.
+ *
+ * A workload is a JSON file of the form:
+ *
+ * <pre>
+ * {
+ *     "requests" : [
+ *         { "type" : "app.js", "app" : "actionsTest:test", "weight" : 2 },
+ *         { "type" : "action", "app" : "actionsTest:test", "weight" : 10,
+ *           "action" : "aura://ComponentController/ACTION$getComponent",
+ *           "params" : { "name" : "markup://ui:button" } }
+ *     ]
+ * }
+ * </pre>
+ *
+ * The type is one of app.js, app.css, inline.js, bootstrap.js or action. The urls of the resources carry the uids of
+ * the framework and the application, so they are not recorded but taken from the page of each application when the
+ * replay starts, and actions are sent with the context from that page, just like a browser would.
+ */
+final class Workload {
+    static final String ACTION = "action";
+    static final List<String> RESOURCES = ImmutableList.of("app.js", "app.css", "inline.js", "bootstrap.js");
+
+    private static final Pattern RESOURCE_URL = Pattern.compile(
+            "(?:src|href)=[\"']([^\"']*/l/([^\"'/]*)/(app\\.js|app\\.css|inline\\.js|bootstrap\\.js)[^\"']*)[\"']");
+    private static final String TOKEN = "aura";
+
+    private final List<Entry> entries;
+
+    private static final class Entry {
+        private final String type;
+        private final String app;
+        private final int weight;
+        private final String action;
+        private final Map<String, Object> params;
+
+        private Entry(String type, String app, int weight, String action, Map<String, Object> params) {
+            this.type = type;
+            this.app = app;
+            this.weight = weight;
+            this.action = action;
+            this.params = params;
+        }
+    }
+
+    private Workload(List<Entry> entries) {
+        this.entries = entries;
+    }
+
+    /**
+     * The concrete requests, with a cumulative weight for each, to pick them at random.
+     */
+    static final class Mix {
+        private final ReplayRequest[] requests;
+        private final int[] cumulativeWeights;
+
+        private Mix(List<ReplayRequest> requests, List<Integer> weights) {
+            this.requests = requests.toArray(new ReplayRequest[requests.size()]);
+            this.cumulativeWeights = new int[weights.size()];
+            int total = 0;
+            for (int i = 0; i < cumulativeWeights.length; i++) {
+                total += weights.get(i);
+                cumulativeWeights[i] = total;
+            }
+        }
+
+        ReplayRequest next(Random random) {
+            int pick = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+            int index = Arrays.binarySearch(cumulativeWeights, pick + 1);
+            return requests[index >= 0 ? index : -index - 1];
+        }
+
+        List<ReplayRequest> getRequests() {
+            return Collections.unmodifiableList(Arrays.asList(requests));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    static Workload read(Reader reader) {
+        Map<String, Object> json = (Map<String, Object>) new JsonReader().read(reader);
+        List<Object> requests = (List<Object>) json.get("requests");
+        if (requests == null || requests.isEmpty()) {
+            throw new IllegalArgumentException("The workload has no requests");
+        }
+        List<Entry> entries = Lists.newArrayList();
+        for (Object o : requests) {
+            Map<String, Object> request = (Map<String, Object>) o;
+            String type = (String) request.get("type");
+            String app = (String) request.get("app");
+            Number weight = (Number) request.get("weight");
+            String action = (String) request.get("action");
+            if (app == null || (!ACTION.equals(type) && !RESOURCES.contains(type))) {
+                throw new IllegalArgumentException("Invalid request in workload: " + request);
+            }
+            if (ACTION.equals(type) && action == null) {
+                throw new IllegalArgumentException("Missing action in workload: " + request);
+            }
+            Map<String, Object> params = (Map<String, Object>) request.get("params");
+            entries.add(new Entry(type, app, weight != null ? weight.intValue() : 1, action,
+                    params != null ? params : ImmutableMap.<String, Object> of()));
+        }
+        return new Workload(entries);
+    }
+
+    /**
+     * Load the page of every application in the workload, and build the requests from it.
+     *
+     * Applications that fail to load are reported and left out.
+     */
+    Mix resolve(ReplayClient client, String mode, PrintStream log) throws IOException {
+        Map<String, Map<String, String>> pages = Maps.newHashMap();
+        List<ReplayRequest> requests = Lists.newArrayList();
+        List<Integer> weights = Lists.newArrayList();
+        for (Entry entry : entries) {
+            if (entry.weight <= 0) {
+                continue;
+            }
+            Map<String, String> urls = pages.get(entry.app);
+            if (urls == null) {
+                urls = loadPage(client, entry.app, mode, log);
+                pages.put(entry.app, urls);
+            }
+            ReplayRequest request = ACTION.equals(entry.type) ? createAction(entry, urls) : createResource(entry,
+                    urls);
+            if (request == null) {
+                log.println("Skipping " + entry.type + " for " + entry.app + ", it is not on the page");
+                continue;
+            }
+            requests.add(request);
+            weights.add(entry.weight);
+        }
+        if (requests.isEmpty()) {
+            throw new IOException("None of the requests in the workload could be resolved");
+        }
+        return new Mix(requests, weights);
+    }
+
+    private static ReplayRequest createResource(Entry entry, Map<String, String> urls) {
+        String url = urls.get(entry.type);
+        return url != null ? new ReplayRequest(entry.type, url, null) : null;
+    }
+
+    private static ReplayRequest createAction(Entry entry, Map<String, String> urls) throws IOException {
+        String context = urls.get(ACTION);
+        if (context == null) {
+            return null;
+        }
+        Map<String, Object> action = Maps.newLinkedHashMap();
+        action.put("id", "1;a");
+        action.put("descriptor", entry.action);
+        action.put("callingDescriptor", "UNKNOWN");
+        action.put("params", entry.params);
+        String message = JsonEncoder.serialize(ImmutableMap.of("actions", ImmutableList.of(action)));
+
+        StringBuilder form = new StringBuilder();
+        form.append("message=").append(URLEncoder.encode(message, "UTF-8"));
+        form.append("&aura.context=").append(URLEncoder.encode(context, "UTF-8"));
+        form.append("&aura.token=").append(TOKEN);
+
+        String name = entry.action.substring(entry.action.lastIndexOf('$') + 1);
+        return new ReplayRequest(ACTION + ":" + name, "/aura?r=1&" + URLEncoder.encode(name, "UTF-8") + "=1",
+                form.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Get the urls of the resources of an application from its page, and the context that actions should send.
+     */
+    private static Map<String, String> loadPage(ReplayClient client, String app, String mode, PrintStream log)
+            throws IOException {
+        Map<String, String> urls = Maps.newHashMap();
+        int colon = app.indexOf(':');
+        if (colon < 0) {
+            log.println("Skipping " + app + ", it is not an application name");
+            return urls;
+        }
+        String path = "/" + app.substring(0, colon) + "/" + app.substring(colon + 1) + ".app?aura.mode=" + mode;
+        ReplayClient.Response response = client.get(path);
+        if (!response.isOk()) {
+            log.println("Skipping " + app + ", " + path + " returned " + response.status);
+            return urls;
+        }
+        Matcher matcher = RESOURCE_URL.matcher(response.getText());
+        while (matcher.find()) {
+            String url = matcher.group(1).replace("&amp;", "&");
+            String resource = matcher.group(3);
+            if (!urls.containsKey(resource)) {
+                urls.put(resource, url);
+            }
+            if ("app.js".equals(resource)) {
+                urls.put(ACTION, URLDecoder.decode(matcher.group(2), "UTF-8"));
+            }
+        }
+        return urls;
+    }
+}
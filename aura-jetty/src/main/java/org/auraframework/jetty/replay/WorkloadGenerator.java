@@ -0,0 +1,147 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.jetty.replay;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.auraframework.util.json.JsonEncoder;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.io.Files;
+
+/**
+ * Generates a workload from a directory of components, one application per namespace.
+ *
+ * For each application this replays the resources a page load fetches, and getComponent actions for a couple of the
+ * components of its namespace. The weights follow a browser that caches app.js and app.css, which have the uids in
+ * their urls, and loads inline.js and bootstrap.js on every page view.
+ *
+ * <pre>
+ * WorkloadGenerator components-dir workload.json [max-apps]
+ * </pre>
+ *
+ * The sample workload shipped with {@link LoadReplay} was generated from aura-components/src/test/components.
+ */
+public final class WorkloadGenerator {
+    private static final Map<String, Integer> RESOURCE_WEIGHTS = ImmutableMap.of("app.js", 2, "app.css", 2,
+            "inline.js", 4, "bootstrap.js", 4);
+    private static final int ACTION_WEIGHT = 10;
+    private static final int ACTIONS_PER_APP = 2;
+    private static final Pattern BROKEN = Pattern.compile("(?i)invalid|error|broken|bad");
+    private static final String GET_COMPONENT = "aura://ComponentController/ACTION$getComponent";
+
+    private WorkloadGenerator() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: WorkloadGenerator components-dir workload.json [max-apps]");
+            System.exit(1);
+        }
+        File components = new File(args[0]);
+        int maxApps = args.length > 2 ? Integer.parseInt(args[2]) : 16;
+        if (!components.isDirectory()) {
+            throw new IOException("Unable to find components under " + components.getAbsolutePath());
+        }
+
+        List<Map<String, Object>> requests = Lists.newArrayList();
+        int apps = 0;
+        for (File namespace : sorted(components)) {
+            if (apps == maxApps) {
+                break;
+            }
+            File app = findApplication(namespace);
+            if (app == null) {
+                continue;
+            }
+            apps++;
+            String appName = namespace.getName() + ":" + app.getParentFile().getName();
+            for (Map.Entry<String, Integer> resource : RESOURCE_WEIGHTS.entrySet()) {
+                requests.add(request(resource.getKey(), appName, resource.getValue()));
+            }
+            for (String component : findComponents(namespace)) {
+                Map<String, Object> action = request(Workload.ACTION, appName, ACTION_WEIGHT);
+                action.put("action", GET_COMPONENT);
+                action.put("params", ImmutableMap.of("name", "markup://" + namespace.getName() + ":" + component));
+                requests.add(action);
+            }
+        }
+
+        try (Writer writer = Files.newWriter(new File(args[1]), StandardCharsets.UTF_8)) {
+            JsonEncoder.serialize(ImmutableMap.of("requests", requests), writer, true, false);
+        }
+    }
+
+    private static Map<String, Object> request(String type, String app, int weight) {
+        Map<String, Object> request = Maps.newLinkedHashMap();
+        request.put("type", type);
+        request.put("app", app);
+        request.put("weight", weight);
+        return request;
+    }
+
+    private static File findApplication(File namespace) {
+        for (File bundle : sorted(namespace)) {
+            File app = new File(bundle, bundle.getName() + ".app");
+            if (app.isFile()) {
+                return app;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Components that can be created without any attributes, i.e. not abstract or templates, without required
+     * attributes, and not one of the deliberately broken test components.
+     */
+    private static List<String> findComponents(File namespace) throws IOException {
+        List<String> components = Lists.newArrayList();
+        for (File bundle : sorted(namespace)) {
+            File cmp = new File(bundle, bundle.getName() + ".cmp");
+            if (!cmp.isFile()) {
+                continue;
+            }
+            String markup = Files.toString(cmp, StandardCharsets.UTF_8);
+            if (markup.contains("abstract=\"true\"") || markup.contains("isTemplate=\"true\"")
+                    || markup.contains("required=\"true\"") || BROKEN.matcher(bundle.getName()).find()) {
+                continue;
+            }
+            components.add(bundle.getName());
+            if (components.size() == ACTIONS_PER_APP) {
+                break;
+            }
+        }
+        return components;
+    }
+
+    private static List<File> sorted(File dir) {
+        File[] files = dir.listFiles();
+        if (files == null) {
+            return Lists.newArrayList();
+        }
+        Arrays.sort(files);
+        return Arrays.asList(files);
+    }
+}
@@ -15,7 +15,9 @@
  */
 package org.auraframework.util;
 
+import java.io.IOException;
 import java.io.UnsupportedEncodingException;
+import java.io.Writer;
 import java.net.URLDecoder;
 import java.net.URLEncoder;
 import java.util.ArrayList;
@@ -37,11 +39,6 @@ public class AuraTextUtil {
             "\\u003E", "\\n", "\\u2029", "" };
     private static final TrieMatcher JS_SEARCH_REPLACE = TrieMatcher.compile(JS_IN, JS_OUT);
 
-    private static final String[] JSON_IN = new String[] { "\\", "\n", "\r", "\t", "\"", "!--", "<", ">", "\u2028",
-            "\u2029", "\u0000", "*/" };
-    private static final String[] JSON_OUT = new String[] { "\\\\", "\\n", "\\r", "\\t", "\\\"", "\\u0021--",
-            "\\u003C", "\\u003E", "\\n", "\\u2029", "", "\\u002A/" };
-    private static final TrieMatcher JSON_SEARCH_REPLACE = TrieMatcher.compile(JSON_IN, JSON_OUT);
 
     private static final String[] RESERVED_METHODS = new String[]{
             "auraType","getDef","getRendering",
@@ -212,9 +209,106 @@ public class AuraTextUtil {
 
     /**
      * Properly escapes string for JSON.
+     *
+     * @see #escapeForJSONString(String, Appendable)
      */
     public static String escapeForJSONString(String in) {
-        return TrieMatcher.replaceMultiple(in, JSON_SEARCH_REPLACE);
+        if (in == null || in.isEmpty()) {
+            return in;
+        }
+        StringBuilder out = new StringBuilder(in.length() + 16);
+        try {
+            escapeForJSONString(in, out);
+        } catch (IOException ioe) {
+            // StringBuilder doesn't throw.
+            throw new IllegalStateException(ioe);
+        }
+        return out.toString();
+    }
+
+    /**
+     * Escapes a string for JSON straight into out.
+     *
+     * This is where the JSON escaping rules live. The runs between characters that need escaping are appended directly
+     * from the input, so no escaped copy is built.
+     *
+     * @param in the incoming (unsafe) string
+     * @param out where to write the escaped string
+     * @throws IOException if out does
+     */
+    public static void escapeForJSONString(String in, Appendable out) throws IOException {
+        int length = in.length();
+        int start = 0;
+        for (int i = 0; i < length; i++) {
+            String replacement;
+            int skip = 1;
+            char c = in.charAt(i);
+            switch (c) {
+            case '\\':
+                replacement = "\\\\";
+                break;
+            case '\n':
+            case '\u2028':
+                replacement = "\\n";
+                break;
+            case '\r':
+                replacement = "\\r";
+                break;
+            case '\t':
+                replacement = "\\t";
+                break;
+            case '"':
+                replacement = "\\\"";
+                break;
+            case '<':
+                replacement = "\\u003C";
+                break;
+            case '>':
+                replacement = "\\u003E";
+                break;
+            case '\u2029':
+                replacement = "\\u2029";
+                break;
+            case '\u0000':
+                replacement = "";
+                break;
+            case '!':
+                if (!in.startsWith("--", i + 1)) {
+                    continue;
+                }
+                replacement = "\\u0021--";
+                skip = 3;
+                break;
+            case '*':
+                if (!in.startsWith("/", i + 1)) {
+                    continue;
+                }
+                replacement = "\\u002A/";
+                skip = 2;
+                break;
+            default:
+                continue;
+            }
+            appendRun(in, start, i, out);
+            out.append(replacement);
+            i += skip - 1;
+            start = i + 1;
+        }
+        appendRun(in, start, length, out);
+    }
+
+    /**
+     * Writer.append(CharSequence, int, int) makes a substring, write(String, int, int) does not.
+     */
+    private static void appendRun(String in, int start, int end, Appendable out) throws IOException {
+        if (start == end) {
+            return;
+        }
+        if (out instanceof Writer) {
+            ((Writer) out).write(in, start, end - start);
+        } else {
+            out.append(in, start, end);
+        }
     }
 
     /**
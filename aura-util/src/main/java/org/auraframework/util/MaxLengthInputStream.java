@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.util;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * InputStream that fails once more than a construction-specified number of bytes has been read from it.
+ *
+ * Unlike {@link LimitedLengthInputStream}, which quietly ends the stream at its length, this is for input that must
+ * not be larger than the limit, such as a request body. The check is made as the bytes go by, so nothing is buffered
+ * to find out how long the stream is.
+ */
+@NotThreadSafe
+public class MaxLengthInputStream extends FilterInputStream {
+    private final long maxLength;
+    private long pos;
+
+    public MaxLengthInputStream(@Nonnull InputStream in, long maxLength) {
+        super(in);
+        if (in == null || maxLength < 0) {
+            throw new IllegalArgumentException("in must not be null, and maxLength must be >= 0");
+        }
+        this.maxLength = maxLength;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int byteRead = super.read();
+        if (byteRead >= 0) {
+            count(1);
+        }
+        return byteRead;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int bytesRead = super.read(b, off, len);
+        if (bytesRead > 0) {
+            count(bytesRead);
+        }
+        return bytesRead;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long bytesSkipped = super.skip(n);
+        count(bytesSkipped);
+        return bytesSkipped;
+    }
+
+    @Override
+    public synchronized void mark(int readlimit) {
+        // Do nothing, as the contract requires when markSupported is false
+    }
+
+    @Override
+    public synchronized void reset() throws IOException {
+        throw new IOException("mark not supported");
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    private void count(long bytes) throws IOException {
+        pos += bytes;
+        if (pos > maxLength) {
+            throw new IOException("Stream is longer than the maximum of " + maxLength + " bytes");
+        }
+    }
+}
@@ -0,0 +1,318 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.util.json;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.Map;
+
+import javax.annotation.Nonnull;
+
+import org.auraframework.util.UncloseableOutputStream;
+
+import com.google.common.collect.Maps;
+import com.google.common.io.CountingOutputStream;
+
+/**
+ * java -> binary encoder.
+ *
+ * This is a drop in replacement for {@link JsonEncoder} that writes the same value tree as a compact, length
+ * prefixed binary stream instead of JavaScript text, so it can be used by any {@link JsonSerializer}. Formatting,
+ * comments, commas and separators have no meaning here and are dropped.
+ *
+ * The stream starts with {@link #MAGIC} and a version byte, followed by a single value. Each value is a tag byte
+ * followed by its payload:
+ * <ul>
+ * <li>null, true, false: no payload
+ * <li>integer: zig-zag encoded varint (all other lengths and indexes are unsigned varints)
+ * <li>double: 8 byte IEEE 754
+ * <li>number: varint length + UTF-8 decimal string, for values that do not fit the above
+ * <li>string: varint length + UTF-8 bytes
+ * <li>string definition: as string, and the value is appended to the string table
+ * <li>string reference: varint index into the string table
+ * <li>literal: varint length + UTF-8 javascript that must be evaluated by the reader
+ * <li>map: key/value pairs, terminated by end
+ * <li>array: values, terminated by end
+ * <li>binary: 8 byte length + raw bytes
+ * </ul>
+ *
+ * Map keys, descriptor names and most other short strings repeat many times in a response, so every string up to
+ * {@link #MAX_TABLED_STRING_LENGTH} characters is written out once and referenced by index after that.
+ *
+ * Like {@link JsonEncoder}, this is NOT thread-safe, and should not be reused.
+ */
+public class BinaryJsonEncoder extends JsonEncoder {
+    public static final String MIME_TYPE = "application/x-aura-binary";
+
+    static final byte[] MAGIC = { 'A', 'B' };
+    static final byte VERSION = 1;
+
+    static final int TAG_NULL = 0;
+    static final int TAG_TRUE = 1;
+    static final int TAG_FALSE = 2;
+    static final int TAG_INTEGER = 3;
+    static final int TAG_DOUBLE = 4;
+    static final int TAG_NUMBER = 5;
+    static final int TAG_STRING = 6;
+    static final int TAG_STRING_DEF = 7;
+    static final int TAG_STRING_REF = 8;
+    static final int TAG_LITERAL = 9;
+    static final int TAG_MAP = 10;
+    static final int TAG_ARRAY = 11;
+    static final int TAG_END = 12;
+    static final int TAG_BINARY = 13;
+
+    static final int MAX_TABLED_STRING_LENGTH = 256;
+    static final int MAX_STRING_TABLE_SIZE = 64 * 1024;
+
+    private final DataOutputStream out;
+    private final Map<String, Integer> stringTable = Maps.newHashMap();
+    private CountingOutputStream currentBinaryStream;
+    private long currentBinaryStreamLength;
+
+    protected BinaryJsonEncoder(OutputStream out, JsonSerializationContext context) {
+        super(null, null, context);
+        this.out = new DataOutputStream(new BufferedOutputStream(out));
+    }
+
+    /**
+     * Creates an encoder streaming to the given OutputStream, and writes the stream header.
+     *
+     * As with {@link JsonEncoder#createJsonStream(OutputStream, JsonSerializationContext)}, you need to call
+     * {@link #close()} when you are done.
+     *
+     * @param out The OutputStream to write to. This must not be null.
+     * @param context The JSON serialization context to use for output
+     * @return A new encoder that you can use for streaming to the given OutputStream
+     * @throws IOException if the header cannot be written
+     */
+    public static BinaryJsonEncoder createBinaryStream(@Nonnull OutputStream out, JsonSerializationContext context)
+            throws IOException {
+        if (out == null) {
+            throw new IllegalArgumentException("out must not be null");
+        }
+        BinaryJsonEncoder encoder = new BinaryJsonEncoder(out, context);
+        encoder.out.write(MAGIC);
+        encoder.out.writeByte(VERSION);
+        return encoder;
+    }
+
+    @Override
+    public void writeIndent() {
+    }
+
+    @Override
+    public void writeBreak() {
+    }
+
+    @Override
+    public void writeComma() {
+    }
+
+    @Override
+    public void writeMapSeparator() {
+    }
+
+    @Override
+    public void writeCommentBegin() {
+    }
+
+    @Override
+    public void writeCommentEnd() {
+    }
+
+    @Override
+    public void writeCommentBody(String body) {
+    }
+
+    @Override
+    public void writeComment(String body) {
+    }
+
+    @Override
+    public void writeMapBegin() throws IOException {
+        out.writeByte(TAG_MAP);
+        pushIndent(IndentType.BRACE);
+    }
+
+    @Override
+    public void writeMapEnd() throws IOException {
+        popIndent(IndentType.BRACE, "Json.writeMapBegin must be called before calling Json.writeMapEnd");
+        out.writeByte(TAG_END);
+    }
+
+    @Override
+    public void writeArrayBegin() throws IOException {
+        out.writeByte(TAG_ARRAY);
+        pushIndent(IndentType.SQUARE);
+    }
+
+    @Override
+    public void writeArrayEnd() throws IOException {
+        popIndent(IndentType.SQUARE, "Json.writeArrayBegin must be called before calling Json.writeArrayEnd");
+        out.writeByte(TAG_END);
+    }
+
+    /**
+     * Numbers and booleans get their own tags, anything else is javascript source.
+     */
+    @Override
+    public void writeLiteral(Object value) throws IOException {
+        if (value instanceof Boolean) {
+            out.writeByte(((Boolean) value).booleanValue() ? TAG_TRUE : TAG_FALSE);
+        } else if (value instanceof Integer || value instanceof Long || value instanceof Short
+                || value instanceof Byte) {
+            out.writeByte(TAG_INTEGER);
+            writeVarLong(((Number) value).longValue());
+        } else if (value instanceof Double || value instanceof Float) {
+            out.writeByte(TAG_DOUBLE);
+            out.writeDouble(((Number) value).doubleValue());
+        } else if (value instanceof BigDecimal || value instanceof BigInteger) {
+            out.writeByte(TAG_NUMBER);
+            writeUTF8(value instanceof BigDecimal ? ((BigDecimal) value).toPlainString() : value.toString());
+        } else {
+            String literal = value.toString();
+            switch (literal) {
+            case "null":
+                out.writeByte(TAG_NULL);
+                break;
+            case "true":
+                out.writeByte(TAG_TRUE);
+                break;
+            case "false":
+                out.writeByte(TAG_FALSE);
+                break;
+            default:
+                out.writeByte(TAG_LITERAL);
+                writeUTF8(literal);
+            }
+        }
+    }
+
+    /**
+     * The JSON text means nothing here, write out the value.
+     */
+    @Override
+    public void writeFragment(JsonFragment fragment) throws IOException {
+        writeValue(fragment.getValue());
+    }
+
+    @Override
+    public void writeString(Object value) throws IOException {
+        String s = value.toString();
+        if (s.length() > MAX_TABLED_STRING_LENGTH) {
+            out.writeByte(TAG_STRING);
+            writeUTF8(s);
+            return;
+        }
+        Integer index = stringTable.get(s);
+        if (index != null) {
+            out.writeByte(TAG_STRING_REF);
+            writeVarInt(index);
+        } else if (stringTable.size() < MAX_STRING_TABLE_SIZE) {
+            stringTable.put(s, stringTable.size());
+            out.writeByte(TAG_STRING_DEF);
+            writeUTF8(s);
+        } else {
+            out.writeByte(TAG_STRING);
+            writeUTF8(s);
+        }
+    }
+
+    @Override
+    protected void writeApplicationKey(ApplicationKey key) throws IOException {
+        writeString(key.toString());
+    }
+
+    @Override
+    public void writeDate(Date value) throws IOException {
+        String formatted;
+        synchronized (ISO8601FORMAT) {
+            formatted = ISO8601FORMAT.format(value);
+        }
+        writeString(formatted);
+    }
+
+    @Override
+    public OutputStream writeBinaryStreamBegin(long streamLength) throws IOException {
+        if (currentBinaryStream != null) {
+            throw new IllegalStateException("Previous binary stream was not ended");
+        }
+        out.writeByte(TAG_BINARY);
+        out.writeLong(streamLength);
+        currentBinaryStreamLength = streamLength;
+        return currentBinaryStream = new CountingOutputStream(new UncloseableOutputStream(out));
+    }
+
+    @Override
+    public void writeBinaryStreamEnd() throws IOException {
+        if (currentBinaryStream == null) {
+            throw new IllegalStateException("Binary stream was not started");
+        }
+        if (currentBinaryStreamLength != currentBinaryStream.getCount()) {
+            throw new IllegalStateException("Length of the binary stream was written out as "
+                    + currentBinaryStreamLength + " bytes, but " + currentBinaryStream.getCount()
+                    + " bytes were actually written to the OutputStream returned by writeBinaryStreamBegin()");
+        }
+        currentBinaryStream = null;
+        currentBinaryStreamLength = 0;
+    }
+
+    /**
+     * There is no text output for this encoder.
+     */
+    @Override
+    public Appendable getAppendable() {
+        throw new UnsupportedOperationException("The binary encoder has no Appendable");
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    private void writeUTF8(String s) throws IOException {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private void writeVarInt(int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    /**
+     * Zig-zag encode, so that small negative numbers stay small.
+     */
+    private void writeVarLong(long value) throws IOException {
+        long v = (value << 1) ^ (value >> 63);
+        while ((v & ~0x7FL) != 0) {
+            out.writeByte((int) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        out.writeByte((int) v);
+    }
+}
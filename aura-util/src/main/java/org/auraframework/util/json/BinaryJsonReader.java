@@ -0,0 +1,197 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.util.json;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import org.auraframework.util.javascript.Literal;
+import org.auraframework.util.json.JsonStreamReader.JsonParseException;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.io.ByteStreams;
+
+/**
+ * Parses a single top-level value written by {@link BinaryJsonEncoder}.
+ *
+ * The returned value uses the same mappings as {@link JsonReader}: Map, List, null, String, BigDecimal, Boolean.
+ * Javascript literals come back as {@link Literal}, and binary streams as byte[].
+ */
+public class BinaryJsonReader {
+    /**
+     * Lengths are read from the stream, so don't trust them for anything bigger than this without checking that the
+     * bytes are actually there.
+     */
+    private static final int UNCHECKED_LENGTH = 64 * 1024;
+
+    /**
+     * Maps and arrays are read recursively, so limit how deep they go, rather than run out of stack on a stream of
+     * openers.
+     */
+    static final int MAX_DEPTH = 512;
+
+    private DataInputStream in;
+    private List<String> stringTable;
+    private int depth;
+
+    public Object read(InputStream stream) {
+        in = new DataInputStream(new BufferedInputStream(stream));
+        stringTable = Lists.newArrayList();
+        depth = 0;
+        try {
+            for (byte b : BinaryJsonEncoder.MAGIC) {
+                if (in.readByte() != b) {
+                    throw new JsonParseException("Not an aura binary stream");
+                }
+            }
+            byte version = in.readByte();
+            if (version != BinaryJsonEncoder.VERSION) {
+                throw new JsonParseException("Unsupported aura binary version " + version);
+            }
+            return readValue(in.readUnsignedByte());
+        } catch (EOFException eof) {
+            throw new JsonParseException("Unexpected end of stream", eof);
+        } catch (IOException ioe) {
+            throw new JsonParseException(ioe);
+        } finally {
+            in = null;
+            stringTable = null;
+        }
+    }
+
+    private Object readValue(int tag) throws IOException {
+        switch (tag) {
+        case BinaryJsonEncoder.TAG_NULL:
+            return null;
+        case BinaryJsonEncoder.TAG_TRUE:
+            return Boolean.TRUE;
+        case BinaryJsonEncoder.TAG_FALSE:
+            return Boolean.FALSE;
+        case BinaryJsonEncoder.TAG_INTEGER:
+            long v = readVarLong();
+            return BigDecimal.valueOf((v >>> 1) ^ -(v & 1));
+        case BinaryJsonEncoder.TAG_DOUBLE:
+            double d = in.readDouble();
+            if (Double.isNaN(d) || Double.isInfinite(d)) {
+                return d;
+            }
+            return BigDecimal.valueOf(d);
+        case BinaryJsonEncoder.TAG_NUMBER:
+            return new BigDecimal(readUTF8());
+        case BinaryJsonEncoder.TAG_STRING:
+            return readUTF8();
+        case BinaryJsonEncoder.TAG_STRING_DEF:
+            String s = readUTF8();
+            stringTable.add(s);
+            return s;
+        case BinaryJsonEncoder.TAG_STRING_REF:
+            int index = readVarInt("string reference");
+            if (index >= stringTable.size()) {
+                throw new JsonParseException("Invalid string reference " + index);
+            }
+            return stringTable.get(index);
+        case BinaryJsonEncoder.TAG_LITERAL:
+            return new Literal(readUTF8());
+        case BinaryJsonEncoder.TAG_MAP:
+            enter();
+            Map<String, Object> map = Maps.newHashMap();
+            for (int keyTag = in.readUnsignedByte(); keyTag != BinaryJsonEncoder.TAG_END; keyTag = in
+                    .readUnsignedByte()) {
+                Object key = readValue(keyTag);
+                if (!(key instanceof String)) {
+                    throw new JsonParseException("Map keys must be strings, found " + key);
+                }
+                map.put((String) key, readValue(in.readUnsignedByte()));
+            }
+            depth--;
+            return map;
+        case BinaryJsonEncoder.TAG_ARRAY:
+            enter();
+            List<Object> list = Lists.newArrayList();
+            for (int valueTag = in.readUnsignedByte(); valueTag != BinaryJsonEncoder.TAG_END; valueTag = in
+                    .readUnsignedByte()) {
+                list.add(readValue(valueTag));
+            }
+            depth--;
+            return list;
+        case BinaryJsonEncoder.TAG_BINARY:
+            long length = in.readLong();
+            if (length < 0 || length > Integer.MAX_VALUE) {
+                throw new JsonParseException("Invalid binary stream length " + length);
+            }
+            return readBytes((int) length);
+        default:
+            throw new JsonParseException("Unknown tag " + tag);
+        }
+    }
+
+    private void enter() {
+        if (++depth > MAX_DEPTH) {
+            throw new JsonParseException("Maps and arrays nested deeper than " + MAX_DEPTH);
+        }
+    }
+
+    private String readUTF8() throws IOException {
+        return new String(readBytes(readVarInt("length")), StandardCharsets.UTF_8);
+    }
+
+    private byte[] readBytes(int length) throws IOException {
+        if (length <= UNCHECKED_LENGTH) {
+            byte[] bytes = new byte[length];
+            in.readFully(bytes);
+            return bytes;
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(UNCHECKED_LENGTH);
+        if (ByteStreams.copy(ByteStreams.limit(in, length), bytes) != length) {
+            throw new EOFException();
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Read a length or an index, which the encoder never writes as negative.
+     *
+     * @param what what is being read, for the error.
+     */
+    private int readVarInt(String what) throws IOException {
+        long value = readVarLong();
+        if (value < 0 || value > Integer.MAX_VALUE) {
+            throw new JsonParseException("Invalid " + what + " " + value);
+        }
+        return (int) value;
+    }
+
+    private long readVarLong() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new JsonParseException("Malformed varint");
+    }
+}
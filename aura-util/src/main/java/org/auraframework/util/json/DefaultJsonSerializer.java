@@ -20,7 +20,10 @@ import java.io.OutputStream;
 import java.util.Calendar;
 import java.util.Collection;
 import java.util.Date;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.Spliterator;
+import java.util.stream.BaseStream;
 
 import org.auraframework.ds.serviceloader.AuraServiceProvider;
 import org.auraframework.util.javascript.Literal;
@@ -73,6 +76,9 @@ public class DefaultJsonSerializer implements JsonSerializer<Object> {
             json.writeArray((Collection<?>) value);
         } else if (value instanceof Object[]) {
             json.writeArray((Object[]) value);
+        } else if (value instanceof Iterator<?> || value instanceof BaseStream<?, ?>
+                || value instanceof Spliterator<?>) {
+            JsonSerializers.ITERATOR.serialize(json, value);
         } else if (value instanceof Boolean || value instanceof Number) {
             // Don't quote boolean or number values
             json.writeLiteral(value);
@@ -28,10 +28,13 @@ import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Spliterator;
 import java.util.TimeZone;
+import java.util.stream.BaseStream;
 
 import javax.annotation.Nonnull;
 
@@ -597,14 +600,14 @@ public class JsonEncoder implements Json {
             if ((refId = getRefId(serializer.getReferenceScope(value), value)) != null) {
                 // Output a simple reference
                 writeMapBegin();
-                writeMapEntry(ApplicationKey.SERIAL_REFID.toString(), refId);
+                writeMapEntry(ApplicationKey.SERIAL_REFID, refId);
                 writeMapEnd();
             } else {
                 refId = addReference(serializer.getReferenceScope(value), value);
                 // Now manually output this 2-element map to avoid loop
                 writeMapBegin();
-                writeMapEntry(ApplicationKey.SERIAL_ID.toString(), refId);
-                writeMapKey(ApplicationKey.VALUE.toString());
+                writeMapEntry(ApplicationKey.SERIAL_ID, refId);
+                writeMapKey(ApplicationKey.VALUE);
                 serializer.serialize(this, value);
                 writeMapEnd();
             }
@@ -633,10 +636,20 @@ public class JsonEncoder implements Json {
     @Override
     public void writeString(Object value) throws IOException {
         out.append('"');
-        out.append(AuraTextUtil.escapeForJSONString(value.toString()));
+        AuraTextUtil.escapeForJSONString(value.toString(), out);
         out.append('"');
     }
 
+    /**
+     * Write out a key that is already quoted.
+     *
+     * @param key
+     * @throws IOException
+     */
+    protected void writeApplicationKey(ApplicationKey key) throws IOException {
+        out.append(key.toQuotedString());
+    }
+
     /**
      * Write the date in the ISO-8601 format that's semi-standard in json2 (in
      * that it's in the comments)
@@ -654,7 +667,7 @@ public class JsonEncoder implements Json {
         out.append('"');
     }
 
-    private static final SimpleDateFormat ISO8601FORMAT;
+    static final SimpleDateFormat ISO8601FORMAT;
     static {
         ISO8601FORMAT = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss'Z'");
         ISO8601FORMAT.setTimeZone(TimeZone.getTimeZone("GMT"));
@@ -751,7 +764,9 @@ public class JsonEncoder implements Json {
         if (value == null && type != null) {
             try {
                 Class<?> valueClass = JsonEncoder.class.getClassLoader().loadClass(type.substring("java://".length()));
-                if (Iterable.class.isAssignableFrom(valueClass)) {
+                if (Iterable.class.isAssignableFrom(valueClass) || Iterator.class.isAssignableFrom(valueClass)
+                        || BaseStream.class.isAssignableFrom(valueClass)
+                        || Spliterator.class.isAssignableFrom(valueClass)) {
                     value = new ArrayList<Boolean>(0);
                 } else if (Map.class.isAssignableFrom(valueClass)) {
                     value = new HashMap<String,String>(0);
@@ -770,6 +785,9 @@ public class JsonEncoder implements Json {
      * Write a partial Map Entry -- everything except the value. This is useful
      * when the value requires special serialization.
      *
+     * An {@link ApplicationKey} is written out pre-quoted, without going
+     * through a serializer.
+     *
      * @param key
      * @throws IOException
      * @throws JsonSerializerNotFoundException if a serializer is not found for the key
@@ -778,6 +796,11 @@ public class JsonEncoder implements Json {
     public void writeMapKey(Object key) throws IOException {
         writeComma();
         writeIndent();
+        if (key instanceof ApplicationKey) {
+            writeApplicationKey((ApplicationKey) key);
+            writeMapSeparator();
+            return;
+        }
         JsonSerializer<Object> serializer = serializationContext.getSerializer(key);
         if (serializer == null) {
             throw new JsonSerializerNotFoundException(key);
@@ -25,12 +25,17 @@ import java.util.Date;
 import java.util.GregorianCalendar;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.TreeSet;
+import java.util.stream.BaseStream;
 
 import org.auraframework.util.date.DateOnly;
 import org.auraframework.util.date.DateService;
@@ -39,6 +44,7 @@ import org.auraframework.util.javascript.Literal;
 import org.auraframework.util.json.Serialization.ReferenceScope;
 import org.auraframework.util.json.Serialization.ReferenceType;
 
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 
 /**
@@ -49,6 +55,7 @@ public class JsonSerializers {
     public static final StringSerializer STRING = new StringSerializer();
     public static final ArraySerializer ARRAY = new ArraySerializer();
     public static final CollectionSerializer COLLECTION = new CollectionSerializer();
+    public static final IteratorSerializer ITERATOR = new IteratorSerializer();
     public static final MapSerializer MAP = new MapSerializer();
     public static final DateSerializer DATE = new DateSerializer();
     public static final DateOnlySerializer DATEONLY = new DateOnlySerializer();
@@ -92,6 +99,9 @@ public class JsonSerializers {
         m = new LinkedHashMap<>();
         m.put(Collection.class, COLLECTION); // maybe iterable
         m.put(Map.class, MAP);
+        m.put(Iterator.class, ITERATOR);
+        m.put(BaseStream.class, ITERATOR);
+        m.put(Spliterator.class, ITERATOR);
         m.put(Number.class, LITERAL);
         m.put(Calendar.class, CALENDAR);
         MAPPY_SLOWY = Collections.unmodifiableMap(m);
@@ -177,6 +187,49 @@ public class JsonSerializers {
 
     }
 
+    /**
+     * Streams an {@link Iterator}, {@link BaseStream} or {@link Spliterator} out as an array, one element at a time.
+     *
+     * These can only be walked once, so a getter handing one out for serialization should make a new one on every
+     * call. Streams are closed once they have been written.
+     *
+     * With a collection size limit, at most that many elements are held while deciding whether the whole thing is
+     * too large to display.
+     */
+    public static class IteratorSerializer extends NoneSerializer<Object> {
+
+        @Override
+        public void serialize(Json json, Object value) throws IOException {
+            if (value instanceof BaseStream) {
+                try (BaseStream<?, ?> stream = (BaseStream<?, ?>) value) {
+                    write(json, stream.iterator());
+                }
+            } else if (value instanceof Spliterator) {
+                write(json, Spliterators.iterator((Spliterator<?>) value));
+            } else {
+                write(json, (Iterator<?>) value);
+            }
+        }
+
+        private void write(Json json, Iterator<?> value) throws IOException {
+            int limit = json.getSerializationContext().getCollectionSizeLimit();
+            if (limit > -1) {
+                List<Object> head = Lists.newArrayList();
+                while (head.size() <= limit && value.hasNext()) {
+                    head.add(value.next());
+                }
+                if (head.size() > limit) {
+                    json.writeString("Iterator of more than " + limit + " elements too large to display");
+                } else {
+                    json.writeArray(head);
+                }
+            } else {
+                json.writeArray(value);
+            }
+        }
+
+    }
+
     public static class MapSerializer extends NoneSerializer<Map<?, ?>> {
 
         @Override
@@ -15,12 +15,16 @@
  */
 package org.auraframework.util;
 
+import java.io.IOException;
+import java.io.StringWriter;
 import java.util.Arrays;
 import java.util.List;
 
 import org.auraframework.util.test.util.UnitTestCase;
 import org.junit.Test;
 
+import com.google.common.collect.Lists;
+
 public class AuraTextUtilTest extends UnitTestCase {
     /**
      * A simple input/expected pair for testing.
@@ -205,6 +209,34 @@ public class AuraTextUtilTest extends UnitTestCase {
         }
     }
 
+    private static StringPair[] JSON_ESCAPE_PAIRS = new StringPair[] {
+            new StringPair("\n\r\t", "\\n\\r\\t"), new StringPair("a\u0000b", "ab"),
+            new StringPair("say \"hi\"", "say \\\"hi\\\""), new StringPair("back\\slash", "back\\\\slash"),
+            new StringPair("</script>", "\\u003C/script\\u003E"),
+            new StringPair("<script>alert(1)</script>", "\\u003Cscript\\u003Ealert(1)\\u003C/script\\u003E"),
+            new StringPair("x\u2028y\u2029z", "x\\ny\\u2029z"), new StringPair("<!-- a */", "\\u003C\\u0021-- a \\u002A/"),
+            new StringPair("!-", "!-"), new StringPair("a*b/", "a*b/"), new StringPair("**/", "*\\u002A/"),
+            new StringPair("!!--", "!\\u0021--"), new StringPair("", ""), new StringPair("plain") };
+
+    /**
+     * Both entry points have to escape the same way, whatever the Appendable.
+     */
+    @Test
+    public void testEscapeForJSONStringAppendable() throws IOException {
+        List<StringPair> pairs = Lists.newArrayList(JSON_ESCAPE_PAIRS);
+        pairs.addAll(Arrays.asList(JSON_STRING_PAIRS));
+        for (StringPair p : pairs) {
+            assertEquals(p.input, p.expected, AuraTextUtil.escapeForJSONString(p.input));
+            StringBuilder builder = new StringBuilder("[");
+            AuraTextUtil.escapeForJSONString(p.input, builder);
+            assertEquals(p.input, "[" + p.expected, builder.toString());
+            StringWriter writer = new StringWriter();
+            AuraTextUtil.escapeForJSONString(p.input, writer);
+            assertEquals(p.input, p.expected, writer.toString());
+        }
+        assertNull(AuraTextUtil.escapeForJSONString(null));
+    }
+
     private static class SplitMatch {
         public final String input;
         public final String delimiter;
@@ -0,0 +1,81 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.util.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.auraframework.util.MaxLengthInputStream;
+import org.auraframework.util.test.util.UnitTestCase;
+import org.junit.Test;
+
+import com.google.common.io.ByteStreams;
+
+/**
+ * Tests for the MaxLengthInputStream
+ */
+public class MaxLengthInputStreamTest extends UnitTestCase {
+    private InputStream createTestStream(int byteCount) {
+        final byte[] bytes = new byte[byteCount];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) i;
+        }
+        return new ByteArrayInputStream(bytes);
+    }
+
+    @Test
+    public void testReadUpToLimit() throws Exception {
+        InputStream in = new MaxLengthInputStream(createTestStream(10), 10);
+        assertEquals(10, ByteStreams.toByteArray(in).length);
+        assertEquals(-1, in.read());
+    }
+
+    @Test
+    public void testBulkReadPastLimit() throws Exception {
+        InputStream in = new MaxLengthInputStream(createTestStream(11), 10);
+        try {
+            ByteStreams.toByteArray(in);
+            fail("Expected the limit to be enforced");
+        } catch (IOException expected) {
+            assertEquals("Stream is longer than the maximum of 10 bytes", expected.getMessage());
+        }
+    }
+
+    @Test
+    public void testSingleReadPastLimit() throws Exception {
+        InputStream in = new MaxLengthInputStream(createTestStream(3), 2);
+        assertEquals(0, in.read());
+        assertEquals(1, in.read());
+        try {
+            in.read();
+            fail("Expected the limit to be enforced");
+        } catch (IOException expected) {
+        }
+    }
+
+    @Test
+    public void testSkipCounts() throws Exception {
+        InputStream in = new MaxLengthInputStream(createTestStream(5), 4);
+        assertEquals(3, in.skip(3));
+        assertEquals(3, in.read());
+        try {
+            in.read();
+            fail("Expected the limit to be enforced");
+        } catch (IOException expected) {
+        }
+    }
+}
@@ -0,0 +1,245 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.util.json;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.auraframework.util.javascript.Literal;
+import org.auraframework.util.json.JsonStreamReader.JsonParseException;
+import org.auraframework.util.test.util.UnitTestCase;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+/**
+ * Round trips through {@link BinaryJsonEncoder} and {@link BinaryJsonReader}.
+ */
+public class BinaryJsonEncoderTest extends UnitTestCase {
+
+    private byte[] encode(Object value) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        BinaryJsonEncoder json = BinaryJsonEncoder.createBinaryStream(bytes,
+                new DefaultJsonSerializationContext(false, false, true));
+        json.writeValue(value);
+        json.close();
+        return bytes.toByteArray();
+    }
+
+    private Object roundTrip(Object value) throws IOException {
+        return new BinaryJsonReader().read(new ByteArrayInputStream(encode(value)));
+    }
+
+    @Test
+    public void testScalars() throws IOException {
+        assertNull(roundTrip(null));
+        assertEquals(Boolean.TRUE, roundTrip(true));
+        assertEquals(Boolean.FALSE, roundTrip(false));
+        assertEquals(new BigDecimal(123), roundTrip(123));
+        assertEquals(new BigDecimal(-123), roundTrip(-123L));
+        assertEquals(new BigDecimal(Long.MIN_VALUE), roundTrip(Long.MIN_VALUE));
+        assertEquals(new BigDecimal("123.456"), roundTrip(123.456));
+        assertEquals(new BigDecimal("1234.5"), roundTrip(new BigDecimal("1234.5")));
+        assertEquals("", roundTrip(""));
+        assertEquals("分\n\"", roundTrip("分\n\""));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testStructures() throws IOException {
+        Map<String, Object> inner = Maps.newLinkedHashMap();
+        inner.put("descriptor", "markup://aura:text");
+        inner.put("values", Lists.newArrayList(1, "markup://aura:text", false, null));
+        Map<String, Object> outer = ImmutableMap.<String, Object> of("a", inner, "b", Lists.newArrayList(inner, inner));
+
+        Map<String, Object> read = (Map<String, Object>) roundTrip(outer);
+        assertEquals(2, read.size());
+        Map<String, Object> a = (Map<String, Object>) read.get("a");
+        assertEquals("markup://aura:text", a.get("descriptor"));
+        List<Object> values = (List<Object>) a.get("values");
+        assertEquals(Lists.newArrayList(BigDecimal.ONE, "markup://aura:text", false, null), values);
+        assertEquals(Lists.newArrayList(a, a), read.get("b"));
+    }
+
+    /**
+     * Repeated strings should only be written out once.
+     */
+    @Test
+    public void testStringTable() throws IOException {
+        String name = "markup://aura:someLongishComponentName";
+        int once = encode(Lists.newArrayList(name)).length;
+        int many = encode(Lists.newArrayList(name, name, name, name)).length;
+        assertEquals(once + 3 * 2, many);
+
+        StringBuilder longString = new StringBuilder();
+        for (int i = 0; i <= BinaryJsonEncoder.MAX_TABLED_STRING_LENGTH; i++) {
+            longString.append('x');
+        }
+        String s = longString.toString();
+        assertEquals(Lists.newArrayList(s, s), roundTrip(Lists.newArrayList(s, s)));
+    }
+
+    @Test
+    public void testLiteral() throws IOException {
+        Object read = roundTrip(new Literal("function(){return 1;}"));
+        assertTrue(read instanceof Literal);
+        assertEquals("function(){return 1;}", JsonEncoder.serialize(read));
+    }
+
+    /**
+     * The JSON text of a fragment can't go in a binary stream, the value goes in its place.
+     */
+    @Test
+    public void testFragment() throws IOException {
+        Map<String, Object> value = ImmutableMap.<String, Object> of("a", "b");
+        Object read = roundTrip(Lists.newArrayList(new JsonFragment("{\"ignored\":true}", value)));
+        assertEquals(Lists.newArrayList(value), read);
+    }
+
+    @Test
+    public void testApplicationKey() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        BinaryJsonEncoder json = BinaryJsonEncoder.createBinaryStream(bytes,
+                new DefaultJsonSerializationContext(false, false, true));
+        json.writeMapBegin();
+        json.writeMapEntry(Json.ApplicationKey.DESCRIPTOR, "markup://aura:text");
+        json.writeMapEnd();
+        json.close();
+
+        Object read = new BinaryJsonReader().read(new ByteArrayInputStream(bytes.toByteArray()));
+        assertEquals(ImmutableMap.of("descriptor", "markup://aura:text"), read);
+    }
+
+    @Test
+    public void testBinaryStream() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        BinaryJsonEncoder json = BinaryJsonEncoder.createBinaryStream(bytes,
+                new DefaultJsonSerializationContext(false, false, true));
+        json.writeArrayBegin();
+        OutputStream binary = json.writeBinaryStreamBegin(3);
+        binary.write(new byte[] { 1, 2, 3 });
+        json.writeBinaryStreamEnd();
+        json.writeArrayEntry("after");
+        json.writeArrayEnd();
+        json.close();
+
+        List<?> read = (List<?>) new BinaryJsonReader().read(new ByteArrayInputStream(bytes.toByteArray()));
+        assertEquals(2, read.size());
+        assertTrue(Arrays.equals(new byte[] { 1, 2, 3 }, (byte[]) read.get(0)));
+        assertEquals("after", read.get(1));
+    }
+
+    @Test
+    public void testTruncated() throws IOException {
+        byte[] bytes = encode(ImmutableMap.of("key", "value"));
+        byte[] truncated = new byte[bytes.length - 1];
+        System.arraycopy(bytes, 0, truncated, 0, truncated.length);
+        try {
+            new BinaryJsonReader().read(new ByteArrayInputStream(truncated));
+            fail("Expected a parse exception");
+        } catch (JsonParseException expected) {
+        }
+    }
+
+    /**
+     * A varint that sets the sign bit of a long, which the encoder never writes for lengths or indexes.
+     */
+    private static final byte[] NEGATIVE_VARINT = { (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF,
+            (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x01 };
+
+    private static void assertInvalid(String message, int tag, byte[] varint) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        bytes.write(BinaryJsonEncoder.MAGIC, 0, BinaryJsonEncoder.MAGIC.length);
+        bytes.write(BinaryJsonEncoder.VERSION);
+        bytes.write(tag);
+        bytes.write(varint, 0, varint.length);
+        try {
+            new BinaryJsonReader().read(new ByteArrayInputStream(bytes.toByteArray()));
+            fail("Expected a parse exception");
+        } catch (JsonParseException expected) {
+            assertEquals(message, expected.getMessage());
+        }
+    }
+
+    @Test
+    public void testNegativeLength() {
+        assertInvalid("Invalid length -1", BinaryJsonEncoder.TAG_STRING, NEGATIVE_VARINT);
+        assertInvalid("Invalid length -1", BinaryJsonEncoder.TAG_LITERAL, NEGATIVE_VARINT);
+    }
+
+    @Test
+    public void testTooLongLength() {
+        assertInvalid("Invalid length 4294967295", BinaryJsonEncoder.TAG_STRING,
+                new byte[] { (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x0F });
+    }
+
+    @Test
+    public void testInvalidStringReference() {
+        assertInvalid("Invalid string reference -1", BinaryJsonEncoder.TAG_STRING_REF, NEGATIVE_VARINT);
+        assertInvalid("Invalid string reference 0", BinaryJsonEncoder.TAG_STRING_REF, new byte[] { 0 });
+    }
+
+    private static byte[] nested(int depth) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        bytes.write(BinaryJsonEncoder.MAGIC, 0, BinaryJsonEncoder.MAGIC.length);
+        bytes.write(BinaryJsonEncoder.VERSION);
+        for (int i = 0; i < depth; i++) {
+            bytes.write(BinaryJsonEncoder.TAG_ARRAY);
+        }
+        for (int i = 0; i < depth; i++) {
+            bytes.write(BinaryJsonEncoder.TAG_END);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Test
+    public void testMaxDepth() {
+        Object read = new BinaryJsonReader().read(new ByteArrayInputStream(nested(BinaryJsonReader.MAX_DEPTH)));
+        for (int i = 1; i < BinaryJsonReader.MAX_DEPTH; i++) {
+            read = ((List<?>) read).get(0);
+        }
+        assertEquals(Collections.emptyList(), read);
+    }
+
+    @Test
+    public void testTooDeep() {
+        try {
+            new BinaryJsonReader().read(new ByteArrayInputStream(nested(100000)));
+            fail("Expected a parse exception");
+        } catch (JsonParseException expected) {
+            assertEquals("Maps and arrays nested deeper than " + BinaryJsonReader.MAX_DEPTH, expected.getMessage());
+        }
+    }
+
+    @Test
+    public void testNotBinary() {
+        try {
+            new BinaryJsonReader().read(new ByteArrayInputStream("{}".getBytes()));
+            fail("Expected a parse exception");
+        } catch (JsonParseException expected) {
+            assertEquals("Not an aura binary stream", expected.getMessage());
+        }
+    }
+}
@@ -23,17 +23,21 @@ import java.io.OutputStream;
 import java.io.Reader;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
 import org.auraframework.util.Utf8InputStreamReader;
 import org.auraframework.util.test.util.UnitTestCase;
 import org.junit.Test;
 
 import com.google.common.base.Charsets;
+import com.google.common.collect.AbstractIterator;
 import com.google.common.collect.Lists;
 
 /**
@@ -100,6 +104,23 @@ public class JsonTest extends UnitTestCase {
                 JsonEncoder.serialize("Быстрый Браун Фокс выросло за ленивый собака. Die schnelle Braun Fuchs sprang über den faulen Hund. השועל החום המהיר קפץ מעל הכלב העצלן."));
     }
 
+    /**
+     * A fragment is spliced in as is, wherever a value can go.
+     */
+    @Test
+    public void testSerializeFragment() throws IOException {
+        Map<String, Object> value = new LinkedHashMap<>();
+        value.put("a", "b");
+        JsonFragment fragment = new JsonFragment(JsonEncoder.serialize(value), value);
+        assertEquals("{\"a\":\"b\"}", JsonEncoder.serialize(fragment));
+
+        Map<String, Object> outer = new LinkedHashMap<>();
+        outer.put("values", fragment);
+        outer.put("list", Lists.newArrayList(fragment, fragment));
+        assertEquals("{\"values\":{\"a\":\"b\"},\"list\":[{\"a\":\"b\"},{\"a\":\"b\"}]}",
+                JsonEncoder.serialize(outer));
+    }
+
     @Test
     public void testSerializeArray() throws IOException {
         String[] s = new String[2];
@@ -137,6 +158,77 @@ public class JsonTest extends UnitTestCase {
         assertEquals("[\n  \"val1\",\n  \"val2\"\n]", JsonEncoder.serialize(c, true, false));
     }
 
+    @Test
+    public void testApplicationKey() throws IOException {
+        StringBuilder out = new StringBuilder();
+        JsonEncoder json = new JsonEncoder(out, false, false);
+        json.writeMapBegin();
+        json.writeMapEntry(Json.ApplicationKey.DESCRIPTOR, "markup://aura:text");
+        json.writeMapKey(Json.ApplicationKey.VALUE);
+        json.writeValue(1);
+        json.writeMapEnd();
+        assertEquals("{\"descriptor\":\"markup://aura:text\",\"v\":1}", out.toString());
+    }
+
+    @Test
+    public void testSerializeIterator() throws IOException {
+        List<Object> values = Lists.<Object> newArrayList("val1", "val2");
+        assertEquals("[]", JsonEncoder.serialize(Lists.newArrayList().iterator()));
+        assertEquals("[\"val1\",\"val2\"]", JsonEncoder.serialize(values.iterator()));
+        assertEquals("[\"val1\",\"val2\"]", JsonEncoder.serialize(values.spliterator()));
+
+        final AtomicBoolean closed = new AtomicBoolean();
+        Stream<Object> stream = values.stream().onClose(new Runnable() {
+            @Override
+            public void run() {
+                closed.set(true);
+            }
+        });
+        assertEquals("[\"val1\",\"val2\"]", JsonEncoder.serialize(stream));
+        assertTrue("The stream should be closed once written", closed.get());
+    }
+
+    /**
+     * Each element should be written out before the next one is pulled.
+     */
+    @Test
+    public void testSerializeIteratorStreams() throws IOException {
+        final StringBuilder out = new StringBuilder();
+        Iterator<String> values = new AbstractIterator<String>() {
+            private int count;
+
+            @Override
+            protected String computeNext() {
+                if (count == 3) {
+                    return endOfData();
+                }
+                if (count > 0) {
+                    assertTrue("Element not written before the next pull: " + out,
+                            out.toString().endsWith("\"val" + count + "\""));
+                }
+                return "val" + ++count;
+            }
+        };
+        JsonEncoder.serialize(values, out);
+        assertEquals("[\"val1\",\"val2\",\"val3\"]", out.toString());
+    }
+
+    @Test
+    public void testSerializeIteratorSizeLimit() throws IOException {
+        JsonSerializationContext context = new BaseJsonSerializationContext(false, false, -1, 2, false) {
+            private final DefaultJsonSerializer serializer = new DefaultJsonSerializer();
+
+            @Override
+            public JsonSerializer<Object> getSerializer(Object o) {
+                return serializer;
+            }
+        };
+        assertEquals("[\"val1\",\"val2\"]",
+                JsonEncoder.serialize(Lists.newArrayList("val1", "val2").iterator(), context));
+        assertEquals("\"Iterator of more than 2 elements too large to display\"",
+                JsonEncoder.serialize(Lists.newArrayList("val1", "val2", "val3").iterator(), context));
+    }
+
     @Test
     public void testSerializeComplexObject() throws IOException {
         Map<Object, Object> m = new LinkedHashMap<>(1);
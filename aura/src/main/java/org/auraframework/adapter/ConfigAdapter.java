@@ -115,6 +115,21 @@ public interface ConfigAdapter extends AuraAdapter {
      */
     boolean validateBootstrap(String ssid);
 
+    /**
+     * Returns the partition of the server side bootstrap.js cache to use for a request.
+     *
+     * The cache is keyed by the app uid, mode, locale, user agent, attributes and context globals of the request.
+     * Anything else that can change bootstrap.js between users (labels, access) must be captured by the partition, two
+     * requests in the same partition get the same bytes. The default is not to cache.
+     *
+     * @param app the fully-qualified descriptor string for the app
+     * @param request the HTTP request, for checking the authenticated user, etc.
+     * @return the partition, or {@code null} to build bootstrap.js for this request without caching it.
+     */
+    default String getBootstrapCachePartition(String app, HttpServletRequest request) {
+        return null;
+    }
+
     boolean isInternalNamespace(String namespace);
     Set<String> getInternalNamespaces();
     void addInternalNamespace(String namespace);
@@ -55,6 +55,16 @@ public interface ContextAdapter extends AuraAdapter {
             Map<String, GlobalValueProvider> globalProviders,
             DefDescriptor<? extends BaseComponentDef> appDesc);
 
+    /**
+     * Attach a context established on another thread to this thread.
+     *
+     * This may not be called while a system context is pushed on this thread.
+     *
+     * @param context the context to attach, or null to detach the current one.
+     * @return the context previously attached to this thread, or null.
+     */
+    AuraContext attach(AuraContext context);
+
     /**
      * is a context established in this thread?.
      *
@@ -16,6 +16,7 @@
 package org.auraframework.adapter;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.Reader;
 import java.util.Collection;
@@ -37,6 +38,8 @@ public interface FormatAdapter<T> extends AuraAdapter {
 
     T read(Reader in) throws IOException, QuickFixException;
 
+    T readBinary(InputStream in) throws IOException, QuickFixException;
+
     Collection<T> readCollection(Reader in) throws IOException, QuickFixException;
 
     void write(T value, Map<String, Object> attributes, Appendable out) throws IOException, QuickFixException;
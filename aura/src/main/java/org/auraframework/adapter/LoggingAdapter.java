@@ -27,5 +27,13 @@ public interface LoggingAdapter extends AuraAdapter {
 
     void release();
 
+    /**
+     * Attach a logging context established on another thread to this thread.
+     *
+     * @param context the context to attach, or null to detach the current one.
+     * @return the context previously attached to this thread, or null.
+     */
+    LoggingContext attach(LoggingContext context);
+
     LoggingContext getLoggingContext();
 }
@@ -38,6 +38,7 @@ import org.apache.http.HttpHeaders;
 import org.auraframework.AuraDeprecated;
 import org.auraframework.adapter.ConfigAdapter;
 import org.auraframework.adapter.LocalizationAdapter;
+import org.auraframework.cache.Cache;
 import org.auraframework.def.ApplicationDef;
 import org.auraframework.def.BaseComponentDef;
 import org.auraframework.def.ComponentDef;
@@ -46,6 +47,7 @@ import org.auraframework.def.DefDescriptor.DefType;
 import org.auraframework.http.RequestParam.EnumParam;
 import org.auraframework.http.RequestParam.InvalidParamException;
 import org.auraframework.http.RequestParam.StringParam;
+import org.auraframework.service.CachingService;
 import org.auraframework.service.ContextService;
 import org.auraframework.service.DefinitionService;
 import org.auraframework.service.LoggingService;
@@ -80,6 +82,9 @@ public class AuraContextFilter implements Filter {
 
     private static final Log LOG = LogFactory.getLog(AuraContextFilter.class);
 
+    /** Request attribute holding the parsed aura.context, see {@link #getConfigMap(HttpServletRequest)}. */
+    private static final String CONFIG_ATTRIBUTE = AuraContextFilter.class.getName() + ".config";
+
     private AuraTestFilter testFilter;
 
     private AuraDeprecated auraDeprecated; // force initialization of Aura
@@ -90,6 +95,7 @@ public class AuraContextFilter implements Filter {
     private ConfigAdapter configAdapter;
     protected SerializationService serializationService;
     private LocalizationAdapter localizationAdapter;
+    private CachingService cachingService;
 
     @Inject
     public void setContextService(ContextService service) {
@@ -133,6 +139,11 @@ public class AuraContextFilter implements Filter {
         this.testFilter = testFilter;
     }
 
+    @Inject
+    public void setCachingService(CachingService service) {
+        cachingService = service;
+    }
+
     @Inject
     public void setLocalizationAdapter(LocalizationAdapter localizationAdapter) {
         this.localizationAdapter = localizationAdapter;
@@ -166,7 +177,10 @@ public class AuraContextFilter implements Filter {
             return;
         } finally {
             try {
-                if (loggingService != null) {
+                if (req.isAsyncStarted()) {
+                    // the request carries on elsewhere (see AuraServlet), which logs once it is done, we only let go
+                    // of the context on this thread.
+                } else if (loggingService != null) {
                     try {
                         loggingService.setValue(LoggingService.STATUS,
                                 String.valueOf(((HttpServletResponse) res).getStatus()));
@@ -275,11 +289,18 @@ public class AuraContextFilter implements Filter {
         @SuppressWarnings("unchecked")
         Map<String, String> loaded = (Map<String, String>) loadedEntry;
         Map<DefDescriptor<?>, String> clientLoaded = Maps.newHashMap();
+        Cache<String, DefDescriptor<?>> cache = cachingService != null ? cachingService.getLoadedDescriptorCache()
+                : null;
 
         for (Map.Entry<String, String> entry : loaded.entrySet()) {
             String uid = entry.getValue();
             if (uid != null && !uid.equals("null")) {
                 String key = entry.getKey();
+                DefDescriptor<?> cached = cache != null ? cache.getIfPresent(key) : null;
+                if (cached != null) {
+                    clientLoaded.put(cached, uid);
+                    continue;
+                }
                 int posn = key.indexOf("@");
                 if (posn > 0) {
                     String typeStr = key.substring(0, posn);
@@ -297,6 +318,9 @@ public class AuraContextFilter implements Filter {
 
                         ld = definitionService.getDefDescriptor(defStr, type.getPrimaryInterface());
                         clientLoaded.put(ld, uid);
+                        if (cache != null) {
+                            cache.put(key, ld);
+                        }
                     }
                 }
             }
@@ -304,10 +328,30 @@ public class AuraContextFilter implements Filter {
         context.setClientLoaded(clientLoaded);
     }
 
-    @SuppressWarnings("unchecked")
+    /**
+     * Get the parsed aura.context.
+     *
+     * This is parsed once per request, and kept in a request attribute along with the string it came from, so that the
+     * mode lookups don't parse it again. Forwards may change the parameters, in which case it is parsed afresh.
+     */
     private Map<String, Object> getConfigMap(HttpServletRequest request) {
-        Map<String, Object> configMap = null;
         String config = contextConfig.get(request);
+        if (config == null) {
+            // POSTs whose body is the message may send the context as a header instead.
+            config = request.getHeader(AuraServlet.CONTEXT_HEADER);
+        }
+        Object parsed = request.getAttribute(CONFIG_ATTRIBUTE);
+        if (parsed instanceof ParsedConfig && ((ParsedConfig) parsed).isFrom(config)) {
+            return ((ParsedConfig) parsed).configMap;
+        }
+        Map<String, Object> configMap = parseConfig(config);
+        request.setAttribute(CONFIG_ATTRIBUTE, new ParsedConfig(config, configMap));
+        return configMap;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> parseConfig(String config) {
+        Map<String, Object> configMap = null;
         if (!AuraTextUtil.isNullEmptyOrWhitespace(config)) {
             if (config.startsWith(AuraTextUtil.urlencode("{"))) {
                 // Decode encoded context json. Serialized AuraContext json always starts with "{"
@@ -318,6 +362,20 @@ public class AuraContextFilter implements Filter {
         return configMap;
     }
 
+    private static final class ParsedConfig {
+        private final String config;
+        private final Map<String, Object> configMap;
+
+        private ParsedConfig(String config, Map<String, Object> configMap) {
+            this.config = config;
+            this.configMap = configMap;
+        }
+
+        private boolean isFrom(String other) {
+            return config == null ? other == null : config.equals(other);
+        }
+    }
+
     private Mode getModeParam(HttpServletRequest request, Map<String, Object> configMap) {
         // Get the passed in mode param.
         // Check the aura.mode param first then fall back to the mode value
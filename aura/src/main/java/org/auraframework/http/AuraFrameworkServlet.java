@@ -64,12 +64,16 @@ public class AuraFrameworkServlet extends AuraBaseServlet {
 
         InputStream in = null;
         try {
+            boolean isProduction = configAdapter.isProduction();
 
             //
             // Careful with race conditions here, we should only call regenerateAuraJS
-            // _before_ we get the nonce.
+            // _before_ we get the nonce. In production the framework js and resources
+            // are generated once at startup, so there is nothing to regenerate.
             //
-            configAdapter.regenerateAuraJS();
+            if (!isProduction) {
+                configAdapter.regenerateAuraJS();
+            }
             // framework uid is combination of aura js and resources uid
             String currentUid = configAdapter.getAuraFrameworkNonce();
             // match entire path once, looking for root, optional nonce, and
@@ -130,7 +134,6 @@ public class AuraFrameworkServlet extends AuraBaseServlet {
                 matchedUid = false;
             }
 
-            boolean isProduction = configAdapter.isProduction();
             StaticResource staticResource = new FileStaticResource(file, format, nonceUid, isProduction, resourceLoader);
 
             //
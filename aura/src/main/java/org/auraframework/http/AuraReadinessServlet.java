@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.http;
+
+import java.io.IOException;
+
+import javax.inject.Inject;
+import javax.servlet.ServletConfig;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.auraframework.service.PrewarmService;
+import org.springframework.web.context.support.SpringBeanAutowiringSupport;
+
+import com.google.common.net.HttpHeaders;
+
+/**
+ * Readiness check for load balancers.
+ * <p>
+ * Answers 503 while the apps configured for {@link PrewarmService} are being warmed, and 200 once that is done, even
+ * if some of them failed to warm.
+ */
+@SuppressWarnings("serial")
+public class AuraReadinessServlet extends HttpServlet {
+
+    // KEEP THIS URL IN SYNC WITH THE SERVLET'S URL-MAPPING ENTRY IN WEB.XML!
+    public static final String URL = "/_/ready";
+
+    private PrewarmService prewarmService;
+
+    @Override
+    public void init(ServletConfig config) throws ServletException {
+        super.init(config);
+        processInjection(config);
+        // in case the application context was started before we were around to hear about it.
+        prewarmService.start();
+    }
+
+    public void processInjection(ServletConfig config) {
+        SpringBeanAutowiringSupport.processInjectionBasedOnServletContext(this, config.getServletContext());
+    }
+
+    @Override
+    protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+        resp.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache, no-store");
+        resp.setContentType("text/plain");
+        if (prewarmService.isWarm()) {
+            resp.setStatus(HttpServletResponse.SC_OK);
+            resp.getWriter().write("ready");
+        } else {
+            resp.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            resp.getWriter().write("warming");
+        }
+    }
+
+    @Inject
+    public void setPrewarmService(PrewarmService prewarmService) {
+        this.prewarmService = prewarmService;
+    }
+}
@@ -15,15 +15,34 @@
  */
 package org.auraframework.http;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.io.PrintWriter;
 import java.io.StringReader;
+import java.io.StringWriter;
 import java.net.URI;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
 import java.util.Enumeration;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.inject.Inject;
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
 import javax.servlet.ServletConfig;
 import javax.servlet.ServletContext;
 import javax.servlet.ServletException;
@@ -44,6 +63,7 @@ import org.auraframework.http.RequestParam.InvalidParamException;
 import org.auraframework.http.RequestParam.MissingParamException;
 import org.auraframework.http.RequestParam.StringParam;
 import org.auraframework.instance.Action;
+import org.auraframework.instance.ActionDelegate;
 import org.auraframework.service.ContextService;
 import org.auraframework.service.DefinitionService;
 import org.auraframework.service.LoggingService;
@@ -57,9 +77,18 @@ import org.auraframework.throwable.AuraRuntimeException;
 import org.auraframework.throwable.ClientOutOfSyncException;
 import org.auraframework.throwable.SystemErrorException;
 import org.auraframework.throwable.quickfix.QuickFixException;
+import org.auraframework.util.MaxLengthInputStream;
+import org.auraframework.util.javascript.Literal;
+import org.auraframework.util.json.BinaryJsonEncoder;
+import org.auraframework.util.json.Json;
+import org.auraframework.util.json.JsonEncoder;
+import org.auraframework.util.json.JsonFragment;
 import org.auraframework.util.json.JsonStreamReader.JsonParseException;
 
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.net.MediaType;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 /**
  * The servlet for initialization and actions in Aura.
@@ -89,6 +118,21 @@ import com.google.common.collect.Maps;
  * </li>
  * </ol>
  *
+ * Action POSTs may also use the binary wire format (see {@link BinaryJsonEncoder}). A request body of that content
+ * type is the message itself, with aura.context and aura.token passed on the URL, and a response in that format is
+ * sent when the Accept header asks for it. The two are independent, and everything else stays JSON.
+ *
+ * In the same way, a request body of type application/json is the JSON message, parsed straight from the request
+ * rather than from the form encoded message parameter. For either kind of body, aura.context and aura.token can
+ * also be sent in the {@link #CONTEXT_HEADER} and {@link #TOKEN_HEADER} headers, and the body may be no larger than
+ * aura.action.maxBodySize bytes.
+ *
+ * When aura.action.async is set, and the container supports it for the request, the actions of a POST are run on a
+ * pool of aura.action.asyncThreads threads rather than on the container thread (see {@link AsyncActions}). No more
+ * than aura.action.asyncMaxPerApp such POSTs may be in progress for an app, any more are refused with a 503 asking the
+ * client to retry after aura.action.asyncRetryAfter seconds, and the actions of a POST that have not finished after
+ * aura.action.asyncTimeout milliseconds are answered with an error each.
+ *
  * Run from aura-jetty project. Pass in these vmargs: <code>
  * -Dconfig=${AURA_HOME}/config -Daura.home=${AURA_HOME} -DPORT=9090
  * </code>
@@ -102,6 +146,31 @@ public class AuraServlet extends AuraBaseServlet {
 
     public final static String AURA_PREFIX = "aura.";
     private final static String CSRF_PROTECT = "while(1);\n";
+    private final static String BINARY_FORMAT = "BINARY";
+    private final static MediaType JSON_CONTENT_TYPE = MediaType.create("application", "json");
+
+    private final static MediaType BINARY_CONTENT_TYPE = MediaType.parse(BinaryJsonEncoder.MIME_TYPE);
+
+    /** Header that may carry aura.context, for POSTs whose body is the message. */
+    public final static String CONTEXT_HEADER = "X-Aura-Context";
+
+    /** Header that may carry aura.token, for POSTs whose body is the message. */
+    public final static String TOKEN_HEADER = "X-Aura-Token";
+
+    /** Default limit on the size of a message body, the JSON reader will not take more than a million characters. */
+    private final static long DEFAULT_MAX_BODY_SIZE = 4 * 1024 * 1024;
+
+    private final static long MAX_BODY_SIZE = Long.getLong("aura.action.maxBodySize", DEFAULT_MAX_BODY_SIZE);
+
+    private final static boolean ASYNC = Boolean.getBoolean("aura.action.async");
+
+    private final static int ASYNC_THREADS = Integer.getInteger("aura.action.asyncThreads", 32);
+
+    private final static int ASYNC_MAX_PER_APP = Integer.getInteger("aura.action.asyncMaxPerApp", 128);
+
+    private final static long ASYNC_TIMEOUT = Long.getLong("aura.action.asyncTimeout", 120000);
+
+    private final static int ASYNC_RETRY_AFTER = Integer.getInteger("aura.action.asyncRetryAfter", 1);
 
     /**
      * "Long" pages (such as resources and cached HTML templates) expire in 45 days. We also use this to "pre-expire"
@@ -129,10 +198,33 @@ public class AuraServlet extends AuraBaseServlet {
     private ServerService serverService;
     private ManifestUtil manifestUtil;
 
+    private transient ExecutorService asyncExecutor;
+    private final transient ConcurrentMap<String, Semaphore> asyncPermits = new ConcurrentHashMap<>();
+
     @Override
     public void init(ServletConfig config) throws ServletException {
         super.init(config);
         manifestUtil = new ManifestUtil(definitionService, contextService, configAdapter);
+        asyncExecutor = createAsyncExecutor();
+    }
+
+    /**
+     * Create the pool that runs actions asynchronously, or return null to run them on the container thread.
+     */
+    protected ExecutorService createAsyncExecutor() {
+        if (!ASYNC) {
+            return null;
+        }
+        return Executors.newFixedThreadPool(ASYNC_THREADS,
+                new ThreadFactoryBuilder().setNameFormat("aura-action-%d").setDaemon(true).build());
+    }
+
+    @Override
+    public void destroy() {
+        if (asyncExecutor != null) {
+            asyncExecutor.shutdown();
+        }
+        super.destroy();
     }
 
     /**
@@ -428,10 +520,24 @@ public class AuraServlet extends AuraBaseServlet {
             if (context.getFormat() != Format.JSON) {
                 throw new AuraRuntimeException("Invalid request, post must use JSON");
             }
+            boolean binaryRequest = isBinary(request.getContentType());
+            Charset jsonCharset = getJsonCharset(request.getContentType());
+            boolean jsonRequest = jsonCharset != null;
+            boolean binaryResponse = acceptsBinary(request.getHeader(HttpHeaders.ACCEPT));
+            // errors are always written as JSON, the binary type is only set once there is a binary answer to write.
             response.setContentType(servletUtilAdapter.getContentType(Format.JSON));
-            String msg = messageParam.get(request);
-            if (msg == null) {
-                throw new AuraRuntimeException("Invalid request, no message");
+            String msg = null;
+            if (binaryRequest || jsonRequest) {
+                long maxBodySize = getMaxBodySize();
+                if (maxBodySize > 0 && request.getContentLength() > maxBodySize) {
+                    throw new AuraRuntimeException("Invalid request, message is larger than " + maxBodySize
+                            + " bytes");
+                }
+            } else {
+                msg = messageParam.get(request);
+                if (msg == null) {
+                    throw new AuraRuntimeException("Invalid request, no message");
+                }
             }
 
             String fwUID = configAdapter.getAuraFrameworkNonce();
@@ -445,7 +551,14 @@ public class AuraServlet extends AuraBaseServlet {
 
             loggingService.startTimer(LoggingService.TIMER_DESERIALIZATION);
             try {
-                message = serializationService.read(new StringReader(msg), Message.class);
+                if (binaryRequest) {
+                    message = serializationService.readBinary(getBody(request), Message.class, BINARY_FORMAT);
+                } else if (jsonRequest) {
+                    message = serializationService.read(new InputStreamReader(getBody(request), jsonCharset),
+                            Message.class);
+                } else {
+                    message = serializationService.read(new StringReader(msg), Message.class);
+                }
             } finally {
                 loggingService.stopTimer(LoggingService.TIMER_DESERIALIZATION);
             }
@@ -454,7 +567,8 @@ public class AuraServlet extends AuraBaseServlet {
             boolean isBootstrapAction = isBootstrapAction(message, servletUtilAdapter.isProductionMode(context.getMode()));
 
             if (!isBootstrapAction) {
-                configAdapter.validateCSRFToken(csrfToken.get(request));
+                String token = request.getHeader(TOKEN_HEADER);
+                configAdapter.validateCSRFToken(token != null ? token : csrfToken.get(request));
             }
 
             DefDescriptor<? extends BaseComponentDef> applicationDescriptor = context.getApplicationDescriptor();
@@ -484,10 +598,27 @@ public class AuraServlet extends AuraBaseServlet {
                 attributes.put("token", configAdapter.getCSRFToken());
             }
 
-            PrintWriter out = response.getWriter();
+            if (asyncExecutor != null && request.isAsyncSupported()) {
+                Semaphore permits = getAsyncPermits(applicationDescriptor);
+                if (!permits.tryAcquire()) {
+                    response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+                    response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(getAsyncRetryAfter()));
+                    return;
+                }
+                new AsyncActions(request, response, message, context, attributes, binaryResponse, permits).start();
+                return;
+            }
+
             written = true;
-            out.write(CSRF_PROTECT);
-            serverService.run(message, context, out, attributes);
+            if (binaryResponse) {
+                // not executable as script, so there is nothing to protect.
+                response.setContentType(BinaryJsonEncoder.MIME_TYPE);
+                serverService.runBinary(message, context, response.getOutputStream(), attributes);
+            } else {
+                PrintWriter out = response.getWriter();
+                out.write(CSRF_PROTECT);
+                serverService.run(message, context, out, attributes);
+            }
         } catch (InvalidParamException | MissingParamException ipe) {
             servletUtilAdapter.handleServletException(new SystemErrorException(ipe), false, context, request, response, false);
             return;
@@ -498,6 +629,386 @@ public class AuraServlet extends AuraBaseServlet {
         }
     }
 
+    /**
+     * Whether a request body is in the binary format.
+     *
+     * @param contentType the Content-Type header of the request, may be null.
+     */
+    static boolean isBinary(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        try {
+            return isBinary(MediaType.parse(contentType));
+        } catch (IllegalArgumentException iae) {
+            return false;
+        }
+    }
+
+    private static boolean isBinary(MediaType mediaType) {
+        return mediaType.type().equals(BINARY_CONTENT_TYPE.type())
+                && mediaType.subtype().equals(BINARY_CONTENT_TYPE.subtype());
+    }
+
+    /**
+     * Whether the client asked for a binary response.
+     *
+     * The binary type has to be named, wildcards don't count, and it must not have a quality of zero.
+     *
+     * @param accept the Accept header of the request, may be null.
+     */
+    static boolean acceptsBinary(String accept) {
+        if (accept == null) {
+            return false;
+        }
+        for (String range : accept.split(",")) {
+            MediaType mediaType;
+            try {
+                mediaType = MediaType.parse(range.trim());
+            } catch (IllegalArgumentException iae) {
+                continue;
+            }
+            if (!isBinary(mediaType)) {
+                continue;
+            }
+            List<String> quality = mediaType.parameters().get("q");
+            if (quality.isEmpty()) {
+                return true;
+            }
+            try {
+                return Double.parseDouble(quality.get(0)) > 0;
+            } catch (NumberFormatException nfe) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The charset of a JSON request body.
+     *
+     * The media type is compared without regard to case or parameters, as the header allows. A body without a charset
+     * is UTF-8, as JSON requires.
+     *
+     * @param contentType the Content-Type header of the request, may be null.
+     * @return the charset to read the body with, or null if the request is not JSON.
+     * @throws java.nio.charset.UnsupportedCharsetException if the declared charset is not supported.
+     */
+    static Charset getJsonCharset(String contentType) {
+        if (contentType == null) {
+            return null;
+        }
+        MediaType mediaType;
+        try {
+            mediaType = MediaType.parse(contentType);
+        } catch (IllegalArgumentException iae) {
+            return null;
+        }
+        if (!mediaType.withoutParameters().equals(JSON_CONTENT_TYPE)) {
+            return null;
+        }
+        try {
+            return mediaType.charset().or(StandardCharsets.UTF_8);
+        } catch (IllegalStateException ise) {
+            // more than one charset parameter.
+            throw new AuraRuntimeException("Invalid request, ambiguous charset in " + contentType);
+        }
+    }
+
+    /**
+     * The request body, failing as soon as it goes over the size limit. The Content-Length header is checked up front,
+     * but can't be relied on, as chunked requests don't have one.
+     */
+    private InputStream getBody(HttpServletRequest request) throws IOException {
+        long maxBodySize = getMaxBodySize();
+        if (maxBodySize <= 0) {
+            return request.getInputStream();
+        }
+        return new MaxLengthInputStream(request.getInputStream(), maxBodySize);
+    }
+
+    /**
+     * Get the largest message body, in bytes, that will be accepted, or 0 for no limit.
+     */
+    protected long getMaxBodySize() {
+        return MAX_BODY_SIZE;
+    }
+
+    /**
+     * Get the number of POSTs for an app whose actions may be running asynchronously at once.
+     */
+    protected int getAsyncMaxPerApp() {
+        return ASYNC_MAX_PER_APP;
+    }
+
+    /**
+     * Get the time, in milliseconds, after which asynchronous actions are answered with an error, or 0 for none.
+     */
+    protected long getAsyncTimeout() {
+        return ASYNC_TIMEOUT;
+    }
+
+    /**
+     * Get the number of seconds a client refused for too many POSTs in progress is told to wait before retrying.
+     */
+    protected int getAsyncRetryAfter() {
+        return ASYNC_RETRY_AFTER;
+    }
+
+    private Semaphore getAsyncPermits(DefDescriptor<? extends BaseComponentDef> applicationDescriptor) {
+        String key = applicationDescriptor != null ? applicationDescriptor.getQualifiedName() : "";
+        Semaphore permits = asyncPermits.get(key);
+        if (permits == null) {
+            Semaphore newPermits = new Semaphore(getAsyncMaxPerApp());
+            permits = asyncPermits.putIfAbsent(key, newPermits);
+            if (permits == null) {
+                permits = newPermits;
+            }
+        }
+        return permits;
+    }
+
+    /**
+     * An action of an async POST, which keeps its response entry once it has been written.
+     *
+     * The entry is serialized on its own, which is what the response would hold anyway, as references are cleared
+     * between actions, so that it can be written again should the POST time out before the other actions are done.
+     */
+    private static class TrackedAction extends ActionDelegate {
+        private final Action original;
+        private volatile JsonFragment entry;
+
+        private TrackedAction(Action original) {
+            super(original);
+            this.original = original;
+        }
+
+        @Override
+        public void serialize(Json json) throws IOException {
+            JsonFragment serialized = new JsonFragment(JsonEncoder.serialize(original,
+                    json.getSerializationContext()), original);
+            json.writeFragment(serialized);
+            entry = serialized;
+        }
+    }
+
+    /**
+     * The actions of one POST, run on the async executor.
+     *
+     * The context is carried over to the executor with the work, and the response is buffered, then written by
+     * whichever comes first of the actions finishing or the timeout. On a timeout, the actions that the client asked
+     * for and that have been written so far are answered as they were, and the rest with an error each, as JSON and
+     * without the context, which the actions may still be using. Actions added by other actions are left out, the
+     * client doesn't know about them. Since the context filter leaves async requests alone, the request is logged here
+     * once the actions are done, with the context, which the container thread that calls the timeout doesn't have. The
+     * permit for the app is also held until then, even past the timeout, so that actions which are still running stay
+     * counted.
+     */
+    private class AsyncActions implements AsyncListener {
+        private final HttpServletRequest request;
+        private final HttpServletResponse response;
+        private final Message message;
+        private final List<TrackedAction> actions;
+        private final AuraContext context;
+        private final Map<String, Object> attributes;
+        private final boolean binaryResponse;
+        private final Semaphore permits;
+        private final AtomicBoolean responded = new AtomicBoolean();
+        private AsyncContext async;
+        private volatile Future<?> future;
+        private volatile int status;
+        private Runnable logRequestInContext;
+
+        private AsyncActions(HttpServletRequest request, HttpServletResponse response, Message message,
+                AuraContext context, Map<String, Object> attributes, boolean binaryResponse, Semaphore permits) {
+            this.request = request;
+            this.response = response;
+            this.actions = Lists.newArrayListWithCapacity(message.getActions().size());
+            for (Action action : message.getActions()) {
+                this.actions.add(new TrackedAction(action));
+            }
+            this.message = new Message(Collections.<Action> unmodifiableList(this.actions));
+            this.context = context;
+            this.attributes = attributes;
+            this.binaryResponse = binaryResponse;
+            this.permits = permits;
+        }
+
+        private void start() {
+            Runnable work;
+            try {
+                work = contextService.propagateContext(new Runnable() {
+                    @Override
+                    public void run() {
+                        runActions();
+                    }
+                });
+                logRequestInContext = contextService.propagateContext(new Runnable() {
+                    @Override
+                    public void run() {
+                        logRequest();
+                    }
+                });
+                async = request.startAsync(request, response);
+                async.setTimeout(getAsyncTimeout());
+                async.addListener(this);
+            } catch (RuntimeException e) {
+                permits.release();
+                throw e;
+            }
+            try {
+                future = asyncExecutor.submit(work);
+            } catch (RejectedExecutionException ree) {
+                // shutting down, just get on with it here.
+                work.run();
+            }
+        }
+
+        private void runActions() {
+            try {
+                if (responded.get()) {
+                    // timed out before we got to it.
+                } else if (binaryResponse) {
+                    ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+                    serverService.runBinary(message, context, buffer, attributes);
+                    if (responded.compareAndSet(false, true)) {
+                        response.setContentType(BinaryJsonEncoder.MIME_TYPE);
+                        buffer.writeTo(response.getOutputStream());
+                        complete();
+                    }
+                } else {
+                    StringWriter buffer = new StringWriter();
+                    buffer.write(CSRF_PROTECT);
+                    serverService.run(message, context, buffer, attributes);
+                    if (responded.compareAndSet(false, true)) {
+                        response.getWriter().write(buffer.toString());
+                        complete();
+                    }
+                }
+            } catch (Exception e) {
+                if (responded.compareAndSet(false, true)) {
+                    // nothing has been written, whatever the actions got through is dropped.
+                    try {
+                        servletUtilAdapter.handleServletException(e, false, context, request, response, false);
+                    } catch (IOException ioe) {
+                        // the client is gone, there is no one to tell.
+                    }
+                    complete();
+                }
+            } finally {
+                finish();
+            }
+        }
+
+        /**
+         * Answer with what is done so far, if the actions haven't answered yet, and clean up now if they never started.
+         *
+         * This runs on a container thread, so logging, which needs the context, goes through the runnable made in
+         * {@link #start()}, and the request is completed and the permit let go whatever happens to that.
+         *
+         * @param reason the error for the actions that are not done, or null to not answer, when the client is gone.
+         */
+        private void abandon(String reason) {
+            if (!responded.compareAndSet(false, true)) {
+                return;
+            }
+            Future<?> queued = future;
+            boolean cancelled = queued != null && queued.cancel(false);
+            try {
+                if (reason != null) {
+                    writeAbandoned(reason);
+                }
+            } catch (IOException ioe) {
+                // the client is gone, there is no one to tell.
+            } finally {
+                try {
+                    complete();
+                } finally {
+                    if (cancelled) {
+                        try {
+                            logRequestInContext.run();
+                        } finally {
+                            permits.release();
+                        }
+                    }
+                }
+            }
+        }
+
+        /**
+         * Write the entries of the actions that are done, and an error for each of the others, in the same form as
+         * an action that failed, but with just a message, as there is no context to serialize an exception with.
+         */
+        private void writeAbandoned(String reason) throws IOException {
+            StringBuilder out = new StringBuilder(CSRF_PROTECT);
+            JsonEncoder json = new JsonEncoder(out, false, false);
+            json.writeMapBegin();
+            json.writeMapKey("actions");
+            json.writeArrayBegin();
+            for (TrackedAction action : actions) {
+                JsonFragment entry = action.entry;
+                if (entry != null) {
+                    json.writeArrayEntry(entry);
+                } else {
+                    Map<String, Object> error = Maps.newLinkedHashMap();
+                    error.put("id", action.getId());
+                    error.put("state", Action.State.ERROR.name());
+                    error.put("returnValue", Literal.NULL);
+                    error.put("error", Collections.singletonList(Collections.singletonMap("message", reason)));
+                    json.writeArrayEntry(error);
+                }
+            }
+            json.writeArrayEnd();
+            json.writeMapEnd();
+            response.getWriter().write(out.toString());
+        }
+
+        /**
+         * Complete the request, the response can't be touched after this.
+         */
+        private void complete() {
+            try {
+                status = response.getStatus();
+            } finally {
+                async.complete();
+            }
+        }
+
+        /**
+         * Log the request and let the next one in, with the context attached.
+         */
+        private void finish() {
+            try {
+                logRequest();
+            } finally {
+                permits.release();
+            }
+        }
+
+        private void logRequest() {
+            loggingService.setValue(LoggingService.STATUS, String.valueOf(status));
+            loggingService.flush();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            abandon("Action did not complete within " + getAsyncTimeout() + "ms");
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            abandon(null);
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+
     /**
      * Get tag name from params.
      *
@@ -18,9 +18,13 @@ package org.auraframework.http.resource;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.inject.Inject;
 import javax.servlet.http.HttpServletRequest;
@@ -34,6 +38,7 @@ import org.auraframework.def.DefDescriptor;
 import org.auraframework.def.DefDescriptor.DefType;
 import org.auraframework.def.Definition;
 import org.auraframework.instance.Instance;
+import org.auraframework.service.CachingService;
 import org.auraframework.service.ContextService;
 import org.auraframework.system.AuraContext;
 import org.auraframework.system.AuraContext.Format;
@@ -41,6 +46,8 @@ import org.auraframework.throwable.quickfix.QuickFixException;
 import org.auraframework.util.json.JsonEncoder;
 import org.auraframework.util.json.JsonSerializationContext;
 
+import com.google.common.collect.Maps;
+
 /**
  * Handles /l/{}/bootstrap.js requests to retrieve bootstrap.js.
  */
@@ -51,6 +58,8 @@ public class Bootstrap extends AuraResourceImpl {
 
     private ExceptionAdapter exceptionAdapter;
 
+    private CachingService cachingService;
+
     public Bootstrap() {
         super("bootstrap.js", Format.JS);
     }
@@ -112,6 +121,7 @@ public class Bootstrap extends AuraResourceImpl {
         DefDescriptor<?> desc = definitionService.getDefDescriptor(app.getDescriptorName(), type.getPrimaryInterface());
         
         Boolean gackOnException = true;
+        byte[] cached = null;
         try {
             if (!configAdapter.validateBootstrap(request.getParameter("jwt"))) {
                 // If jwt validation fails, just write error to client. Do not gack.
@@ -120,40 +130,124 @@ public class Bootstrap extends AuraResourceImpl {
             }
             setCacheHeaders(response, app);
 
-            Instance<?> appInstance = instanceService.getInstance(desc, getComponentAttributes(request));
-            definitionService.updateLoaded(desc);
-            loadLabels();
-
-            JsonSerializationContext serializationContext = context.getJsonSerializationContext();
-
-            WrappedPrintWriter out = new WrappedPrintWriter(response.getWriter());
-            out.append(PREPEND_JS);
-            JsonEncoder json = JsonEncoder.createJsonStream(out, serializationContext);
-            json.writeMapBegin();
-            json.writeMapKey("data");
-            json.writeMapBegin();
-            json.writeMapEntry("app", appInstance);
-            context.getInstanceStack().serializeAsPart(json);
-            json.writeMapEnd();
-            serializationContext.pushRefSupport(false);
-            json.writeMapEntry("md5", out.getMD5());
-            json.writeMapEntry("context", context);
-            serializationContext.popRefSupport();
-            json.writeMapEnd();
-            out.append(APPEND_JS);
+            Map<String, Object> attributes = getComponentAttributes(request);
+            String partition = configAdapter.getBootstrapCachePartition(app.getQualifiedName(), request);
+            if (partition != null) {
+                cached = getCachedBootstrap(desc, attributes, partition, context);
+            } else {
+                writeBootstrap(desc, attributes, response.getWriter(), context);
+            }
         } catch (Throwable t) {
             if (gackOnException) {
                 t = exceptionAdapter.handleException(t);                
             }
             writeError(t, response, context);
         }
+        if (cached != null) {
+            response.setContentLength(cached.length);
+            response.getOutputStream().write(cached);
+        }
+    }
+
+    private void writeBootstrap(DefDescriptor<?> desc, Map<String, Object> attributes, Appendable appendable,
+            AuraContext context) throws QuickFixException, IOException {
+        Instance<?> appInstance = instanceService.getInstance(desc, attributes);
+        definitionService.updateLoaded(desc);
+        loadLabels();
+
+        JsonSerializationContext serializationContext = context.getJsonSerializationContext();
+
+        WrappedPrintWriter out = new WrappedPrintWriter(appendable);
+        out.append(PREPEND_JS);
+        JsonEncoder json = JsonEncoder.createJsonStream(out, serializationContext);
+        json.writeMapBegin();
+        json.writeMapKey("data");
+        json.writeMapBegin();
+        json.writeMapEntry("app", appInstance);
+        context.getInstanceStack().serializeAsPart(json);
+        json.writeMapEnd();
+        serializationContext.pushRefSupport(false);
+        json.writeMapEntry("md5", out.getMD5());
+        json.writeMapEntry("context", context);
+        serializationContext.popRefSupport();
+        json.writeMapEnd();
+        out.append(APPEND_JS);
+    }
+
+    /**
+     * Get bootstrap.js from the server side cache, building it on a miss.
+     *
+     * Concurrent misses on the same key wait for a single build. The context of the request that builds it is the
+     * one that gets serialized, which is fine as everything in it that could differ is part of the key.
+     *
+     * On a hit, the context is brought to the same state the build would have left it in (loaded app and labels), so
+     * that the rest of the request does not depend on whether the cache was used.
+     */
+    private byte[] getCachedBootstrap(final DefDescriptor<?> desc, final Map<String, Object> attributes,
+            String partition, final AuraContext context) throws Exception {
+        String key = getBootstrapCacheKey(desc, attributes, partition, context);
+        final AtomicBoolean built = new AtomicBoolean();
+        byte[] cached;
+        try {
+            cached = cachingService.getBootstrapCache().get(key, new Callable<byte[]>() {
+                @Override
+                public byte[] call() throws Exception {
+                    built.set(true);
+                    StringBuilder sb = new StringBuilder();
+                    writeBootstrap(desc, attributes, sb, context);
+                    return sb.toString().getBytes(StandardCharsets.UTF_8);
+                }
+            });
+        } catch (ExecutionException ee) {
+            Throwable cause = ee.getCause();
+            throw cause instanceof Exception ? (Exception) cause : ee;
+        }
+        if (!built.get()) {
+            definitionService.updateLoaded(desc);
+            loadLabels();
+        }
+        return cached;
+    }
+
+    /**
+     * The key for a bootstrap.js in the server side cache.
+     *
+     * The jwt is left out of the attributes, it is only there to authorize the request. The context globals are
+     * part of the key, as the client sends its own values for them and they are serialized with the context.
+     */
+    protected String getBootstrapCacheKey(DefDescriptor<?> desc, Map<String, Object> attributes, String partition,
+            AuraContext context) throws QuickFixException {
+        Map<String, Object> keyAttributes = Maps.newTreeMap();
+        if (attributes != null) {
+            keyAttributes.putAll(attributes);
+            keyAttributes.remove("jwt");
+        }
+        Map<String, String> clientLoaded = Maps.newTreeMap();
+        for (Map.Entry<DefDescriptor<?>, String> entry : context.getClientLoaded().entrySet()) {
+            clientLoaded.put(entry.getKey().getQualifiedName(), entry.getValue());
+        }
+        StringBuilder key = new StringBuilder();
+        key.append(desc.getQualifiedName()).append('@').append(definitionService.getUid(null, desc));
+        key.append('|').append(context.getMode());
+        key.append('|').append(context.getFrameworkUID());
+        key.append('|').append(context.getRequestedLocales());
+        key.append('|').append(context.getClient().getUserAgent());
+        key.append('|').append(clientLoaded);
+        key.append('|').append(JsonEncoder.serialize(keyAttributes));
+        Map<String, AuraContext.GlobalValue> globals = Maps.newTreeMap();
+        if (context.getGlobals() != null) {
+            globals.putAll(context.getGlobals());
+        }
+        key.append('|').append(JsonEncoder.serialize(globals));
+        key.append('|').append(partition);
+        return key.toString();
     }
 
     private static class WrappedPrintWriter implements Appendable {
-        private final PrintWriter inner;
+        private final Appendable inner;
         private final MessageDigest m;
 
-        WrappedPrintWriter(PrintWriter inner) {
+        WrappedPrintWriter(Appendable inner) {
             try {
                 m = MessageDigest.getInstance("MD5");
             } catch (NoSuchAlgorithmException e) {
@@ -213,6 +307,16 @@ public class Bootstrap extends AuraResourceImpl {
         this.contextService = contextService;
     }
 
+    /**
+     * Injection override.
+     *
+     * @param cachingService the CachingService to set
+     */
+    @Inject
+    public void setCachingService(CachingService cachingService) {
+        this.cachingService = cachingService;
+    }
+
     /**
      * Injection override.
      *
@@ -0,0 +1,27 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.instance;
+
+/**
+ * A global value provider whose data is the same for whole classes of requests, such as everyone with the same
+ * locale, so that its serialized form can be shared between them.
+ */
+public interface CacheableGlobalValueProvider extends GlobalValueProvider {
+    /**
+     * @return a key that is the same for any two providers with the same data, or null if it can't be shared.
+     */
+    String getCacheKey();
+}
@@ -17,6 +17,7 @@ package org.auraframework.service;
 
 import java.lang.ref.WeakReference;
 import java.util.Collection;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.locks.Lock;
 
@@ -25,8 +26,11 @@ import org.auraframework.cache.Cache;
 import org.auraframework.def.DefDescriptor;
 import org.auraframework.def.Definition;
 import org.auraframework.system.DependencyEntry;
+import org.auraframework.system.DescriptorIndex;
+import org.auraframework.system.PreloadedDefinitions;
 import org.auraframework.system.SourceListener;
 import org.auraframework.system.SourceListener.SourceMonitorEvent;
+import org.auraframework.util.json.JsonFragment;
 
 import com.google.common.base.Optional;
 
@@ -59,14 +63,59 @@ public interface CachingService extends AuraService {
 
     Cache<String, String> getAltStringsCache();
 
+    /**
+     * Serialized fragments of single definitions, used to assemble the app level strings.
+     *
+     * The keys include the hash of the definition's own source, so that apps share the fragments of the definitions
+     * they have in common. Invalidated on source changes.
+     */
+    Cache<String, String> getDefinitionFragmentCache();
+
+    /**
+     * The definitions for each app, as the list of chunks to write out.
+     *
+     * The chunks are shared with {@link #getDefinitionFragmentCache()}, so an entry here costs a list of references.
+     */
+    Cache<String, List<String>> getAppChunksCache();
+
+    /**
+     * Serialized bootstrap.js payloads, for apps whose bootstrap the config adapter allows to be shared.
+     *
+     * @see org.auraframework.adapter.ConfigAdapter#getBootstrapCachePartition
+     */
+    Cache<String, byte[]> getBootstrapCache();
+
     Cache<String, Set<DefDescriptor<?>>> getDescriptorFilterCache();
 
+    /**
+     * Indexes of the descriptors in cacheable registries, for wildcard finds. These are kept up to date with source
+     * changes rather than thrown away.
+     */
+    Cache<String, DescriptorIndex> getDescriptorIndexCache();
+
+    /**
+     * The definitions preloaded on a client, keyed by the descriptors and uids the client has loaded.
+     */
+    Cache<String, PreloadedDefinitions> getPreloadedDefinitionsCache();
+
+    /**
+     * Serialized pieces of the context, shared between responses: the data of cacheable global value providers, and
+     * definitions. Definitions are keyed by the hash of their own source, and the cache is invalidated whenever a
+     * source changes.
+     */
+    Cache<String, JsonFragment> getContextFragmentCache();
+
     Cache<String, DependencyEntry> getDepsCache();
 
     Cache<String, String> getClientLibraryOutputCache();
 
     Cache<DefDescriptor.DescriptorKey, DefDescriptor<? extends Definition>> getDefDescriptorByNameCache();
 
+    /**
+     * Descriptors by the type@descriptor keys of the loaded map sent up in the client's context.
+     */
+    Cache<String, DefDescriptor<?>> getLoadedDescriptorCache();
+
     Lock getReadLock();
 
     Lock getWriteLock();
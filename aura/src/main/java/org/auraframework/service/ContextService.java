@@ -79,6 +79,18 @@ public interface ContextService extends AuraService {
      */
     void endContext();
 
+    /**
+     * Carry the current AuraContext, and its logging context, over to work done on another thread.
+     *
+     * The returned runnable attaches both contexts to the thread that runs it, runs the work, and then restores
+     * whatever that thread had before. The context is not ended, and is still the caller's to end, though it must not
+     * be used by two threads at once. This may not be called inside a system context.
+     *
+     * @param work the work to run with the current context.
+     * @return a runnable that can be run on any thread, possibly more than once.
+     */
+    Runnable propagateContext(Runnable work);
+
     /**
      * Push a 'system-only' context used for private rendering.
      *
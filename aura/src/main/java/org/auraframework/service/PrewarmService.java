@@ -0,0 +1,47 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.service;
+
+/**
+ * Compiles and serializes apps before the first request for them arrives.
+ * <p>
+ * The apps, modes and client types to warm are configured with system properties:
+ * <ul>
+ * <li>aura.prewarm.apps: comma separated app descriptors (e.g. "ui:examples"), or "*" for every app found</li>
+ * <li>aura.prewarm.modes: comma separated modes, default PROD</li>
+ * <li>aura.prewarm.clients: comma separated client types, default WEBKIT,FIREFOX,IE11</li>
+ * <li>aura.prewarm.threads: how many apps are warmed at once, default 2</li>
+ * </ul>
+ * Nothing is warmed unless aura.prewarm.apps is set.
+ */
+public interface PrewarmService extends AuraService {
+    /**
+     * Start warming in the background.
+     * <p>
+     * This is done once the application context is started, calling it again has no effect.
+     */
+    void start();
+
+    /**
+     * Is warming done?
+     * <p>
+     * This is for readiness checks, so it says that warming is over, not that it went well. Unknown modes, client
+     * types and app names in the configuration are logged and skipped, and so are the apps that fail to warm.
+     *
+     * @return true once warming has finished, or if there is nothing to warm.
+     */
+    boolean isWarm();
+}
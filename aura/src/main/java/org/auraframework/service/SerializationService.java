@@ -16,6 +16,7 @@
 package org.auraframework.service;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.Reader;
 import java.util.Collection;
@@ -58,6 +59,16 @@ public interface SerializationService extends AuraService {
      */
     <T> T read(Reader in, Class<T> type, String format) throws IOException, QuickFixException;
 
+    /**
+     * Deserialize a value from the named binary format
+     * 
+     * @param type The class of the type of value to return as retrieved from
+     *            {@link DefType#getPrimaryInterface()}
+     * @throws IOException
+     * @throws QuickFixException
+     */
+    <T> T readBinary(InputStream in, Class<T> type, String format) throws IOException, QuickFixException;
+
     /**
      * Deserialize a Collection of values from the format of the current
      * {@link AuraContext}
@@ -16,6 +16,7 @@
 package org.auraframework.service;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Writer;
 import java.util.Map;
 import java.util.Set;
@@ -59,6 +60,22 @@ public interface ServerService extends AuraService {
     void run(Message message, AuraContext context, Writer out, Map<?, ?> extras)
             throws QuickFixException, IOException;
 
+    /**
+     * Run a set of actions and write out the results in the binary wire format.
+     * 
+     * This is the same as {@link #run(Message, AuraContext, Writer, Map)}, but for clients that asked for
+     * {@link org.auraframework.util.json.BinaryJsonEncoder#MIME_TYPE}.
+     * 
+     * @param message non-null, The message containing the actions.
+     * @param context non-null, the context to use.
+     * @param out non-null, where to write the output.
+     * @param extras (can be null) the extras to write.
+     * @throws QuickFixException if there was a problem instantiating components.
+     * @throws IOException if it is unable to write the output.
+     */
+    void runBinary(Message message, AuraContext context, OutputStream out, Map<?, ?> extras)
+            throws QuickFixException, IOException;
+
     /**
      * write out CSS.
      * 
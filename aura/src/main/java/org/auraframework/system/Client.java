@@ -15,8 +15,21 @@
  */
 package org.auraframework.system;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
 public class Client {
 
+    /** Number of distinct user agent strings whose type is remembered, the type is looked up on every request. */
+    private static final int TYPE_CACHE_SIZE = 4096;
+
+    /** User agents longer than this are classified but never cached. */
+    private static final int MAX_CACHED_USER_AGENT_LENGTH = 1024;
+
+    private static final Cache<String, Type> typeCache = CacheBuilder.newBuilder()
+            .maximumSize(TYPE_CACHE_SIZE)
+            .build();
+
     public static final Client OTHER = new Client();
 
     private final String userAgent;
@@ -36,33 +49,43 @@ public class Client {
         userAgent = ua;
         if (ua == null) {
             type = Type.OTHER;
-            return;
+        } else if (ua.length() > MAX_CACHED_USER_AGENT_LENGTH) {
+            type = parseType(ua);
+        } else {
+            Type cached = typeCache.getIfPresent(ua);
+            if (cached == null) {
+                cached = parseType(ua);
+                typeCache.put(ua, cached);
+            }
+            type = cached;
         }
+    }
 
+    private static Type parseType(String ua) {
         ua = ua.trim().toLowerCase();
         if ((ua.contains("chrome") || ua.contains("safari") || 
                 (ua.contains("applewebkit") && (ua.contains("iphone") || ua.contains("ipad")))) // ios UIWebView
                 && !ua.contains("trident") && !ua.contains("edge") // IE impersonates
         ) {
-            type = Type.WEBKIT;
+            return Type.WEBKIT;
         } else if (ua.contains("firefox")) {
-            type = Type.FIREFOX;
+            return Type.FIREFOX;
         } else if (ua.contains("msie 10")) {
-            type = Type.IE10;
+            return Type.IE10;
         } else if (ua.contains("msie 9")) {
-            type = Type.IE9;
+            return Type.IE9;
         } else if (ua.contains("msie 8")) {
-            type = Type.IE8;
+            return Type.IE8;
         } else if (ua.contains("msie 7")) {
-            type = Type.IE7;
+            return Type.IE7;
         } else if (ua.contains("msie 6")) {
-            type = Type.IE6;
+            return Type.IE6;
         } else if (ua.contains("trident/7.0")) {
-            type = Type.IE11;
+            return Type.IE11;
         } else if (ua.contains("edge/12")) {
-            type = Type.IE12;
+            return Type.IE12;
         } else {
-            type = Type.OTHER;
+            return Type.OTHER;
         }
     }
 
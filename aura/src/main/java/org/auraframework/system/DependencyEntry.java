@@ -43,7 +43,7 @@ public class DependencyEntry {
     public DependencyEntry(String uid, Set<DefDescriptor<? extends Definition>> dependencies,
                            List<ClientLibraryDef> clientLibraries) {
         this.uid = uid;
-        this.dependencies = dependencies;
+        this.dependencies = DependencySet.copyOf(dependencies);
         this.clientLibraries = Collections.unmodifiableList(clientLibraries);
         this.qfe = null;
     }
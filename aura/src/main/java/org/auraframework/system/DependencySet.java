@@ -0,0 +1,227 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.system;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.auraframework.def.DefDescriptor;
+
+import com.google.common.collect.Iterators;
+
+/**
+ * An immutable set of descriptors that keeps the order in which they were added, for the dependencies of a
+ * definition.
+ *
+ * Every descriptor that goes into one of these sets is given a small id the first time it is seen. The set keeps
+ * the descriptors and their ids in order, plus the ids for lookups, either as a bitmap when they are dense enough or
+ * as a sorted array when they are not, so a small set never costs more than its own size. Iteration is in the order
+ * given, so the level sorting of css and libraries is kept, while membership, containment and unions only look at
+ * ids, and never hash or compare descriptors against each other.
+ *
+ * Ids come from a table that lives only as long as the dependency cache, {@link #resetIds()} is called whenever that
+ * cache is cleared, so descriptors that are gone are not held on to. Sets made before a reset keep working with the
+ * table they were made with, operations that mix sets from different tables simply compare the descriptors.
+ *
+ * This is also far smaller than a LinkedHashSet, which matters as there is one of these for every app and
+ * component in the dependency cache.
+ */
+public final class DependencySet extends AbstractSet<DefDescriptor<?>> {
+    private static volatile Ids currentIds = new Ids();
+
+    private static final DependencySet EMPTY = new DependencySet(null, new DefDescriptor<?>[0], new int[0],
+            new int[0], null);
+
+    private final Ids table;
+    private final DefDescriptor<?>[] descriptors;
+    private final int[] descriptorIds;
+
+    /**
+     * The ids, only one of these is set.
+     */
+    private final int[] sortedIds;
+    private final BitSet bits;
+
+    private DependencySet(Ids table, DefDescriptor<?>[] descriptors, int[] descriptorIds, int[] sortedIds,
+            BitSet bits) {
+        this.table = table;
+        this.descriptors = descriptors;
+        this.descriptorIds = descriptorIds;
+        this.sortedIds = sortedIds;
+        this.bits = bits;
+    }
+
+    public static DependencySet of() {
+        return EMPTY;
+    }
+
+    /**
+     * Make a set with the descriptors in the order given, dropping duplicates.
+     */
+    public static DependencySet copyOf(Collection<? extends DefDescriptor<?>> descriptors) {
+        if (descriptors instanceof DependencySet) {
+            return (DependencySet) descriptors;
+        }
+        return builder().addAll(descriptors).build();
+    }
+
+    public static Builder builder() {
+        return new Builder(currentIds);
+    }
+
+    /**
+     * Forget all of the ids given out so far.
+     *
+     * This is called when the dependency cache is cleared, sets made after this get ids from a new table.
+     */
+    public static void resetIds() {
+        currentIds = new Ids();
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if (!(o instanceof DefDescriptor) || table == null) {
+            return false;
+        }
+        Integer id = table.ids.get(o);
+        return id != null && containsId(id);
+    }
+
+    @Override
+    public boolean containsAll(Collection<?> c) {
+        if (c instanceof DependencySet && ((DependencySet) c).table == table) {
+            for (int id : ((DependencySet) c).descriptorIds) {
+                if (!containsId(id)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return super.containsAll(c);
+    }
+
+    @Override
+    public Iterator<DefDescriptor<?>> iterator() {
+        return Iterators.forArray(descriptors);
+    }
+
+    @Override
+    public int size() {
+        return descriptors.length;
+    }
+
+    private boolean containsId(int id) {
+        if (bits != null) {
+            return bits.get(id);
+        }
+        return Arrays.binarySearch(sortedIds, id) >= 0;
+    }
+
+    /**
+     * The ids given to descriptors.
+     */
+    private static final class Ids {
+        private final ConcurrentMap<DefDescriptor<?>, Integer> ids = new ConcurrentHashMap<>();
+        private final AtomicInteger nextId = new AtomicInteger();
+
+        private int getId(DefDescriptor<?> descriptor) {
+            Integer id = ids.get(descriptor);
+            if (id == null) {
+                Integer created = nextId.getAndIncrement();
+                id = ids.putIfAbsent(descriptor, created);
+                if (id == null) {
+                    id = created;
+                }
+            }
+            return id;
+        }
+    }
+
+    /**
+     * Builds a {@link DependencySet}, keeping the first position of each descriptor.
+     *
+     * Adding another DependencySet is a union over its ids, which is how sets of loaded descriptors are merged.
+     */
+    public static final class Builder {
+        private final Ids table;
+        private DefDescriptor<?>[] descriptors = new DefDescriptor<?>[16];
+        private int[] descriptorIds = new int[16];
+        private int size = 0;
+        private final BitSet bits = new BitSet();
+
+        private Builder(Ids table) {
+            this.table = table;
+        }
+
+        public Builder add(DefDescriptor<?> descriptor) {
+            add(descriptor, table.getId(descriptor));
+            return this;
+        }
+
+        public Builder addAll(Collection<? extends DefDescriptor<?>> added) {
+            if (added instanceof DependencySet && ((DependencySet) added).table == table) {
+                DependencySet set = (DependencySet) added;
+                for (int i = 0; i < set.descriptors.length; i++) {
+                    add(set.descriptors[i], set.descriptorIds[i]);
+                }
+            } else {
+                for (DefDescriptor<?> descriptor : added) {
+                    add(descriptor);
+                }
+            }
+            return this;
+        }
+
+        public boolean contains(DefDescriptor<?> descriptor) {
+            Integer id = table.ids.get(descriptor);
+            return id != null && bits.get(id);
+        }
+
+        public DependencySet build() {
+            if (size == 0) {
+                return EMPTY;
+            }
+            int[] ids = Arrays.copyOf(descriptorIds, size);
+            // a bitmap takes a bit per id up to the largest, an array 32 bits per id in the set, use the smaller one.
+            if (bits.length() <= size * 32) {
+                return new DependencySet(table, Arrays.copyOf(descriptors, size), ids, null, (BitSet) bits.clone());
+            }
+            int[] sortedIds = ids.clone();
+            Arrays.sort(sortedIds);
+            return new DependencySet(table, Arrays.copyOf(descriptors, size), ids, sortedIds, null);
+        }
+
+        private void add(DefDescriptor<?> descriptor, int id) {
+            if (bits.get(id)) {
+                return;
+            }
+            if (size == descriptors.length) {
+                descriptors = Arrays.copyOf(descriptors, size * 2);
+                descriptorIds = Arrays.copyOf(descriptorIds, size * 2);
+            }
+            bits.set(id);
+            descriptors[size] = descriptor;
+            descriptorIds[size] = id;
+            size++;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.system;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.auraframework.def.DefDescriptor;
+import org.auraframework.def.DefDescriptor.DefType;
+import org.auraframework.def.DescriptorFilter;
+import org.auraframework.util.text.GlobMatcher;
+
+/**
+ * An in memory index of the descriptors in a registry, for wildcard finds.
+ *
+ * Descriptors are kept by prefix, then namespace, then name (all lower case, as descriptors match without case),
+ * then def type. A find only walks the levels where its filter has a wildcard, and looks up the others directly, so
+ * '*' namespaces and names no longer mean a scan of the registry or a trip to its source loader.
+ *
+ * This is not thread safe on its own. It is only changed while holding the caching service write lock, and read
+ * under the read lock.
+ */
+public class DescriptorIndex {
+    private final Map<String, Map<String, Map<String, Map<DefType, DefDescriptor<?>>>>> index = new HashMap<>();
+    private final Set<String> prefixes;
+    private final Set<DefType> defTypes;
+
+    /**
+     * Build an index.
+     *
+     * @param descriptors all of the descriptors in the registry.
+     * @param prefixes the prefixes that the registry serves.
+     * @param defTypes the types that the registry serves.
+     */
+    public DescriptorIndex(Collection<DefDescriptor<?>> descriptors, Set<String> prefixes, Set<DefType> defTypes) {
+        this.prefixes = prefixes;
+        this.defTypes = defTypes;
+        for (DefDescriptor<?> descriptor : descriptors) {
+            add(descriptor);
+        }
+    }
+
+    /**
+     * Add the descriptors matching a filter to a set.
+     */
+    public void find(DescriptorFilter matcher, Set<DefDescriptor<?>> matched) {
+        for (Map<String, Map<String, Map<DefType, DefDescriptor<?>>>> namespaces : select(index,
+                matcher.getPrefixMatch())) {
+            for (Map<String, Map<DefType, DefDescriptor<?>>> names : select(namespaces,
+                    matcher.getNamespaceMatch())) {
+                for (Map<DefType, DefDescriptor<?>> types : select(names, matcher.getNameMatch())) {
+                    if (matcher.getDefTypes() == null) {
+                        matched.addAll(types.values());
+                    } else {
+                        for (DefType type : matcher.getDefTypes()) {
+                            DefDescriptor<?> descriptor = types.get(type);
+                            if (descriptor != null) {
+                                matched.add(descriptor);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Could the registry for this index serve a descriptor, ignoring namespaces, which come and go.
+     */
+    public boolean covers(DefDescriptor<?> descriptor) {
+        if (!defTypes.contains(descriptor.getDefType())) {
+            return false;
+        }
+        for (String prefix : prefixes) {
+            if ("*".equals(prefix) || prefix.equalsIgnoreCase(descriptor.getPrefix())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void remove(DefDescriptor<?> descriptor) {
+        Map<String, Map<String, Map<DefType, DefDescriptor<?>>>> namespaces = index.get(key(descriptor.getPrefix()));
+        if (namespaces == null) {
+            return;
+        }
+        Map<String, Map<DefType, DefDescriptor<?>>> names = namespaces.get(key(descriptor.getNamespace()));
+        if (names == null) {
+            return;
+        }
+        Map<DefType, DefDescriptor<?>> types = names.get(key(descriptor.getName()));
+        if (types == null) {
+            return;
+        }
+        types.remove(descriptor.getDefType());
+        if (types.isEmpty()) {
+            names.remove(key(descriptor.getName()));
+        }
+    }
+
+    private void add(DefDescriptor<?> descriptor) {
+        Map<String, Map<String, Map<DefType, DefDescriptor<?>>>> namespaces = index.get(key(descriptor.getPrefix()));
+        if (namespaces == null) {
+            namespaces = new HashMap<>();
+            index.put(key(descriptor.getPrefix()), namespaces);
+        }
+        Map<String, Map<DefType, DefDescriptor<?>>> names = namespaces.get(key(descriptor.getNamespace()));
+        if (names == null) {
+            names = new HashMap<>();
+            namespaces.put(key(descriptor.getNamespace()), names);
+        }
+        Map<DefType, DefDescriptor<?>> types = names.get(key(descriptor.getName()));
+        if (types == null) {
+            types = new EnumMap<>(DefType.class);
+            names.put(key(descriptor.getName()), types);
+        }
+        types.put(descriptor.getDefType(), descriptor);
+    }
+
+    /**
+     * Pick out the entries of one level of the index that match a glob.
+     */
+    private static <V> Collection<V> select(Map<String, V> level, GlobMatcher matcher) {
+        if (matcher.isAll()) {
+            return level.values();
+        }
+        if (matcher.isConstant()) {
+            V value = level.get(key(matcher.toString()));
+            return value != null ? Collections.singletonList(value) : Collections.<V> emptyList();
+        }
+        Collection<V> selected = new ArrayList<>();
+        for (Map.Entry<String, V> entry : level.entrySet()) {
+            if (matcher.match(entry.getKey())) {
+                selected.add(entry.getValue());
+            }
+        }
+        return selected;
+    }
+
+    private static String key(String part) {
+        return part == null ? "" : part.toLowerCase();
+    }
+}
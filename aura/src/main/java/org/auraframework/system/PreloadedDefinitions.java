@@ -0,0 +1,58 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.system;
+
+import java.util.Set;
+
+import org.auraframework.def.DefDescriptor;
+
+/**
+ * The definitions a client already has, worked out from the descriptors and uids that it says are loaded.
+ *
+ * Clients in the same state send the same loaded descriptors and uids, so this is computed once for that state and
+ * shared by all of their requests.
+ *
+ * all values are final, and unmodifiable.
+ */
+public class PreloadedDefinitions {
+    /**
+     * The union of the dependencies of all of the loaded descriptors.
+     */
+    public final Set<DefDescriptor<?>> definitions;
+
+    /**
+     * Loaded descriptors that were already included by one that came before them. These are dropped without being
+     * checked.
+     */
+    public final Set<DefDescriptor<?>> covered;
+
+    /**
+     * Loaded descriptors that are included by one that came after them. These are checked, then dropped.
+     */
+    public final Set<DefDescriptor<?>> redundant;
+
+    public PreloadedDefinitions(Set<DefDescriptor<?>> definitions, Set<DefDescriptor<?>> covered,
+                                Set<DefDescriptor<?>> redundant) {
+        this.definitions = definitions;
+        this.covered = covered;
+        this.redundant = redundant;
+    }
+
+    @Override
+    public String toString() {
+        return definitions.size() + " definitions, dropping " + covered + " and " + redundant;
+    }
+}
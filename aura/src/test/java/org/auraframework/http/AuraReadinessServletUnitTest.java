@@ -0,0 +1,54 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.http;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.auraframework.service.PrewarmService;
+import org.auraframework.util.test.util.UnitTestCase;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class AuraReadinessServletUnitTest extends UnitTestCase {
+    @Test
+    public void testWarming() throws Exception {
+        verifyStatus(false, HttpServletResponse.SC_SERVICE_UNAVAILABLE, "warming");
+    }
+
+    @Test
+    public void testReady() throws Exception {
+        verifyStatus(true, HttpServletResponse.SC_OK, "ready");
+    }
+
+    private void verifyStatus(boolean warm, int status, String body) throws Exception {
+        PrewarmService prewarmService = Mockito.mock(PrewarmService.class);
+        Mockito.when(prewarmService.isWarm()).thenReturn(warm);
+        HttpServletResponse response = Mockito.mock(HttpServletResponse.class);
+        StringWriter out = new StringWriter();
+        Mockito.when(response.getWriter()).thenReturn(new PrintWriter(out));
+
+        AuraReadinessServlet servlet = new AuraReadinessServlet();
+        servlet.setPrewarmService(prewarmService);
+        servlet.doGet(Mockito.mock(HttpServletRequest.class), response);
+
+        Mockito.verify(response).setStatus(status);
+        assertEquals(body, out.toString());
+    }
+}
@@ -0,0 +1,431 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.http;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.ServletConfig;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.http.HttpHeaders;
+import org.auraframework.adapter.ConfigAdapter;
+import org.auraframework.adapter.ServletUtilAdapter;
+import org.auraframework.def.ActionDef;
+import org.auraframework.def.DefDescriptor;
+import org.auraframework.instance.Action;
+import org.auraframework.service.ContextService;
+import org.auraframework.service.DefinitionService;
+import org.auraframework.service.LoggingService;
+import org.auraframework.service.SerializationService;
+import org.auraframework.service.ServerService;
+import org.auraframework.system.AuraContext;
+import org.auraframework.system.AuraContext.Format;
+import org.auraframework.system.Message;
+import org.auraframework.throwable.AuraRuntimeException;
+import org.auraframework.throwable.SystemErrorException;
+import org.auraframework.util.json.BinaryJsonEncoder;
+import org.auraframework.util.json.DefaultJsonSerializationContext;
+import org.auraframework.util.json.Json;
+import org.auraframework.util.json.JsonEncoder;
+import org.auraframework.util.json.JsonStreamReader.JsonParseException;
+import org.auraframework.util.test.util.UnitTestCase;
+import org.junit.Test;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletConfig;
+
+import com.google.common.util.concurrent.MoreExecutors;
+
+/**
+ * Action POSTs, with the services mocked out.
+ */
+public class AuraServletUnitTest extends UnitTestCase {
+    private static final String JSON_TYPE = "application/json";
+
+    /**
+     * Whether the current thread has a context, which the container threads that call async listeners do not.
+     */
+    private static final ThreadLocal<Boolean> established = new ThreadLocal<>();
+
+    private ContextService contextService;
+    private ServletUtilAdapter servletUtilAdapter;
+    private SerializationService serializationService;
+    private ServerService serverService;
+    private LoggingService loggingService;
+    private ConfigAdapter configAdapter;
+    private AuraContext context;
+    private AuraServlet servlet;
+
+    /**
+     * Runs the actions of POSTs on the given executor, allowing one at a time.
+     */
+    private static class AsyncAuraServlet extends AuraServlet {
+        private static final long serialVersionUID = 1L;
+        private final transient ExecutorService executor;
+
+        private AsyncAuraServlet(ExecutorService executor) {
+            this.executor = executor;
+        }
+
+        @Override
+        public void processInjection(ServletConfig config) {
+        }
+
+        @Override
+        protected ExecutorService createAsyncExecutor() {
+            return executor;
+        }
+
+        @Override
+        protected int getAsyncMaxPerApp() {
+            return 1;
+        }
+    }
+
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        contextService = Mockito.mock(ContextService.class);
+        servletUtilAdapter = Mockito.mock(ServletUtilAdapter.class);
+        serializationService = Mockito.mock(SerializationService.class);
+        serverService = Mockito.mock(ServerService.class);
+        loggingService = Mockito.mock(LoggingService.class);
+        configAdapter = Mockito.mock(ConfigAdapter.class);
+        context = Mockito.mock(AuraContext.class);
+
+        Mockito.when(contextService.getCurrentContext()).thenReturn(context);
+        Mockito.when(context.getFormat()).thenReturn(Format.JSON);
+        Mockito.when(context.getFrameworkUID()).thenReturn("fwuid");
+        Mockito.when(configAdapter.getAuraFrameworkNonce()).thenReturn("fwuid");
+        Mockito.when(servletUtilAdapter.getContentType(Format.JSON)).thenReturn(JSON_TYPE);
+
+        // like the real one, this needs a context to propagate, and attaches it to the thread that runs the work.
+        Mockito.when(contextService.propagateContext(Matchers.any(Runnable.class))).thenAnswer(new Answer<Runnable>() {
+            @Override
+            public Runnable answer(InvocationOnMock invocation) {
+                assertEstablished();
+                final Runnable work = (Runnable) invocation.getArguments()[0];
+                return new Runnable() {
+                    @Override
+                    public void run() {
+                        Boolean previous = established.get();
+                        established.set(Boolean.TRUE);
+                        try {
+                            work.run();
+                        } finally {
+                            established.set(previous);
+                        }
+                    }
+                };
+            }
+        });
+        Mockito.doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) {
+                assertEstablished();
+                return null;
+            }
+        }).when(loggingService).flush();
+
+        servlet = setUp(new AuraServlet());
+    }
+
+    @Override
+    public void tearDown() throws Exception {
+        established.remove();
+        super.tearDown();
+    }
+
+    private static void assertEstablished() {
+        if (!Boolean.TRUE.equals(established.get())) {
+            throw new AuraRuntimeException("No context");
+        }
+    }
+
+    private AuraServlet setUp(AuraServlet auraServlet) {
+        auraServlet.setContextService(contextService);
+        auraServlet.setServletUtilAdapter(servletUtilAdapter);
+        auraServlet.setSerializationService(serializationService);
+        auraServlet.setServerService(serverService);
+        auraServlet.setConfigAdapter(configAdapter);
+        auraServlet.setDefinitionService(Mockito.mock(DefinitionService.class));
+        auraServlet.setLoggingService(loggingService);
+        return auraServlet;
+    }
+
+    private AuraServlet getAsyncServlet(ExecutorService executor) throws Exception {
+        AuraServlet asyncServlet = setUp(new AsyncAuraServlet(executor));
+        asyncServlet.init(new MockServletConfig());
+        return asyncServlet;
+    }
+
+    /**
+     * POST on a container thread, which has a context while the request goes through the filter.
+     */
+    private void post(AuraServlet auraServlet, MockHttpServletRequest request, MockHttpServletResponse response)
+            throws Exception {
+        established.set(Boolean.TRUE);
+        try {
+            auraServlet.doPost(request, response);
+        } finally {
+            established.remove();
+        }
+    }
+
+    private MockHttpServletRequest getAsyncRequest() {
+        MockHttpServletRequest request = getBinaryRequest();
+        request.setAsyncSupported(true);
+        return request;
+    }
+
+    /**
+     * An executor that never gets to the work, whose futures can be cancelled.
+     */
+    private static ExecutorService getQueueingExecutor() {
+        ExecutorService executor = Mockito.mock(ExecutorService.class);
+        Future<?> future = Mockito.mock(Future.class);
+        Mockito.when(future.cancel(false)).thenReturn(true);
+        Mockito.doReturn(future).when(executor).submit(Matchers.any(Runnable.class));
+        return executor;
+    }
+
+    private MockHttpServletRequest getBinaryRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/aura");
+        request.setContentType(BinaryJsonEncoder.MIME_TYPE);
+        request.addHeader(HttpHeaders.ACCEPT, BinaryJsonEncoder.MIME_TYPE);
+        request.addHeader(AuraServlet.TOKEN_HEADER, "token");
+        request.setContent(new byte[] { 'A', 'B', 1 });
+        return request;
+    }
+
+    /**
+     * Errors are written as JSON, so they must not go out under the binary type.
+     */
+    @Test
+    public void testBinaryParseErrorIsJson() throws Exception {
+        JsonParseException error = new JsonParseException("Invalid length -1");
+        Mockito.when(serializationService.readBinary(Matchers.any(InputStream.class), Matchers.eq(Message.class),
+                Matchers.anyString())).thenThrow(error);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        servlet.doPost(getBinaryRequest(), response);
+
+        assertEquals(JSON_TYPE, response.getContentType());
+        Mockito.verify(servletUtilAdapter).handleServletException(Matchers.any(SystemErrorException.class),
+                Matchers.eq(false), Matchers.same(context), Matchers.any(MockHttpServletRequest.class),
+                Matchers.same(response), Matchers.eq(false));
+        Mockito.verifyZeroInteractions(serverService);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testBinaryResponse() throws Exception {
+        Message message = new Message(Collections.<Action> emptyList());
+        Mockito.when(serializationService.readBinary(Matchers.any(InputStream.class), Matchers.eq(Message.class),
+                Matchers.anyString())).thenReturn(message);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        servlet.doPost(getBinaryRequest(), response);
+
+        assertEquals(BinaryJsonEncoder.MIME_TYPE, response.getContentType());
+        Mockito.verify(serverService).runBinary(Matchers.same(message), Matchers.same(context),
+                Matchers.any(OutputStream.class), (Map<String, Object>) Matchers.isNull());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testAsyncActionsComplete() throws Exception {
+        givenMessage();
+        Mockito.doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) throws Exception {
+                assertEstablished();
+                ((OutputStream) invocation.getArguments()[2]).write(new byte[] { 1, 2, 3 });
+                return null;
+            }
+        }).when(serverService).runBinary(Matchers.any(Message.class), Matchers.same(context),
+                Matchers.any(OutputStream.class), (Map<String, Object>) Matchers.isNull());
+        AuraServlet asyncServlet = getAsyncServlet(MoreExecutors.sameThreadExecutor());
+        MockHttpServletRequest request = getAsyncRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        post(asyncServlet, request, response);
+
+        assertFalse("Expected the request to be completed", request.isAsyncStarted());
+        assertEquals(BinaryJsonEncoder.MIME_TYPE, response.getContentType());
+        assertTrue(Arrays.equals(new byte[] { 1, 2, 3 }, response.getContentAsByteArray()));
+        Mockito.verify(loggingService).flush();
+
+        // the permit is back, so the next one is let in.
+        MockHttpServletRequest next = getAsyncRequest();
+        post(asyncServlet, next, new MockHttpServletResponse());
+        assertFalse(next.isAsyncStarted());
+        Mockito.verify(servletUtilAdapter, Mockito.never()).handleServletException(Matchers.any(Throwable.class),
+                Matchers.anyBoolean(), Matchers.any(AuraContext.class), Matchers.any(MockHttpServletRequest.class),
+                Matchers.any(MockHttpServletResponse.class), Matchers.anyBoolean());
+    }
+
+    @SuppressWarnings("unchecked")
+    private Action givenAction(final String id) {
+        DefDescriptor<ActionDef> descriptor = Mockito.mock(DefDescriptor.class);
+        Mockito.when(descriptor.getQualifiedName()).thenReturn("java://test.Controller/ACTION$run");
+        Action action = Mockito.mock(Action.class);
+        Mockito.when(action.getDescriptor()).thenReturn(descriptor);
+        Mockito.when(action.getId()).thenReturn(id);
+        try {
+            Mockito.doAnswer(new Answer<Void>() {
+                @Override
+                public Void answer(InvocationOnMock invocation) throws Exception {
+                    Json json = (Json) invocation.getArguments()[0];
+                    json.writeMapBegin();
+                    json.writeMapEntry("id", id);
+                    json.writeMapEntry("state", "SUCCESS");
+                    json.writeMapEnd();
+                    return null;
+                }
+            }).when(action).serialize(Matchers.any(Json.class));
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+        return action;
+    }
+
+    private void givenMessage(Action... actions) throws Exception {
+        Mockito.when(serializationService.readBinary(Matchers.any(InputStream.class), Matchers.eq(Message.class),
+                Matchers.anyString())).thenReturn(new Message(Arrays.asList(actions)));
+    }
+
+    /**
+     * Time out, on a container thread, with no context.
+     */
+    private static void timeOut(MockHttpServletRequest request) throws IOException {
+        Boolean previous = established.get();
+        established.remove();
+        try {
+            MockAsyncContext async = (MockAsyncContext) request.getAsyncContext();
+            for (AsyncListener listener : async.getListeners()) {
+                listener.onTimeout(new AsyncEvent(async));
+            }
+        } finally {
+            established.set(previous);
+        }
+    }
+
+    private static String timedOut(String id) {
+        return "{\"id\":\"" + id + "\",\"state\":\"ERROR\",\"returnValue\":null,"
+                + "\"error\":[{\"message\":\"Action did not complete within 120000ms\"}]}";
+    }
+
+    /**
+     * The container times out on a thread of its own, with no context. Each action is still answered with an error,
+     * the request completed, and the permit let go, as the actions never started.
+     */
+    @Test
+    public void testAsyncActionsTimeout() throws Exception {
+        givenMessage(givenAction("1"), givenAction("2"));
+        AuraServlet asyncServlet = getAsyncServlet(getQueueingExecutor());
+        MockHttpServletRequest request = getAsyncRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        post(asyncServlet, request, response);
+        assertTrue(request.isAsyncStarted());
+
+        timeOut(request);
+
+        assertFalse("Expected the request to be completed", request.isAsyncStarted());
+        assertEquals(JSON_TYPE, response.getContentType());
+        assertEquals("while(1);\n{\"actions\":[" + timedOut("1") + "," + timedOut("2") + "]}",
+                response.getContentAsString());
+        Mockito.verify(servletUtilAdapter, Mockito.never()).handleServletException(Matchers.any(Throwable.class),
+                Matchers.anyBoolean(), Matchers.any(AuraContext.class), Matchers.any(MockHttpServletRequest.class),
+                Matchers.any(MockHttpServletResponse.class), Matchers.anyBoolean());
+        Mockito.verify(loggingService).flush();
+        Mockito.verifyZeroInteractions(serverService);
+
+        // the permit is back, so the next one is let in.
+        MockHttpServletRequest next = getAsyncRequest();
+        post(asyncServlet, next, new MockHttpServletResponse());
+        assertTrue(next.isAsyncStarted());
+    }
+
+    /**
+     * The actions that were written before the timeout keep their answers, and what the actions write after it is
+     * dropped.
+     */
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testAsyncActionsTimeoutKeepsDone() throws Exception {
+        givenMessage(givenAction("1"), givenAction("2"));
+        final MockHttpServletRequest request = getAsyncRequest();
+        Mockito.doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) throws Exception {
+                Message message = (Message) invocation.getArguments()[0];
+                JsonEncoder.serialize(message.getActions().get(0), new StringBuilder(),
+                        new DefaultJsonSerializationContext(false, true, false));
+                timeOut(request);
+                ((OutputStream) invocation.getArguments()[2]).write(new byte[] { 1, 2, 3 });
+                return null;
+            }
+        }).when(serverService).runBinary(Matchers.any(Message.class), Matchers.same(context),
+                Matchers.any(OutputStream.class), (Map<String, Object>) Matchers.isNull());
+        AuraServlet asyncServlet = getAsyncServlet(MoreExecutors.sameThreadExecutor());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        post(asyncServlet, request, response);
+
+        assertFalse("Expected the request to be completed", request.isAsyncStarted());
+        assertEquals(JSON_TYPE, response.getContentType());
+        assertEquals("while(1);\n{\"actions\":[{\"id\":\"1\",\"state\":\"SUCCESS\"}," + timedOut("2") + "]}",
+                response.getContentAsString());
+        Mockito.verify(loggingService).flush();
+    }
+
+    /**
+     * A POST over the limit is turned away with a 503, so that the client can back off.
+     */
+    @Test
+    public void testAsyncActionsRefusedWhenFull() throws Exception {
+        givenMessage();
+        AuraServlet asyncServlet = getAsyncServlet(getQueueingExecutor());
+        post(asyncServlet, getAsyncRequest(), new MockHttpServletResponse());
+
+        MockHttpServletRequest refused = getAsyncRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        post(asyncServlet, refused, response);
+
+        assertFalse(refused.isAsyncStarted());
+        assertEquals(HttpServletResponse.SC_SERVICE_UNAVAILABLE, response.getStatus());
+        assertEquals("1", response.getHeader(HttpHeaders.RETRY_AFTER));
+        Mockito.verify(servletUtilAdapter, Mockito.never()).handleServletException(Matchers.any(Throwable.class),
+                Matchers.anyBoolean(), Matchers.any(AuraContext.class), Matchers.any(MockHttpServletRequest.class),
+                Matchers.any(MockHttpServletResponse.class), Matchers.anyBoolean());
+        Mockito.verifyZeroInteractions(serverService);
+    }
+}
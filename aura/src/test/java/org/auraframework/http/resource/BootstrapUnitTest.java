@@ -15,18 +15,35 @@
  */
 package org.auraframework.http.resource;
 
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
+import org.auraframework.adapter.ConfigAdapter;
 import org.auraframework.adapter.ServletUtilAdapter;
+import org.auraframework.cache.Cache;
 import org.auraframework.def.ApplicationDef;
 import org.auraframework.def.DefDescriptor;
 import org.auraframework.def.DefDescriptor.DefType;
+import org.auraframework.service.CachingService;
+import org.auraframework.service.ContextService;
 import org.auraframework.service.DefinitionService;
+import org.auraframework.service.InstanceService;
+import org.auraframework.system.AuraContext;
 import org.auraframework.system.AuraContext.Format;
+import org.auraframework.system.AuraContext.Mode;
+import org.auraframework.system.Client;
 import org.auraframework.util.test.util.UnitTestCase;
 import org.junit.Test;
 import org.mockito.Mockito;
 
+import com.google.common.collect.ImmutableMap;
+
 public class BootstrapUnitTest extends UnitTestCase {
     @Test
     public void testName() {
@@ -86,4 +103,122 @@ public class BootstrapUnitTest extends UnitTestCase {
         }
         Mockito.verifyNoMoreInteractions(servletUtilAdapter);
     }
+
+    @Test
+    public void testBootstrapCacheKeyIgnoresJwt() throws Exception {
+        Bootstrap bootstrap = new Bootstrap();
+        bootstrap.setDefinitionService(Mockito.mock(DefinitionService.class));
+        DefDescriptor<ApplicationDef> appDesc = mockAppDescriptor();
+        AuraContext context = mockContext();
+
+        String key = bootstrap.getBootstrapCacheKey(appDesc, ImmutableMap.<String, Object> of("jwt", "a"), "p",
+                context);
+        assertEquals(key, bootstrap.getBootstrapCacheKey(appDesc, ImmutableMap.<String, Object> of("jwt", "b"), "p",
+                context));
+        assertEquals(key, bootstrap.getBootstrapCacheKey(appDesc, null, "p", context));
+    }
+
+    @Test
+    public void testBootstrapCacheKeyVariesWithRequest() throws Exception {
+        Bootstrap bootstrap = new Bootstrap();
+        bootstrap.setDefinitionService(Mockito.mock(DefinitionService.class));
+        DefDescriptor<ApplicationDef> appDesc = mockAppDescriptor();
+        AuraContext context = mockContext();
+        Map<String, Object> attributes = ImmutableMap.<String, Object> of("a", "1");
+
+        String key = bootstrap.getBootstrapCacheKey(appDesc, attributes, "p", context);
+        assertFalse(key.equals(bootstrap.getBootstrapCacheKey(appDesc, attributes, "q", context)));
+        assertFalse(key.equals(bootstrap.getBootstrapCacheKey(appDesc,
+                ImmutableMap.<String, Object> of("a", "2"), "p", context)));
+        Mockito.when(context.getRequestedLocales()).thenReturn(Collections.singletonList(Locale.FRENCH));
+        assertFalse(key.equals(bootstrap.getBootstrapCacheKey(appDesc, attributes, "p", context)));
+    }
+
+    /**
+     * The client sends its own values for the context globals, so they have to be part of the key.
+     */
+    @Test
+    public void testBootstrapCacheKeyVariesWithGlobals() throws Exception {
+        Bootstrap bootstrap = new Bootstrap();
+        bootstrap.setDefinitionService(Mockito.mock(DefinitionService.class));
+        DefDescriptor<ApplicationDef> appDesc = mockAppDescriptor();
+        AuraContext context = mockContext();
+
+        String key = bootstrap.getBootstrapCacheKey(appDesc, null, "p", context);
+        AuraContext.GlobalValue global = new AuraContext.GlobalValue(true, "default");
+        Mockito.when(context.getGlobals()).thenReturn(ImmutableMap.of("isVoiceOver", global));
+        String withDefault = bootstrap.getBootstrapCacheKey(appDesc, null, "p", context);
+        assertFalse(key.equals(withDefault));
+        global.setValue("client");
+        assertFalse(withDefault.equals(bootstrap.getBootstrapCacheKey(appDesc, null, "p", context)));
+    }
+
+    /**
+     * A cached bootstrap.js is written out as is, without instantiating the app, but the context still ends up
+     * the way building it would have left it.
+     */
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testWriteCachedBootstrap() throws Exception {
+        DefDescriptor<ApplicationDef> appDesc = mockAppDescriptor();
+        AuraContext context = mockContext();
+        Mockito.<DefDescriptor<?>> when(context.getApplicationDescriptor()).thenReturn(appDesc);
+        DefinitionService definitionService = Mockito.mock(DefinitionService.class);
+        Mockito.when(definitionService.getDefinition(appDesc)).thenReturn(Mockito.mock(ApplicationDef.class));
+        Mockito.<DefDescriptor<?>> when(definitionService.getDefDescriptor("test:app", ApplicationDef.class))
+                .thenReturn(appDesc);
+        ConfigAdapter configAdapter = Mockito.mock(ConfigAdapter.class);
+        Mockito.when(configAdapter.validateBootstrap(Mockito.anyString())).thenReturn(true);
+        Mockito.when(configAdapter.getBootstrapCachePartition(Mockito.eq("markup://test:app"),
+                Mockito.any(HttpServletRequest.class))).thenReturn("p");
+        Cache<String, byte[]> cache = Mockito.mock(Cache.class);
+        byte[] payload = "cached".getBytes();
+        Mockito.when(cache.get(Mockito.anyString(), Mockito.any(Callable.class))).thenReturn(payload);
+        CachingService cachingService = Mockito.mock(CachingService.class);
+        Mockito.when(cachingService.getBootstrapCache()).thenReturn(cache);
+        InstanceService instanceService = Mockito.mock(InstanceService.class);
+        HttpServletRequest request = Mockito.mock(HttpServletRequest.class);
+        Mockito.when(request.getParameter("jwt")).thenReturn("jwt");
+        Mockito.when(request.getParameterNames()).thenReturn(Collections.enumeration(Collections.<String> emptyList()));
+        HttpServletResponse response = Mockito.mock(HttpServletResponse.class);
+        ServletOutputStream out = Mockito.mock(ServletOutputStream.class);
+        Mockito.when(response.getOutputStream()).thenReturn(out);
+
+        Bootstrap bootstrap = new Bootstrap();
+        bootstrap.setDefinitionService(definitionService);
+        bootstrap.setServletUtilAdapter(Mockito.mock(ServletUtilAdapter.class));
+        bootstrap.setConfigAdapter(configAdapter);
+        bootstrap.setCachingService(cachingService);
+        bootstrap.setInstanceService(instanceService);
+        ContextService contextService = Mockito.mock(ContextService.class);
+        Mockito.when(contextService.getCurrentContext()).thenReturn(context);
+        bootstrap.setContextService(contextService);
+        bootstrap.write(request, response, context);
+
+        Mockito.verify(definitionService).updateLoaded(appDesc);
+        Mockito.verify(context).filterLocalDefs(null);
+        Mockito.verify(out).write(payload);
+        Mockito.verify(response).setContentLength(payload.length);
+        Mockito.verify(response, Mockito.never()).getWriter();
+        Mockito.verifyZeroInteractions(instanceService);
+    }
+
+    @SuppressWarnings("unchecked")
+    private DefDescriptor<ApplicationDef> mockAppDescriptor() {
+        DefDescriptor<ApplicationDef> appDesc = Mockito.mock(DefDescriptor.class);
+        Mockito.when(appDesc.getDefType()).thenReturn(DefType.APPLICATION);
+        Mockito.when(appDesc.getDescriptorName()).thenReturn("test:app");
+        Mockito.when(appDesc.getQualifiedName()).thenReturn("markup://test:app");
+        return appDesc;
+    }
+
+    private AuraContext mockContext() {
+        AuraContext context = Mockito.mock(AuraContext.class);
+        Mockito.when(context.getMode()).thenReturn(Mode.PROD);
+        Mockito.when(context.getFrameworkUID()).thenReturn("fwuid");
+        Mockito.when(context.getRequestedLocales()).thenReturn(Collections.singletonList(Locale.ENGLISH));
+        Mockito.when(context.getClient()).thenReturn(Client.OTHER);
+        Mockito.when(context.getClientLoaded()).thenReturn(Collections.<DefDescriptor<?>, String> emptyMap());
+        return context;
+    }
 }